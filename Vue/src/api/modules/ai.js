@@ -1,6 +1,7 @@
 // File path: /Vue/src/api/modules/ai.js
 
 import axiosInstance from '../axiosInstance';
+import { useAuthStore } from '@/stores/authStore';
 
 /**
  * AI 服务 API
@@ -57,6 +58,66 @@ export const chat = (payload) => {
   return axiosInstance.post('/api/ai/chat', payload);
 };
 
+/**
+ * 流式 AI 聊天接口（SSE），逐段回调生成的内容
+ * 使用 fetch 读取响应流：EventSource 不支持 POST 和自定义请求头
+ * @param {object} payload - 请求数据，同 chat
+ * @param {object} handlers - 回调
+ * @param {function} [handlers.onToken] - 收到增量内容 (content)
+ * @param {function} [handlers.onDone] - 生成结束 (info: finishReason, tokens, firstTokenMs, durationMs)
+ * @param {function} [handlers.onError] - 出错 (message)
+ * @param {AbortSignal} [handlers.signal] - 用于取消请求，取消后服务端会停止生成
+ */
+export const chatStream = async (payload, { onToken, onDone, onError, signal } = {}) => {
+  const baseURL = axiosInstance.defaults.baseURL || '/';
+  let token;
+  try {
+    token = useAuthStore().accessToken;
+  } catch (error) {
+    token = localStorage.getItem('jwt_token');
+  }
+  const response = await fetch(`${baseURL.replace(/\/$/, '')}/api/ai/chat/stream`, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json',
+      Accept: 'text/event-stream',
+      ...(token ? { Authorization: `Bearer ${token}` } : {})
+    },
+    body: JSON.stringify({ ...payload, stream: true }),
+    signal
+  });
+  if (!response.ok || !response.body) {
+    onError?.(`请求失败: HTTP ${response.status}`);
+    return;
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buffer += decoder.decode(value, { stream: true });
+    // 事件之间以空行分隔
+    let boundary;
+    while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+      const rawEvent = buffer.slice(0, boundary);
+      buffer = buffer.slice(boundary + 2);
+      let event = 'message';
+      let data = '';
+      for (const line of rawEvent.split('\n')) {
+        if (line.startsWith('event:')) event = line.slice(6).trim();
+        else if (line.startsWith('data:')) data += line.slice(5);
+      }
+      if (!data) continue;
+      const parsed = JSON.parse(data);
+      if (event === 'token') onToken?.(parsed.content);
+      else if (event === 'done') onDone?.(parsed);
+      else if (event === 'error') onError?.(parsed.message);
+    }
+  }
+};
+
 /**
  * 文本润色接口
  * @param {object} payload - 请求数据
@@ -187,6 +248,7 @@ export default {
 
   // 文本处理
   chat,
+  chatStream,
   refineText,
   translateText,
   proofreadText,
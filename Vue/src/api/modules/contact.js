@@ -34,6 +34,17 @@ export default {
     return axiosInstance.get('/api/contacts/requests');
   },
 
+  /**
+   * 批量获取与一页用户的关系状态
+   * GET /api/contacts/relationships
+   * @param {Array<Number>} userIds - 目标用户ID列表（单次最多200个）
+   */
+  getRelationshipStatuses(userIds) {
+    return axiosInstance.get('/api/contacts/relationships', {
+      params: { userIds: userIds.join(',') }
+    });
+  },
+
   /**
    * 通过用户名发送好友申请
    * POST /api/contacts/request/by-username
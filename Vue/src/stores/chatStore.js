@@ -1,6 +1,7 @@
 // File path: /Vue/src/stores/chatStore.js
 import { defineStore } from 'pinia';
 import { useAuthStore } from './authStore';
+import { useNotificationStore } from './notificationStore';
 import api from '@/api';
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
@@ -194,6 +195,9 @@ export const useChatStore = defineStore('chat', {
             // Subscribe to user-specific queues
             this.subscribeToQueues();
 
+            // 连接（或重连）后校准一次未读角标，断线期间错过的推送以此补齐
+            useNotificationStore().fetchUnreadCount();
+
             // Start heartbeat
             this.startHeartbeat();
 
@@ -376,6 +380,16 @@ export const useChatStore = defineStore('chat', {
           }
         });
 
+        // ✅ 订阅通知角标（未读数、总数），替代轮询
+        this.stompClient.subscribe(`/user/${username}/queue/notification-badge`, (message) => {
+          try {
+            const data = JSON.parse(message.body);
+            useNotificationStore().applyBadge(data);
+          } catch (error) {
+            console.error('❌ 处理通知角标失败:', error, message.body);
+          }
+        });
+
         // Subscribe to error messages
         this.stompClient.subscribe(`/user/${username}/queue/errors`, (message) => {
           try {
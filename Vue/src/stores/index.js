@@ -90,10 +90,7 @@ function setupStoreWatchers() {
         // 连接WebSocket
         chatStore.connectWebSocket();
         
-        // 开始自动刷新通知
-        notificationStore.startAutoRefresh();
-        
-        // 获取初始数据
+        // 未读角标由WebSocket推送更新，只在登录时获取一次初始数据
         notificationStore.fetchUnreadCount();
         
       } else if (!isLoggedIn && wasLoggedIn) {
@@ -130,6 +130,13 @@ export const useNotificationStore = defineStore('notification', {
       }
     },
 
+    // 应用服务端推送的角标计数
+    applyBadge(badge) {
+      if (badge && typeof badge.unreadCount === 'number') {
+        this.unreadCount = badge.unreadCount;
+      }
+    },
+
     // 添加新通知到列表顶部（用于实时通知）
     addNotification(notification) {
       this.notifications.unshift(notification);
@@ -1,14 +1,43 @@
 package com.web.Config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 @Configuration
 public class AppConfig {
 
+    /**
+     * 全局共享的 JDK HttpClient：AI对话、AI网关、链接预览和 RestTemplate 共用一个连接池和回调线程池。
+     * 固定 HTTP/1.1，避免明文地址上的 h2c 升级；单次请求的超时在各自的 HttpRequest 上设置
+     */
+    @Bean
+    public HttpClient httpClient(@Qualifier("httpClientExecutor") Executor httpClientExecutor,
+                                 @Value("${weeb.http-client.connect-timeout-ms:5000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(httpClientExecutor)
+                .build();
+    }
+
+    /**
+     * 基于共享 HttpClient 的 RestTemplate：连接在请求间复用，并设置读取超时，
+     * 避免默认实现每次新建连接且没有超时导致线程被慢接口长期占用
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpClient httpClient,
+                                     @Value("${weeb.http-client.read-timeout-ms:60000}") long readTimeoutMs) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
     }
 }
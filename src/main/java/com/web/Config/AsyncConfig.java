@@ -1,6 +1,7 @@
 package com.web.Config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -81,4 +82,161 @@ public class AsyncConfig {
         
         return executor;
     }
+
+    /**
+     * 用户等级全量重算线程池
+     * 固定大小且队列有界，重算任务按批提交，不与在线请求争抢通用线程池
+     */
+    @Bean(name = "levelResyncExecutor")
+    public Executor levelResyncExecutor(@Value("${weeb.user.level-engine.resync-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 2);
+        executor.setThreadNamePrefix("level-resync-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+
+        executor.initialize();
+
+        log.info("✅ 等级重算线程池已初始化: threads={}", threads);
+
+        return executor;
+    }
+
+    /**
+     * 文章审核检测线程池
+     * 固定大小且队列有界，队列满时由提交线程执行检测，形成背压
+     */
+    @Bean(name = "moderationExecutor")
+    public Executor moderationExecutor(@Value("${weeb.moderation.queue.scan-threads:4}") int threads,
+                                       @Value("${weeb.moderation.queue.scan-queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("moderation-scan-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        executor.initialize();
+
+        log.info("✅ 审核检测线程池已初始化: threads={}, queueCapacity={}", threads, queueCapacity);
+
+        return executor;
+    }
+
+    /**
+     * 共享 HttpClient 回调线程池
+     * 处理所有 sendAsync 的回调（AI流式响应写入SSE、链接预览解析等），等待上游期间不占用线程；
+     * 队列有界，积压时由提交回调的HTTP客户端线程自己执行，形成背压
+     */
+    @Bean(name = "httpClientExecutor")
+    public Executor httpClientExecutor(@Value("${weeb.http-client.threads:16}") int threads,
+                                       @Value("${weeb.http-client.queue-capacity:2000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("http-client-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+
+        log.info("✅ HttpClient回调线程池已初始化: threads={}, queueCapacity={}", threads, queueCapacity);
+
+        return executor;
+    }
+
+    /**
+     * 链接预览抓取线程池
+     * 启动排队中的抓取；HTTP回调在共享 HttpClient 的线程池中处理，少量固定线程即可
+     */
+    @Bean(name = "linkPreviewExecutor")
+    public Executor linkPreviewExecutor(@Value("${weeb.link-preview.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("link-preview-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+
+        log.info("✅ 链接预览线程池已初始化: threads={}", threads);
+
+        return executor;
+    }
+
+    /**
+     * AI 对话线程池
+     * 执行首 token 超时检查；上游流式响应的回调在共享 HttpClient 的线程池中处理
+     */
+    @Bean(name = "aiStreamExecutor")
+    public Executor aiStreamExecutor(@Value("${ai.stream.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("ai-stream-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+
+        log.info("✅ AI对话线程池已初始化: threads={}", threads);
+
+        return executor;
+    }
+
+    /**
+     * AI 网关批次线程池
+     * 执行合并后的提取批次，每个任务阻塞到该批次的 AI 调用结束；队列满时拒绝，批次内的请求走降级
+     */
+    @Bean(name = "aiGatewayExecutor")
+    public Executor aiGatewayExecutor(@Value("${ai.gateway.threads:4}") int threads,
+                                      @Value("${ai.gateway.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-gateway-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+
+        log.info("✅ AI网关批次线程池已初始化: threads={}, queueCapacity={}", threads, queueCapacity);
+
+        return executor;
+    }
+
+    /**
+     * 日志后台导出线程池
+     * 每个任务顺序分批读取并写文件，线程数即同时进行的导出数；队列满时拒绝提交
+     */
+    @Bean(name = "logExportExecutor")
+    public Executor logExportExecutor(@Value("${weeb.log-export.threads:2}") int threads,
+                                      @Value("${weeb.log-export.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("log-export-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+
+        log.info("✅ 日志导出线程池已初始化: threads={}, queueCapacity={}", threads, queueCapacity);
+
+        return executor;
+    }
 }
@@ -3,6 +3,7 @@ package com.web.Config;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -115,12 +116,15 @@ public class CacheConfig {
 
     /**
      * 用户数据缓存配置
+     * 用于UserProfileLoaderService的用户快照近缓存，过期时间兜底未经失效通知的写入
      */
     @Bean
-    public Caffeine<Object, Object> userCache() {
+    public Caffeine<Object, Object> userCache(
+            @Value("${weeb.user.profile-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${weeb.user.profile-cache.max-size:20000}") long maxSize) {
         return Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(30))
-                .maximumSize(500)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
                 .recordStats();
     }
 
@@ -148,12 +152,15 @@ public class CacheConfig {
 
     /**
      * 搜索结果缓存配置
+     * 按结果的估算字节数（权重）限制容量，weigher由SearchResultCacheService设置
      */
     @Bean
-    public Caffeine<Object, Object> searchCache() {
+    public Caffeine<Object, Object> searchCache(
+            @Value("${weeb.search.cache.ttl-seconds:180}") long ttlSeconds,
+            @Value("${weeb.search.cache.max-weight-bytes:33554432}") long maxWeightBytes) {
         return Caffeine.newBuilder()
-                .expireAfterWrite(Duration.ofMinutes(3))
-                .maximumSize(100)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumWeight(maxWeightBytes)
                 .recordStats();
     }
 }
@@ -87,7 +87,9 @@ public class DatabaseInitializer implements CommandLineRunner {
         "create/23_create_group_transfer_history_table.sql",
         "create/24_create_group_application_table.sql",
         "create/26_create_message_retry_table.sql",
-        "create/27_create_message_reaction_table.sql"
+        "create/27_create_message_reaction_table.sql",
+        "create/28_create_article_view_stats_table.sql",
+        "create/29_create_system_log_rollup_table.sql"
     );
 
     private final List<String> INSERT_FILES = Arrays.asList(
@@ -2,11 +2,13 @@ package com.web.Controller;
 
 import com.web.annotation.Userid;
 import com.web.common.ApiResponse;
+import com.web.service.AIChatStreamService;
 import com.web.service.AIService;
 import com.web.util.ApiResponseUtil;
 import com.web.Config.AIConfig;
 import com.web.vo.ai.ArticleSummaryRequestVo;
 import com.web.vo.ai.ArticleTagsGenerationRequestVo;
+import com.web.vo.ai.BatchExtractionRequestVo;
 import com.web.vo.ai.ChatRequestVo;
 import com.web.vo.ai.ContentComplianceCheckRequestVo;
 import com.web.vo.ai.ContentOutlineRequestVo;
@@ -21,8 +23,10 @@ import com.web.vo.ai.TextTranslationRequestVo;
 import com.web.vo.ai.TitleSuggestionRequestVo;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import java.util.HashMap;
@@ -41,6 +45,9 @@ public class AIController {
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private AIChatStreamService aiChatStreamService;
+
     @Autowired
     private AIConfig aiConfig;
 
@@ -113,16 +120,25 @@ public class AIController {
             @RequestBody @Valid ChatRequestVo request,
             @Userid Long userId) {
         try {
-            // 此处暂时保留简单实现，后续将在Service层扩展
-            String lastMessageContent = request.getMessages().get(request.getMessages().size() - 1).getContent();
-            String sessionId = "session_for_user_" + userId; // 示例 sessionId
-            String response = aiService.chatWithAI(lastMessageContent, sessionId);
+            String response = aiService.chat(request, userId);
             return ApiResponseUtil.successString(response);
         } catch (Exception e) {
             return ApiResponseUtil.handleServiceExceptionString(e, "AI聊天", userId);
         }
     }
 
+    /**
+     * AI 流式聊天（SSE）
+     * POST /api/ai/chat/stream
+     * 事件：token（增量内容）、done（结束信息）、error（错误信息）
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(
+            @RequestBody @Valid ChatRequestVo request,
+            @Userid Long userId) {
+        return aiChatStreamService.streamChat(request, userId);
+    }
+
     /**
      * 分析内容情感
      * POST /api/ai/sentiment/analyze
@@ -158,6 +174,21 @@ public class AIController {
         }
     }
 
+    /**
+     * 批量提取关键词
+     * POST /api/ai/keywords/extract/batch
+     */
+    @PostMapping("/keywords/extract/batch")
+    public ResponseEntity<ApiResponse<List<List<String>>>> extractKeywordsBatch(
+            @RequestBody @Valid BatchExtractionRequestVo request) {
+        try {
+            List<List<String>> keywords = aiService.extractKeywordsBatch(request.getContents(), request.getCount());
+            return ApiResponseUtil.success(keywords, "关键词提取成功");
+        } catch (Exception e) {
+            return ApiResponseUtil.handleServiceExceptionList(e, "批量关键词提取");
+        }
+    }
+
     /**
      * 翻译文本
      * POST /api/ai/text/translate
@@ -194,6 +225,21 @@ public class AIController {
         }
     }
 
+    /**
+     * 批量生成文章标签
+     * POST /api/ai/article/tags/batch
+     */
+    @PostMapping("/article/tags/batch")
+    public ResponseEntity<ApiResponse<List<List<String>>>> generateArticleTagsBatch(
+            @RequestBody @Valid BatchExtractionRequestVo request) {
+        try {
+            List<List<String>> tags = aiService.generateArticleTagsBatch(request.getContents(), request.getCount());
+            return ApiResponseUtil.success(tags, "标签生成成功");
+        } catch (Exception e) {
+            return ApiResponseUtil.handleServiceExceptionList(e, "批量生成文章标签");
+        }
+    }
+
     /**
      * 检查内容合规性
      * POST /api/ai/content/compliance
@@ -2,10 +2,15 @@ package com.web.Controller;
 
 import com.web.annotation.Userid;
 import com.web.common.ApiResponse;
+import com.web.exception.WeebException;
 import com.web.model.Article;
 import com.web.model.User;
 import com.web.service.AuthService;
 import com.web.service.ArticleService;
+import com.web.service.ArticleRecommendationService;
+import com.web.service.ArticleViewService;
+import com.web.service.ModerationQueueService;
+import com.web.util.IpUtil;
 import com.web.vo.article.ArticleCreateVo;
 import com.web.vo.article.ArticleUpdateVo;
 import com.web.vo.article.ArticleSearchAdvancedVo;
@@ -14,7 +19,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;  // 注意导入
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import java.util.Date;
@@ -35,6 +42,15 @@ public class ArticleCenterController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private ArticleViewService articleViewService;
+
+    @Autowired
+    private ArticleRecommendationService articleRecommendationService;
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
     // 用构造器注入 ArticleService
     @Autowired
     public ArticleCenterController(ArticleService articleService) {
@@ -207,13 +223,17 @@ public class ArticleCenterController {
     }
 
     /**
-     * 增加阅读数量
+     * 增加阅读数量（同时按用户或IP+UA记录独立访客）
      * 请求示例：POST /articles/123/read
      */
     @PostMapping("/{id}/read")
-    public ResponseEntity<ApiResponse<String>> increaseReadCount(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<String>> increaseReadCount(
+            @PathVariable Long id,
+            @Userid Long userId,
+            HttpServletRequest request) {
         try {
-            boolean updated = articleService.increaseReadCount(id);
+            boolean updated = articleViewService.recordView(id, userId,
+                IpUtil.getIpAddr(request), request.getHeader("User-Agent"));
             if (!updated) {
                 return ResponseEntity.badRequest()
                     .body(ApiResponse.readCountUpdateFailed(ApiResponse.Messages.READ_COUNT_UPDATE_FAILED));
@@ -226,6 +246,28 @@ public class ArticleCenterController {
         }
     }
 
+    /**
+     * 获取文章浏览统计：独立访客数与总阅读数，以及最近若干天的每日独立访客
+     * 请求示例：GET /articles/123/views?days=7
+     */
+    @GetMapping("/{id}/views")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getArticleViews(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "7") int days) {
+        try {
+            Map<String, Object> stats = articleViewService.getViewStats(id, days);
+            if (stats == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.articleNotFound(ApiResponse.Messages.ARTICLE_NOT_FOUND));
+            }
+            return ResponseEntity.ok(ApiResponse.success(stats));
+        } catch (Exception e) {
+            logger.error("获取文章浏览统计失败: articleId={}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.systemError(ApiResponse.Messages.SYSTEM_ERROR));
+        }
+    }
+
     /**
      * 创建新文章
      * 请求示例：POST /articles/new
@@ -411,6 +453,28 @@ public class ArticleCenterController {
         }
     }
 
+    /**
+     * 获取推荐信息流（游标分页，可按关注作者与偏好分类个性化）
+     * GET /articles/recommended/feed?cursor=xxx&size=10&personalized=true
+     */
+    @GetMapping("/recommended/feed")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRecommendedFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean personalized,
+            @Userid Long userId) {
+        try {
+            Map<String, Object> feed = articleRecommendationService.getFeed(userId, cursor, size, personalized);
+            return ResponseEntity.ok(ApiResponse.success(feed));
+        } catch (WeebException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("获取推荐信息流失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.systemError(ApiResponse.Messages.SYSTEM_ERROR));
+        }
+    }
+
     /**
      * 搜索文章
      * GET /articles/search?query=关键词&page=1&pageSize=10&sortBy=created_at&sortOrder=desc
@@ -527,6 +591,43 @@ public class ArticleCenterController {
         }
     }
 
+    // 查看审核队列（按调度顺序，不领取）
+    @GetMapping("/moderation/queue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getModerationQueue(
+            @RequestParam(defaultValue = "20") int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(ApiResponse.success(moderationQueueService.peek(safeLimit)));
+    }
+
+    // 领取下一篇最紧急的待审核文章
+    @PostMapping("/moderation/queue/claim")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> claimNextArticle(@Userid Long reviewerId) {
+        try {
+            Map<String, Object> item = moderationQueueService.claimNext(reviewerId);
+            if (item == null) {
+                return ResponseEntity.ok(ApiResponse.success(null));
+            }
+            item.put("article", articleService.getArticleById((Long) item.get("articleId")));
+            return ResponseEntity.ok(ApiResponse.success(item));
+        } catch (Exception e) {
+            logger.error("领取待审核文章失败，审核员ID为 {}", reviewerId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.systemError(ApiResponse.Messages.SYSTEM_ERROR));
+        }
+    }
+
+    // 归还已领取但暂不处理的文章
+    @PostMapping("/moderation/queue/{id}/release")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> releaseArticle(@PathVariable("id") Long id, @Userid Long reviewerId) {
+        if (moderationQueueService.release(id, reviewerId)) {
+            return ResponseEntity.ok(ApiResponse.success("已放回审核队列"));
+        }
+        return ResponseEntity.badRequest().body(ApiResponse.error("文章未被当前审核员领取"));
+    }
+
     // 审核通过文章
     @PostMapping("/{id}/approve")
     public ResponseEntity<ApiResponse<String>> approveArticle(@PathVariable("id") Long id) {
@@ -0,0 +1,117 @@
+package com.web.Controller;
+
+import com.web.annotation.Userid;
+import com.web.common.ApiResponse;
+import com.web.service.BehaviorEventService;
+import com.web.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 用户行为控制器
+ * 前端上报页面访问，管理员查询基于行为汇总数据的分析结果
+ */
+@RestController
+@RequestMapping("/api/behavior")
+public class BehaviorController {
+
+    @Autowired
+    private BehaviorEventService behaviorEventService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * 上报页面访问
+     * @param path 页面路径
+     * @param userId 当前用户ID
+     * @return 操作结果
+     */
+    @PostMapping("/page-view")
+    public ResponseEntity<ApiResponse<String>> recordPageView(
+            @RequestParam String path,
+            @Userid Long userId) {
+        if (path.isBlank() || !path.startsWith("/")) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("页面路径无效"));
+        }
+        behaviorEventService.record(BehaviorEventService.EVENT_PAGE_VIEW, userId, path);
+        return ResponseEntity.ok(ApiResponse.success("已记录"));
+    }
+
+    /**
+     * 用户行为分析概览
+     * @param days 统计天数
+     * @return 分析结果
+     */
+    @GetMapping("/analysis")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAnalysis(
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(ApiResponse.success(userService.getUserBehaviorAnalysis(days)));
+    }
+
+    /**
+     * 最近的行为事件
+     * @param days 统计天数
+     * @param eventType 事件类型
+     * @param page 页码
+     * @param pageSize 每页大小
+     * @return 事件列表
+     */
+    @GetMapping("/events")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getEvents(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int pageSize) {
+        return ResponseEntity.ok(ApiResponse.success(
+                userService.getUserBehaviorEvents(days, eventType, page, pageSize)));
+    }
+
+    /**
+     * 活动热力图
+     * @param type hourly / weekly / monthly
+     * @param days 统计天数
+     * @return 热力图数据
+     */
+    @GetMapping("/heatmap")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getHeatmap(
+            @RequestParam(defaultValue = "hourly") String type,
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(ApiResponse.success(userService.getActivityHeatmap(type, days)));
+    }
+
+    /**
+     * 用户留存分析
+     * @param cohortType daily / weekly / monthly
+     * @param periods 队列数
+     * @return 留存数据
+     */
+    @GetMapping("/retention")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRetention(
+            @RequestParam(defaultValue = "daily") String cohortType,
+            @RequestParam(defaultValue = "7") int periods) {
+        return ResponseEntity.ok(ApiResponse.success(userService.getUserRetention(cohortType, periods)));
+    }
+
+    /**
+     * 当前在线人数与今日峰值
+     * @return 在线统计
+     */
+    @GetMapping("/online")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getOnline() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("online", userService.getCurrentOnlineUserCount());
+        result.put("peakToday", userService.getPeakOnlineUsersToday());
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+}
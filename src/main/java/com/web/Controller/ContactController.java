@@ -7,6 +7,7 @@ import com.web.dto.UserDto;
 import com.web.dto.ContactDto;
 import com.web.exception.WeebException;
 import com.web.service.ContactService;
+import com.web.service.SocialRelationshipService;
 import com.web.vo.contact.ContactApplyVo;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 // Using jakarta.validation.Valid
 import jakarta.validation.Valid;
+import java.util.LinkedHashMap;
 import java.util.List; // For return type of getContacts
+import java.util.Map;
 
 /**
  * 联系人（好友）管理控制器
@@ -25,9 +28,14 @@ import java.util.List; // For return type of getContacts
 @RequestMapping("/api/contacts") // As per plan
 public class ContactController {
 
+    private static final int MAX_RELATIONSHIP_BATCH = 200;
+
     @Autowired
     private ContactService contactService;
 
+    @Autowired
+    private SocialRelationshipService socialRelationshipService;
+
     /**
      * 发送好友申请（通过用户ID）
      * @param applyVo 申请信息 (friendId, remarks)
@@ -202,6 +210,27 @@ public class ContactController {
         return ResponseEntity.ok(ApiResponse.success(pendingRequests));
     }
 
+    /**
+     * 批量获取当前用户与一页用户的关系状态
+     * GET /api/contacts/relationships?userIds=1,2,3
+     * @param userIds 目标用户ID列表（单次最多200个）
+     * @param userId 当前用户ID
+     * @return 目标用户ID -> 关系状态
+     */
+    @GetMapping("/relationships")
+    public ResponseEntity<ApiResponse<Map<Long, String>>> getRelationshipStatuses(
+            @RequestParam("userIds") List<Long> userIds,
+            @Userid Long userId) {
+        if (userIds.size() > MAX_RELATIONSHIP_BATCH) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("单次最多查询" + MAX_RELATIONSHIP_BATCH + "个用户"));
+        }
+        Map<Long, String> statuses = new LinkedHashMap<>();
+        socialRelationshipService.getRelationshipStatuses(userId, userIds)
+                .forEach((targetUserId, status) -> statuses.put(targetUserId, status.name()));
+        return ResponseEntity.ok(ApiResponse.success(statuses));
+    }
+
     // ==================== 联系人分组管理接口 ====================
 
     /**
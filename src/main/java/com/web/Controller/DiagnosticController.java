@@ -1,12 +1,38 @@
 package com.web.Controller;
 
 import com.web.common.ApiResponse;
+import com.web.service.ArticleRecommendationService;
+import com.web.service.ArticleViewService;
+import com.web.service.AIChatStreamService;
+import com.web.service.AIGatewayService;
+import com.web.service.AIResultCacheService;
+import com.web.service.AuditLogService;
+import com.web.service.ConfigService;
+import com.web.service.BehaviorEventService;
+import com.web.service.EngagementCounterService;
+import com.web.service.LeaderboardService;
+import com.web.service.LinkPreviewFetchService;
+import com.web.service.LogExportService;
+import com.web.service.ModerationQueueService;
+import com.web.service.NotificationCounterService;
+import com.web.service.NotificationDispatchService;
 import com.web.service.RedisCacheService;
+import com.web.service.RelationshipCacheService;
+import com.web.service.SensitiveWordService;
+import com.web.service.SocialGraphService;
+import com.web.service.SystemLogPartitionService;
+import com.web.service.SystemLogRollupService;
+import com.web.service.UserLevelEngineService;
+import com.web.service.UserProfileLoaderService;
+import com.web.service.VerifiedTokenCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * 诊断和维护控制器
  * 提供系统诊断和维护功能
@@ -19,6 +45,75 @@ public class DiagnosticController {
     @Autowired
     private RedisCacheService redisCacheService;
 
+    @Autowired
+    private UserProfileLoaderService userProfileLoaderService;
+
+    @Autowired
+    private VerifiedTokenCacheService verifiedTokenCacheService;
+
+    @Autowired
+    private EngagementCounterService engagementCounterService;
+
+    @Autowired
+    private ArticleViewService articleViewService;
+
+    @Autowired
+    private ArticleRecommendationService articleRecommendationService;
+
+    @Autowired
+    private BehaviorEventService behaviorEventService;
+
+    @Autowired
+    private UserLevelEngineService userLevelEngineService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private NotificationDispatchService notificationDispatchService;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private RelationshipCacheService relationshipCacheService;
+
+    @Autowired
+    private SensitiveWordService sensitiveWordService;
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
+    @Autowired
+    private LinkPreviewFetchService linkPreviewFetchService;
+
+    @Autowired
+    private LogExportService logExportService;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private SystemLogPartitionService systemLogPartitionService;
+
+    @Autowired
+    private SystemLogRollupService systemLogRollupService;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private AIChatStreamService aiChatStreamService;
+
+    @Autowired
+    private AIResultCacheService aiResultCacheService;
+
+    @Autowired
+    private AIGatewayService aiGatewayService;
+
     /**
      * 清除所有用户统计信息缓存
      * 用于缓存结构变更后清理旧数据
@@ -35,6 +130,287 @@ public class DiagnosticController {
         }
     }
 
+    /**
+     * 用户资料加载统计（查询合并数、近缓存命中率）
+     */
+    @GetMapping("/user-profile-loader/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getUserProfileLoaderStats() {
+        return ResponseEntity.ok(ApiResponse.success(userProfileLoaderService.getStatistics()));
+    }
+
+    /**
+     * 已验证令牌缓存统计（命中率、命中与完整验证路径的平均耗时）
+     */
+    @GetMapping("/token-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTokenCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(verifiedTokenCacheService.getStatistics()));
+    }
+
+    /**
+     * 文章互动计数缓冲统计（待刷写文章数、合并比、刷写耗时）
+     */
+    @GetMapping("/engagement-counters/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getEngagementCounterStats() {
+        return ResponseEntity.ok(ApiResponse.success(engagementCounterService.getStatistics()));
+    }
+
+    /**
+     * 文章浏览记录与独立访客汇总统计
+     */
+    @GetMapping("/article-views/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getArticleViewStats() {
+        return ResponseEntity.ok(ApiResponse.success(articleViewService.getStatistics()));
+    }
+
+    /**
+     * 文章推荐排名统计（候选数、增量更新次数、信息流平均耗时）
+     */
+    @GetMapping("/recommendation/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRecommendationStats() {
+        return ResponseEntity.ok(ApiResponse.success(articleRecommendationService.getStatistics()));
+    }
+
+    /**
+     * 用户行为事件管道统计（队列积压、丢弃数、写入字节、汇总失败次数）
+     */
+    @GetMapping("/behavior-events/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getBehaviorEventStats() {
+        return ResponseEntity.ok(ApiResponse.success(behaviorEventService.getStatistics()));
+    }
+
+    /**
+     * 用户等级引擎统计（增量更新、门槛触发、全量重算进度）
+     */
+    @GetMapping("/user-level-engine/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getUserLevelEngineStats() {
+        return ResponseEntity.ok(ApiResponse.success(userLevelEngineService.getStatistics()));
+    }
+
+    /**
+     * 启动用户等级全量重算
+     * @param fromBeginning true从头开始，false从上次中断处继续
+     */
+    @PostMapping("/user-level-engine/resync")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> startUserLevelResync(
+            @RequestParam(defaultValue = "false") boolean fromBeginning) {
+        if (!userLevelEngineService.startResync(fromBeginning)) {
+            return ResponseEntity.ok(ApiResponse.error("全量重算正在运行"));
+        }
+        log.info("手动启动用户等级全量重算: fromBeginning={}", fromBeginning);
+        return ResponseEntity.ok(ApiResponse.success("全量重算已启动"));
+    }
+
+    /**
+     * 排行榜统计（各总榜大小、增量次数、重建进度）
+     */
+    @GetMapping("/leaderboard/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLeaderboardStats() {
+        return ResponseEntity.ok(ApiResponse.success(leaderboardService.getStatistics()));
+    }
+
+    /**
+     * 从user_stats重建排行榜总榜
+     */
+    @PostMapping("/leaderboard/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> rebuildLeaderboards() {
+        if (!leaderboardService.startRebuild()) {
+            return ResponseEntity.ok(ApiResponse.error("排行榜重建正在运行"));
+        }
+        log.info("手动启动排行榜重建");
+        return ResponseEntity.ok(ApiResponse.success("排行榜重建已启动"));
+    }
+
+    /**
+     * 通知分发统计（队列深度、写入延迟、摘要合并与推送次数）
+     */
+    @GetMapping("/notifications/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getNotificationDispatchStats() {
+        return ResponseEntity.ok(ApiResponse.success(notificationDispatchService.getStatistics()));
+    }
+
+    /**
+     * 通知计数缓存统计（命中率、重新统计次数、角标推送次数）
+     */
+    @GetMapping("/notifications/counters/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getNotificationCounterStats() {
+        return ResponseEntity.ok(ApiResponse.success(notificationCounterService.getStatistics()));
+    }
+
+    /**
+     * 社交图统计（节点数、边数、增量规模、内存占用、推荐查询与预计算命中）
+     */
+    @GetMapping("/social-graph/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSocialGraphStats() {
+        return ResponseEntity.ok(ApiResponse.success(socialGraphService.getStatistics()));
+    }
+
+    /**
+     * 从数据库全量重建社交图
+     */
+    @PostMapping("/social-graph/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> reloadSocialGraph() {
+        if (!socialGraphService.startReload()) {
+            return ResponseEntity.ok(ApiResponse.error("社交图重建正在运行"));
+        }
+        log.info("手动启动社交图重建");
+        return ResponseEntity.ok(ApiResponse.success("社交图重建已启动"));
+    }
+
+    /**
+     * 关系状态缓存统计（命中率、批量加载次数、失效次数）
+     */
+    @GetMapping("/relationship-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRelationshipCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(relationshipCacheService.getStatistics()));
+    }
+
+    /**
+     * 敏感词匹配统计（词表规模、扫描次数、命中率、平均扫描耗时）
+     */
+    @GetMapping("/moderation/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getModerationStats() {
+        return ResponseEntity.ok(ApiResponse.success(sensitiveWordService.getStatistics()));
+    }
+
+    /**
+     * 重新加载敏感词表
+     */
+    @PostMapping("/moderation/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> reloadSensitiveWords() {
+        int count = sensitiveWordService.reload();
+        log.info("手动重新加载敏感词表: {}个词", count);
+        return ResponseEntity.ok(ApiResponse.success(count));
+    }
+
+    /**
+     * 审核队列统计（队列深度、按优先级分布、最长等待、吞吐量、检测耗时）
+     */
+    @GetMapping("/moderation/queue/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getModerationQueueStats() {
+        return ResponseEntity.ok(ApiResponse.success(moderationQueueService.getStatistics()));
+    }
+
+    /**
+     * 从数据库重建审核队列
+     */
+    @PostMapping("/moderation/queue/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuildModerationQueue() {
+        int count = moderationQueueService.rebuild();
+        log.info("手动重建审核队列: {}篇待审核文章", count);
+        return ResponseEntity.ok(ApiResponse.success(count));
+    }
+
+    /**
+     * 链接预览抓取统计（缓存命中、合并、排队、超时、平均耗时）
+     */
+    @GetMapping("/link-preview/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLinkPreviewStats() {
+        return ResponseEntity.ok(ApiResponse.success(linkPreviewFetchService.getStatistics()));
+    }
+
+    /**
+     * 日志导出统计（流式导出次数、后台任务状态、导出行数和字节数）
+     */
+    @GetMapping("/log-export/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLogExportStats() {
+        return ResponseEntity.ok(ApiResponse.success(logExportService.getStatistics()));
+    }
+
+    /**
+     * 审计日志写入统计（队列长度、批量大小、丢弃和背压次数、同步写入）
+     */
+    @GetMapping("/audit-log/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAuditLogStats() {
+        return ResponseEntity.ok(ApiResponse.success(auditLogService.getStatistics()));
+    }
+
+    /**
+     * 系统日志分区统计（分区列表、估算行数、新建和删除的分区数）
+     */
+    @GetMapping("/system-log/partitions/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSystemLogPartitionStats() {
+        return ResponseEntity.ok(ApiResponse.success(systemLogPartitionService.getStatistics()));
+    }
+
+    /**
+     * 系统日志汇总统计（汇总进度、刷新耗时和影响行数）
+     */
+    @GetMapping("/system-log/rollup/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSystemLogRollupStats() {
+        return ResponseEntity.ok(ApiResponse.success(systemLogRollupService.getStatistics()));
+    }
+
+    /**
+     * 立即刷新系统日志汇总表
+     */
+    @PostMapping("/system-log/rollup/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<String>> runSystemLogRollup() {
+        int rows = systemLogRollupService.rollup();
+        log.info("手动刷新系统日志汇总，影响 {} 行", rows);
+        return ResponseEntity.ok(ApiResponse.success("系统日志汇总已刷新，影响 " + rows + " 行"));
+    }
+
+    /**
+     * 系统配置缓存统计（快照版本、配置数量、重新加载和变更通知次数）
+     */
+    @GetMapping("/config-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getConfigCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(configService.getConfigCacheStatistics()));
+    }
+
+    /**
+     * AI 对话统计（并发流数、完成/取消/失败次数、首token耗时）
+     */
+    @GetMapping("/ai-stream/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAiStreamStats() {
+        return ResponseEntity.ok(ApiResponse.success(aiChatStreamService.getStatistics()));
+    }
+
+    /**
+     * AI 网关统计（各提供商的并发、排队、限流、熔断状态和延迟，提取请求的合并情况）
+     */
+    @GetMapping("/ai-gateway/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAiGatewayStats() {
+        return ResponseEntity.ok(ApiResponse.success(aiGatewayService.getStatistics()));
+    }
+
+    /**
+     * AI 结果缓存统计（各操作的命中率、合并请求数和节省的耗时）
+     */
+    @GetMapping("/ai-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAiCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(aiResultCacheService.getStatistics()));
+    }
+
     /**
      * 健康检查
      */
@@ -0,0 +1,80 @@
+package com.web.Controller;
+
+import com.web.annotation.Userid;
+import com.web.common.ApiResponse;
+import com.web.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 排行榜控制器
+ * 提供点赞、粉丝、金币、曝光排行榜的前N名、我的名次和相邻名次查询
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    /**
+     * 获取排行榜前N名
+     * @param board 榜单：likes / fans / coins / exposure
+     * @param window 时间窗口：all / day / week
+     * @param limit 数量
+     * @return 排名列表
+     */
+    @GetMapping("/{board}")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getTop(
+            @PathVariable String board,
+            @RequestParam(defaultValue = "all") String window,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (!leaderboardService.isSupported(board)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("不支持的排行榜"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(leaderboardService.getTop(board, window, limit)));
+    }
+
+    /**
+     * 获取当前用户的名次
+     * @param board 榜单
+     * @param window 时间窗口
+     * @param userId 当前用户ID
+     * @return 名次、分数与上榜人数
+     */
+    @GetMapping("/{board}/me")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMyRank(
+            @PathVariable String board,
+            @RequestParam(defaultValue = "all") String window,
+            @Userid Long userId) {
+        if (!leaderboardService.isSupported(board)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("不支持的排行榜"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(leaderboardService.getRank(board, window, userId)));
+    }
+
+    /**
+     * 获取当前用户名次前后的用户
+     * @param board 榜单
+     * @param window 时间窗口
+     * @param radius 前后各取的人数
+     * @param userId 当前用户ID
+     * @return 排名列表
+     */
+    @GetMapping("/{board}/around-me")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAroundMe(
+            @PathVariable String board,
+            @RequestParam(defaultValue = "all") String window,
+            @RequestParam(defaultValue = "5") int radius,
+            @Userid Long userId) {
+        if (!leaderboardService.isSupported(board)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("不支持的排行榜"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(
+                leaderboardService.getAround(board, window, userId, radius)));
+    }
+}
@@ -0,0 +1,125 @@
+package com.web.Controller;
+
+import com.web.common.ApiResponse;
+import com.web.exception.WeebException;
+import com.web.security.SecurityUtils;
+import com.web.service.LogExportService;
+import com.web.vo.admin.LogExportRequestVo;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 系统日志导出控制器
+ * 直接导出时边查询边写响应体；数据量大时提交后台任务，完成后下载文件
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/logs")
+@Tag(name = "系统日志导出", description = "系统日志流式导出与后台导出任务接口")
+public class LogExportController {
+
+    @Autowired
+    private LogExportService logExportService;
+
+    // 流式导出的超时时间，只作用于本接口，其他异步请求仍使用容器默认值
+    @Value("${weeb.log-export.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    /**
+     * 流式导出系统日志
+     */
+    @GetMapping("/export")
+    @Operation(summary = "流式导出系统日志")
+    @PreAuthorize("hasRole('ADMIN')")
+    public WebAsyncTask<Void> exportLogs(@ModelAttribute LogExportRequestVo request, HttpServletResponse response) {
+        // 先校验参数，出错时还能正常返回错误信息；开始写响应体后就只能中断连接
+        logExportService.validate(request);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(logExportService.getFileName(request)).build().toString());
+        response.setContentType(logExportService.getContentType(request));
+        return new WebAsyncTask<>(streamTimeoutMs, () -> {
+            logExportService.export(request, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    /**
+     * 提交后台导出任务
+     */
+    @PostMapping("/export/jobs")
+    @Operation(summary = "提交后台导出任务")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> submitExportJob(@RequestBody LogExportRequestVo request) {
+        Map<String, Object> job = logExportService.submitJob(request, SecurityUtils.getCurrentUserId());
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
+    /**
+     * 获取导出任务列表
+     */
+    @GetMapping("/export/jobs")
+    @Operation(summary = "获取导出任务列表")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> listExportJobs() {
+        return ResponseEntity.ok(ApiResponse.success(logExportService.listJobs()));
+    }
+
+    /**
+     * 获取导出任务进度
+     */
+    @GetMapping("/export/jobs/{jobId}")
+    @Operation(summary = "获取导出任务进度")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getExportJob(@PathVariable String jobId) {
+        Map<String, Object> job = logExportService.getJob(jobId);
+        if (job == null) {
+            throw new WeebException("导出任务不存在或已过期: " + jobId);
+        }
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
+    /**
+     * 取消导出任务
+     */
+    @DeleteMapping("/export/jobs/{jobId}")
+    @Operation(summary = "取消导出任务")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Boolean>> cancelExportJob(@PathVariable String jobId) {
+        boolean cancelled = logExportService.cancelJob(jobId);
+        return ResponseEntity.ok(cancelled ? ApiResponse.success("已取消", true) : ApiResponse.error("任务不存在或已结束"));
+    }
+
+    /**
+     * 下载导出文件
+     */
+    @GetMapping("/export/jobs/{jobId}/download")
+    @Operation(summary = "下载导出文件")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Resource> downloadExportFile(@PathVariable String jobId) {
+        Path file = logExportService.getJobFile(jobId);
+        Map<String, Object> job = logExportService.getJob(jobId);
+        String fileName = job != null ? String.valueOf(job.get("fileName")) : file.getFileName().toString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -1,8 +1,12 @@
 package com.web.Controller;
 
+import com.web.annotation.Userid;
 import com.web.common.ApiResponse;
 import com.web.model.elasticsearch.MessageDocument; // 引入ES文档模型
+import com.web.service.ElasticsearchSearchService; // 引入ES搜索服务
+import com.web.service.SearchResultCacheService; // 引入搜索结果缓存服务
 import com.web.service.SearchService; // 引入搜索服务
+import com.web.service.TypeaheadIndexService; // 引入输入联想索引服务
 import com.web.util.ValidationUtils; // 引入验证工具类
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired; // 注入
@@ -14,6 +18,7 @@ import org.springframework.data.elasticsearch.core.SearchHits; // 命中集合
 import org.springframework.data.elasticsearch.core.query.Criteria; // 条件
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery; // 条件查询
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*; // 控制器注解
 
 import java.util.HashMap; // Map实现
@@ -46,6 +51,53 @@ public class SearchController {
     @Autowired
     private ArticleService articleService; // 注入文章服务
 
+    @Autowired
+    private TypeaheadIndexService typeaheadIndexService; // 注入输入联想索引服务
+
+    @Autowired
+    private SearchResultCacheService searchResultCacheService; // 注入搜索结果缓存服务
+
+    @Autowired(required = false)
+    private ElasticsearchSearchService elasticsearchSearchService; // 注入ES搜索服务
+
+    /**
+     * 获取搜索结果缓存统计（各搜索类型命中率、容量占用等）
+     * @return 缓存统计信息
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSearchCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(searchResultCacheService.getStatistics()));
+    }
+
+    /**
+     * 输入联想（前缀补全），由内存索引直接返回，不访问数据库
+     * @param q 输入前缀（支持拼音全拼与首字母）
+     * @param type 补全类型 (user, group, all)
+     * @param size 每种类型返回数量
+     * @return data: { users: [...], groups: [...] }
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> suggest(
+            @RequestParam("q") String q,
+            @RequestParam(required = false, defaultValue = "all") String type,
+            @RequestParam(defaultValue = "10") int size) {
+        if (q == null || q.trim().isEmpty() || q.length() > 64 || size <= 0 || size > 50) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(ApiResponse.ErrorCode.PARAM_ERROR, "联想参数无效", Map.of()));
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        if ("all".equalsIgnoreCase(type) || TypeaheadIndexService.TYPE_USER.equalsIgnoreCase(type)) {
+            data.put("users", typeaheadIndexService.suggest(TypeaheadIndexService.TYPE_USER, q, size));
+        }
+        if ("all".equalsIgnoreCase(type) || TypeaheadIndexService.TYPE_GROUP.equalsIgnoreCase(type)) {
+            data.put("groups", typeaheadIndexService.suggest(TypeaheadIndexService.TYPE_GROUP, q, size));
+        }
+        data.put("ready", typeaheadIndexService.isReady());
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
     /**
      * 搜索消息内容（分页）
      * @param q 关键词
@@ -198,6 +250,61 @@ public class SearchController {
         return ResponseEntity.ok(ApiResponse.success(data)); // 返回
     }
 
+    /**
+     * 游标分页搜索消息（search_after + point-in-time），适合深度翻页
+     * 只返回当前用户所在聊天的消息；指定不属于自己的聊天时返回403
+     * @param userId 当前用户ID，由注解 @Userid 提供
+     * @param q 关键词（可选）
+     * @param cursor 上一页返回的nextCursor，首页不传
+     * @param size 每页数量
+     * @param chatListId 聊天ID (可选)
+     * @param fromUserId 发送者ID (可选)
+     * @param startDate 开始日期 yyyy-MM-dd (可选)
+     * @param endDate 结束日期 yyyy-MM-dd (可选)
+     * @param withTotal 是否返回总数（超过阈值时为下界，totalRelation=gte）
+     * @param withFacets 是否返回按聊天、发送者、天的分面统计（仅首页）
+     * @return data: { documents, nextCursor, hasMore, total?, totalRelation?, facets? }
+     */
+    @GetMapping("/messages/cursor")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchMessagesByCursor(
+            @Userid Long userId,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long chatListId,
+            @RequestParam(required = false) Long fromUserId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(defaultValue = "false") boolean withFacets) {
+
+        if (q != null && !q.trim().isEmpty() && !ValidationUtils.validateSearchKeyword(q)) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(ApiResponse.ErrorCode.PARAM_ERROR, "搜索关键词无效", Map.of()));
+        }
+        if (!ValidationUtils.validatePageParams(0, size, "消息游标搜索")) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(ApiResponse.ErrorCode.PARAM_ERROR, "分页参数无效", Map.of()));
+        }
+        if (!isDateOrEmpty(startDate) || !isDateOrEmpty(endDate)
+                || !ValidationUtils.validateDateRange(startDate, endDate)) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(ApiResponse.ErrorCode.PARAM_ERROR, "日期范围无效", Map.of()));
+        }
+        if (elasticsearchSearchService == null) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(ApiResponse.ErrorCode.SYSTEM_ERROR, "搜索功能已禁用，请联系管理员启用Elasticsearch服务", Map.of()));
+        }
+
+        Map<String, Object> data = elasticsearchSearchService.searchMessagesByCursor(
+                userId, q, fromUserId, chatListId, startDate, endDate, cursor, size, withTotal, withFacets);
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    private static boolean isDateOrEmpty(String date) {
+        return date == null || date.isEmpty() || date.matches("^\\d{4}-\\d{2}-\\d{2}$");
+    }
+
     /**
      * 搜索公开群组（分页）
      * @param keyword 搜索关键词
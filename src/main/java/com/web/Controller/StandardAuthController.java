@@ -3,6 +3,7 @@ package com.web.Controller;
 import com.web.common.ApiResponse;
 import com.web.model.User;
 import com.web.service.AuthService;
+import com.web.service.VerifiedTokenCacheService;
 import com.web.util.ApiResponseUtil;
 import com.web.util.JwtUtil;
 import com.web.util.ValidationUtils;
@@ -36,6 +37,9 @@ public class StandardAuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private VerifiedTokenCacheService verifiedTokenCacheService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -123,6 +127,7 @@ public class StandardAuthController {
                 String token = authorization.substring(7);
                 // 将令牌加入黑名单（需要实现令牌黑名单机制）
                 jwtUtil.blacklistToken(token);
+                verifiedTokenCacheService.revokeToken(token);
             }
 
             return ApiResponseUtil.successString("登出成功");
@@ -165,6 +170,7 @@ public class StandardAuthController {
 
             // 将旧令牌加入黑名单
             jwtUtil.blacklistToken(oldToken);
+            verifiedTokenCacheService.revokeToken(oldToken);
 
             return ApiResponseUtil.successMap(result, "令牌刷新成功");
         } catch (Exception e) {
@@ -235,6 +241,7 @@ public class StandardAuthController {
             if (updated) {
                 // 将所有令牌加入黑名单，强制重新登录
                 jwtUtil.blacklistAllUserTokens(username);
+                verifiedTokenCacheService.revokeUser(user.getId());
 
                 return ApiResponseUtil.successString("密码修改成功，请重新登录");
             } else {
@@ -1,5 +1,6 @@
 package com.web.Controller;
 
+import com.web.annotation.AdminLog;
 import com.web.annotation.Userid;
 import com.web.common.ApiResponse;
 import com.web.model.User;
@@ -231,6 +232,7 @@ public class StandardUserController {
      * POST /api/users/{userId}/ban
      */
     @PostMapping("/{userId}/ban")
+    @AdminLog(action = "BAN_USER", sync = true)
     public ResponseEntity<ApiResponse<String>> banUser(@PathVariable Long userId) {
         try {
             boolean banned = userService.banUser(userId);
@@ -249,6 +251,7 @@ public class StandardUserController {
      * POST /api/users/{userId}/unban
      */
     @PostMapping("/{userId}/unban")
+    @AdminLog(action = "UNBAN_USER", sync = true)
     public ResponseEntity<ApiResponse<String>> unbanUser(@PathVariable Long userId) {
         try {
             boolean unbanned = userService.unbanUser(userId);
@@ -267,6 +270,7 @@ public class StandardUserController {
      * POST /api/users/{userId}/reset-password
      */
     @PostMapping("/{userId}/reset-password")
+    @AdminLog(action = "RESET_USER_PASSWORD", sync = true)
     public ResponseEntity<ApiResponse<String>> resetUserPassword(
             @PathVariable Long userId,
             @RequestBody @Valid AdminResetPasswordRequestVo resetRequest) {
@@ -16,4 +16,9 @@ public @interface AdminLog {
      * e.g., "BAN_USER", "DELETE_ARTICLE"
      */
     String action();
+
+    /**
+     * 是否同步等待日志落库后再返回（用于安全相关操作），默认异步批量写入
+     */
+    boolean sync() default false;
 }
@@ -3,8 +3,10 @@ package com.web.aop;
 import com.web.annotation.AdminLog;
 import com.web.model.SystemLog;
 import com.web.security.SecurityUtils;
-import com.web.service.LogService;
+import com.web.service.AuditLogService;
 import com.web.util.IpUtil;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
@@ -12,21 +14,34 @@ import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
 
 @Aspect
 @Component
 @Slf4j
 public class AdminLogAspect {
 
+    private static final String[] SENSITIVE_NAMES = {"password", "pwd", "token", "secret", "credential"};
+
     @Autowired
-    private LogService logService;
+    private AuditLogService auditLogService;
+
+    @Value("${weeb.audit-log.max-arg-length:256}")
+    private int maxArgLength;
+
+    @Value("${weeb.audit-log.max-details-length:2000}")
+    private int maxDetailsLength;
 
     @AfterReturning(pointcut = "@annotation(com.web.annotation.AdminLog)")
     public void logAdminAction(JoinPoint joinPoint) {
@@ -38,8 +53,11 @@ public class AdminLogAspect {
             systemLog.setOperatorId(operatorId);
 
             // 2. 获取IP地址
-            HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
-            systemLog.setIpAddress(IpUtil.getIpAddr(request));
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes instanceof ServletRequestAttributes) {
+                HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+                systemLog.setIpAddress(IpUtil.getIpAddr(request));
+            }
 
             // 3. 获取注解中的操作描述
             MethodSignature signature = (MethodSignature) joinPoint.getSignature();
@@ -47,18 +65,79 @@ public class AdminLogAspect {
             AdminLog adminLog = method.getAnnotation(AdminLog.class);
             systemLog.setAction(adminLog.action());
 
-            // 4. 获取操作详情 (方法参数)
-            Object[] args = joinPoint.getArgs();
-            String details = Arrays.stream(args)
-                                   .map(Object::toString)
-                                   .collect(Collectors.joining(", "));
-            systemLog.setDetails("Parameters: [" + details + "]");
+            // 4. 获取操作详情 (方法参数，限制长度并隐藏敏感参数)
+            systemLog.setDetails("Parameters: [" + formatArguments(signature.getParameterNames(), joinPoint.getArgs()) + "]");
 
-            // 5. 记录日志
-            logService.recordLog(systemLog);
+            // 5. 记录日志（由审计日志写入线程批量落库，标记为同步的操作等待落库）
+            auditLogService.record(systemLog, adminLog.sync());
 
         } catch (Exception e) {
             log.error("记录管理员日志时出错", e);
         }
     }
+
+    /**
+     * 格式化方法参数：单个参数最多 max-arg-length 个字符，总长度不超过 max-details-length；
+     * 请求、响应、校验结果不记录，集合和文件只记录大小
+     */
+    private String formatArguments(String[] names, Object[] args) {
+        StringBuilder details = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof ServletRequest || arg instanceof ServletResponse || arg instanceof Errors) {
+                continue;
+            }
+            String name = names != null && i < names.length ? names[i] : "arg" + i;
+            String value = isSensitive(name) ? "******" : formatArgument(arg);
+            if (details.length() > 0) {
+                details.append(", ");
+            }
+            details.append(name).append('=').append(value);
+            if (details.length() >= maxDetailsLength) {
+                details.setLength(maxDetailsLength);
+                details.append("...");
+                break;
+            }
+        }
+        return details.toString();
+    }
+
+    private String formatArgument(Object arg) {
+        if (arg == null) {
+            return "null";
+        }
+        if (arg instanceof MultipartFile) {
+            MultipartFile file = (MultipartFile) arg;
+            return "MultipartFile(" + file.getOriginalFilename() + ", " + file.getSize() + " bytes)";
+        }
+        if (arg instanceof byte[]) {
+            return "byte[" + ((byte[]) arg).length + "]";
+        }
+        if (arg instanceof Collection) {
+            Collection<?> collection = (Collection<?>) arg;
+            return collection.size() <= 20 ? truncate(collection.toString())
+                    : arg.getClass().getSimpleName() + "(size=" + collection.size() + ")";
+        }
+        if (arg instanceof Map) {
+            return arg.getClass().getSimpleName() + "(size=" + ((Map<?, ?>) arg).size() + ")";
+        }
+        if (arg.getClass().isArray()) {
+            return arg.getClass().getComponentType().getSimpleName() + "[" + java.lang.reflect.Array.getLength(arg) + "]";
+        }
+        return truncate(String.valueOf(arg));
+    }
+
+    private String truncate(String value) {
+        return value.length() > maxArgLength ? value.substring(0, maxArgLength) + "..." : value;
+    }
+
+    private static boolean isSensitive(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (String sensitive : SENSITIVE_NAMES) {
+            if (lower.contains(sensitive)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,40 @@
+package com.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 互动计数增量数据传输对象 (EngagementDelta)。
+ * 刷写时按文章或按作者合并后的点赞、收藏、阅读、赞助增量。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementDelta {
+
+    /**
+     * 文章ID或作者用户ID，取决于增量应用到的表
+     */
+    private Long id;
+
+    /**
+     * 点赞数增量（可为负）
+     */
+    private long likes;
+
+    /**
+     * 收藏数增量（可为负）
+     */
+    private long favorites;
+
+    /**
+     * 阅读（曝光）数增量
+     */
+    private long reads;
+
+    /**
+     * 赞助金额增量
+     */
+    private double coins;
+}
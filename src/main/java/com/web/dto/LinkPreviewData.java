@@ -0,0 +1,62 @@
+package com.web.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 链接预览抓取结果 (LinkPreviewData)。
+ * 按规范化URL共享缓存，同一链接的多条预览记录复用同一份结果。
+ */
+@Data
+@NoArgsConstructor
+public class LinkPreviewData {
+
+    /**
+     * 规范化后的URL（缓存键）
+     */
+    private String canonicalUrl;
+
+    /**
+     * 跟随重定向后的最终URL
+     */
+    private String finalUrl;
+
+    /**
+     * 是否抓取成功
+     */
+    private boolean success;
+
+    /**
+     * HTTP状态码，未收到响应时为0
+     */
+    private int statusCode;
+
+    /**
+     * 失败原因
+     */
+    private String errorMessage;
+
+    private String title;
+
+    private String description;
+
+    private String siteName;
+
+    private String imageUrl;
+
+    private String contentType;
+
+    private String ogTags;
+
+    private String twitterTags;
+
+    /**
+     * 抓取耗时（毫秒）
+     */
+    private long generationTime;
+
+    /**
+     * 抓取完成时间（毫秒时间戳）
+     */
+    private long fetchedAt;
+}
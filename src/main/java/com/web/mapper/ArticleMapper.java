@@ -1,9 +1,11 @@
 package com.web.mapper;
 
+import com.web.dto.EngagementDelta;
 import com.web.model.Article;
 import com.web.vo.article.ArticleSearchAdvancedVo;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -359,4 +361,114 @@ public interface ArticleMapper {
      * @return 影响的行数
      */
     int decreaseLikeCount(@Param("articleId") Long articleId);
+
+    /**
+     * 批量累加文章互动计数增量
+     * @param deltas 按文章合并后的增量（id为文章ID）
+     * @return 影响的行数
+     */
+    int applyArticleEngagementDeltas(@Param("deltas") List<EngagementDelta> deltas);
+
+    /**
+     * 批量累加作者 user_stats 汇总增量，代替按作者全部文章重新聚合
+     * @param deltas 按作者合并后的增量（id为用户ID）
+     * @return 影响的行数
+     */
+    int applyUserStatsEngagementDeltas(@Param("deltas") List<EngagementDelta> deltas);
+
+    /**
+     * 批量写入文章独立访客数（只增不减，多实例并发汇总时保留较大值）
+     * @param items 每项包含 articleId 与 uniqueViews
+     * @return 影响的行数
+     */
+    int upsertArticleUniqueViews(@Param("items") List<Map<String, Object>> items);
+
+    /**
+     * 查询已汇总的文章独立访客数
+     * @param articleId 文章ID
+     * @return 独立访客数，未汇总过时返回null
+     */
+    Long selectArticleUniqueViews(@Param("articleId") Long articleId);
+
+    /**
+     * 查询推荐候选文章（只含计分所需的字段，不含正文）
+     * @param since 发布时间下限
+     * @param limit 最大数量
+     * @return 按基础分降序的候选文章
+     */
+    List<Article> selectRecommendationCandidates(@Param("since") LocalDateTime since, @Param("limit") int limit);
+
+    /**
+     * 查询单篇推荐候选文章（只含计分所需的字段）
+     * @param articleId 文章ID
+     * @return 候选文章，文章不存在时返回null
+     */
+    Article selectRecommendationCandidateById(@Param("articleId") Long articleId);
+
+    /**
+     * 根据ID批量查询文章
+     * @param ids 文章ID列表
+     * @return 文章列表（不保证顺序）
+     */
+    List<Article> selectArticlesByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 查询用户近期点赞、收藏过的文章分类
+     * @param userId 用户ID
+     * @param limit 最大数量
+     * @return 按互动次数降序的分类ID
+     */
+    List<Long> selectPreferredCategoryIds(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * 查询文章作者ID
+     * @param articleId 文章ID
+     * @return 作者用户ID，文章不存在时为null
+     */
+    Long selectAuthorIdByArticleId(@Param("articleId") Long articleId);
+
+    /**
+     * 查询文章状态
+     * @param articleId 文章ID
+     * @return 状态码，文章不存在时为null
+     */
+    Integer selectStatusByArticleId(@Param("articleId") Long articleId);
+
+    /**
+     * 写入自动检测结果（仅对待审核文章生效）
+     * @param articleId 文章ID
+     * @param hasSensitiveWords 是否包含敏感词
+     * @param reviewPriority 审核优先级: 0=普通, 1=高, 2=紧急
+     * @return 影响行数
+     */
+    int updateModerationScan(@Param("articleId") Long articleId,
+                             @Param("hasSensitiveWords") boolean hasSensitiveWords,
+                             @Param("reviewPriority") int reviewPriority);
+
+    /**
+     * 更新审核优先级（仅对待审核文章生效）
+     * @param articleId 文章ID
+     * @param reviewPriority 审核优先级: 0=普通, 1=高, 2=紧急
+     * @return 影响行数
+     */
+    int updateReviewPriority(@Param("articleId") Long articleId, @Param("reviewPriority") int reviewPriority);
+
+    /**
+     * 写入人工审核结果
+     * @param articleId 文章ID
+     * @param status 审核后的状态
+     * @param reviewerId 审核人ID
+     * @param reviewNote 审核备注（拒绝原因等）
+     * @return 影响行数
+     */
+    int updateReviewResult(@Param("articleId") Long articleId, @Param("status") int status,
+                           @Param("reviewerId") Long reviewerId, @Param("reviewNote") String reviewNote);
+
+    /**
+     * 按ID游标分页查询待审核文章，用于重建审核队列
+     * @param lastId 上一页最后一个文章ID
+     * @param limit 每页数量
+     * @return article_id、created_millis（提交时间毫秒）
+     */
+    List<Map<String, Object>> selectPendingReviewAfter(@Param("lastId") long lastId, @Param("limit") int limit);
 }
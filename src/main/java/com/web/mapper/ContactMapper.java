@@ -113,4 +113,30 @@ public interface ContactMapper extends BaseMapper<Contact> {
      * @return 受影响行数
      */
     int deleteExpiredRequest(@Param("contactId") Long contactId);
+
+    /**
+     * 按记录ID游标分批读取指定状态的联系人关系，用于构建社交图
+     * @param status 联系人状态
+     * @param lastId 上一批最后一条记录ID
+     * @param limit 批大小
+     * @return 联系人记录（仅包含id、userId、friendId）
+     */
+    List<Contact> selectContactEdgesAfter(@Param("status") int status, @Param("lastId") Long lastId, @Param("limit") int limit);
+
+    /**
+     * 统计两个用户之间任一方向上指定状态的联系人记录数
+     * @param userId 用户ID
+     * @param otherUserId 另一用户ID
+     * @param status 联系人状态
+     * @return 记录数
+     */
+    int countContactsBetween(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId, @Param("status") int status);
+
+    /**
+     * 批量查询用户与一组用户之间任一方向上的联系人记录
+     * @param userId 用户ID
+     * @param otherUserIds 对方用户ID列表
+     * @return 联系人记录（仅包含id、userId、friendId、status）
+     */
+    List<Contact> selectContactsBetween(@Param("userId") Long userId, @Param("otherUserIds") java.util.Collection<Long> otherUserIds);
 }
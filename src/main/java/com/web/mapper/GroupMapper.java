@@ -5,6 +5,7 @@ import com.web.model.Group;
 import com.web.dto.GroupDto;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import java.util.List; // Added
 
 /**
@@ -133,4 +134,14 @@ public interface GroupMapper extends BaseMapper<Group> {
      * @return 群组详细信息
      */
     GroupDto selectGroupWithDetails(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    /**
+     * 按ID游标分批扫描正常状态群组的搜索字段
+     * 用于构建输入联想索引
+     * @param lastId 上一批最后一个群组ID
+     * @param limit 批大小
+     * @return 群组列表（仅包含ID、名称和成员数）
+     */
+    @Select("SELECT id, group_name AS groupName, member_count AS memberCount FROM `group` WHERE id > #{lastId} AND status = 1 ORDER BY id LIMIT #{limit}")
+    List<Group> selectSearchKeysAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
 }
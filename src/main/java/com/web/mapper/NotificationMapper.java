@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 通知数据访问层接口
@@ -60,4 +61,10 @@ public interface NotificationMapper extends BaseMapper<Notification> {
      * @return 总通知数量
      */
     int countTotalNotifications(@Param("recipientId") Long recipientId);
+
+    int insertBatch(@Param("notifications") List<Notification> notifications);
+
+    Map<String, Object> selectNotificationCounts(@Param("recipientId") Long recipientId);
+    
+    int countByIdAndRecipient(@Param("notificationId") Long notificationId, @Param("recipientId") Long recipientId);
 } 
\ No newline at end of file
@@ -16,6 +16,13 @@ public interface SystemLogMapper {
      */
     int insertLog(SystemLog log);
 
+    /**
+     * 批量插入系统日志（多行INSERT，使用日志自带的创建时间）
+     * @param logs 日志列表
+     * @return 影响的行数
+     */
+    int batchInsertLogs(@Param("logs") List<SystemLog> logs);
+
     /**
      * 分页查询系统日志
      * @param offset 偏移量
@@ -61,6 +68,25 @@ public interface SystemLogMapper {
                              @Param("ipAddress") String ipAddress, @Param("startDate") String startDate,
                              @Param("endDate") String endDate, @Param("keyword") String keyword);
 
+    /**
+     * 按ID游标分批读取导出用的系统日志（带过滤条件，按ID升序）
+     * @param afterId 上一批最后一条日志ID，从头开始时传0
+     * @param limit 每批数量
+     * @param operatorId 操作者ID（可选）
+     * @param action 操作类型（可选）
+     * @param ipAddress IP地址（可选）
+     * @param startTime 开始时间，包含（可选）
+     * @param endTime 结束时间，不包含（可选）
+     * @param keyword 关键词（可选）
+     * @return 日志列表
+     */
+    List<SystemLog> findLogsForExport(@Param("afterId") long afterId, @Param("limit") int limit,
+                                      @Param("operatorId") Long operatorId, @Param("action") String action,
+                                      @Param("ipAddress") String ipAddress,
+                                      @Param("startTime") java.time.LocalDateTime startTime,
+                                      @Param("endTime") java.time.LocalDateTime endTime,
+                                      @Param("keyword") String keyword);
+
     /**
      * 按日期统计日志数量
      * @param date 日期
@@ -130,11 +156,12 @@ public interface SystemLogMapper {
     List<String> getDistinctOperators(@Param("limit") int limit);
 
     /**
-     * 删除指定时间之前的日志
+     * 删除指定时间之前的日志（每次最多删除 limit 条，用于未分区时分批清理）
      * @param beforeTime 时间点
+     * @param limit 本次最多删除的条数
      * @return 删除的行数
      */
-    int deleteLogsBefore(@Param("beforeTime") java.time.LocalDateTime beforeTime);
+    int deleteLogsBefore(@Param("beforeTime") java.time.LocalDateTime beforeTime, @Param("limit") int limit);
 
     /**
      * 批量删除日志
@@ -164,4 +191,99 @@ public interface SystemLogMapper {
      * @return 日志列表
      */
     List<SystemLog> searchLogs(@Param("keyword") String keyword, @Param("limit") int limit);
+
+    // ==================== 汇总表 ====================
+
+    /**
+     * 从原始日志重算时间范围内的小时汇总（按小时、操作类型、操作员）
+     * @param startTime 开始时间（整点，包含）
+     * @param endTime 结束时间（整点，不包含）
+     * @return 影响的行数
+     */
+    int rollupHourly(@Param("startTime") java.time.LocalDateTime startTime,
+                     @Param("endTime") java.time.LocalDateTime endTime);
+
+    /**
+     * 从小时汇总重算日期范围内的按天汇总
+     * @param startDate 开始日期（包含）
+     * @param endDate 结束日期（不包含）
+     * @return 影响的行数
+     */
+    int rollupDaily(@Param("startDate") java.time.LocalDate startDate,
+                    @Param("endDate") java.time.LocalDate endDate);
+
+    /**
+     * 获取最新的小时汇总时间
+     * @return 最新汇总的整点时间，没有汇总时为null
+     */
+    java.time.LocalDateTime findLatestRollupHour();
+
+    /**
+     * 获取最早的日志时间
+     * @return 最早日志时间，没有日志时为null
+     */
+    java.time.LocalDateTime findEarliestLogTime();
+
+    /**
+     * 删除指定时间之前的小时汇总
+     * @param beforeTime 时间点
+     * @return 删除的行数
+     */
+    int deleteHourlyRollupsBefore(@Param("beforeTime") java.time.LocalDateTime beforeTime);
+
+    /**
+     * 删除指定日期之前的按天汇总
+     * @param beforeDate 日期
+     * @return 删除的行数
+     */
+    int deleteDailyRollupsBefore(@Param("beforeDate") java.time.LocalDate beforeDate);
+
+    /**
+     * 按天汇总统计日志条数
+     * @param startDate 开始日期（可选，包含）
+     * @param endDate 结束日期（可选，包含）
+     * @param action 操作类型（可选）
+     * @return 日志条数
+     */
+    long sumDailyRollup(@Param("startDate") java.time.LocalDate startDate,
+                        @Param("endDate") java.time.LocalDate endDate,
+                        @Param("action") String action);
+
+    /**
+     * 按小时汇总统计时间范围内每小时、每种操作的日志条数
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（不包含）
+     * @param action 操作类型（可选）
+     * @return 列表（hour 小时, action 操作类型, count 条数）
+     */
+    List<java.util.Map<String, Object>> sumHourlyRollupByHour(@Param("startTime") java.time.LocalDateTime startTime,
+                                                              @Param("endTime") java.time.LocalDateTime endTime,
+                                                              @Param("action") String action);
+
+    /**
+     * 按天汇总统计日期范围内每天、每种操作的日志条数
+     * @param startDate 开始日期（可选，包含）
+     * @param endDate 结束日期（可选，包含）
+     * @return 列表（bucketDate 日期, action 操作类型, count 条数）
+     */
+    List<java.util.Map<String, Object>> sumDailyRollupByDay(@Param("startDate") java.time.LocalDate startDate,
+                                                            @Param("endDate") java.time.LocalDate endDate);
+
+    /**
+     * 按天汇总获取最活跃的操作员
+     * @param startDate 开始日期（可选，包含）
+     * @param limit 限制数量
+     * @return 操作员统计列表
+     */
+    List<java.util.Map<String, Object>> getTopOperatorsFromRollup(@Param("startDate") java.time.LocalDate startDate,
+                                                                  @Param("limit") int limit);
+
+    /**
+     * 按天汇总获取最常见的操作
+     * @param startDate 开始日期（可选，包含）
+     * @param limit 限制数量
+     * @return 操作统计列表
+     */
+    List<java.util.Map<String, Object>> getTopActionsFromRollup(@Param("startDate") java.time.LocalDate startDate,
+                                                                @Param("limit") int limit);
 }
@@ -99,4 +99,20 @@ public interface UserFollowMapper extends BaseMapper<UserFollow> {
      */
     int unfollowUser(@Param("followerId") Long followerId, 
                     @Param("followeeId") Long followeeId);
-}
\ No newline at end of file
+
+    /**
+     * 按记录ID游标分批读取关注关系，用于构建社交图
+     * @param lastId 上一批最后一条记录ID
+     * @param limit 批大小
+     * @return 关注记录（仅包含id、followerId、followeeId）
+     */
+    List<UserFollow> selectFollowEdgesAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
+
+    /**
+     * 批量查询用户与一组用户之间任一方向上的关注关系
+     * @param userId 用户ID
+     * @param otherUserIds 对方用户ID列表
+     * @return 关注记录（仅包含followerId、followeeId）
+     */
+    List<UserFollow> selectFollowsBetween(@Param("userId") Long userId, @Param("otherUserIds") java.util.Collection<Long> otherUserIds);
+}
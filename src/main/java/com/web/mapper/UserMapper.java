@@ -9,6 +9,7 @@ import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户Mapper接口
@@ -426,4 +427,32 @@ public interface UserMapper extends BaseMapper<User> {
      */
     @Update("UPDATE user SET user_level = #{userLevel} WHERE id = #{id}")
     int updateUserLevel(User user);
+
+    /**
+     * 按ID游标分批扫描用户的搜索字段
+     * 用于构建输入联想索引，避免一次性加载全部用户
+     * @param lastId 上一批最后一个用户ID
+     * @param limit 批大小
+     * @return 用户列表（仅包含ID、用户名、昵称和等级）
+     */
+    @Select("SELECT id, username, nickname, user_level AS userLevel FROM `user` WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<User> selectSearchKeysAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
+
+    /**
+     * 按ID游标分批扫描用户ID
+     * 用于等级引擎全量重算，按批推进并记录游标以便中断后续跑
+     * @param lastId 上一批最后一个用户ID
+     * @param limit 批大小
+     * @return 用户ID列表
+     */
+    @Select("SELECT id FROM `user` WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Long> selectUserIdsAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
+
+    /**
+     * 一次查询批量统计用户等级计算所需的全部计数
+     * 每行包含userId、counter（计数名）和value，没有记录的计数不返回行
+     * @param userIds 用户ID列表
+     * @return 计数行列表
+     */
+    List<Map<String, Object>> selectLevelCounters(@Param("userIds") List<Long> userIds);
 }
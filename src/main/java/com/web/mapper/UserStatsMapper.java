@@ -146,6 +146,14 @@ public interface UserStatsMapper extends BaseMapper<UserStats> {
      */
     UserStats selectUserStatsByUserId(@Param("userId") Long userId);
 
+    /**
+     * 按用户ID游标分批读取排行榜相关统计，用于重建排行榜
+     * @param lastId 上一批最后一个用户ID
+     * @param limit 批大小
+     * @return 统计数据列表（仅包含排行榜字段）
+     */
+    List<UserStats> selectLeaderboardStatsAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
+
     /**
      * 获取用户统计摘要信息
      * @return 用户统计摘要
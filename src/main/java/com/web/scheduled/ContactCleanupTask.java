@@ -3,6 +3,7 @@ package com.web.scheduled;
 import com.web.constant.ContactStatus;
 import com.web.mapper.ContactMapper;
 import com.web.model.Contact;
+import com.web.service.RelationshipCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -22,6 +23,9 @@ public class ContactCleanupTask {
     @Autowired
     private ContactMapper contactMapper;
 
+    @Autowired
+    private RelationshipCacheService relationshipCacheService;
+
     /**
      * 清理过期的PENDING好友申请
      * 每天凌晨2点执行
@@ -59,6 +63,7 @@ public class ContactCleanupTask {
                 
                 if (shouldDelete) {
                     contactMapper.deleteById(contact.getId());
+                    relationshipCacheService.invalidate(contact.getUserId(), contact.getFriendId());
                     cleanedCount++;
                     log.debug("删除过期PENDING记录 - ID: {}, 用户: {} -> 好友: {}, 创建时间: {}", 
                              contact.getId(), contact.getUserId(), contact.getFriendId(), contact.getCreateTime());
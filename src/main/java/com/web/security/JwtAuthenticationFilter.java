@@ -1,9 +1,12 @@
 package com.web.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.service.VerifiedTokenCacheService;
 import com.web.util.JwtUtil;
 import com.web.util.SecurityAuditUtils;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
@@ -37,6 +40,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final CustomUserDetailsService customUserDetailsService;
     private final JwtUtil jwtUtil;
     private final ObjectMapper objectMapper;
+    private final VerifiedTokenCacheService verifiedTokenCacheService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -55,46 +59,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // 提取JWT令牌
             jwt = authHeader.substring(7);
 
-            // 首先验证token是否有效（不依赖用户）
-            if (!jwtUtil.validateToken(jwt)) {
-                log.warn("Invalid JWT token format or signature");
-                SecurityAuditUtils.logAuthenticationFailure("unknown", request.getRemoteAddr(), "Invalid token format");
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            final Long userId = jwtUtil.getUserIdFromToken(jwt);
-
-            // 验证用户ID和SecurityContext
-            if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                try {
-                    UserDetails userDetails = this.customUserDetailsService.loadUserById(userId);
-
-                    // 验证JWT令牌与用户的匹配性
-                    String tokenUsername = jwtUtil.extractUsername(jwt);
-                    if (tokenUsername != null && tokenUsername.equals(userDetails.getUsername())) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                        // 设置userinfo属性供UserInfoArgumentResolver使用
-                        Map<String, Object> userinfo = new HashMap<>();
-                        userinfo.put("userId", userId);
-                        userinfo.put("username", userDetails.getUsername());
-                        request.setAttribute("userinfo", userinfo);
-
-                        // 记录成功的认证
-                        SecurityAuditUtils.logAuthenticationSuccess(userDetails.getUsername(), request.getRemoteAddr());
-                    } else {
-                        log.warn("Token username mismatch: token={}, user={}", tokenUsername, userDetails.getUsername());
-                        SecurityAuditUtils.logAuthenticationFailure(userDetails.getUsername(), request.getRemoteAddr(), "Username mismatch");
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                long start = System.nanoTime();
+                // 先查已验证令牌缓存，命中时无需验签和加载用户
+                VerifiedTokenCacheService.VerifiedToken verified = verifiedTokenCacheService.get(jwt);
+                boolean hit = verified != null;
+                if (!hit) {
+                    verified = verifyToken(jwt, request);
+                }
+                if (verified != null) {
+                    authenticate(verified, request);
+                    if (!hit) {
+                        // 只在实际验签时记录认证成功，缓存命中不重复记录
+                        SecurityAuditUtils.logAuthenticationSuccess(verified.getUsername(), request.getRemoteAddr());
                     }
-                } catch (UsernameNotFoundException e) {
-                    log.warn("User not found for token userId: {}", userId);
-                    SecurityAuditUtils.logAuthenticationFailure("unknown", request.getRemoteAddr(), "User not found");
-                    // 不抛出异常，继续处理请求，让后续的认证过滤器处理
                 }
+                verifiedTokenCacheService.recordAuthentication(hit, System.nanoTime() - start);
             }
 
         } catch (ExpiredJwtException e) {
@@ -121,6 +101,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 完整验证令牌：一次解析完成验签与声明读取，再加载用户并核对用户名
+     * @return 验证结果，令牌无效或用户不匹配时返回null
+     */
+    private VerifiedTokenCacheService.VerifiedToken verifyToken(String jwt, HttpServletRequest request) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid JWT token format or signature");
+            SecurityAuditUtils.logAuthenticationFailure("unknown", request.getRemoteAddr(), "Invalid token format");
+            return null;
+        }
+
+        final Long userId = Long.valueOf(claims.getSubject());
+        // 优先读取自定义username声明；若不存在，回退为subject（兼容旧token）
+        String tokenUsername = claims.get("username", String.class);
+        if (tokenUsername == null || tokenUsername.isEmpty()) {
+            tokenUsername = claims.getSubject();
+        }
+
+        try {
+            UserDetails userDetails = this.customUserDetailsService.loadUserById(userId);
+
+            // 验证JWT令牌与用户的匹配性
+            if (!tokenUsername.equals(userDetails.getUsername())) {
+                log.warn("Token username mismatch: token={}, user={}", tokenUsername, userDetails.getUsername());
+                SecurityAuditUtils.logAuthenticationFailure(userDetails.getUsername(), request.getRemoteAddr(), "Username mismatch");
+                return null;
+            }
+
+            // 缓存的主体不保留密码哈希
+            UserDetails principal = org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                    .password("")
+                    .build();
+            long expiresAt = claims.getExpiration() != null
+                    ? claims.getExpiration().getTime() : System.currentTimeMillis();
+            VerifiedTokenCacheService.VerifiedToken verified = new VerifiedTokenCacheService.VerifiedToken(
+                    userId, userDetails.getUsername(), principal, expiresAt);
+            verifiedTokenCacheService.put(jwt, verified);
+            return verified;
+        } catch (UsernameNotFoundException e) {
+            log.warn("User not found for token userId: {}", userId);
+            SecurityAuditUtils.logAuthenticationFailure("unknown", request.getRemoteAddr(), "User not found");
+            // 不抛出异常，继续处理请求，让后续的认证过滤器处理
+            return null;
+        }
+    }
+
+    private void authenticate(VerifiedTokenCacheService.VerifiedToken verified, HttpServletRequest request) {
+        UserDetails userDetails = verified.getUserDetails();
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+
+        // 设置userinfo属性供UserInfoArgumentResolver使用
+        Map<String, Object> userinfo = new HashMap<>();
+        userinfo.put("userId", verified.getUserId());
+        userinfo.put("username", verified.getUsername());
+        request.setAttribute("userinfo", userinfo);
+    }
+
     /**
      * 处理认证异常
      */
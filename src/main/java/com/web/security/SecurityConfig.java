@@ -2,6 +2,7 @@
 
 import com.web.service.UserService;
 import com.web.service.UserTypeSecurityService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -73,6 +74,8 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // 异步分派（SSE、流式下载）沿用首次请求的鉴权结果
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // 公开访问的端点
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
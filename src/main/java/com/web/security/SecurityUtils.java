@@ -10,9 +10,12 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +52,11 @@ public class SecurityUtils {
         try {
             String username = getCurrentUsername();
             if (username != null) {
+                // JWT过滤器已在请求属性中放入userId，用户名一致时直接使用，免去按用户名查库
+                Long requestUserId = getUserIdFromRequest(username);
+                if (requestUserId != null) {
+                    return requestUserId;
+                }
                 User user = userService.findByUsername(username);
                 return user != null ? user.getId() : null;
             }
@@ -58,6 +66,25 @@ public class SecurityUtils {
         return null;
     }
 
+    /**
+     * 从JWT过滤器设置的userinfo请求属性中读取用户ID
+     */
+    private static Long getUserIdFromRequest(String username) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object userinfo = attributes.getAttribute("userinfo", RequestAttributes.SCOPE_REQUEST);
+        if (userinfo instanceof Map) {
+            Map<?, ?> info = (Map<?, ?>) userinfo;
+            Object userId = info.get("userId");
+            if (username.equals(info.get("username")) && userId instanceof Long) {
+                return (Long) userId;
+            }
+        }
+        return null;
+    }
+
     /**
      * 获取当前认证的用户
      */
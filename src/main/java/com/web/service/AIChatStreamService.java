@@ -0,0 +1,37 @@
+package com.web.service;
+
+import com.web.vo.ai.ChatRequestVo;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * AI 对话服务接口
+ * 调用 OpenAI 兼容的 /chat/completions 接口（DeepSeek 或 Ollama），支持逐 token 流式推送到浏览器
+ */
+public interface AIChatStreamService {
+
+    /**
+     * 流式对话：上游以 SSE 返回的增量内容逐条转发给客户端
+     * 事件：token（{"content": 增量文本}）、done（结束原因、token数、首token耗时）、error（错误信息）；
+     * 客户端断开或超时时取消上游请求
+     * @param requestVo 对话请求
+     * @param userId 用户ID
+     * @return SSE 发送器
+     */
+    SseEmitter streamChat(ChatRequestVo requestVo, Long userId);
+
+    /**
+     * 非流式对话，等待完整回复
+     * @param requestVo 对话请求
+     * @param userId 用户ID
+     * @return 回复内容
+     */
+    String complete(ChatRequestVo requestVo, Long userId);
+
+    /**
+     * 获取对话统计信息（并发流数、完成/取消/失败次数、首token耗时）
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,41 @@
+package com.web.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AI 网关服务接口
+ * 所有非流式的 AI 调用经由网关发出：按提供商限制并发和 token 速率，排队等待有截止时间，
+ * 提供商连续失败时熔断，并按观测到的延迟在已配置的提供商（deepseek / ollama）之间路由和降级
+ */
+public interface AIGatewayService {
+
+    /**
+     * 发送一次对话补全请求，当前提供商失败时按路由顺序尝试下一个
+     * @param operation 操作名称（如 chat、summary），用于统计
+     * @param messages 对话消息（role、content）
+     * @param temperature 采样温度
+     * @param maxTokens 最大输出token数
+     * @return 回复内容
+     * @throws com.web.exception.WeebException 所有提供商都不可用、被限流或超过截止时间时抛出
+     */
+    String complete(String operation, List<Map<String, String>> messages, double temperature, int maxTokens);
+
+    /**
+     * 从文本中提取词语列表（标签、关键词等）
+     * 短时间内同一操作的多个请求合并为一次 AI 调用，结果按顺序拆分给各请求
+     * @param operation 操作名称（如 tags、keywords），同一操作的请求才会合并
+     * @param instruction 提取要求
+     * @param content 文本内容
+     * @param count 最多返回的数量
+     * @return 提取结果；失败时异常完成，降级结果由调用方生成
+     */
+    CompletableFuture<List<String>> extractTerms(String operation, String instruction, String content, int count);
+
+    /**
+     * 获取网关统计信息（各提供商的并发、排队、限流、熔断状态和延迟，合并批次情况）
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,48 @@
+package com.web.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * AI 结果缓存服务接口
+ * 按 操作 + 参数 + 内容哈希 缓存 AI 调用结果（本地有界缓存 + Redis），并合并相同的并发请求
+ */
+public interface AIResultCacheService {
+
+    /**
+     * 获取缓存结果，未命中时执行加载器
+     * 相同键的并发请求只执行一次加载器，其余请求等待同一结果；
+     * 加载器返回 null 或抛出异常时不缓存（异常会传给所有等待者），降级结果应在加载器之外生成
+     * @param operation 操作名称（如 summary、tags）
+     * @param params 影响结果的参数，按固定顺序拼接
+     * @param content 输入内容
+     * @param type 结果类型，用于从 Redis 反序列化
+     * @param loader 实际调用 AI 的加载器
+     * @param <T> 结果类型
+     * @return 结果
+     */
+    <T> T getOrLoad(String operation, String params, String content, TypeReference<T> type, Supplier<T> loader);
+
+    /**
+     * getOrLoad 的异步版本：未命中时加载器返回 future，调用线程不等待加载完成
+     * 与 getOrLoad 共用同一份缓存和正在加载的请求，缓存规则相同
+     * @param operation 操作名称
+     * @param params 影响结果的参数
+     * @param content 输入内容
+     * @param type 结果类型
+     * @param loader 返回异步结果的加载器
+     * @param <T> 结果类型
+     * @return 结果 future
+     */
+    <T> CompletableFuture<T> getOrLoadAsync(String operation, String params, String content, TypeReference<T> type,
+                                            Supplier<CompletableFuture<T>> loader);
+
+    /**
+     * 获取缓存统计信息（各操作的命中、未命中、合并次数和节省的耗时）
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
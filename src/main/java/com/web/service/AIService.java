@@ -66,6 +66,14 @@ public interface AIService {
      */
     List<String> extractKeywords(String content, int count);
 
+    /**
+     * 批量提取关键词，各条结果与输入顺序一致
+     * @param contents 文本内容列表
+     * @param count 每条的关键词数量
+     * @return 关键词列表的列表
+     */
+    List<List<String>> extractKeywordsBatch(List<String> contents, int count);
+
     /**
      * 翻译文本
      * @param content 原始文本
@@ -82,6 +90,14 @@ public interface AIService {
      */
     List<String> generateArticleTags(String content, int count);
 
+    /**
+     * 批量生成文章标签，各条结果与输入顺序一致
+     * @param contents 文章内容列表
+     * @param count 每篇的标签数量
+     * @return 标签列表的列表
+     */
+    List<List<String>> generateArticleTagsBatch(List<String> contents, int count);
+
     /**
      * 检查内容合规性
      * @param content 文本内容
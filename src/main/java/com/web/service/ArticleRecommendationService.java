@@ -0,0 +1,55 @@
+package com.web.service;
+
+import com.web.dto.EngagementDelta;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文章推荐服务接口
+ * 在内存中维护按时间衰减分排序的候选文章排名，互动增量刷写后增量调整，
+ * 定期从数据库全量重建；支持游标分页与按关注作者、偏好分类的个性化重排
+ */
+public interface ArticleRecommendationService {
+
+    /**
+     * 获取推荐信息流（游标分页）
+     * @param userId 当前用户ID（个性化时使用，可为null）
+     * @param cursor 上一页返回的游标，首页为null
+     * @param size 每页数量
+     * @param personalized 是否按关注作者与偏好分类重排
+     * @return list、nextCursor、hasMore
+     */
+    Map<String, Object> getFeed(Long userId, String cursor, int size, boolean personalized);
+
+    /**
+     * 按页码获取推荐文章（兼容旧接口）
+     * @param page 页码
+     * @param pageSize 每页数量
+     * @return 推荐结果，排名尚未构建时返回null
+     */
+    Map<String, Object> getPage(int page, int pageSize);
+
+    /**
+     * 应用已刷写到数据库的互动增量
+     * @param deltas 按文章合并后的增量
+     */
+    void applyEngagement(List<EngagementDelta> deltas);
+
+    /**
+     * 文章状态或内容变更后重新加载该文章的排名（事务提交后执行）
+     * @param articleId 文章ID
+     */
+    void refreshArticle(Long articleId);
+
+    /**
+     * 从数据库全量重建排名
+     */
+    void rebuild();
+
+    /**
+     * 获取排名与请求统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,41 @@
+package com.web.service;
+
+import java.util.Map;
+
+/**
+ * 文章浏览统计服务接口
+ * 独立访客用Redis HyperLogLog按文章按天记录（可合并得到任意区间与累计值），
+ * 原始阅读数交给互动计数服务缓冲，二者都定期汇总到数据库，不在请求路径上写库
+ */
+public interface ArticleViewService {
+
+    /**
+     * 记录一次文章浏览
+     * @param articleId 文章ID
+     * @param userId 登录用户ID（匿名为null）
+     * @param clientIp 客户端IP（匿名访客去重用）
+     * @param userAgent 客户端UA（匿名访客去重用）
+     * @return 文章存在且已记录时返回true
+     */
+    boolean recordView(Long articleId, Long userId, String clientIp, String userAgent);
+
+    /**
+     * 获取文章的独立访客数与总阅读数
+     * @param articleId 文章ID
+     * @param days 按天统计的天数（包含今天）
+     * @return 统计结果，文章不存在时返回null
+     */
+    Map<String, Object> getViewStats(Long articleId, int days);
+
+    /**
+     * 把有新浏览的文章的独立访客数汇总写入数据库
+     * @return 本次汇总的文章数
+     */
+    int fold();
+
+    /**
+     * 获取记录与汇总统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
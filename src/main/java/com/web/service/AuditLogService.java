@@ -0,0 +1,27 @@
+package com.web.service;
+
+import com.web.model.SystemLog;
+
+import java.util.Map;
+
+/**
+ * 审计日志写入服务接口
+ * 日志先进入有界内存队列，由单个写入线程批量合并为多行INSERT；
+ * 安全相关操作可要求同步写入，等待日志落库后再返回
+ */
+public interface AuditLogService {
+
+    /**
+     * 记录一条审计日志
+     * @param log 日志实体，创建时间为空时取当前时间
+     * @param sync 是否同步等待落库（配置的同步操作类型会强制同步）
+     * @return 是否已接收（异步模式下队列已满且等待超时时丢弃并返回false）
+     */
+    boolean record(SystemLog log, boolean sync);
+
+    /**
+     * 获取队列、批量写入、丢弃和背压统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,118 @@
+package com.web.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户行为事件服务接口
+ * 登录、注册、页面访问、发送消息、文章操作等事件先进入内存队列，
+ * 由后台批量追加写入本地二进制事件文件，同时滚动更新按分钟/小时/天的计数、
+ * 按天的活跃用户HyperLogLog与留存分析所需的用户位图，分析接口只读取这些汇总数据
+ */
+public interface BehaviorEventService {
+
+    String EVENT_LOGIN = "LOGIN";
+    String EVENT_REGISTER = "REGISTER";
+    String EVENT_PAGE_VIEW = "PAGE_VIEW";
+    String EVENT_MESSAGE_SENT = "MESSAGE_SENT";
+    String EVENT_ARTICLE_ACTION = "ARTICLE_ACTION";
+
+    /**
+     * 记录一个行为事件（事务提交后入队，队列满时丢弃并计数）
+     * @param type 事件类型
+     * @param userId 用户ID
+     * @param target 事件目标（页面路径、文章操作等，可为null）
+     */
+    void record(String type, Long userId, String target);
+
+    /**
+     * 统计时间范围内的事件数（读取按天汇总的计数）
+     * @param type 事件类型，null表示全部类型
+     * @param start 开始日期（含）
+     * @param end 结束日期（含）
+     * @return 事件数
+     */
+    long countEvents(String type, LocalDate start, LocalDate end);
+
+    /**
+     * 统计时间范围内的去重活跃用户数（HyperLogLog并集）
+     * @param start 开始日期（含）
+     * @param end 结束日期（含）
+     * @param types 事件类型，为空表示任意事件；多个类型时统计触发过其中任一事件的用户
+     * @return 活跃用户数
+     */
+    long countActiveUsers(LocalDate start, LocalDate end, String... types);
+
+    /**
+     * 获取时间范围内访问量最高的页面
+     * @param start 开始日期（含）
+     * @param end 结束日期（含）
+     * @param limit 数量
+     * @return 页面路径与访问量
+     */
+    List<Map<String, Object>> getTopPages(LocalDate start, LocalDate end, int limit);
+
+    /**
+     * 获取最近的事件（本实例内存中保留的最近事件）
+     * @param type 事件类型，null表示全部类型
+     * @param offset 偏移量
+     * @param limit 数量
+     * @return 事件列表，时间倒序
+     */
+    List<Map<String, Object>> getRecentEvents(String type, int offset, int limit);
+
+    /**
+     * 统计最近事件缓冲中的事件数
+     * @param type 事件类型，null表示全部类型
+     * @return 事件数
+     */
+    int countRecentEvents(String type);
+
+    /**
+     * 活动热力图
+     * @param type hourly（小时 x 星期）/ weekly（周 x 星期）/ monthly（月 x 日）
+     * @param start 开始日期（含）
+     * @param end 结束日期（含）
+     * @return data与行列标签
+     */
+    Map<String, Object> getActivityHeatmap(String type, LocalDate start, LocalDate end);
+
+    /**
+     * 按注册队列计算留存（队列位图与各期活跃位图求交集）
+     * @param cohortType daily / weekly / monthly
+     * @param periods 队列数与观察期数
+     * @return 队列留存表
+     */
+    Map<String, Object> getRetention(String cohortType, int periods);
+
+    /**
+     * 当前在线用户数，同时更新今日峰值
+     * @return 在线用户数
+     */
+    long getOnlineUserCount();
+
+    /**
+     * 今日在线用户峰值
+     * @return 峰值
+     */
+    long getPeakOnlineUsersToday();
+
+    /**
+     * 将队列中的事件批量写入事件文件并更新汇总
+     * @return 本次处理的事件数
+     */
+    int flush();
+
+    /**
+     * 删除超过保留期的事件文件
+     * @return 删除的文件数
+     */
+    int purgeExpiredFiles();
+
+    /**
+     * 获取队列、写入与汇总统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -233,10 +233,23 @@ public interface ConfigService {
 
     /**
      * 刷新配置缓存
+     * 事务提交后递增配置版本并通知所有节点重新加载配置快照
      * @param configKey 配置键（可选，为空则刷新所有）
      */
     void refreshConfigCache(String configKey);
 
+    /**
+     * 比对本地配置快照与 Redis 中的配置版本号，落后或超过最大存活时间时重新加载
+     * 用于弥补丢失的变更通知
+     */
+    void syncConfigSnapshot();
+
+    /**
+     * 获取配置缓存统计信息（快照版本、配置数量、重新加载和通知次数）
+     * @return 统计信息
+     */
+    Map<String, Object> getConfigCacheStatistics();
+
     /**
      * 检查配置依赖关系
      * @param configKey 配置键
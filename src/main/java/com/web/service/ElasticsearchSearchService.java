@@ -36,6 +36,26 @@ public interface ElasticsearchSearchService {
      */
     Map<String, Object> searchMessages(String keyword, Long fromUserId, Long chatListId, int page, int size);
 
+    /**
+     * 游标分页搜索消息（search_after + point-in-time），翻页成本与页深无关
+     * 首页（cursor为空）可附带聚合分面：按聊天、按发送者、按天。
+     * 结果只包含调用者所在聊天的消息，指定的聊天不属于调用者时抛出 AccessDeniedException
+     * @param userId 当前用户ID
+     * @param keyword 搜索关键词（可选）
+     * @param fromUserId 发送者ID（可选）
+     * @param chatListId 聊天ID（可选）
+     * @param startDate 开始日期 yyyy-MM-dd（可选）
+     * @param endDate 结束日期 yyyy-MM-dd（可选，包含当天）
+     * @param cursor 上一页返回的nextCursor，首页传null
+     * @param size 每页大小
+     * @param withTotal 是否计算总数（近似：超过阈值时只返回下界）
+     * @param withFacets 是否返回聚合分面（仅首页生效）
+     * @return 搜索结果：documents、nextCursor、hasMore，可选total/totalRelation与facets
+     */
+    Map<String, Object> searchMessagesByCursor(Long userId, String keyword, Long fromUserId, Long chatListId,
+                                               String startDate, String endDate, String cursor, int size,
+                                               boolean withTotal, boolean withFacets);
+
     /**
      * 根据消息ID搜索
      * @param messageId 消息ID
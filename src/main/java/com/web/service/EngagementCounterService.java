@@ -0,0 +1,76 @@
+package com.web.service;
+
+import com.web.model.Article;
+
+import java.util.Map;
+
+/**
+ * 文章互动计数服务接口
+ * 点赞、收藏、阅读、赞助的增量先在内存中按文章累加，定期合并刷写到articles表，
+ * 作者的user_stats汇总同样按增量更新，不再每次重新聚合作者的全部文章
+ */
+public interface EngagementCounterService {
+
+    /**
+     * 记录点赞数变化（事务提交后计入）
+     * @param articleId 文章ID
+     * @param authorId 文章作者ID
+     * @param delta 增量（取消点赞为负）
+     */
+    void addLikes(Long articleId, Long authorId, long delta);
+
+    /**
+     * 记录收藏数变化（事务提交后计入）
+     * @param articleId 文章ID
+     * @param authorId 文章作者ID
+     * @param delta 增量（取消收藏为负）
+     */
+    void addFavorites(Long articleId, Long authorId, long delta);
+
+    /**
+     * 记录阅读数变化
+     * @param articleId 文章ID
+     * @param authorId 文章作者ID
+     * @param delta 增量
+     */
+    void addReads(Long articleId, Long authorId, long delta);
+
+    /**
+     * 记录赞助金额变化（事务提交后计入）
+     * @param articleId 文章ID
+     * @param authorId 文章作者ID
+     * @param amount 金额
+     */
+    void addCoins(Long articleId, Long authorId, double amount);
+
+    /**
+     * 查询文章作者ID（带本地缓存，文章不存在时返回null）
+     * @param articleId 文章ID
+     * @return 作者ID
+     */
+    Long resolveAuthorId(Long articleId);
+
+    /**
+     * 把尚未刷写的增量叠加到文章对象上，保证读到自己刚产生的计数
+     * @param article 文章
+     */
+    void applyPending(Article article);
+
+    /**
+     * 丢弃文章尚未刷写的增量（文章删除时调用，避免作者汇总被重复累加）
+     * @param articleId 文章ID
+     */
+    void discard(Long articleId);
+
+    /**
+     * 将累积的增量合并刷写到数据库
+     * @return 本次刷写的文章数
+     */
+    int flush();
+
+    /**
+     * 获取缓冲与刷写统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
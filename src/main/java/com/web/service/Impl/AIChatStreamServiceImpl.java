@@ -0,0 +1,434 @@
+package com.web.service.Impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.exception.WeebException;
+import com.web.service.AIChatStreamService;
+import com.web.service.AIGatewayService;
+import com.web.vo.ai.ChatRequestVo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 对话服务实现
+ * 上游请求走共享的 HttpClient.sendAsync（连接复用，等待首 token 期间不占用线程），
+ * 响应按行订阅，每处理完一行才请求下一行，客户端写得慢时背压会传到上游连接；
+ * 客户端断开、SSE 超时或首 token 超时都会取消上游请求并关闭连接；
+ * 非流式对话经AI网关发出，受网关的并发、速率限制和降级路由约束
+ */
+@Slf4j
+@Service
+public class AIChatStreamServiceImpl implements AIChatStreamService {
+
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE_MARKER = "[DONE]";
+    private static final int MAX_ERROR_BODY = 500;
+
+    @Autowired
+    @Qualifier("aiStreamExecutor")
+    private Executor aiStreamExecutor;
+
+    @Autowired
+    private AIGatewayService aiGatewayService;
+
+    @Value("${ai.provider:deepseek}")
+    private String aiProvider;
+
+    @Value("${ai.deepseek.api-key:}")
+    private String deepseekApiKey;
+
+    @Value("${ai.deepseek.base-url:https://api.deepseek.com}")
+    private String deepseekBaseUrl;
+
+    @Value("${ai.deepseek.chat-model:deepseek-chat}")
+    private String deepseekChatModel;
+
+    @Value("${ai.ollama.base-url:http://localhost:11434}")
+    private String ollamaBaseUrl;
+
+    @Value("${ai.ollama.chat-model:llama2}")
+    private String ollamaChatModel;
+
+    @Value("${ai.stream.first-token-timeout-ms:30000}")
+    private long firstTokenTimeoutMs;
+
+    @Value("${ai.stream.timeout-ms:300000}")
+    private long streamTimeoutMs;
+
+    @Value("${ai.stream.max-concurrent:100}")
+    private int maxConcurrent;
+
+    @Value("${ai.stream.max-tokens:2048}")
+    private int maxTokens;
+
+    @Value("${ai.stream.temperature:0.7}")
+    private double temperature;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private HttpClient httpClient;
+
+    private Semaphore streamPermits;
+
+    // 统计信息
+    private final AtomicLong startedStreams = new AtomicLong();
+    private final AtomicLong completedStreams = new AtomicLong();
+    private final AtomicLong cancelledStreams = new AtomicLong();
+    private final AtomicLong failedStreams = new AtomicLong();
+    private final AtomicLong rejectedStreams = new AtomicLong();
+    private final AtomicLong firstTokenTimeouts = new AtomicLong();
+    private final AtomicLong streamedTokens = new AtomicLong();
+    private final AtomicLong firstTokenCount = new AtomicLong();
+    private final AtomicLong firstTokenTotalMs = new AtomicLong();
+    private final AtomicLong firstTokenMaxMs = new AtomicLong();
+    private final AtomicLong completions = new AtomicLong();
+    private final AtomicLong failedCompletions = new AtomicLong();
+    private volatile long lastFirstTokenMs = 0;
+
+    @PostConstruct
+    public void init() {
+        this.streamPermits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public SseEmitter streamChat(ChatRequestVo requestVo, Long userId) {
+        HttpRequest request = buildRequest(requestVo);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        if (!streamPermits.tryAcquire()) {
+            rejectedStreams.incrementAndGet();
+            try {
+                emitter.send(SseEmitter.event().name("error")
+                        .data(Map.of("message", "AI对话繁忙，请稍后再试"), MediaType.APPLICATION_JSON));
+            } catch (IOException ignored) {
+                // 客户端已断开
+            }
+            emitter.complete();
+            return emitter;
+        }
+
+        startedStreams.incrementAndGet();
+        ChatStream stream = new ChatStream(emitter, userId);
+        emitter.onCompletion(() -> stream.cancel("completed"));
+        emitter.onTimeout(() -> stream.cancel("timeout"));
+        emitter.onError(e -> stream.cancel("client error"));
+        stream.start(request);
+        return emitter;
+    }
+
+    @Override
+    public String complete(ChatRequestVo requestVo, Long userId) {
+        List<Map<String, String>> messages = toMessages(requestVo);
+        try {
+            String content = aiGatewayService.complete("chat", messages, temperature, maxTokens);
+            completions.incrementAndGet();
+            return content;
+        } catch (RuntimeException e) {
+            failedCompletions.incrementAndGet();
+            log.warn("AI对话请求失败: userId={}, error={}", userId, e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long ttftCount = firstTokenCount.get();
+        stats.put("provider", aiProvider);
+        stats.put("endpoint", endpoint());
+        stats.put("activeStreams", maxConcurrent - streamPermits.availablePermits());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("startedStreams", startedStreams.get());
+        stats.put("completedStreams", completedStreams.get());
+        stats.put("cancelledStreams", cancelledStreams.get());
+        stats.put("failedStreams", failedStreams.get());
+        stats.put("rejectedStreams", rejectedStreams.get());
+        stats.put("firstTokenTimeouts", firstTokenTimeouts.get());
+        stats.put("streamedTokens", streamedTokens.get());
+        stats.put("avgFirstTokenMs", ttftCount > 0 ? (double) firstTokenTotalMs.get() / ttftCount : 0.0);
+        stats.put("maxFirstTokenMs", firstTokenMaxMs.get());
+        stats.put("lastFirstTokenMs", lastFirstTokenMs);
+        stats.put("completions", completions.get());
+        stats.put("failedCompletions", failedCompletions.get());
+        return stats;
+    }
+
+    /**
+     * 单次流式对话：订阅上游响应的每一行，把增量内容转发到 SSE
+     */
+    private final class ChatStream implements Flow.Subscriber<String> {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean upstreamCancelled;
+        private volatile CompletableFuture<HttpResponse<Void>> responseFuture;
+        private volatile long firstTokenMs = -1;
+        private long tokens;
+        private String finishReason;
+
+        ChatStream(SseEmitter emitter, Long userId) {
+            this.emitter = emitter;
+            this.userId = userId;
+        }
+
+        void start(HttpRequest request) {
+            responseFuture = httpClient.sendAsync(request, responseInfo -> responseInfo.statusCode() / 100 == 2
+                    ? HttpResponse.BodySubscribers.fromLineSubscriber(this)
+                    : HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                            body -> {
+                                fail(new WeebException("AI服务返回错误: HTTP " + responseInfo.statusCode() + " " + truncate(body)));
+                                return null;
+                            }));
+            responseFuture.whenComplete((response, error) -> {
+                if (error != null) {
+                    fail(error);
+                } else {
+                    // 上游关闭连接但没有发送 [DONE]
+                    finish();
+                }
+            });
+            // 首 token 超时：连接建立后迟迟没有输出时取消上游，避免占用并发名额
+            CompletableFuture.delayedExecutor(firstTokenTimeoutMs, TimeUnit.MILLISECONDS, aiStreamExecutor).execute(() -> {
+                if (firstTokenMs < 0 && !finished.get()) {
+                    firstTokenTimeouts.incrementAndGet();
+                    fail(new WeebException("等待AI响应超时"));
+                }
+            });
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (upstreamCancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                handleLine(line);
+            } catch (Exception e) {
+                fail(e);
+            }
+            // 收到 [DONE] 后继续读完剩余响应，让连接能回到池中复用
+            if (!upstreamCancelled) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            finish();
+        }
+
+        private void handleLine(String line) throws IOException {
+            // SSE 中空行分隔事件，冒号开头为注释；只处理 data 行
+            if (finished.get() || !line.startsWith(DATA_PREFIX)) {
+                return;
+            }
+            String data = line.substring(DATA_PREFIX.length()).trim();
+            if (DONE_MARKER.equals(data)) {
+                finish();
+                return;
+            }
+            JsonNode chunk = objectMapper.readTree(data);
+            if (chunk.hasNonNull("error")) {
+                fail(new WeebException("AI服务返回错误: " + truncate(chunk.get("error").toString())));
+                return;
+            }
+            JsonNode choice = chunk.path("choices").path(0);
+            String content = choice.path("delta").path("content").asText("");
+            if (!content.isEmpty()) {
+                if (firstTokenMs < 0) {
+                    recordFirstToken();
+                }
+                tokens++;
+                send("token", Map.of("content", content));
+            }
+            if (choice.hasNonNull("finish_reason")) {
+                finishReason = choice.get("finish_reason").asText();
+            }
+        }
+
+        private void recordFirstToken() {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            firstTokenMs = elapsed;
+            lastFirstTokenMs = elapsed;
+            firstTokenCount.incrementAndGet();
+            firstTokenTotalMs.addAndGet(elapsed);
+            firstTokenMaxMs.accumulateAndGet(elapsed, Math::max);
+        }
+
+        private void send(String name, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开
+                cancel("client disconnected");
+            }
+        }
+
+        private void finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            completedStreams.incrementAndGet();
+            streamedTokens.addAndGet(tokens);
+            release();
+            Map<String, Object> done = new HashMap<>();
+            done.put("finishReason", finishReason != null ? finishReason : "stop");
+            done.put("tokens", tokens);
+            done.put("firstTokenMs", firstTokenMs);
+            done.put("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            try {
+                emitter.send(SseEmitter.event().name("done").data(done, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ignored) {
+                // 客户端已断开
+            }
+            emitter.complete();
+        }
+
+        private void fail(Throwable error) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            failedStreams.incrementAndGet();
+            streamedTokens.addAndGet(tokens);
+            log.warn("AI流式对话失败: userId={}, tokens={}, error={}", userId, tokens, error.getMessage());
+            cancelUpstream();
+            release();
+            String message = error instanceof WeebException ? error.getMessage() : "AI服务暂时不可用";
+            try {
+                emitter.send(SseEmitter.event().name("error").data(Map.of("message", message), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ignored) {
+                // 客户端已断开
+            }
+            emitter.complete();
+        }
+
+        /**
+         * 客户端断开、SSE 超时或请求结束时调用；流已正常结束时不做任何事
+         */
+        void cancel(String reason) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            cancelledStreams.incrementAndGet();
+            streamedTokens.addAndGet(tokens);
+            log.debug("AI流式对话已取消: userId={}, reason={}, tokens={}", userId, reason, tokens);
+            cancelUpstream();
+            release();
+        }
+
+        private void cancelUpstream() {
+            upstreamCancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+            CompletableFuture<HttpResponse<Void>> future = responseFuture;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        private void release() {
+            streamPermits.release();
+        }
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private List<Map<String, String>> toMessages(ChatRequestVo requestVo) {
+        if (requestVo == null || requestVo.getMessages() == null || requestVo.getMessages().isEmpty()) {
+            throw new WeebException("请提供有效的对话内容");
+        }
+        List<Map<String, String>> messages = new ArrayList<>(requestVo.getMessages().size());
+        for (ChatRequestVo.MessageVo message : requestVo.getMessages()) {
+            messages.add(Map.of("role", message.getRole(), "content", message.getContent()));
+        }
+        return messages;
+    }
+
+    private HttpRequest buildRequest(ChatRequestVo requestVo) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", isOllama() ? ollamaChatModel : deepseekChatModel);
+        body.put("messages", toMessages(requestVo));
+        body.put("stream", true);
+        body.put("temperature", temperature);
+        body.put("max_tokens", maxTokens);
+
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(endpoint()))
+                    // 只限制到收到响应头为止，之后由首 token 超时和 SSE 超时控制
+                    .timeout(Duration.ofMillis(firstTokenTimeoutMs))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "text/event-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (!isOllama() && deepseekApiKey != null && !deepseekApiKey.isBlank()) {
+                builder.header("Authorization", "Bearer " + deepseekApiKey);
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new WeebException("构建AI请求失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * OpenAI 兼容的对话接口地址：Ollama 为 /v1/chat/completions，DeepSeek 为 /chat/completions
+     */
+    private String endpoint() {
+        String baseUrl = isOllama() ? ollamaBaseUrl : deepseekBaseUrl;
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        return baseUrl + (isOllama() ? "/v1/chat/completions" : "/chat/completions");
+    }
+
+    private boolean isOllama() {
+        return "ollama".equalsIgnoreCase(aiProvider);
+    }
+
+    private static String truncate(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > MAX_ERROR_BODY ? value.substring(0, MAX_ERROR_BODY) + "..." : value;
+    }
+}
@@ -0,0 +1,739 @@
+package com.web.service.Impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.exception.WeebException;
+import com.web.service.AIGatewayService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 网关服务实现
+ * 每个提供商有独立的并发名额（Semaphore）、token 速率预算（令牌桶，按估算预扣、按实际用量返还）和熔断器；
+ * 请求在截止时间内排队等待名额和预算，超时或队列已满时转向下一个提供商。
+ * 路由按延迟的指数移动平均（乘以当前负载）排序，还没有延迟数据时优先使用 ai.provider 配置的提供商。
+ * 标签、关键词等提取请求在 batch.window-ms 内按操作合并，一次调用处理多段文本，
+ * 对话补全接口没有批量端点，合并后的请求仍受同一套并发和速率限制
+ */
+@Slf4j
+@Service
+public class AIGatewayServiceImpl implements AIGatewayService {
+
+    private static final int MAX_ERROR_BODY = 500;
+
+    @Autowired
+    @Qualifier("aiGatewayExecutor")
+    private Executor aiGatewayExecutor;
+
+    @Value("${ai.provider:deepseek}")
+    private String aiProvider;
+
+    @Value("${ai.deepseek.api-key:}")
+    private String deepseekApiKey;
+
+    @Value("${ai.deepseek.base-url:https://api.deepseek.com}")
+    private String deepseekBaseUrl;
+
+    @Value("${ai.deepseek.chat-model:deepseek-chat}")
+    private String deepseekChatModel;
+
+    @Value("${ai.ollama.base-url:http://localhost:11434}")
+    private String ollamaBaseUrl;
+
+    @Value("${ai.ollama.chat-model:llama2}")
+    private String ollamaChatModel;
+
+    @Value("${ai.gateway.providers:deepseek,ollama}")
+    private String providerNames;
+
+    @Value("${ai.gateway.deadline-ms:60000}")
+    private long deadlineMs;
+
+    @Value("${ai.gateway.max-queue:50}")
+    private int maxQueue;
+
+    @Value("${ai.gateway.latency-alpha:0.2}")
+    private double latencyAlpha;
+
+    @Value("${ai.gateway.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${ai.gateway.circuit.open-ms:30000}")
+    private long circuitOpenMs;
+
+    @Value("${ai.gateway.deepseek.max-concurrent:16}")
+    private int deepseekMaxConcurrent;
+
+    @Value("${ai.gateway.deepseek.tokens-per-minute:300000}")
+    private long deepseekTokensPerMinute;
+
+    @Value("${ai.gateway.ollama.max-concurrent:2}")
+    private int ollamaMaxConcurrent;
+
+    @Value("${ai.gateway.ollama.tokens-per-minute:0}")
+    private long ollamaTokensPerMinute;
+
+    @Value("${ai.gateway.batch.max-size:8}")
+    private int batchMaxSize;
+
+    @Value("${ai.gateway.batch.window-ms:30}")
+    private long batchWindowMs;
+
+    @Value("${ai.gateway.batch.max-item-chars:3000}")
+    private int batchMaxItemChars;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 共享的 HttpClient，回调在其专用线程池中执行，不占用批次线程池，批次阻塞等待时不会互相卡住
+    @Autowired
+    private HttpClient httpClient;
+
+    private List<Provider> providers;
+
+    // 等待合并的提取请求，键为 操作|数量
+    private final Map<String, PendingBatch> pendingBatches = new HashMap<>();
+
+    // 统计信息
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong unavailable = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedItems = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong batchFailures = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        List<Provider> configured = new ArrayList<>();
+        for (String name : providerNames.split(",")) {
+            name = name.trim().toLowerCase();
+            if ("deepseek".equals(name)) {
+                if (deepseekApiKey == null || deepseekApiKey.isBlank()) {
+                    log.warn("未配置 DeepSeek API Key，AI网关不使用 deepseek");
+                    continue;
+                }
+                configured.add(new Provider("deepseek", endpoint(deepseekBaseUrl, "/chat/completions"),
+                        deepseekApiKey, deepseekChatModel, deepseekMaxConcurrent, deepseekTokensPerMinute));
+            } else if ("ollama".equals(name)) {
+                configured.add(new Provider("ollama", endpoint(ollamaBaseUrl, "/v1/chat/completions"),
+                        null, ollamaChatModel, ollamaMaxConcurrent, ollamaTokensPerMinute));
+            } else if (!name.isEmpty()) {
+                log.warn("未知的AI提供商: {}", name);
+            }
+        }
+        this.providers = configured;
+        log.info("✅ AI网关已初始化: providers={}, primary={}, deadlineMs={}",
+                configured.stream().map(p -> p.name).toList(), aiProvider, deadlineMs);
+    }
+
+    @Override
+    public String complete(String operation, List<Map<String, String>> messages, double temperature, int maxTokens) {
+        requests.incrementAndGet();
+        long deadline = System.currentTimeMillis() + deadlineMs;
+        long estimate = estimateTokens(messages, maxTokens);
+        List<Provider> route = route();
+        Exception lastError = null;
+
+        for (int i = 0; i < route.size(); i++) {
+            Provider provider = route.get(i);
+            if (System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            Admission admission = provider.tryPass();
+            if (admission == Admission.REJECTED) {
+                provider.shortCircuited.incrementAndGet();
+                continue;
+            }
+            boolean trial = admission == Admission.TRIAL;
+            boolean acquired = false;
+            // 熔断器是否已按本次结果更新；未更新的退出路径（被限流、排队超时、中断、迟到的超时）在 finally 中交还试探名额
+            boolean settled = false;
+            try {
+                // 1. 速率预算：预扣估算的token，需要等待时在截止时间内等待
+                long waitMs = provider.reserveTokens(estimate, deadline - System.currentTimeMillis());
+                if (waitMs < 0) {
+                    provider.rateLimited.incrementAndGet();
+                    continue;
+                }
+                if (waitMs > 0) {
+                    Thread.sleep(waitMs);
+                }
+
+                // 2. 并发名额：排队等待，队列已满时直接换下一个提供商
+                if (provider.waiting.get() >= maxQueue) {
+                    provider.refundTokens(estimate);
+                    provider.rejected.incrementAndGet();
+                    continue;
+                }
+                provider.waiting.incrementAndGet();
+                try {
+                    acquired = provider.permits.tryAcquire(
+                            Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                } finally {
+                    provider.waiting.decrementAndGet();
+                }
+                if (!acquired) {
+                    provider.refundTokens(estimate);
+                    provider.queueTimeouts.incrementAndGet();
+                    continue;
+                }
+
+                // 3. 调用提供商
+                long start = System.nanoTime();
+                Completion completion = call(provider, messages, temperature, maxTokens, deadline);
+                settled = true;
+                provider.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), trial);
+                if (completion.totalTokens > 0) {
+                    provider.refundTokens(estimate - completion.totalTokens);
+                    provider.tokensUsed.addAndGet(completion.totalTokens);
+                }
+                succeeded.incrementAndGet();
+                if (i > 0) {
+                    fallbacks.incrementAndGet();
+                }
+                return completion.content;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.incrementAndGet();
+                throw new WeebException("AI请求被中断");
+            } catch (CallTimeoutException e) {
+                // 排队已用掉大部分截止时间时的超时不算提供商故障，避免自身积压触发熔断
+                if (e.budgetMs >= deadlineMs / 2) {
+                    settled = true;
+                    provider.onFailure(trial);
+                } else {
+                    provider.lateTimeouts.incrementAndGet();
+                }
+                lastError = e;
+                log.warn("AI提供商调用超时: provider={}, operation={}, budgetMs={}", provider.name, operation, e.budgetMs);
+            } catch (Exception e) {
+                settled = true;
+                provider.onFailure(trial);
+                lastError = e;
+                log.warn("AI提供商调用失败: provider={}, operation={}, error={}", provider.name, operation, e.getMessage());
+            } finally {
+                if (acquired) {
+                    provider.permits.release();
+                }
+                if (trial && !settled) {
+                    // 试探请求没有得出结论，名额交还给下一个请求，熔断器保持半开
+                    provider.releaseTrial();
+                }
+            }
+        }
+
+        failed.incrementAndGet();
+        if (lastError != null) {
+            throw new WeebException("AI服务暂时不可用: " + lastError.getMessage());
+        }
+        // 没有发出任何请求：全部熔断、限流、排队已满或超过截止时间
+        unavailable.incrementAndGet();
+        throw new WeebException("AI服务繁忙，请稍后再试");
+    }
+
+    @Override
+    public CompletableFuture<List<String>> extractTerms(String operation, String instruction, String content, int count) {
+        BatchItem item = new BatchItem(content);
+        // 兜底：批次因任何原因没有完成时，调用方不会无限等待
+        item.result.orTimeout(deadlineMs + batchWindowMs + 1000, TimeUnit.MILLISECONDS);
+
+        String key = operation + "|" + count;
+        PendingBatch ready = null;
+        synchronized (pendingBatches) {
+            PendingBatch batch = pendingBatches.get(key);
+            if (batch == null) {
+                PendingBatch created = new PendingBatch(operation, instruction, count);
+                pendingBatches.put(key, created);
+                batch = created;
+                CompletableFuture.delayedExecutor(batchWindowMs, TimeUnit.MILLISECONDS)
+                        .execute(() -> flushBatch(key, created));
+            }
+            batch.items.add(item);
+            if (batch.items.size() >= batchMaxSize) {
+                pendingBatches.remove(key);
+                ready = batch;
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return item.result;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long batchCount = batches.get();
+        stats.put("primary", aiProvider);
+        stats.put("deadlineMs", deadlineMs);
+        stats.put("maxQueue", maxQueue);
+        stats.put("requests", requests.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("failed", failed.get());
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("unavailable", unavailable.get());
+        stats.put("batches", batchCount);
+        stats.put("batchedItems", batchedItems.get());
+        stats.put("avgBatchSize", batchCount > 0 ? (double) batchedItems.get() / batchCount : 0.0);
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("batchFailures", batchFailures.get());
+        stats.put("route", route().stream().map(p -> p.name).toList());
+        Map<String, Object> providerStats = new LinkedHashMap<>();
+        for (Provider provider : providers) {
+            providerStats.put(provider.name, provider.statistics());
+        }
+        stats.put("providers", providerStats);
+        return stats;
+    }
+
+    /**
+     * 单个提供商：并发名额、令牌桶、熔断器和延迟统计
+     */
+    private final class Provider {
+
+        final String name;
+        final String endpoint;
+        final String apiKey;
+        final String model;
+        final int maxConcurrent;
+        final long tokensPerMinute;
+        final Semaphore permits;
+        final AtomicInteger waiting = new AtomicInteger();
+
+        // 令牌桶：容量为每分钟预算，允许为负（已预扣、等待补充）
+        private double availableTokens;
+        private long lastRefillNanos = System.nanoTime();
+
+        // 熔断器：openUntil 为 0 表示关闭；到期后进入半开，只放行一个试探请求
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        private volatile double latencyEwmaMs = -1;
+
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong successes = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong rateLimited = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong queueTimeouts = new AtomicLong();
+        final AtomicLong lateTimeouts = new AtomicLong();
+        final AtomicLong shortCircuited = new AtomicLong();
+        final AtomicLong circuitOpens = new AtomicLong();
+        final AtomicLong tokensUsed = new AtomicLong();
+
+        Provider(String name, String endpoint, String apiKey, String model, int maxConcurrent, long tokensPerMinute) {
+            this.name = name;
+            this.endpoint = endpoint;
+            this.apiKey = apiKey;
+            this.model = model;
+            this.maxConcurrent = maxConcurrent;
+            this.tokensPerMinute = tokensPerMinute;
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.availableTokens = tokensPerMinute;
+        }
+
+        /**
+         * 预扣token
+         * @return 需要等待的毫秒数；超过 maxWaitMs 时返回 -1 且不预扣
+         */
+        synchronized long reserveTokens(long tokens, long maxWaitMs) {
+            if (tokensPerMinute <= 0) {
+                return 0;
+            }
+            refill();
+            // 单次请求超过整桶时按整桶计算，避免永远无法通过
+            double needed = Math.min(tokens, tokensPerMinute);
+            long waitMs = availableTokens >= needed ? 0
+                    : (long) Math.ceil((needed - availableTokens) * 60000.0 / tokensPerMinute);
+            if (waitMs > maxWaitMs) {
+                return -1;
+            }
+            availableTokens -= needed;
+            return waitMs;
+        }
+
+        synchronized void refundTokens(long tokens) {
+            if (tokensPerMinute <= 0) {
+                return;
+            }
+            refill();
+            availableTokens = Math.min(tokensPerMinute, availableTokens + tokens);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            availableTokens = Math.min(tokensPerMinute,
+                    availableTokens + (now - lastRefillNanos) * tokensPerMinute / 60_000_000_000.0);
+            lastRefillNanos = now;
+        }
+
+        synchronized Admission tryPass() {
+            if (openUntil == 0) {
+                return Admission.NORMAL;
+            }
+            if (System.currentTimeMillis() < openUntil || trialInFlight) {
+                return Admission.REJECTED;
+            }
+            trialInFlight = true;
+            return Admission.TRIAL;
+        }
+
+        synchronized void releaseTrial() {
+            trialInFlight = false;
+        }
+
+        synchronized void onSuccess(long latencyMs, boolean trial) {
+            calls.incrementAndGet();
+            successes.incrementAndGet();
+            if (openUntil != 0) {
+                log.info("AI提供商已恢复: provider={}", name);
+            }
+            consecutiveFailures = 0;
+            openUntil = 0;
+            if (trial) {
+                trialInFlight = false;
+            }
+            latencyEwmaMs = latencyEwmaMs < 0 ? latencyMs
+                    : latencyAlpha * latencyMs + (1 - latencyAlpha) * latencyEwmaMs;
+        }
+
+        synchronized void onFailure(boolean trial) {
+            calls.incrementAndGet();
+            failures.incrementAndGet();
+            consecutiveFailures++;
+            if (trial) {
+                trialInFlight = false;
+            }
+            if (trial || consecutiveFailures >= failureThreshold) {
+                openUntil = System.currentTimeMillis() + circuitOpenMs;
+                circuitOpens.incrementAndGet();
+                log.warn("AI提供商已熔断: provider={}, consecutiveFailures={}, openMs={}",
+                        name, consecutiveFailures, circuitOpenMs);
+            }
+        }
+
+        synchronized String circuitState() {
+            if (openUntil == 0) {
+                return "CLOSED";
+            }
+            return System.currentTimeMillis() < openUntil ? "OPEN" : "HALF_OPEN";
+        }
+
+        /**
+         * 路由分数：延迟均值乘以负载（占用和排队的名额比例），越小越优先
+         */
+        double score() {
+            double latency = latencyEwmaMs >= 0 ? latencyEwmaMs
+                    : name.equalsIgnoreCase(aiProvider) ? 0 : Double.MAX_VALUE / 4;
+            int load = maxConcurrent - permits.availablePermits() + waiting.get();
+            return latency * (1 + (double) load / maxConcurrent);
+        }
+
+        Map<String, Object> statistics() {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("endpoint", endpoint);
+            stats.put("model", model);
+            stats.put("circuit", circuitState());
+            stats.put("active", maxConcurrent - permits.availablePermits());
+            stats.put("waiting", waiting.get());
+            stats.put("maxConcurrent", maxConcurrent);
+            stats.put("tokensPerMinute", tokensPerMinute);
+            synchronized (this) {
+                if (tokensPerMinute > 0) {
+                    refill();
+                }
+                stats.put("availableTokens", tokensPerMinute > 0 ? (long) availableTokens : null);
+                stats.put("consecutiveFailures", consecutiveFailures);
+            }
+            stats.put("latencyEwmaMs", latencyEwmaMs >= 0 ? Math.round(latencyEwmaMs) : null);
+            stats.put("calls", calls.get());
+            stats.put("successes", successes.get());
+            stats.put("failures", failures.get());
+            stats.put("rateLimited", rateLimited.get());
+            stats.put("rejected", rejected.get());
+            stats.put("queueTimeouts", queueTimeouts.get());
+            stats.put("lateTimeouts", lateTimeouts.get());
+            stats.put("shortCircuited", shortCircuited.get());
+            stats.put("circuitOpens", circuitOpens.get());
+            stats.put("tokensUsed", tokensUsed.get());
+            return stats;
+        }
+    }
+
+    /**
+     * 熔断器的放行结果：拒绝、正常放行、半开状态下的试探请求
+     */
+    private enum Admission {
+        REJECTED, NORMAL, TRIAL
+    }
+
+    /**
+     * 一次补全的结果
+     */
+    private static final class Completion {
+        final String content;
+        final long totalTokens;
+
+        Completion(String content, long totalTokens) {
+            this.content = content;
+            this.totalTokens = totalTokens;
+        }
+    }
+
+    /**
+     * 调用超过截止时间，记录本次调用实际可用的时间
+     */
+    private static final class CallTimeoutException extends IOException {
+        final long budgetMs;
+
+        CallTimeoutException(long budgetMs) {
+            super("等待AI响应超时");
+            this.budgetMs = budgetMs;
+        }
+    }
+
+    /**
+     * 等待合并的提取请求
+     */
+    private static final class PendingBatch {
+        final String operation;
+        final String instruction;
+        final int count;
+        final List<BatchItem> items = new ArrayList<>();
+
+        PendingBatch(String operation, String instruction, int count) {
+            this.operation = operation;
+            this.instruction = instruction;
+            this.count = count;
+        }
+    }
+
+    private static final class BatchItem {
+        final String content;
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
+
+        BatchItem(String content) {
+            this.content = content;
+        }
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 路由顺序：熔断中的提供商排在最后，其余按分数从小到大
+     */
+    private List<Provider> route() {
+        // 分数随并发变化，排序前先取快照
+        Map<Provider, Boolean> open = new HashMap<>();
+        Map<Provider, Double> scores = new HashMap<>();
+        for (Provider provider : providers) {
+            open.put(provider, "OPEN".equals(provider.circuitState()));
+            scores.put(provider, provider.score());
+        }
+        List<Provider> ordered = new ArrayList<>(providers);
+        ordered.sort(Comparator.comparing((Provider p) -> open.get(p)).thenComparingDouble(scores::get));
+        return ordered;
+    }
+
+    private Completion call(Provider provider, List<Map<String, String>> messages, double temperature,
+                            int maxTokens, long deadline) throws IOException, InterruptedException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", provider.model);
+        body.put("messages", messages);
+        body.put("stream", false);
+        body.put("temperature", temperature);
+        body.put("max_tokens", maxTokens);
+
+        long remaining = Math.max(1, deadline - System.currentTimeMillis());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(provider.endpoint))
+                .timeout(Duration.ofMillis(remaining))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (provider.apiKey != null) {
+            builder.header("Authorization", "Bearer " + provider.apiKey);
+        }
+
+        // 截止时间覆盖整个响应体；超时后取消请求，连接随之关闭
+        CompletableFuture<HttpResponse<String>> future = httpClient.sendAsync(builder.build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        HttpResponse<String> response;
+        try {
+            response = future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new CallTimeoutException(remaining);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HttpTimeoutException) {
+                throw new CallTimeoutException(remaining);
+            }
+            throw new IOException(e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), e.getCause());
+        }
+
+        if (response.statusCode() / 100 != 2) {
+            throw new WeebException("AI服务返回错误: HTTP " + response.statusCode() + " " + truncate(response.body()));
+        }
+        JsonNode root = objectMapper.readTree(response.body());
+        String content = root.path("choices").path(0).path("message").path("content").asText(null);
+        if (content == null) {
+            throw new WeebException("AI服务返回内容为空");
+        }
+        return new Completion(content, root.path("usage").path("total_tokens").asLong(0));
+    }
+
+    private void flushBatch(String key, PendingBatch batch) {
+        boolean due;
+        synchronized (pendingBatches) {
+            due = pendingBatches.remove(key, batch);
+        }
+        // 已因攒满提前发出的批次不再处理
+        if (due) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(PendingBatch batch) {
+        try {
+            aiGatewayExecutor.execute(() -> runBatch(batch));
+        } catch (RejectedExecutionException e) {
+            batchFailures.incrementAndGet();
+            for (BatchItem item : batch.items) {
+                item.result.completeExceptionally(new WeebException("AI服务繁忙，请稍后再试"));
+            }
+        }
+    }
+
+    /**
+     * 把一批文本编号后放进同一条提示词，要求按顺序返回 JSON 二维数组，再拆分给各请求
+     */
+    private void runBatch(PendingBatch batch) {
+        List<BatchItem> items = batch.items;
+        batches.incrementAndGet();
+        batchedItems.addAndGet(items.size());
+        maxBatchSize.accumulateAndGet(items.size(), Math::max);
+
+        StringBuilder prompt = new StringBuilder();
+        prompt.append(batch.instruction).append("。下面共有 ").append(items.size())
+                .append(" 段文本，每段最多给出 ").append(batch.count).append(" 个结果。")
+                .append("只输出一个 JSON 数组，第 i 个元素是第 i 段文本的结果（字符串数组），不要输出其他内容。\n");
+        for (int i = 0; i < items.size(); i++) {
+            String content = items.get(i).content;
+            if (content.length() > batchMaxItemChars) {
+                content = content.substring(0, batchMaxItemChars);
+            }
+            prompt.append("\n[").append(i + 1).append("]\n").append(content).append('\n');
+        }
+        List<Map<String, String>> messages = List.of(
+                Map.of("role", "system", "content", "你是内容分析助手，只输出 JSON。"),
+                Map.of("role", "user", "content", prompt.toString()));
+        // 每个词语按约 16 个token估算输出长度
+        int maxTokens = Math.min(4096, 64 + items.size() * batch.count * 16);
+
+        try {
+            String reply = complete(batch.operation, messages, 0.2, maxTokens);
+            List<List<String>> results = parseBatchReply(reply, items.size(), batch.count);
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).result.complete(results.get(i));
+            }
+        } catch (Exception e) {
+            batchFailures.incrementAndGet();
+            log.warn("AI批量提取失败: operation={}, size={}, error={}", batch.operation, items.size(), e.getMessage());
+            for (BatchItem item : items) {
+                item.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private List<List<String>> parseBatchReply(String reply, int size, int count) throws IOException {
+        // 模型常把 JSON 包在代码块或说明文字里，只取最外层的数组
+        int start = reply.indexOf('[');
+        int end = reply.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            throw new WeebException("AI批量结果格式不正确");
+        }
+        JsonNode root = objectMapper.readTree(reply.substring(start, end + 1));
+        // 只有一段文本时模型可能直接返回一维数组
+        if (size == 1 && root.size() > 0 && root.get(0).isTextual()) {
+            return List.of(toTerms(root, count));
+        }
+        if (!root.isArray() || root.size() != size) {
+            throw new WeebException("AI批量结果数量不匹配: 期望 " + size + "，实际 " + root.size());
+        }
+        List<List<String>> results = new ArrayList<>(size);
+        for (JsonNode node : root) {
+            results.add(toTerms(node, count));
+        }
+        return results;
+    }
+
+    private static List<String> toTerms(JsonNode node, int count) {
+        List<String> terms = new ArrayList<>();
+        for (JsonNode term : node) {
+            String text = term.asText("").trim();
+            if (!text.isEmpty() && !terms.contains(text) && terms.size() < count) {
+                terms.add(text);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 粗略估算请求的token数：输入按每 2 个字符 1 个token（中英文混合），加上最大输出
+     */
+    private static long estimateTokens(List<Map<String, String>> messages, int maxTokens) {
+        long chars = 0;
+        for (Map<String, String> message : messages) {
+            String content = message.get("content");
+            chars += content != null ? content.length() : 0;
+        }
+        return (chars + 1) / 2 + maxTokens;
+    }
+
+    private static String endpoint(String baseUrl, String path) {
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        return baseUrl + path;
+    }
+
+    private static String truncate(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > MAX_ERROR_BODY ? value.substring(0, MAX_ERROR_BODY) + "..." : value;
+    }
+}
@@ -0,0 +1,322 @@
+package com.web.service.Impl;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.web.service.AIResultCacheService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * AI 结果缓存服务实现
+ * 键为 ai:result:{操作}:{SHA-256(提供商|模型|参数|内容)}，内容先合并连续空白，只有格式差异的内容共用结果；
+ * 切换模型后键随之变化，旧结果按 TTL 自然过期。
+ * 查询顺序：本地缓存 → Redis → 加载器；同一键正在加载时后续请求复用同一个 future。
+ * Redis 不可用时退化为只用本地缓存
+ */
+@Slf4j
+@Service
+public class AIResultCacheServiceImpl implements AIResultCacheService {
+
+    private static final String CACHE_PREFIX = "ai:result:";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Value("${weeb.ai-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weeb.ai-cache.ttl-hours:72}")
+    private long ttlHours;
+
+    @Value("${weeb.ai-cache.local-max-size:2000}")
+    private long localMaxSize;
+
+    @Value("${weeb.ai-cache.local-ttl-minutes:30}")
+    private long localTtlMinutes;
+
+    @Value("${ai.provider:deepseek}")
+    private String aiProvider;
+
+    @Value("${ai.deepseek.chat-model:deepseek-chat}")
+    private String deepseekChatModel;
+
+    @Value("${ai.ollama.chat-model:llama2}")
+    private String ollamaChatModel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Cache<String, Object> localCache;
+
+    // 正在加载的键，相同请求复用同一结果
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, OperationStats> operationStats = new ConcurrentHashMap<>();
+
+    /**
+     * 单个操作的统计
+     */
+    private static final class OperationStats {
+        final AtomicLong localHits = new AtomicLong();
+        final AtomicLong redisHits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong coalesced = new AtomicLong();
+        final AtomicLong loadFailures = new AtomicLong();
+        final AtomicLong loadMs = new AtomicLong();
+        final AtomicLong savedMs = new AtomicLong();
+
+        long avgLoadMs() {
+            long loads = misses.get();
+            return loads > 0 ? loadMs.get() / loads : 0;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(localTtlMinutes))
+                .build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String operation, String params, String content, TypeReference<T> type, Supplier<T> loader) {
+        if (!enabled || content == null) {
+            return loader.get();
+        }
+        OperationStats stats = operationStats.computeIfAbsent(operation, op -> new OperationStats());
+        String key = cacheKey(operation, params, content);
+
+        Object local = localCache.getIfPresent(key);
+        if (local != null) {
+            stats.localHits.incrementAndGet();
+            stats.savedMs.addAndGet(stats.avgLoadMs());
+            return (T) local;
+        }
+
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, created);
+        if (existing != null) {
+            stats.coalesced.incrementAndGet();
+            Object value = await(existing);
+            // 等待结束时首个加载已计入平均耗时
+            stats.savedMs.addAndGet(stats.avgLoadMs());
+            return (T) value;
+        }
+
+        try {
+            T value = readRedis(key, type);
+            if (value != null) {
+                stats.redisHits.incrementAndGet();
+                stats.savedMs.addAndGet(stats.avgLoadMs());
+            } else {
+                value = load(key, stats, loader);
+            }
+            created.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, created);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getOrLoadAsync(String operation, String params, String content,
+                                                   TypeReference<T> type, Supplier<CompletableFuture<T>> loader) {
+        if (!enabled || content == null) {
+            return loader.get();
+        }
+        OperationStats stats = operationStats.computeIfAbsent(operation, op -> new OperationStats());
+        String key = cacheKey(operation, params, content);
+
+        Object local = localCache.getIfPresent(key);
+        if (local != null) {
+            stats.localHits.incrementAndGet();
+            stats.savedMs.addAndGet(stats.avgLoadMs());
+            return CompletableFuture.completedFuture((T) local);
+        }
+
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, created);
+        if (existing != null) {
+            stats.coalesced.incrementAndGet();
+            return existing.thenApply(value -> {
+                stats.savedMs.addAndGet(stats.avgLoadMs());
+                return (T) value;
+            });
+        }
+
+        T cached = readRedis(key, type);
+        if (cached != null) {
+            stats.redisHits.incrementAndGet();
+            stats.savedMs.addAndGet(stats.avgLoadMs());
+            inflight.remove(key, created);
+            created.complete(cached);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long start = System.currentTimeMillis();
+        CompletableFuture<T> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((value, error) -> {
+            if (error != null) {
+                stats.loadFailures.incrementAndGet();
+                inflight.remove(key, created);
+                created.completeExceptionally(error);
+                return;
+            }
+            Object result = store(key, stats, value, start);
+            inflight.remove(key, created);
+            created.complete(result);
+        });
+        return created.thenApply(value -> (T) value);
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hits = 0;
+        long misses = 0;
+        long savedMs = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<String, OperationStats> entry : operationStats.entrySet()) {
+            OperationStats op = entry.getValue();
+            long opHits = op.localHits.get() + op.redisHits.get() + op.coalesced.get();
+            Map<String, Object> item = new HashMap<>();
+            item.put("localHits", op.localHits.get());
+            item.put("redisHits", op.redisHits.get());
+            item.put("coalesced", op.coalesced.get());
+            item.put("misses", op.misses.get());
+            item.put("loadFailures", op.loadFailures.get());
+            item.put("avgLoadMs", op.avgLoadMs());
+            item.put("savedMs", op.savedMs.get());
+            item.put("hitRate", opHits + op.misses.get() > 0 ? (double) opHits / (opHits + op.misses.get()) : 0.0);
+            operations.put(entry.getKey(), item);
+            hits += opHits;
+            misses += op.misses.get();
+            savedMs += op.savedMs.get();
+        }
+        stats.put("enabled", enabled);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        stats.put("savedMs", savedMs);
+        stats.put("inflight", inflight.size());
+        stats.put("localSize", localCache.estimatedSize());
+        stats.put("localMaxSize", localMaxSize);
+        stats.put("ttlHours", ttlHours);
+        stats.put("operations", operations);
+        return stats;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private <T> T load(String key, OperationStats stats, Supplier<T> loader) {
+        long start = System.currentTimeMillis();
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            stats.loadFailures.incrementAndGet();
+            throw e;
+        }
+        return store(key, stats, value, start);
+    }
+
+    /**
+     * 记录一次加载并写入两级缓存，null 不缓存
+     */
+    private <T> T store(String key, OperationStats stats, T value, long start) {
+        stats.misses.incrementAndGet();
+        stats.loadMs.addAndGet(System.currentTimeMillis() - start);
+        if (value != null) {
+            value = freeze(value);
+            localCache.put(key, value);
+            writeRedis(key, value);
+        }
+        return value;
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <T> T readRedis(String key, TypeReference<T> type) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key);
+            if (json == null) {
+                return null;
+            }
+            T value = freeze(objectMapper.readValue(json, type));
+            localCache.put(key, value);
+            return value;
+        } catch (Exception e) {
+            log.warn("读取AI结果缓存失败: key={}, error={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, Object value) {
+        try {
+            stringRedisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(value), ttlHours, TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("写入AI结果缓存失败: key={}, error={}", key, e.getMessage());
+        }
+    }
+
+    private String cacheKey(String operation, String params, String content) {
+        String model = "ollama".equalsIgnoreCase(aiProvider) ? ollamaChatModel : deepseekChatModel;
+        String normalized = content.trim().replaceAll("\\s+", " ");
+        return CACHE_PREFIX + operation + ":"
+                + DigestUtil.sha256Hex(aiProvider + "|" + model + "|" + (params != null ? params : "") + "|" + normalized);
+    }
+
+    /**
+     * 缓存的结果在请求之间共享，集合类型转为只读，避免调用方修改缓存内容
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T freeze(T value) {
+        if (value instanceof List) {
+            return (T) Collections.unmodifiableList(new ArrayList<>((List<?>) value));
+        }
+        if (value instanceof Map) {
+            return (T) Collections.unmodifiableMap(new LinkedHashMap<>((Map<?, ?>) value));
+        }
+        return value;
+    }
+}
@@ -1,5 +1,9 @@
 package com.web.service.Impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.web.service.AIChatStreamService;
+import com.web.service.AIGatewayService;
+import com.web.service.AIResultCacheService;
 import com.web.service.AIService;
 import com.web.vo.ai.ChatRequestVo;
 import lombok.extern.slf4j.Slf4j;
@@ -7,9 +11,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 
 /**
  * AI 服务实现类
@@ -20,84 +25,60 @@ import java.util.*;
 @ConditionalOnProperty(name = "ai.enabled", havingValue = "true", matchIfMissing = true)
 public class AIServiceImpl implements AIService {
 
-    @Autowired(required = false)
-    private RestTemplate restTemplate;
+    @Autowired
+    private AIChatStreamService aiChatStreamService;
 
-    @Value("${ai.provider:deepseek}")
-    private String aiProvider;
-
-    @Value("${ai.deepseek.api-key:}")
-    private String deepseekApiKey;
+    @Autowired
+    private AIGatewayService aiGatewayService;
 
-    @Value("${ai.deepseek.base-url:https://api.deepseek.com}")
-    private String deepseekBaseUrl;
+    @Autowired
+    private AIResultCacheService aiResultCacheService;
 
-    @Value("${ai.deepseek.chat-model:deepseek-chat}")
-    private String deepseekChatModel;
+    private static final TypeReference<String> STRING_RESULT = new TypeReference<>() {};
+    private static final TypeReference<List<String>> LIST_RESULT = new TypeReference<>() {};
 
-    @Value("${ai.ollama.base-url:http://localhost:11434}")
-    private String ollamaBaseUrl;
+    private static final String TAGS_INSTRUCTION = "为每段文章内容生成简短的标签，标签使用文章所用的语言";
+    private static final String KEYWORDS_INSTRUCTION = "从每段文本中提取最能概括内容的关键词，关键词必须出现在原文中";
 
-    @Value("${ai.ollama.chat-model:llama2}")
-    private String ollamaChatModel;
+    @Value("${ai.provider:deepseek}")
+    private String aiProvider;
 
     @Override
     public String generateArticleSummary(String content, int maxLength) {
+        if (content == null || content.trim().isEmpty()) {
+            return "";
+        }
         try {
             log.debug("生成文章摘要: contentLength={}, maxLength={}, provider={}", content.length(), maxLength, aiProvider);
 
-            if (content == null || content.trim().isEmpty()) {
-                return "";
-            }
-
-            // 准备AI请求
-            Map<String, Object> request = new HashMap<>();
-            request.put("model", deepseekChatModel);
-            request.put("messages", List.of(
-                Map.of(
-                    "role", "user",
-                    "content", "请为以下内容生成一个简洁的摘要，摘要长度不超过" + maxLength + "个字符：\n\n" + content
-                )
-            ));
-            request.put("stream", false);
-            request.put("temperature", 0.3);
-            request.put("max_tokens", Math.min(maxLength / 2, 1000));
-
-            // 调用DeepSeek API
-            Map<String, String> headers = new HashMap<>();
-            headers.put("Authorization", "Bearer " + deepseekApiKey);
-            headers.put("Content-Type", "application/json");
-
-            Map<String, Object> response = restTemplate.postForObject(
-                deepseekBaseUrl + "/chat/completions",
-                request,
-                Map.class,
-                headers
-            );
-
-            if (response != null && response.containsKey("choices")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
-                if (!choices.isEmpty()) {
-                    Map<String, Object> choice = choices.get(0);
-                    Map<String, Object> message = (Map<String, Object>) choice.get("message");
-                    if (message != null && message.containsKey("content")) {
-                        String summary = (String) message.get("content");
-                        log.info("AI文章摘要生成成功: summaryLength={}", summary.length());
-                        return summary;
-                    }
-                }
+            // 相同内容和长度的摘要直接复用缓存，降级摘要不进入缓存
+            String summary = aiResultCacheService.getOrLoad("summary", "maxLength=" + maxLength, content,
+                    STRING_RESULT, () -> requestArticleSummary(content, maxLength));
+            if (summary != null) {
+                return summary;
             }
-
-            log.warn("AI文章摘要生成失败: response={}", response);
-            // 降级到简单摘要
-            return generateSimpleSummary(content, maxLength);
-
         } catch (Exception e) {
             log.error("调用AI API生成文章摘要失败: provider={}, error={}", aiProvider, e.getMessage(), e);
-            // 降级到简单摘要
-            return generateSimpleSummary(content, maxLength);
         }
+        // 降级到简单摘要
+        return generateSimpleSummary(content, maxLength);
+    }
+
+    /**
+     * 经AI网关生成摘要，响应中没有内容时返回 null
+     */
+    private String requestArticleSummary(String content, int maxLength) {
+        List<Map<String, String>> messages = List.of(Map.of(
+            "role", "user",
+            "content", "请为以下内容生成一个简洁的摘要，摘要长度不超过" + maxLength + "个字符：\n\n" + content
+        ));
+        String summary = aiGatewayService.complete("summary", messages, 0.3, Math.min(maxLength / 2, 1000));
+        if (summary == null || summary.isBlank()) {
+            log.warn("AI文章摘要生成失败: 返回内容为空");
+            return null;
+        }
+        log.info("AI文章摘要生成成功: summaryLength={}", summary.length());
+        return summary;
     }
 
     /**
@@ -218,7 +199,14 @@ public class AIServiceImpl implements AIService {
                 return "请提供有效的对话内容。";
             }
 
-            // 获取最后一条用户消息
+            // 流式请求应走 /api/ai/chat/stream，这里统一返回完整回复
+            try {
+                return aiChatStreamService.complete(requestVo, userId);
+            } catch (Exception e) {
+                log.warn("调用AI对话接口失败，使用本地回复: userId={}, error={}", userId, e.getMessage());
+            }
+
+            // 降级：根据最后一条用户消息给出本地回复
             String lastMessage = "";
             for (ChatRequestVo.MessageVo msg : requestVo.getMessages()) {
                 if ("user".equals(msg.getRole())) {
@@ -274,24 +262,37 @@ public class AIServiceImpl implements AIService {
                 return keywords;
             }
 
-            // 简单的关键词提取（实际项目中应使用AI API）
-            String[] words = content.replaceAll("[^a-zA-Z0-9\u4e00-\u9fa5\\s]", "").split("\\s+");
-            Set<String> uniqueWords = new LinkedHashSet<>();
-
-            for (String word : words) {
-                if (word.length() > 1) {
-                    uniqueWords.add(word);
-                }
-            }
-
-            keywords.addAll(uniqueWords);
-            return keywords.subList(0, Math.min(count, keywords.size()));
+            return extractTermsBatch("keywords", KEYWORDS_INSTRUCTION, List.of(content), count,
+                    this::extractSimpleKeywords).get(0);
         } catch (Exception e) {
             log.error("提取关键词失败", e);
             return new ArrayList<>();
         }
     }
 
+    @Override
+    public List<List<String>> extractKeywordsBatch(List<String> contents, int count) {
+        log.debug("批量提取关键词: size={}, count={}", contents.size(), count);
+        return extractTermsBatch("keywords", KEYWORDS_INSTRUCTION, contents, count, this::extractSimpleKeywords);
+    }
+
+    /**
+     * 简单关键词提取（降级方案）
+     */
+    private List<String> extractSimpleKeywords(String content, int count) {
+        String[] words = content.replaceAll("[^a-zA-Z0-9\u4e00-\u9fa5\\s]", "").split("\\s+");
+        Set<String> uniqueWords = new LinkedHashSet<>();
+
+        for (String word : words) {
+            if (word.length() > 1) {
+                uniqueWords.add(word);
+            }
+        }
+
+        List<String> keywords = new ArrayList<>(uniqueWords);
+        return keywords.subList(0, Math.min(count, keywords.size()));
+    }
+
     @Override
     public String translateText(String content, String targetLanguage) {
         try {
@@ -326,24 +327,71 @@ public class AIServiceImpl implements AIService {
                 return tags;
             }
 
-            // 简单的标签生成（实际项目中应调用AI API）
-            String[] words = content.split("\\s+");
-            Set<String> uniqueWords = new LinkedHashSet<>();
-
-            for (String word : words) {
-                if (word.length() > 2 && word.length() < 10) {
-                    uniqueWords.add(word);
-                }
-            }
-
-            tags.addAll(uniqueWords);
-            return tags.subList(0, Math.min(count, tags.size()));
+            return extractTermsBatch("tags", TAGS_INSTRUCTION, List.of(content), count,
+                    this::generateSimpleTags).get(0);
         } catch (Exception e) {
             log.error("生成文章标签失败", e);
             return new ArrayList<>();
         }
     }
 
+    @Override
+    public List<List<String>> generateArticleTagsBatch(List<String> contents, int count) {
+        log.debug("批量生成文章标签: size={}, count={}", contents.size(), count);
+        return extractTermsBatch("tags", TAGS_INSTRUCTION, contents, count, this::generateSimpleTags);
+    }
+
+    /**
+     * 简单标签生成（降级方案）
+     */
+    private List<String> generateSimpleTags(String content, int count) {
+        String[] words = content.split("\\s+");
+        Set<String> uniqueWords = new LinkedHashSet<>();
+
+        for (String word : words) {
+            if (word.length() > 2 && word.length() < 10) {
+                uniqueWords.add(word);
+            }
+        }
+
+        List<String> tags = new ArrayList<>(uniqueWords);
+        return tags.subList(0, Math.min(count, tags.size()));
+    }
+
+    /**
+     * 标签、关键词的单条和批量提取：先查缓存，未命中的提交给AI网关（同一时间窗口内的请求合并为一次调用），
+     * 全部提交后再等待结果；某一条失败时只有这一条使用降级结果，降级结果不进入缓存
+     */
+    private List<List<String>> extractTermsBatch(String operation, String instruction, List<String> contents,
+                                                 int count, BiFunction<String, Integer, List<String>> fallback) {
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(contents.size());
+        for (String content : contents) {
+            if (content == null || content.trim().isEmpty()) {
+                futures.add(CompletableFuture.completedFuture(new ArrayList<>()));
+                continue;
+            }
+            futures.add(aiResultCacheService.getOrLoadAsync(operation, "count=" + count, content, LIST_RESULT,
+                    () -> aiGatewayService.extractTerms(operation, instruction, content, count)));
+        }
+
+        List<List<String>> results = new ArrayList<>(contents.size());
+        for (int i = 0; i < contents.size(); i++) {
+            String content = contents.get(i);
+            if (content == null || content.trim().isEmpty()) {
+                results.add(new ArrayList<>());
+                continue;
+            }
+            List<String> terms = null;
+            try {
+                terms = futures.get(i).join();
+            } catch (Exception e) {
+                log.warn("AI提取失败，使用本地结果: operation={}, error={}", operation, e.getMessage());
+            }
+            results.add(terms != null && !terms.isEmpty() ? terms : fallback.apply(content, count));
+        }
+        return results;
+    }
+
     @Override
     public Map<String, Object> checkContentCompliance(String content) {
         try {
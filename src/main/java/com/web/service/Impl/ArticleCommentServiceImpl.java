@@ -2,8 +2,11 @@ package com.web.service.Impl;
 
 import com.web.exception.WeebException;
 import com.web.mapper.ArticleCommentMapper;
+import com.web.mapper.ArticleMapper;
 import com.web.model.ArticleComment;
 import com.web.service.ArticleCommentService;
+import com.web.service.NotificationService;
+import com.web.service.UserLevelEngineService;
 import com.web.vo.article.ArticleCommentVo;
 import com.web.util.ValidationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +26,15 @@ public class ArticleCommentServiceImpl implements ArticleCommentService {
     @Autowired
     private ArticleCommentMapper articleCommentMapper;
 
+    @Autowired
+    private UserLevelEngineService userLevelEngineService;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private NotificationService notificationService;
+
     @Override
     public List<ArticleComment> getCommentsByArticleId(Long articleId) {
         if (!ValidationUtils.validateId(articleId, "文章ID")) {
@@ -57,6 +69,11 @@ public class ArticleCommentServiceImpl implements ArticleCommentService {
         
         int result = articleCommentMapper.insertComment(comment);
         if (result > 0) {
+            userLevelEngineService.increment(userId, UserLevelEngineService.COUNTER_COMMENTS, 1);
+            Long authorId = articleMapper.selectAuthorIdByArticleId(articleId);
+            if (authorId != null) {
+                notificationService.createCommentNotification(articleId, comment.getId(), userId, authorId);
+            }
             return comment.getId();
         }
         return null;
@@ -72,6 +89,9 @@ public class ArticleCommentServiceImpl implements ArticleCommentService {
         }
         
         int result = articleCommentMapper.deleteComment(commentId, userId);
+        if (result > 0) {
+            userLevelEngineService.increment(userId, UserLevelEngineService.COUNTER_COMMENTS, -result);
+        }
         return result > 0;
     }
 
@@ -0,0 +1,517 @@
+package com.web.service.Impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.web.dto.EngagementDelta;
+import com.web.exception.WeebException;
+import com.web.mapper.ArticleMapper;
+import com.web.mapper.UserFollowMapper;
+import com.web.model.Article;
+import com.web.service.ArticleRecommendationService;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文章推荐服务实现
+ * 排名分 = (点赞*0.3 + 阅读*0.2 + 收藏*0.3 + 1) * 2^((发布时间 - 基准时间) / 半衰期)。
+ * 衰减因子只与发布时间有关，时间流逝不会改变文章之间的相对顺序，
+ * 因此排名无需随时间重算，只在互动变化时调整单篇文章的位置；基准时间在每次重建时前移
+ */
+@Slf4j
+@Service
+public class ArticleRecommendationServiceImpl implements ArticleRecommendationService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int PREFERRED_CATEGORY_LIMIT = 10;
+
+    private static final Comparator<Ranked> ORDER = Comparator.comparingDouble((Ranked r) -> r.score).reversed()
+            .thenComparing(Comparator.comparingLong((Ranked r) -> r.articleId).reversed());
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private UserFollowMapper userFollowMapper;
+
+    @Value("${weeb.article.recommendation.window-days:30}")
+    private int windowDays;
+
+    @Value("${weeb.article.recommendation.half-life-hours:48}")
+    private long halfLifeHours;
+
+    @Value("${weeb.article.recommendation.max-candidates:5000}")
+    private int maxCandidates;
+
+    @Value("${weeb.article.recommendation.personalization-window:500}")
+    private int personalizationWindow;
+
+    @Value("${weeb.article.recommendation.follow-boost:0.5}")
+    private double followBoost;
+
+    @Value("${weeb.article.recommendation.category-boost:0.3}")
+    private double categoryBoost;
+
+    /**
+     * 排名中的一篇文章（不可变，分数变化时整体替换）
+     */
+    private static final class Ranked {
+        final long articleId;
+        final Long authorId;
+        final Long categoryId;
+        final long createdAt;
+        final long likes;
+        final long favorites;
+        final long exposure;
+        final double score;
+
+        Ranked(long articleId, Long authorId, Long categoryId, long createdAt,
+               long likes, long favorites, long exposure, double score) {
+            this.articleId = articleId;
+            this.authorId = authorId;
+            this.categoryId = categoryId;
+            this.createdAt = createdAt;
+            this.likes = likes;
+            this.favorites = favorites;
+            this.exposure = exposure;
+            this.score = score;
+        }
+    }
+
+    /**
+     * 一次重建得到的排名：有序集合 + ID索引，二者在lock内同步修改
+     */
+    private static final class Ranking {
+        final long epoch;
+        final NavigableSet<Ranked> ordered = new ConcurrentSkipListSet<>(ORDER);
+        final Map<Long, Ranked> byId = new ConcurrentHashMap<>();
+
+        Ranking(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    /**
+     * 用户偏好：关注的作者与常互动的分类
+     */
+    private static final class Preference {
+        final Set<Long> authors;
+        final Set<Long> categories;
+
+        Preference(Set<Long> authors, Set<Long> categories) {
+            this.authors = authors;
+            this.categories = categories;
+        }
+    }
+
+    /**
+     * 分页时使用的（文章, 排序分）对，个性化时排序分为加权后的分数
+     */
+    private static final class Scored {
+        final Ranked ranked;
+        final double score;
+
+        Scored(Ranked ranked, double score) {
+            this.ranked = ranked;
+            this.score = score;
+        }
+    }
+
+    private volatile Ranking ranking;
+    private final Object lock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private Cache<Long, Preference> preferenceCache;
+
+    // 统计信息
+    private final AtomicLong feedRequests = new AtomicLong();
+    private final AtomicLong personalizedRequests = new AtomicLong();
+    private final AtomicLong feedNanos = new AtomicLong();
+    private final AtomicLong incrementalUpdates = new AtomicLong();
+    private final AtomicLong trimmedEntries = new AtomicLong();
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private volatile long lastRebuildMillis = 0;
+    private volatile long lastRebuildAt = 0;
+
+    @PostConstruct
+    public void init() {
+        this.preferenceCache = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    public Map<String, Object> getFeed(Long userId, String cursor, int size, boolean personalized) {
+        long start = System.nanoTime();
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Ranking current = ensureRanking();
+        boolean personalize = personalized && userId != null;
+
+        List<Scored> page = new ArrayList<>(limit + 1);
+        if (current != null) {
+            Scored after = decodeCursor(cursor, current, personalize);
+            Iterator<Scored> candidates = personalize
+                    ? personalizedOrder(current, userId).iterator()
+                    : globalOrder(current, after);
+            while (candidates.hasNext() && page.size() <= limit) {
+                Scored next = candidates.next();
+                if (after == null || isAfter(next, after)) {
+                    page.add(next);
+                }
+            }
+        }
+
+        boolean hasMore = page.size() > limit;
+        if (hasMore) {
+            page = page.subList(0, limit);
+        }
+        List<Long> ids = new ArrayList<>(page.size());
+        for (Scored scored : page) {
+            ids.add(scored.ranked.articleId);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", loadArticles(ids));
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore && current != null
+                ? encodeCursor(page.get(page.size() - 1), current, personalize) : null);
+        result.put("personalized", personalize);
+
+        feedRequests.incrementAndGet();
+        if (personalize) {
+            personalizedRequests.incrementAndGet();
+        }
+        feedNanos.addAndGet(System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getPage(int page, int pageSize) {
+        Ranking current = ensureRanking();
+        if (current == null) {
+            return null;
+        }
+        if (page < 1) page = 1;
+        if (pageSize < 1 || pageSize > 100) pageSize = 10;
+
+        int offset = (page - 1) * pageSize;
+        List<Long> ids = new ArrayList<>(pageSize);
+        int index = 0;
+        for (Ranked ranked : current.ordered) {
+            if (index++ < offset) {
+                continue;
+            }
+            ids.add(ranked.articleId);
+            if (ids.size() >= pageSize) {
+                break;
+            }
+        }
+
+        int totalCount = current.byId.size();
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", loadArticles(ids));
+        result.put("total", totalCount);
+        result.put("currentPage", page);
+        result.put("pageSize", pageSize);
+        result.put("totalPages", (int) Math.ceil((double) totalCount / pageSize));
+        return result;
+    }
+
+    @Override
+    public void applyEngagement(List<EngagementDelta> deltas) {
+        Ranking current = ranking;
+        if (current == null || deltas == null) {
+            return;
+        }
+        synchronized (lock) {
+            for (EngagementDelta delta : deltas) {
+                Ranked old = current.byId.get(delta.getId());
+                if (old == null) {
+                    // 不在候选中的文章等下次重建时再参与排名
+                    continue;
+                }
+                long likes = Math.max(0, old.likes + delta.getLikes());
+                long favorites = Math.max(0, old.favorites + delta.getFavorites());
+                long exposure = old.exposure + delta.getReads();
+                put(current, new Ranked(old.articleId, old.authorId, old.categoryId, old.createdAt,
+                        likes, favorites, exposure, score(likes, favorites, exposure, old.createdAt, current.epoch)));
+                incrementalUpdates.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void refreshArticle(Long articleId) {
+        if (articleId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            Ranking current = ranking;
+            if (current == null) {
+                return;
+            }
+            Article article = articleMapper.selectRecommendationCandidateById(articleId);
+            synchronized (lock) {
+                if (article == null || article.getStatus() == null || article.getStatus() != 1
+                        || article.getCreatedAt() == null
+                        || article.getCreatedAt().isBefore(LocalDateTime.now().minusDays(windowDays))) {
+                    Ranked old = current.byId.remove(articleId);
+                    if (old != null) {
+                        current.ordered.remove(old);
+                    }
+                } else {
+                    put(current, toRanked(article, current.epoch));
+                }
+            }
+            incrementalUpdates.incrementAndGet();
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+            Ranking fresh = new Ranking(toMillis(since));
+            List<Article> candidates = articleMapper.selectRecommendationCandidates(since, maxCandidates);
+            for (Article article : candidates) {
+                Ranked ranked = toRanked(article, fresh.epoch);
+                fresh.byId.put(ranked.articleId, ranked);
+                fresh.ordered.add(ranked);
+            }
+            synchronized (lock) {
+                ranking = fresh;
+            }
+            rebuildCount.incrementAndGet();
+            lastRebuildMillis = System.currentTimeMillis() - start;
+            lastRebuildAt = System.currentTimeMillis();
+            log.info("推荐排名重建完成: candidates={}, cost={}ms", fresh.byId.size(), lastRebuildMillis);
+        } catch (Exception e) {
+            log.error("推荐排名重建失败", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        Ranking current = ranking;
+        long requests = feedRequests.get();
+        stats.put("ready", current != null);
+        stats.put("candidates", current != null ? current.byId.size() : 0);
+        stats.put("epoch", current != null ? current.epoch : 0);
+        stats.put("feedRequests", requests);
+        stats.put("personalizedRequests", personalizedRequests.get());
+        stats.put("avgFeedMicros", requests > 0 ? feedNanos.get() / requests / 1000.0 : 0.0);
+        stats.put("incrementalUpdates", incrementalUpdates.get());
+        stats.put("trimmedEntries", trimmedEntries.get());
+        stats.put("preferenceCacheSize", preferenceCache.estimatedSize());
+        stats.put("rebuildCount", rebuildCount.get());
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        stats.put("lastRebuildAt", lastRebuildAt);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private Ranking ensureRanking() {
+        Ranking current = ranking;
+        if (current == null) {
+            // 定时任务尚未执行时由首个请求触发构建
+            rebuild();
+            current = ranking;
+        }
+        return current;
+    }
+
+    /**
+     * 在lock内调用：替换文章的排名位置，超出容量时淘汰末尾
+     */
+    private void put(Ranking target, Ranked ranked) {
+        Ranked old = target.byId.put(ranked.articleId, ranked);
+        if (old != null) {
+            target.ordered.remove(old);
+        }
+        target.ordered.add(ranked);
+        while (target.byId.size() > maxCandidates) {
+            Ranked last = target.ordered.pollLast();
+            if (last == null) {
+                break;
+            }
+            target.byId.remove(last.articleId, last);
+            trimmedEntries.incrementAndGet();
+        }
+    }
+
+    private Iterator<Scored> globalOrder(Ranking current, Scored after) {
+        NavigableSet<Ranked> view = current.ordered;
+        if (after != null) {
+            Ranked probe = new Ranked(after.ranked.articleId, null, null, 0, 0, 0, 0, after.score);
+            view = current.ordered.tailSet(probe, false);
+        }
+        Iterator<Ranked> iterator = view.iterator();
+        return new Iterator<Scored>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Scored next() {
+                Ranked ranked = iterator.next();
+                return new Scored(ranked, ranked.score);
+            }
+        };
+    }
+
+    /**
+     * 取全局排名前personalization-window篇，按关注作者与偏好分类加权后重排
+     */
+    private List<Scored> personalizedOrder(Ranking current, Long userId) {
+        Preference preference = preferenceCache.get(userId, this::loadPreference);
+        List<Scored> window = new ArrayList<>(personalizationWindow);
+        for (Ranked ranked : current.ordered) {
+            double weight = 1.0;
+            if (ranked.authorId != null && preference.authors.contains(ranked.authorId)) {
+                weight += followBoost;
+            }
+            if (ranked.categoryId != null && preference.categories.contains(ranked.categoryId)) {
+                weight += categoryBoost;
+            }
+            window.add(new Scored(ranked, ranked.score * weight));
+            if (window.size() >= personalizationWindow) {
+                break;
+            }
+        }
+        window.sort(ArticleRecommendationServiceImpl::compare);
+        return window;
+    }
+
+    private Preference loadPreference(Long userId) {
+        Set<Long> authors = new HashSet<>();
+        Set<Long> categories = new HashSet<>();
+        try {
+            List<Long> following = userFollowMapper.getFollowingIds(userId);
+            if (following != null) {
+                authors.addAll(following);
+            }
+            List<Long> preferred = articleMapper.selectPreferredCategoryIds(userId, PREFERRED_CATEGORY_LIMIT);
+            if (preferred != null) {
+                categories.addAll(preferred);
+            }
+        } catch (Exception e) {
+            log.warn("加载用户推荐偏好失败: userId={}, error={}", userId, e.getMessage());
+        }
+        return new Preference(authors, categories);
+    }
+
+    private List<Article> loadArticles(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Article> byId = new HashMap<>();
+        for (Article article : articleMapper.selectArticlesByIds(ids)) {
+            byId.put(article.getArticleId(), article);
+        }
+        List<Article> articles = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Article article = byId.get(id);
+            // 排名与数据库之间可能短暂不一致，跳过已不可见的文章
+            if (article != null && article.getStatus() != null && article.getStatus() == 1) {
+                articles.add(article);
+            }
+        }
+        return articles;
+    }
+
+    private Ranked toRanked(Article article, long epoch) {
+        long likes = article.getLikesCount() != null ? article.getLikesCount() : 0;
+        long favorites = article.getFavoritesCount() != null ? article.getFavoritesCount() : 0;
+        long exposure = article.getExposureCount() != null ? article.getExposureCount() : 0L;
+        long createdAt = article.getCreatedAt() != null ? toMillis(article.getCreatedAt()) : epoch;
+        return new Ranked(article.getArticleId(), article.getUserId(), article.getCategoryId(), createdAt,
+                likes, favorites, exposure, score(likes, favorites, exposure, createdAt, epoch));
+    }
+
+    private double score(long likes, long favorites, long exposure, long createdAt, long epoch) {
+        double base = likes * 0.3 + exposure * 0.2 + favorites * 0.3 + 1;
+        return base * Math.pow(2, (double) (createdAt - epoch) / TimeUnit.HOURS.toMillis(halfLifeHours));
+    }
+
+    private static boolean isAfter(Scored candidate, Scored after) {
+        return compare(candidate, after) > 0;
+    }
+
+    private static int compare(Scored a, Scored b) {
+        int byScore = Double.compare(b.score, a.score);
+        return byScore != 0 ? byScore : Long.compare(b.ranked.articleId, a.ranked.articleId);
+    }
+
+    /**
+     * 游标：是否个性化|基准时间|排序分|文章ID，Base64URL编码
+     */
+    private static String encodeCursor(Scored last, Ranking current, boolean personalized) {
+        String raw = (personalized ? "1" : "0") + "|" + current.epoch + "|" + last.score + "|" + last.ranked.articleId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Scored decodeCursor(String cursor, Ranking current, boolean personalized) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new WeebException("推荐游标无效");
+        }
+        if (parts.length != 4) {
+            throw new WeebException("推荐游标无效");
+        }
+        if (!parts[0].equals(personalized ? "1" : "0")) {
+            throw new WeebException("推荐游标与请求参数不匹配");
+        }
+        try {
+            long epoch = Long.parseLong(parts[1]);
+            double score = Double.parseDouble(parts[2]);
+            long articleId = Long.parseLong(parts[3]);
+            if (epoch != current.epoch) {
+                // 翻页期间排名已重建：分数换算到新的基准时间，保持顺序位置
+                score *= Math.pow(2, (double) (epoch - current.epoch) / TimeUnit.HOURS.toMillis(halfLifeHours));
+            }
+            return new Scored(new Ranked(articleId, null, null, 0, 0, 0, 0, score), score);
+        } catch (NumberFormatException e) {
+            throw new WeebException("推荐游标无效");
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -4,7 +4,14 @@ import com.web.mapper.ArticleMapper;
 import com.web.mapper.ArticleCategoryMapper;
 import com.web.model.Article;
 import com.web.model.ArticleCategory;
+import com.web.service.ArticleRecommendationService;
 import com.web.service.ArticleService;
+import com.web.service.BehaviorEventService;
+import com.web.service.EngagementCounterService;
+import com.web.service.ModerationQueueService;
+import com.web.service.NotificationService;
+import com.web.service.SearchResultCacheService;
+import com.web.service.UserLevelEngineService;
 import com.web.service.UserTypeSecurityService;
 import com.web.service.UserService;
 import com.web.exception.WeebException;
@@ -53,6 +60,27 @@ public class ArticleServiceImpl implements ArticleService {
     @Autowired
     private com.web.service.UserService userService;
 
+    @Autowired
+    private SearchResultCacheService searchResultCacheService;
+
+    @Autowired
+    private EngagementCounterService engagementCounterService;
+
+    @Autowired
+    private ArticleRecommendationService articleRecommendationService;
+
+    @Autowired
+    private BehaviorEventService behaviorEventService;
+
+    @Autowired
+    private UserLevelEngineService userLevelEngineService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
     /**
      * 验证排序参数
      * @param sortBy 排序字段
@@ -114,6 +142,12 @@ public class ArticleServiceImpl implements ArticleService {
             // 执行删除操作
             int result = articleMapper.deleteArticleById(id);
             if (result > 0) {
+                searchResultCacheService.invalidate(SearchResultCacheService.TYPE_ARTICLE, id);
+                engagementCounterService.discard(id);
+                moderationQueueService.complete(id);
+                articleRecommendationService.refreshArticle(id);
+                userLevelEngineService.recount(article.getUserId());
+
                 // 更新文章作者的统计数据
                 articleMapper.updateUserStatsTotals(article.getUserId());
 
@@ -140,7 +174,10 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     @Transactional(readOnly = true)
     public Article getArticleById(Long id) {
-        return articleMapper.selectArticleById(id);
+        Article article = articleMapper.selectArticleById(id);
+        // 叠加尚未刷写的互动计数
+        engagementCounterService.applyPending(article);
+        return article;
     }
 
     @Override
@@ -174,13 +211,11 @@ public class ArticleServiceImpl implements ArticleService {
         // 插入点赞记录
         int result = articleMapper.insertArticleLike(userId, articleId);
         if (result > 0) {
-            // 更新文章点赞数
-            articleMapper.increaseLikeCount(articleId);
-            
-            // 更新作者统计
-            if (article.getUserId() != null) {
-                articleMapper.updateUserStatsTotals(article.getUserId());
-            }
+            // 文章点赞数与作者统计由计数服务合并后批量刷写
+            engagementCounterService.addLikes(articleId, article.getUserId(), 1);
+            behaviorEventService.record(BehaviorEventService.EVENT_ARTICLE_ACTION, userId, "like:" + articleId);
+            userLevelEngineService.increment(userId, UserLevelEngineService.COUNTER_LIKES, 1);
+            notificationService.createArticleLikeNotification(articleId, userId, article.getUserId());
             
             log.info("点赞成功: articleId={}, userId={}", articleId, userId);
             return true;
@@ -202,14 +237,9 @@ public class ArticleServiceImpl implements ArticleService {
         // 删除点赞记录
         int result = articleMapper.deleteArticleLike(userId, articleId);
         if (result > 0) {
-            // 减少文章点赞数
-            articleMapper.decreaseLikeCount(articleId);
-            
-            // 更新作者统计
-            Article article = articleMapper.selectArticleById(articleId);
-            if (article != null && article.getUserId() != null) {
-                articleMapper.updateUserStatsTotals(article.getUserId());
-            }
+            // 文章点赞数与作者统计由计数服务合并后批量刷写
+            engagementCounterService.addLikes(articleId, engagementCounterService.resolveAuthorId(articleId), -1);
+            userLevelEngineService.increment(userId, UserLevelEngineService.COUNTER_LIKES, -1);
             
             log.info("取消点赞成功: articleId={}, userId={}", articleId, userId);
             return true;
@@ -242,6 +272,12 @@ public class ArticleServiceImpl implements ArticleService {
         // 设置更新时间
         article.setUpdatedAt(LocalDateTime.now());
         int result = articleMapper.updateArticleContent(id, article);
+        if (result > 0) {
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_ARTICLE, id,
+                    article.getArticleTitle(), article.getArticleContent());
+            // 待审核文章按修改后的内容重新检测，其他状态的文章检测时直接跳过
+            moderationQueueService.submit(id);
+        }
         return result > 0;
     }
 
@@ -287,10 +323,9 @@ public class ArticleServiceImpl implements ArticleService {
         // 添加收藏记录
         int result = articleMapper.insertFavorite(articleId, userId);
         if (result > 0) {
-            // 增加文章收藏数
-            articleMapper.increaseFavoriteCount(articleId);
-            // 更新用户统计数据
-            articleMapper.updateUserStatsTotals(userId);
+            // 文章收藏数与作者统计由计数服务合并后批量刷写
+            engagementCounterService.addFavorites(articleId, article.getUserId(), 1);
+            behaviorEventService.record(BehaviorEventService.EVENT_ARTICLE_ACTION, userId, "favorite:" + articleId);
             return true;
         }
         return false;
@@ -306,10 +341,8 @@ public class ArticleServiceImpl implements ArticleService {
         // 删除收藏记录
         int result = articleMapper.deleteFavorite(articleId, userId);
         if (result > 0) {
-            // 减少文章收藏数
-            articleMapper.decreaseFavoriteCount(articleId);
-            // 更新用户统计数据
-            articleMapper.updateUserStatsTotals(userId);
+            // 文章收藏数与作者统计由计数服务合并后批量刷写
+            engagementCounterService.addFavorites(articleId, engagementCounterService.resolveAuthorId(articleId), -1);
             return true;
         }
         return false;
@@ -342,6 +375,12 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getRecommendedArticles(int page, int pageSize) {
+        // 优先使用内存中预先计算的推荐排名，排名不可用时退回SQL计算
+        Map<String, Object> ranked = articleRecommendationService.getPage(page, pageSize);
+        if (ranked != null) {
+            return ranked;
+        }
+
         int offset = (page - 1) * pageSize;
         List<Article> articles = articleMapper.getRecommendedArticles(offset, pageSize);
         int totalCount = articleMapper.countAllArticles(); // 推荐文章总数使用所有文章数
@@ -359,6 +398,14 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> searchArticles(String query, int page, int pageSize, String sortBy, String sortOrder) {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("sortBy", sortBy);
+        filters.put("sortOrder", sortOrder);
+        return searchResultCacheService.get(SearchResultCacheService.TYPE_ARTICLE, query, filters, page, pageSize,
+                () -> doSearchArticles(query, page, pageSize, sortBy, sortOrder));
+    }
+
+    private Map<String, Object> doSearchArticles(String query, int page, int pageSize, String sortBy, String sortOrder) {
         // 使用ValidationUtils验证搜索关键词
         if (!ValidationUtils.validateSearchKeyword(query)) {
             throw new WeebException("搜索关键词不能为空或格式不正确");
@@ -393,6 +440,16 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> searchArticlesWithFilters(String query, int page, int pageSize, String startDate, String endDate, String sortBy, String sortOrder) {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("startDate", startDate);
+        filters.put("endDate", endDate);
+        filters.put("sortBy", sortBy);
+        filters.put("sortOrder", sortOrder);
+        return searchResultCacheService.get(SearchResultCacheService.TYPE_ARTICLE, query, filters, page, pageSize,
+                () -> doSearchArticlesWithFilters(query, page, pageSize, startDate, endDate, sortBy, sortOrder));
+    }
+
+    private Map<String, Object> doSearchArticlesWithFilters(String query, int page, int pageSize, String startDate, String endDate, String sortBy, String sortOrder) {
         // 使用ValidationUtils验证搜索关键词
         if (!ValidationUtils.validateSearchKeyword(query)) {
             throw new WeebException("搜索关键词不能为空或格式不正确");
@@ -434,30 +491,24 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     public boolean addCoin(Long id, Double amount) {
-        int result = articleMapper.addCoin(id, amount);
-        if (result > 0) {
-            // 获取文章作者ID并更新其统计数据
-            Article article = articleMapper.selectArticleById(id);
-            if (article != null) {
-                articleMapper.updateUserStatsTotals(article.getUserId());
-            }
-            return true;
+        Long authorId = engagementCounterService.resolveAuthorId(id);
+        if (authorId == null || amount == null) {
+            return false;
         }
-        return false;
+        // 赞助数与作者统计由计数服务合并后批量刷写
+        engagementCounterService.addCoins(id, authorId, amount);
+        return true;
     }
 
     @Override
     public boolean increaseReadCount(Long id) {
-        int result = articleMapper.increaseReadCount(id);
-        if (result > 0) {
-            // 获取文章作者ID并更新其统计数据
-            Article article = articleMapper.selectArticleById(id);
-            if (article != null) {
-                articleMapper.updateUserStatsTotals(article.getUserId());
-            }
-            return true;
+        Long authorId = engagementCounterService.resolveAuthorId(id);
+        if (authorId == null) {
+            return false;
         }
-        return false;
+        // 阅读数与作者统计由计数服务合并后批量刷写
+        engagementCounterService.addReads(id, authorId, 1);
+        return true;
     }
 
     @Override
@@ -486,6 +537,20 @@ public class ArticleServiceImpl implements ArticleService {
         }
         
         int result = articleMapper.insertArticle(article);
+        if (result > 0) {
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_ARTICLE, article.getArticleId(),
+                    article.getArticleTitle(), article.getArticleContent());
+            behaviorEventService.record(BehaviorEventService.EVENT_ARTICLE_ACTION, article.getUserId(),
+                    "create:" + article.getArticleId());
+        }
+        if (result > 0 && article.getStatus() == 0) {
+            // 待审核文章进入审核队列，异步检测后按优先级排队
+            moderationQueueService.submit(article.getArticleId());
+        }
+        if (result > 0 && article.getStatus() == 1) {
+            articleRecommendationService.refreshArticle(article.getArticleId());
+            userLevelEngineService.increment(article.getUserId(), UserLevelEngineService.COUNTER_ARTICLES, 1);
+        }
         if (result > 0 && article.getUserId() != null) {
             // 更新用户统计数据
             articleMapper.updateUserStatsTotals(article.getUserId());
@@ -676,6 +741,11 @@ public class ArticleServiceImpl implements ArticleService {
 
             // 将文章状态设置为已通过
             articleMapper.updateArticleStatus(articleId, 1);
+            moderationQueueService.complete(articleId);
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_ARTICLE, articleId,
+                    article.getArticleTitle(), article.getArticleContent());
+            articleRecommendationService.refreshArticle(articleId);
+            userLevelEngineService.recount(article.getUserId());
 
             log.info("文章审核通过成功: articleId={}", articleId);
             return true;
@@ -701,6 +771,11 @@ public class ArticleServiceImpl implements ArticleService {
 
             // 将文章状态设置为已拒绝
             articleMapper.updateArticleStatus(articleId, 2);
+            moderationQueueService.complete(articleId);
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_ARTICLE, articleId,
+                    article.getArticleTitle(), article.getArticleContent());
+            articleRecommendationService.refreshArticle(articleId);
+            userLevelEngineService.recount(article.getUserId());
 
             log.info("文章拒绝成功: articleId={}", articleId);
             return true;
@@ -726,6 +801,11 @@ public class ArticleServiceImpl implements ArticleService {
 
             // 将文章状态设置为已删除（假设状态码 3 表示已删除）
             articleMapper.updateArticleStatus(articleId, 3);
+            moderationQueueService.complete(articleId);
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_ARTICLE, articleId,
+                    article.getArticleTitle(), article.getArticleContent());
+            articleRecommendationService.refreshArticle(articleId);
+            userLevelEngineService.recount(article.getUserId());
 
             // 可以在这里添加其他清理逻辑，比如删除相关的评论、收藏等
             // 但为了简单起见，这里只做文章状态更新
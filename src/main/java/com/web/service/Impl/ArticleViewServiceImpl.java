@@ -0,0 +1,271 @@
+package com.web.service.Impl;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.web.mapper.ArticleMapper;
+import com.web.model.Article;
+import com.web.service.ArticleViewService;
+import com.web.service.BehaviorEventService;
+import com.web.service.EngagementCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文章浏览统计服务实现
+ * Redis键：
+ * article:uv:{articleId}:{yyyyMMdd}  当天独立访客HLL，保留retention-days天
+ * article:uv:{articleId}:total       累计独立访客HLL
+ * article:uv:dirty                   有新浏览、待汇总的文章ID集合
+ */
+@Slf4j
+@Service
+public class ArticleViewServiceImpl implements ArticleViewService {
+
+    private static final String KEY_PREFIX = "article:uv:";
+    private static final String TOTAL_SUFFIX = ":total";
+    private static final String DIRTY_KEY = KEY_PREFIX + "dirty";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int FOLD_BATCH_SIZE = 500;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private EngagementCounterService engagementCounterService;
+
+    @Autowired
+    private BehaviorEventService behaviorEventService;
+
+    @Value("${weeb.article.views.retention-days:90}")
+    private int retentionDays;
+
+    private final AtomicBoolean folding = new AtomicBoolean(false);
+
+    // 统计信息
+    private final AtomicLong recordedViews = new AtomicLong();
+    private final AtomicLong anonymousViews = new AtomicLong();
+    private final AtomicLong untrackedViews = new AtomicLong();
+    private final AtomicLong redisFailures = new AtomicLong();
+    private final AtomicLong foldedArticles = new AtomicLong();
+    private final AtomicLong foldCount = new AtomicLong();
+    private volatile long lastFoldAt = 0;
+
+    @Override
+    public boolean recordView(Long articleId, Long userId, String clientIp, String userAgent) {
+        Long authorId = engagementCounterService.resolveAuthorId(articleId);
+        if (authorId == null) {
+            return false;
+        }
+        // 原始阅读数：每次浏览都计入，由互动计数服务合并刷写
+        engagementCounterService.addReads(articleId, authorId, 1);
+        behaviorEventService.record(BehaviorEventService.EVENT_ARTICLE_ACTION, userId, "view:" + articleId);
+        recordedViews.incrementAndGet();
+
+        String visitor = visitorKey(userId, clientIp, userAgent);
+        if (visitor == null) {
+            untrackedViews.incrementAndGet();
+            return true;
+        }
+        if (userId == null) {
+            anonymousViews.incrementAndGet();
+        }
+
+        String dayKey = dayKey(articleId, LocalDate.now());
+        String totalKey = totalKey(articleId);
+        long ttlSeconds = TimeUnit.DAYS.toSeconds(retentionDays + 1L);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.pfAdd(dayKey, visitor);
+                redis.expire(dayKey, ttlSeconds);
+                redis.pfAdd(totalKey, visitor);
+                redis.sAdd(DIRTY_KEY, String.valueOf(articleId));
+                return null;
+            });
+        } catch (Exception e) {
+            // Redis不可用时只丢失去重数据，原始阅读数不受影响
+            redisFailures.incrementAndGet();
+            log.debug("记录文章独立访客失败: articleId={}, error={}", articleId, e.getMessage());
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getViewStats(Long articleId, int days) {
+        Article article = articleMapper.selectArticleById(articleId);
+        if (article == null) {
+            return null;
+        }
+        engagementCounterService.applyPending(article);
+        int range = Math.max(1, Math.min(days, retentionDays));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("articleId", articleId);
+        result.put("totalViews", article.getExposureCount() != null ? article.getExposureCount() : 0L);
+        result.put("days", range);
+
+        LocalDate today = LocalDate.now();
+        List<String> dayKeys = new ArrayList<>(range);
+        List<String> dayLabels = new ArrayList<>(range);
+        for (int i = range - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            dayKeys.add(dayKey(articleId, day));
+            dayLabels.add(day.toString());
+        }
+
+        try {
+            List<Object> counts = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                redis.pfCount(totalKey(articleId));
+                for (String key : dayKeys) {
+                    redis.pfCount(key);
+                }
+                return null;
+            });
+            Map<String, Long> daily = new LinkedHashMap<>();
+            for (int i = 0; i < dayLabels.size(); i++) {
+                daily.put(dayLabels.get(i), toLong(counts.get(i + 1)));
+            }
+            // 多个HLL的PFCOUNT返回并集基数，区间内同一访客只计一次
+            Long rangeUnique = stringRedisTemplate.opsForHyperLogLog().size(dayKeys.toArray(new String[0]));
+            result.put("uniqueViews", toLong(counts.get(0)));
+            result.put("uniqueViewsInRange", rangeUnique != null ? rangeUnique : 0L);
+            result.put("dailyUniqueViews", daily);
+        } catch (Exception e) {
+            // Redis不可用时退回数据库中最近一次汇总的值
+            redisFailures.incrementAndGet();
+            Long folded = articleMapper.selectArticleUniqueViews(articleId);
+            result.put("uniqueViews", folded != null ? folded : 0L);
+            result.put("stale", true);
+            log.warn("读取文章独立访客失败，使用已汇总数据: articleId={}, error={}", articleId, e.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public int fold() {
+        if (!folding.compareAndSet(false, true)) {
+            return 0;
+        }
+        int folded = 0;
+        try {
+            List<String> members;
+            do {
+                members = stringRedisTemplate.opsForSet().pop(DIRTY_KEY, FOLD_BATCH_SIZE);
+                if (members == null || members.isEmpty()) {
+                    break;
+                }
+                List<String> ids = members;
+                List<Object> counts = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection redis = (StringRedisConnection) connection;
+                    for (String id : ids) {
+                        redis.pfCount(KEY_PREFIX + id + TOTAL_SUFFIX);
+                    }
+                    return null;
+                });
+                List<Map<String, Object>> items = new ArrayList<>(ids.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("articleId", Long.valueOf(ids.get(i)));
+                    item.put("uniqueViews", toLong(counts.get(i)));
+                    items.add(item);
+                }
+                try {
+                    articleMapper.upsertArticleUniqueViews(items);
+                } catch (Exception e) {
+                    // 批量写入失败时逐条重试，剔除已删除的文章
+                    foldIndividually(items);
+                }
+                folded += items.size();
+            } while (members.size() == FOLD_BATCH_SIZE);
+
+            if (folded > 0) {
+                foldCount.incrementAndGet();
+                foldedArticles.addAndGet(folded);
+                lastFoldAt = System.currentTimeMillis();
+                log.debug("文章独立访客汇总完成: articles={}", folded);
+            }
+            return folded;
+        } finally {
+            folding.set(false);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("recordedViews", recordedViews.get());
+        stats.put("anonymousViews", anonymousViews.get());
+        stats.put("untrackedViews", untrackedViews.get());
+        stats.put("redisFailures", redisFailures.get());
+        stats.put("foldCount", foldCount.get());
+        stats.put("foldedArticles", foldedArticles.get());
+        stats.put("lastFoldAt", lastFoldAt);
+        stats.put("retentionDays", retentionDays);
+        try {
+            stats.put("pendingFold", stringRedisTemplate.opsForSet().size(DIRTY_KEY));
+        } catch (Exception e) {
+            stats.put("pendingFold", -1);
+        }
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void foldIndividually(List<Map<String, Object>> items) {
+        for (Map<String, Object> item : items) {
+            try {
+                articleMapper.upsertArticleUniqueViews(List.of(item));
+            } catch (Exception e) {
+                // 文章仍存在时放回待汇总集合，下次重试
+                if (articleMapper.selectArticleById((Long) item.get("articleId")) != null) {
+                    stringRedisTemplate.opsForSet().add(DIRTY_KEY, String.valueOf(item.get("articleId")));
+                }
+                log.warn("汇总文章独立访客失败: articleId={}, error={}", item.get("articleId"), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 访客标识：登录用户按用户ID，匿名访客按IP+UA摘要；都缺失时不参与去重
+     */
+    private static String visitorKey(Long userId, String clientIp, String userAgent) {
+        if (userId != null) {
+            return "u:" + userId;
+        }
+        if (clientIp == null || clientIp.isEmpty()) {
+            return null;
+        }
+        return "a:" + DigestUtil.md5Hex(clientIp + "|" + (userAgent != null ? userAgent : ""));
+    }
+
+    private static String dayKey(Long articleId, LocalDate day) {
+        return KEY_PREFIX + articleId + ":" + day.format(DAY_FORMAT);
+    }
+
+    private static String totalKey(Long articleId) {
+        return KEY_PREFIX + articleId + TOTAL_SUFFIX;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
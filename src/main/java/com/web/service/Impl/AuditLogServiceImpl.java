@@ -0,0 +1,298 @@
+package com.web.service.Impl;
+
+import com.web.mapper.SystemLogMapper;
+import com.web.model.SystemLog;
+import com.web.service.AuditLogService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 审计日志写入服务实现
+ * 队列为定长数组环形队列，写入线程取到第一条后把队列中已有的日志一并取出（最多 batch-size 条）写成一条多行INSERT：
+ * 空闲时单条立即写入，繁忙时自然合并成批，不需要额外的等待攒批。
+ * 异步写入在队列满时最多等待 offer-timeout-ms（背压），仍然满则丢弃并计数；
+ * 同步写入等待所在批次落库，写入线程不可用或入队失败时由调用线程直接写库，保证不丢
+ */
+@Slf4j
+@Service
+public class AuditLogServiceImpl implements AuditLogService {
+
+    private static final String TRUNCATED_SUFFIX = "...(truncated)";
+
+    @Autowired
+    private SystemLogMapper systemLogMapper;
+
+    @Value("${weeb.audit-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${weeb.audit-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${weeb.audit-log.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${weeb.audit-log.sync-timeout-ms:3000}")
+    private long syncTimeoutMs;
+
+    @Value("${weeb.audit-log.sync-actions:BAN_USER,UNBAN_USER,RESET_USER_PASSWORD,DELETE_USER,UPDATE_USER_ROLE,UPDATE_PERMISSION}")
+    private String syncActionsConfig;
+
+    @Value("${weeb.audit-log.max-details-length:2000}")
+    private int maxDetailsLength;
+
+    /**
+     * 队列中的一条日志，同步写入时带完成通知
+     */
+    private static final class AuditEntry {
+        final SystemLog log;
+        final CompletableFuture<Void> persisted;
+
+        AuditEntry(SystemLog log, CompletableFuture<Void> persisted) {
+            this.log = log;
+            this.persisted = persisted;
+        }
+    }
+
+    private BlockingQueue<AuditEntry> queue;
+    private Set<String> syncActions;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // 统计信息
+    private final AtomicLong acceptedLogs = new AtomicLong();
+    private final AtomicLong droppedLogs = new AtomicLong();
+    private final AtomicLong backpressureWaits = new AtomicLong();
+    private final AtomicLong writtenLogs = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong failedLogs = new AtomicLong();
+    private final AtomicLong syncWrites = new AtomicLong();
+    private final AtomicLong syncTimeouts = new AtomicLong();
+    private final AtomicLong directWrites = new AtomicLong();
+    private final AtomicLong truncatedDetails = new AtomicLong();
+    private volatile long lastBatchMillis = 0;
+
+    @PostConstruct
+    public void init() {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.syncActions = Arrays.stream(syncActionsConfig.split(","))
+                .map(String::trim)
+                .filter(action -> !action.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.running = true;
+        this.writerThread = new Thread(this::drainLoop, "audit-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        log.info("✅ 审计日志写入线程已启动: queueCapacity={}, batchSize={}, syncActions={}",
+                queueCapacity, batchSize, syncActions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 停止接收后等待写入线程把队列写完，不中断正在执行的SQL
+        running = false;
+        try {
+            writerThread.join(10000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("停机时仍有 {} 条审计日志未写入，改为直接写入", queue.size());
+            List<AuditEntry> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            writeBatch(remaining);
+        }
+    }
+
+    @Override
+    public boolean record(SystemLog systemLog, boolean sync) {
+        if (systemLog == null) {
+            return false;
+        }
+        if (systemLog.getCreatedAt() == null) {
+            systemLog.setCreatedAt(LocalDateTime.now());
+        }
+        String details = systemLog.getDetails();
+        if (details != null && details.length() > maxDetailsLength) {
+            systemLog.setDetails(details.substring(0, Math.max(0, maxDetailsLength - TRUNCATED_SUFFIX.length()))
+                    + TRUNCATED_SUFFIX);
+            truncatedDetails.incrementAndGet();
+        }
+
+        if (sync || syncActions.contains(systemLog.getAction())) {
+            return recordSync(systemLog);
+        }
+        AuditEntry entry = new AuditEntry(systemLog, null);
+        if (running && enqueue(entry)) {
+            acceptedLogs.incrementAndGet();
+            return true;
+        }
+        long dropped = droppedLogs.incrementAndGet();
+        // 过载时每次丢弃都打日志会放大问题，只在第一次和每1000次时提示
+        if (dropped % 1000 == 1) {
+            log.warn("审计日志队列已满，丢弃日志: action={}, operatorId={}, 累计丢弃={}",
+                    systemLog.getAction(), systemLog.getOperatorId(), dropped);
+        }
+        return false;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long batches = batchCount.get();
+        stats.put("queueSize", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("batchSize", batchSize);
+        stats.put("acceptedLogs", acceptedLogs.get());
+        stats.put("droppedLogs", droppedLogs.get());
+        stats.put("backpressureWaits", backpressureWaits.get());
+        stats.put("writtenLogs", writtenLogs.get());
+        stats.put("failedLogs", failedLogs.get());
+        stats.put("batchCount", batches);
+        stats.put("avgBatchSize", batches > 0 ? (double) writtenLogs.get() / batches : 0.0);
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("syncWrites", syncWrites.get());
+        stats.put("syncTimeouts", syncTimeouts.get());
+        stats.put("directWrites", directWrites.get());
+        stats.put("truncatedDetails", truncatedDetails.get());
+        stats.put("syncActions", syncActions);
+        stats.put("writerAlive", writerThread != null && writerThread.isAlive());
+        stats.put("lastBatchMillis", lastBatchMillis);
+        return stats;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private boolean recordSync(SystemLog systemLog) {
+        syncWrites.incrementAndGet();
+        AuditEntry entry = new AuditEntry(systemLog, new CompletableFuture<>());
+        if (!running || !writerThread.isAlive() || !enqueue(entry)) {
+            // 同步日志不能丢：写入线程不可用或队列持续满时在调用线程直接写
+            directWrites.incrementAndGet();
+            writeBatch(Collections.singletonList(entry));
+            return entry.persisted.isDone() && !entry.persisted.isCompletedExceptionally();
+        }
+        acceptedLogs.incrementAndGet();
+        try {
+            entry.persisted.get(syncTimeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            // 日志仍在队列中，稍后会写入，这里不再重复写
+            syncTimeouts.incrementAndGet();
+            log.warn("同步审计日志等待落库超时: action={}, operatorId={}", systemLog.getAction(), systemLog.getOperatorId());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (Exception e) {
+            log.error("同步审计日志写入失败: action={}, operatorId={}", systemLog.getAction(), systemLog.getOperatorId(), e);
+            return false;
+        }
+    }
+
+    private boolean enqueue(AuditEntry entry) {
+        if (queue.offer(entry)) {
+            return true;
+        }
+        backpressureWaits.incrementAndGet();
+        try {
+            return queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEntry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // 写入线程不能退出，单批异常记录后继续
+                log.error("审计日志写入线程异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        log.info("审计日志写入线程已退出");
+    }
+
+    /**
+     * 一条多行INSERT写入整批；整批失败时逐条重试，把坏数据隔离在单条内
+     */
+    private void writeBatch(List<AuditEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<SystemLog> logs = new ArrayList<>(batch.size());
+        for (AuditEntry entry : batch) {
+            logs.add(entry.log);
+        }
+        try {
+            systemLogMapper.batchInsertLogs(logs);
+            for (AuditEntry entry : batch) {
+                complete(entry, null);
+            }
+            writtenLogs.addAndGet(batch.size());
+        } catch (Exception batchError) {
+            log.warn("审计日志批量写入失败，改为逐条写入: size={}, error={}", batch.size(), batchError.getMessage());
+            for (AuditEntry entry : batch) {
+                try {
+                    systemLogMapper.batchInsertLogs(Collections.singletonList(entry.log));
+                    writtenLogs.incrementAndGet();
+                    complete(entry, null);
+                } catch (Exception e) {
+                    failedLogs.incrementAndGet();
+                    log.error("审计日志写入失败: action={}, operatorId={}", entry.log.getAction(),
+                            entry.log.getOperatorId(), e);
+                    complete(entry, e);
+                }
+            }
+        }
+        batchCount.incrementAndGet();
+        maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+        lastBatchMillis = System.currentTimeMillis() - start;
+    }
+
+    private void complete(AuditEntry entry, Exception error) {
+        if (entry.persisted == null) {
+            return;
+        }
+        if (error == null) {
+            entry.persisted.complete(null);
+        } else {
+            entry.persisted.completeExceptionally(error);
+        }
+    }
+}
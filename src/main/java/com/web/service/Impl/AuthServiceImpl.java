@@ -11,6 +11,7 @@ import com.web.model.UserWithStats;
 // RBAC相关model已删除
 // import com.web.model.Role;
 import com.web.service.AuthService;
+import com.web.service.BehaviorEventService;
 import com.web.service.UserCreationService;
 import com.web.constant.UserOnlineStatus;
 import com.web.util.JwtUtil;
@@ -45,8 +46,9 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final RedisTemplate<String, Object> redisTemplate;
     private final JwtUtil jwtUtil;
+    private final BehaviorEventService behaviorEventService;
 
-    public AuthServiceImpl(AuthMapper authMapper, UserMapper userMapper, UserCreationService userCreationService, PasswordEncoder passwordEncoder, RedisTemplate<String, Object> redisTemplate, JwtUtil jwtUtil) {
+    public AuthServiceImpl(AuthMapper authMapper, UserMapper userMapper, UserCreationService userCreationService, PasswordEncoder passwordEncoder, RedisTemplate<String, Object> redisTemplate, JwtUtil jwtUtil, BehaviorEventService behaviorEventService) {
         this.authMapper = authMapper;
         this.userMapper = userMapper;
         // RBAC相关mapper已删除
@@ -56,6 +58,7 @@ public class AuthServiceImpl implements AuthService {
         this.passwordEncoder = passwordEncoder;
         this.redisTemplate = redisTemplate;
         this.jwtUtil = jwtUtil;
+        this.behaviorEventService = behaviorEventService;
     }
 
     private static final String ONLINE_USERS_KEY = "online_users";
@@ -280,6 +283,7 @@ public class AuthServiceImpl implements AuthService {
         Map<String, String> requestInfo = SecurityAuditUtils.getCurrentRequestInfo();
         SecurityAuditUtils.logLoginSuccess(safeUsername, requestInfo.get("ip"),
                 requestInfo.get("userAgent"));
+        behaviorEventService.record(BehaviorEventService.EVENT_LOGIN, user.getId(), null);
 
         // 生成真正的JWT令牌（携带用户名声明，便于过滤器按用户名校验）
         String token = jwtUtil.generateToken(user.getId(), user.getUsername());
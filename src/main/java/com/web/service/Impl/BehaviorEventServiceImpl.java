@@ -0,0 +1,724 @@
+package com.web.service.Impl;
+
+import com.web.service.BehaviorEventService;
+import com.web.service.WebSocketConnectionService;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 用户行为事件服务实现
+ * 事件文件格式（每次刷写追加一个批次，大端序）：
+ * int 魔数 | int 事件数 | 每个事件：byte 类型 | long 用户ID | long 时间戳毫秒 | short 目标长度 | 目标UTF-8字节
+ * Redis汇总键：
+ * behavior:cnt:{m|h|d}:{时间}     按分钟/小时/天、按事件类型的计数哈希
+ * behavior:pages:{yyyyMMdd}      页面访问量有序集合
+ * behavior:uv:{类型|ALL}:{yyyyMMdd} 当天活跃用户HyperLogLog
+ * behavior:active:{yyyyMMdd}     当天活跃用户位图（偏移量为用户ID）
+ * behavior:cohort:{yyyyMMdd}     当天注册用户位图
+ */
+@Slf4j
+@Service
+public class BehaviorEventServiceImpl implements BehaviorEventService {
+
+    private static final int FILE_MAGIC = 0x57454556;
+    private static final int MAX_TARGET_LENGTH = 255;
+    private static final int MAX_PAGES_PER_DAY = 1000;
+    private static final String KEY_PREFIX = "behavior:";
+    private static final String ALL_TYPES = "ALL";
+    private static final List<String> TYPES = Arrays.asList(
+            EVENT_LOGIN, EVENT_REGISTER, EVENT_PAGE_VIEW, EVENT_MESSAGE_SENT, EVENT_ARTICLE_ACTION);
+    private static final List<String> WEEKDAY_LABELS = Arrays.asList("周一", "周二", "周三", "周四", "周五", "周六", "周日");
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    private static final DateTimeFormatter MINUTE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    // 原子地把今日峰值更新为较大值
+    private static final DefaultRedisScript<Long> PEAK_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "local value = tonumber(ARGV[1]) " +
+            "if value > current then redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2]) return value end " +
+            "return current", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private WebSocketConnectionService webSocketConnectionService;
+
+    @Value("${weeb.behavior.store-dir:data/behavior}")
+    private String storeDir;
+
+    @Value("${weeb.behavior.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${weeb.behavior.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${weeb.behavior.retention-days:180}")
+    private int retentionDays;
+
+    @Value("${weeb.behavior.recent-size:1000}")
+    private int recentSize;
+
+    /**
+     * 单个行为事件
+     */
+    private static final class BehaviorEvent {
+        final String type;
+        final long userId;
+        final long timestamp;
+        final String target;
+
+        BehaviorEvent(String type, long userId, long timestamp, String target) {
+            this.type = type;
+            this.userId = userId;
+            this.timestamp = timestamp;
+            this.target = target;
+        }
+    }
+
+    private BlockingQueue<BehaviorEvent> queue;
+    private final Deque<BehaviorEvent> recentEvents = new ConcurrentLinkedDeque<>();
+    private final Object flushLock = new Object();
+
+    // 统计信息
+    private final AtomicLong acceptedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong writtenEvents = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final AtomicLong fileWriteFailures = new AtomicLong();
+    private final AtomicLong rollupFailures = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private volatile long lastFlushMillis = 0;
+
+    @PostConstruct
+    public void init() {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        File dir = new File(storeDir);
+        if (!dir.exists() && !dir.mkdirs()) {
+            log.warn("无法创建行为事件目录: {}", dir.getAbsolutePath());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 停机前写出队列中剩余的事件
+        while (flush() > 0) {
+            // 继续直到队列清空
+        }
+    }
+
+    @Override
+    public void record(String type, Long userId, String target) {
+        if (type == null || !TYPES.contains(type)) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        String trimmed = target != null && target.length() > MAX_TARGET_LENGTH
+                ? target.substring(0, MAX_TARGET_LENGTH) : target;
+        BehaviorEvent event = new BehaviorEvent(type, userId != null ? userId : -1L, timestamp, trimmed);
+        TransactionUtils.afterCommit(() -> {
+            if (queue.offer(event)) {
+                acceptedEvents.incrementAndGet();
+            } else {
+                droppedEvents.incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public long countEvents(String type, LocalDate start, LocalDate end) {
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            keys.add(countKey("d", day.format(DAY_FORMAT)));
+        }
+        long total = 0;
+        for (Map<String, String> counts : readHashes(keys)) {
+            total += sumCounts(counts, type);
+        }
+        return total;
+    }
+
+    @Override
+    public long countActiveUsers(LocalDate start, LocalDate end, String... types) {
+        List<String> keys = new ArrayList<>();
+        List<String> typeList = types == null || types.length == 0 ? List.of(ALL_TYPES) : Arrays.asList(types);
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            for (String type : typeList) {
+                keys.add(uvKey(type, day));
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0L;
+        }
+        try {
+            // 多个HLL的PFCOUNT即为并集基数，跨天同一用户只计一次
+            Long count = stringRedisTemplate.opsForHyperLogLog().size(keys.toArray(new String[0]));
+            return count != null ? count : 0L;
+        } catch (Exception e) {
+            log.warn("统计活跃用户失败: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getTopPages(LocalDate start, LocalDate end, int limit) {
+        Map<String, Double> views = new HashMap<>();
+        try {
+            for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+                        .reverseRangeWithScores(pagesKey(day), 0, -1);
+                if (tuples == null) {
+                    continue;
+                }
+                for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                    if (tuple.getValue() != null && tuple.getScore() != null) {
+                        views.merge(tuple.getValue(), tuple.getScore(), Double::sum);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("读取热门页面失败: {}", e.getMessage());
+        }
+
+        List<Map<String, Object>> pages = new ArrayList<>();
+        views.entrySet().stream()
+                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
+                .limit(limit)
+                .forEach(entry -> {
+                    Map<String, Object> page = new HashMap<>();
+                    page.put("path", entry.getKey());
+                    page.put("views", entry.getValue().intValue());
+                    pages.add(page);
+                });
+        return pages;
+    }
+
+    @Override
+    public List<Map<String, Object>> getRecentEvents(String type, int offset, int limit) {
+        List<Map<String, Object>> events = new ArrayList<>();
+        int skipped = 0;
+        Iterator<BehaviorEvent> iterator = recentEvents.descendingIterator();
+        while (iterator.hasNext() && events.size() < limit) {
+            BehaviorEvent event = iterator.next();
+            if (type != null && !type.equals(event.type)) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            Map<String, Object> item = new HashMap<>();
+            item.put("type", event.type);
+            item.put("userId", event.userId >= 0 ? event.userId : null);
+            item.put("target", event.target);
+            item.put("timestamp", LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestamp),
+                    ZoneId.systemDefault()).toString());
+            events.add(item);
+        }
+        return events;
+    }
+
+    @Override
+    public int countRecentEvents(String type) {
+        if (type == null) {
+            return recentEvents.size();
+        }
+        int count = 0;
+        for (BehaviorEvent event : recentEvents) {
+            if (type.equals(event.type)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Object> getActivityHeatmap(String type, LocalDate start, LocalDate end) {
+        Map<String, Object> heatmap = new HashMap<>();
+        switch (type.toLowerCase()) {
+            case "hourly": {
+                // 小时 x 星期：累加时间范围内每个小时桶的事件数
+                List<String> keys = new ArrayList<>();
+                List<LocalDateTime> hours = new ArrayList<>();
+                for (LocalDateTime hour = start.atStartOfDay(); !hour.toLocalDate().isAfter(end); hour = hour.plusHours(1)) {
+                    keys.add(countKey("h", hour.format(HOUR_FORMAT)));
+                    hours.add(hour);
+                }
+                long[][] data = new long[24][7];
+                List<Map<String, String>> counts = readHashes(keys);
+                for (int i = 0; i < hours.size(); i++) {
+                    LocalDateTime hour = hours.get(i);
+                    data[hour.getHour()][hour.getDayOfWeek().getValue() - 1] += sumCounts(counts.get(i), null);
+                }
+                heatmap.put("data", data);
+                heatmap.put("labels", WEEKDAY_LABELS);
+                List<String> hourLabels = new ArrayList<>(24);
+                for (int i = 0; i < 24; i++) {
+                    hourLabels.add(i + ":00");
+                }
+                heatmap.put("hours", hourLabels);
+                break;
+            }
+            case "weekly": {
+                // 周 x 星期
+                LocalDate firstWeek = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                int weeks = (int) (ChronoUnit.WEEKS.between(firstWeek, end) + 1);
+                long[][] data = new long[weeks][7];
+                List<String> weekLabels = new ArrayList<>(weeks);
+                for (int w = 0; w < weeks; w++) {
+                    weekLabels.add(firstWeek.plusWeeks(w).toString());
+                }
+                fillDaily(start, end, (day, total) -> {
+                    int week = (int) ChronoUnit.WEEKS.between(firstWeek, day);
+                    data[week][day.getDayOfWeek().getValue() - 1] += total;
+                });
+                heatmap.put("data", data);
+                heatmap.put("labels", WEEKDAY_LABELS);
+                heatmap.put("weeks", weekLabels);
+                break;
+            }
+            case "monthly": {
+                // 月 x 日
+                LocalDate firstMonth = start.withDayOfMonth(1);
+                int months = (int) (ChronoUnit.MONTHS.between(firstMonth, end.withDayOfMonth(1)) + 1);
+                long[][] data = new long[months][31];
+                List<String> monthLabels = new ArrayList<>(months);
+                for (int m = 0; m < months; m++) {
+                    monthLabels.add(firstMonth.plusMonths(m).toString().substring(0, 7));
+                }
+                fillDaily(start, end, (day, total) -> {
+                    int month = (int) ChronoUnit.MONTHS.between(firstMonth, day.withDayOfMonth(1));
+                    data[month][day.getDayOfMonth() - 1] += total;
+                });
+                List<String> dayLabels = new ArrayList<>(31);
+                for (int d = 1; d <= 31; d++) {
+                    dayLabels.add(String.valueOf(d));
+                }
+                heatmap.put("data", data);
+                heatmap.put("labels", dayLabels);
+                heatmap.put("months", monthLabels);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("不支持的热力图类型: " + type);
+        }
+        return heatmap;
+    }
+
+    @Override
+    public Map<String, Object> getRetention(String cohortType, int periods) {
+        String unit = cohortType.toLowerCase();
+        if (!"daily".equals(unit) && !"weekly".equals(unit) && !"monthly".equals(unit)) {
+            throw new IllegalArgumentException("不支持的队列类型: " + cohortType);
+        }
+        int count = Math.max(1, Math.min(periods, 30));
+        LocalDate current = periodStart(unit, LocalDate.now());
+        List<LocalDate> starts = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            starts.add(shift(unit, current, -i));
+        }
+
+        String tmpPrefix = KEY_PREFIX + "tmp:" + UUID.randomUUID() + ":";
+        List<String> tmpKeys = new ArrayList<>();
+        try {
+            return stringRedisTemplate.execute((RedisCallback<Map<String, Object>>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                // 每个周期的注册队列位图与活跃位图各合并一次，之后只做AND与BITCOUNT
+                List<String> cohortKeys = new ArrayList<>(count);
+                List<String> activeKeys = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    LocalDate from = starts.get(i);
+                    LocalDate to = shift(unit, from, 1).minusDays(1);
+                    cohortKeys.add(unionKey(redis, "cohort", from, to, tmpPrefix + "c" + i, tmpKeys));
+                    activeKeys.add(unionKey(redis, "active", from, to, tmpPrefix + "a" + i, tmpKeys));
+                }
+
+                List<Map<String, Object>> cohorts = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    Long sizeValue = redis.bitCount(cohortKeys.get(i));
+                    long size = sizeValue != null ? sizeValue : 0L;
+                    List<Double> rates = new ArrayList<>();
+                    for (int k = 0; i + k < count; k++) {
+                        if (size == 0) {
+                            rates.add(0.0);
+                            continue;
+                        }
+                        String intersect = tmpPrefix + "x" + i + "_" + k;
+                        tmpKeys.add(intersect);
+                        redis.bitOp(RedisStringCommands.BitOperation.AND, intersect,
+                                cohortKeys.get(i), activeKeys.get(i + k));
+                        Long retained = redis.bitCount(intersect);
+                        rates.add(Math.round((retained != null ? retained : 0L) * 10000.0 / size) / 100.0);
+                    }
+                    Map<String, Object> cohort = new LinkedHashMap<>();
+                    cohort.put("cohort", starts.get(i).toString());
+                    cohort.put("size", size);
+                    cohort.put("retention", rates);
+                    cohorts.add(cohort);
+                }
+                Map<String, Object> result = new HashMap<>();
+                result.put("cohorts", cohorts);
+                return result;
+            });
+        } finally {
+            if (!tmpKeys.isEmpty()) {
+                try {
+                    stringRedisTemplate.delete(tmpKeys);
+                } catch (Exception e) {
+                    log.warn("清理留存计算临时键失败: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getOnlineUserCount() {
+        long online = webSocketConnectionService.getOnlineUserCount();
+        try {
+            stringRedisTemplate.execute(PEAK_SCRIPT, List.of(peakKey(LocalDate.now())),
+                    String.valueOf(online), String.valueOf(TimeUnit.DAYS.toSeconds(2)));
+        } catch (Exception e) {
+            log.debug("更新在线峰值失败: {}", e.getMessage());
+        }
+        return online;
+    }
+
+    @Override
+    public long getPeakOnlineUsersToday() {
+        long online = getOnlineUserCount();
+        try {
+            String peak = stringRedisTemplate.opsForValue().get(peakKey(LocalDate.now()));
+            return peak != null ? Math.max(online, Long.parseLong(peak)) : online;
+        } catch (Exception e) {
+            log.debug("读取在线峰值失败: {}", e.getMessage());
+            return online;
+        }
+    }
+
+    @Override
+    public int flush() {
+        synchronized (flushLock) {
+            List<BehaviorEvent> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            long start = System.currentTimeMillis();
+            appendToFiles(batch);
+            updateRollups(batch);
+
+            for (BehaviorEvent event : batch) {
+                recentEvents.addLast(event);
+            }
+            while (recentEvents.size() > recentSize) {
+                recentEvents.pollFirst();
+            }
+            flushCount.incrementAndGet();
+            lastFlushMillis = System.currentTimeMillis() - start;
+            return batch.size();
+        }
+    }
+
+    @Override
+    public int purgeExpiredFiles() {
+        File[] files = new File(storeDir).listFiles((dir, name) -> name.startsWith("events-") && name.endsWith(".bin"));
+        if (files == null) {
+            return 0;
+        }
+        String cutoff = "events-" + LocalDate.now().minusDays(retentionDays).format(DAY_FORMAT) + ".bin";
+        int deleted = 0;
+        for (File file : files) {
+            // 文件名按日期排序即按时间排序
+            if (file.getName().compareTo(cutoff) < 0 && file.delete()) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            log.info("删除过期行为事件文件: count={}", deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueSize", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("acceptedEvents", acceptedEvents.get());
+        stats.put("droppedEvents", droppedEvents.get());
+        stats.put("writtenEvents", writtenEvents.get());
+        stats.put("writtenBytes", writtenBytes.get());
+        long written = writtenEvents.get();
+        stats.put("avgBytesPerEvent", written > 0 ? (double) writtenBytes.get() / written : 0.0);
+        stats.put("fileWriteFailures", fileWriteFailures.get());
+        stats.put("rollupFailures", rollupFailures.get());
+        stats.put("flushCount", flushCount.get());
+        stats.put("lastFlushMillis", lastFlushMillis);
+        stats.put("recentEvents", recentEvents.size());
+        stats.put("storeDir", new File(storeDir).getAbsolutePath());
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 按事件日期分组，以批次为单位追加写入当天的事件文件
+     */
+    private void appendToFiles(List<BehaviorEvent> batch) {
+        Map<String, List<BehaviorEvent>> byDay = new LinkedHashMap<>();
+        for (BehaviorEvent event : batch) {
+            byDay.computeIfAbsent(toDateTime(event.timestamp).format(DAY_FORMAT), d -> new ArrayList<>()).add(event);
+        }
+        for (Map.Entry<String, List<BehaviorEvent>> entry : byDay.entrySet()) {
+            File file = new File(storeDir, "events-" + entry.getKey() + ".bin");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file, true)))) {
+                List<BehaviorEvent> events = entry.getValue();
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(events.size());
+                for (BehaviorEvent event : events) {
+                    byte[] target = event.target != null ? event.target.getBytes(StandardCharsets.UTF_8) : new byte[0];
+                    out.writeByte(TYPES.indexOf(event.type) + 1);
+                    out.writeLong(event.userId);
+                    out.writeLong(event.timestamp);
+                    out.writeShort(target.length);
+                    out.write(target);
+                }
+                out.flush();
+                writtenEvents.addAndGet(events.size());
+                writtenBytes.addAndGet(out.size());
+            } catch (IOException e) {
+                fileWriteFailures.incrementAndGet();
+                log.error("写入行为事件文件失败: file={}", file.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    /**
+     * 在内存中先按桶合并，再用一次管道写入Redis
+     */
+    private void updateRollups(List<BehaviorEvent> batch) {
+        Map<String, Map<String, Long>> counters = new HashMap<>();
+        Map<String, Long> counterTtls = new HashMap<>();
+        Map<String, Map<String, Double>> pages = new HashMap<>();
+        Map<String, Set<String>> uniques = new HashMap<>();
+        Map<String, Set<Long>> bits = new HashMap<>();
+
+        long minuteTtl = TimeUnit.DAYS.toSeconds(2);
+        long dayTtl = TimeUnit.DAYS.toSeconds(retentionDays);
+        for (BehaviorEvent event : batch) {
+            LocalDateTime time = toDateTime(event.timestamp);
+            LocalDate day = time.toLocalDate();
+            addCount(counters, counterTtls, countKey("m", time.format(MINUTE_FORMAT)), event.type, minuteTtl);
+            addCount(counters, counterTtls, countKey("h", time.format(HOUR_FORMAT)), event.type, dayTtl);
+            addCount(counters, counterTtls, countKey("d", day.format(DAY_FORMAT)), event.type, dayTtl);
+
+            if (EVENT_PAGE_VIEW.equals(event.type) && event.target != null) {
+                pages.computeIfAbsent(pagesKey(day), k -> new HashMap<>()).merge(event.target, 1.0, Double::sum);
+            }
+            if (event.userId >= 0) {
+                String member = String.valueOf(event.userId);
+                uniques.computeIfAbsent(uvKey(ALL_TYPES, day), k -> new HashSet<>()).add(member);
+                uniques.computeIfAbsent(uvKey(event.type, day), k -> new HashSet<>()).add(member);
+                bits.computeIfAbsent(bitmapKey("active", day), k -> new HashSet<>()).add(event.userId);
+                if (EVENT_REGISTER.equals(event.type)) {
+                    bits.computeIfAbsent(bitmapKey("cohort", day), k -> new HashSet<>()).add(event.userId);
+                }
+            }
+        }
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                counters.forEach((key, fields) -> {
+                    fields.forEach((field, delta) -> redis.hIncrBy(key, field, delta));
+                    redis.expire(key, counterTtls.get(key));
+                });
+                pages.forEach((key, paths) -> {
+                    paths.forEach((path, delta) -> redis.zIncrBy(key, delta, path));
+                    // 只保留访问量最高的页面，避免路径参数导致集合无限增长
+                    redis.zRemRange(key, 0, -(MAX_PAGES_PER_DAY + 1));
+                    redis.expire(key, dayTtl);
+                });
+                uniques.forEach((key, members) -> {
+                    redis.pfAdd(key, members.toArray(new String[0]));
+                    redis.expire(key, dayTtl);
+                });
+                bits.forEach((key, userIds) -> {
+                    for (Long userId : userIds) {
+                        redis.setBit(key, userId, true);
+                    }
+                    redis.expire(key, dayTtl);
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            // 汇总失败不影响事件文件，事件仍可离线重放
+            rollupFailures.incrementAndGet();
+            log.error("更新行为事件汇总失败: events={}", batch.size(), e);
+        }
+    }
+
+    private static void addCount(Map<String, Map<String, Long>> counters, Map<String, Long> ttls,
+                                 String key, String type, long ttl) {
+        Map<String, Long> fields = counters.computeIfAbsent(key, k -> new HashMap<>());
+        fields.merge(type, 1L, Long::sum);
+        fields.merge(ALL_TYPES, 1L, Long::sum);
+        ttls.put(key, ttl);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, String>> readHashes(List<String> keys) {
+        List<Map<String, String>> result = new ArrayList<>(keys.size());
+        try {
+            List<Object> values = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (String key : keys) {
+                    redis.hGetAll(key);
+                }
+                return null;
+            });
+            for (Object value : values) {
+                result.add(value instanceof Map ? (Map<String, String>) value : Map.of());
+            }
+        } catch (Exception e) {
+            log.warn("读取行为事件计数失败: {}", e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                result.add(Map.of());
+            }
+        }
+        return result;
+    }
+
+    private void fillDaily(LocalDate start, LocalDate end, ObjLongConsumer<LocalDate> consumer) {
+        List<String> keys = new ArrayList<>();
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            keys.add(countKey("d", day.format(DAY_FORMAT)));
+            days.add(day);
+        }
+        List<Map<String, String>> counts = readHashes(keys);
+        for (int i = 0; i < days.size(); i++) {
+            consumer.accept(days.get(i), sumCounts(counts.get(i), null));
+        }
+    }
+
+    private static long sumCounts(Map<String, String> counts, String type) {
+        String value = counts.get(type != null ? type : ALL_TYPES);
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 合并区间内每天的位图；只有一天时直接使用当天的键
+     */
+    private static String unionKey(StringRedisConnection redis, String kind, LocalDate from, LocalDate to,
+                                   String dest, List<String> tmpKeys) {
+        List<String> sources = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            sources.add(bitmapKey(kind, day));
+        }
+        if (sources.size() == 1) {
+            return sources.get(0);
+        }
+        tmpKeys.add(dest);
+        redis.bitOp(RedisStringCommands.BitOperation.OR, dest, sources.toArray(new String[0]));
+        return dest;
+    }
+
+    private static LocalDate periodStart(String unit, LocalDate day) {
+        switch (unit) {
+            case "weekly":
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "monthly":
+                return day.withDayOfMonth(1);
+            default:
+                return day;
+        }
+    }
+
+    private static LocalDate shift(String unit, LocalDate start, int amount) {
+        switch (unit) {
+            case "weekly":
+                return start.plusWeeks(amount);
+            case "monthly":
+                return start.plusMonths(amount);
+            default:
+                return start.plusDays(amount);
+        }
+    }
+
+    private static LocalDateTime toDateTime(long timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+    }
+
+    private static String countKey(String granularity, String bucket) {
+        return KEY_PREFIX + "cnt:" + granularity + ":" + bucket;
+    }
+
+    private static String pagesKey(LocalDate day) {
+        return KEY_PREFIX + "pages:" + day.format(DAY_FORMAT);
+    }
+
+    private static String uvKey(String type, LocalDate day) {
+        return KEY_PREFIX + "uv:" + type + ":" + day.format(DAY_FORMAT);
+    }
+
+    private static String bitmapKey(String kind, LocalDate day) {
+        return KEY_PREFIX + kind + ":" + day.format(DAY_FORMAT);
+    }
+
+    private static String peakKey(LocalDate day) {
+        return KEY_PREFIX + "online:peak:" + day.format(DAY_FORMAT);
+    }
+}
@@ -38,6 +38,12 @@ public class ChatServiceImpl implements ChatService {
     @Autowired
     private com.web.mapper.UserMapper userMapper;
 
+    @Autowired
+    private com.web.service.BehaviorEventService behaviorEventService;
+
+    @Autowired
+    private com.web.service.UserLevelEngineService userLevelEngineService;
+
     @Override
     public List<ChatList> getChatList(Long userId) {
         // 输入验证
@@ -256,6 +262,10 @@ public class ChatServiceImpl implements ChatService {
 
         // 插入消息记录
         messageMapper.insertMessage(message);
+        behaviorEventService.record(com.web.service.BehaviorEventService.EVENT_MESSAGE_SENT,
+                message.getSenderId(), null);
+        userLevelEngineService.increment(message.getSenderId(),
+                com.web.service.UserLevelEngineService.COUNTER_MESSAGES, 1);
 
         // ✅ 新架构：更新发送方的聊天列表
         chatListMapper.updateLastMessageAndUnreadCount(currentChat.getId(),
@@ -553,6 +563,10 @@ public class ChatServiceImpl implements ChatService {
 
         // 插入消息记录
         messageMapper.insertMessage(message);
+        behaviorEventService.record(com.web.service.BehaviorEventService.EVENT_MESSAGE_SENT,
+                message.getSenderId(), null);
+        userLevelEngineService.increment(message.getSenderId(),
+                com.web.service.UserLevelEngineService.COUNTER_MESSAGES, 1);
 
         // ✅ 查找发送者和接收者的chat_list记录
         ChatList senderChat = chatListMapper.selectChatListByUserIdAndSharedChatId(userId, sharedChatId);
@@ -11,22 +11,33 @@ import com.web.model.SystemConfigHistory;
 import com.web.service.ConfigService;
 import com.web.util.ValidationUtils;
 import com.web.util.SqlInjectionUtils;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * 系统配置服务实现类
  * 提供完整的配置管理功能，包括缓存、历史记录、验证等
+ *
+ * 配置读取走进程内的不可变快照：一次性从数据库加载全部配置，读配置只是一次 volatile 读加一次 Map 查找，
+ * 类型转换结果（含 List/Map 的JSON解析）按配置键缓存在快照内。配置变更提交后递增 Redis 中的版本号，
+ * 并通过 pub/sub 通知所有节点整体重新加载快照；pub/sub 消息可能丢失，定时任务会比对版本号兜底
  */
 @Slf4j
 @Service
@@ -36,16 +47,71 @@ public class ConfigServiceImpl implements ConfigService {
     private SystemConfigMapper systemConfigMapper;
 
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Value("${weeb.config-cache.max-age-ms:300000}")
+    private long snapshotMaxAgeMs;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory()
         .disable(Feature.WRITE_DOC_START_MARKER));
 
-    // 缓存键前缀
-    private static final String CACHE_PREFIX = "config:";
-    private static final String CACHE_GROUP_PREFIX = "config_group:";
-    private static final long CACHE_EXPIRE_HOURS = 24;
+    // 配置版本号键和变更通知频道
+    private static final String CONFIG_VERSION_KEY = "config:version";
+    private static final String CONFIG_CHANGE_TOPIC = "config:changed";
+    private static final int MAX_SNAPSHOT_CONFIGS = 10000;
+    // 类型转换失败的占位值，避免每次读取都重复解析和打日志
+    private static final Object CONVERSION_FAILED = new Object();
+
+    /**
+     * 单个配置在快照中的条目，value 为生效值（禁用时为默认值）
+     */
+    private static final class ConfigEntry {
+        final String value;
+        final String group;
+        final boolean enabled;
+        final Map<Class<?>, Object> typedValues = new ConcurrentHashMap<>(2);
+
+        ConfigEntry(String value, String group, boolean enabled) {
+            this.value = value;
+            this.group = group;
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * 配置快照，加载后不再修改，变更时整体替换
+     */
+    private static final class ConfigSnapshot {
+        final long version;
+        final long loadedAt;
+        final Map<String, ConfigEntry> entries;
+
+        ConfigSnapshot(long version, Map<String, ConfigEntry> entries) {
+            this.version = version;
+            this.loadedAt = System.currentTimeMillis();
+            this.entries = entries;
+        }
+    }
+
+    private volatile ConfigSnapshot snapshot;
+
+    // 统计信息
+    private final AtomicLong snapshotReloads = new AtomicLong();
+    private final AtomicLong changeNotifications = new AtomicLong();
+    private final AtomicLong publishedChanges = new AtomicLong();
+    private final AtomicLong typedConversions = new AtomicLong();
+    private volatile long lastReloadDuration = 0;
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onConfigChanged(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CONFIG_CHANGE_TOPIC));
+    }
 
     @Override
     public String getConfigValue(String configKey) {
@@ -59,34 +125,12 @@ public class ConfigServiceImpl implements ConfigService {
             throw new WeebException("配置键不能为空");
         }
 
-        // SQL注入防护 - 使用统一验证方法
-        validateSqlInjection("configKey", configKey);
-
-        // 先从缓存获取
-        String cacheKey = CACHE_PREFIX + configKey;
-        String cachedValue = (String) redisTemplate.opsForValue().get(cacheKey);
-        if (cachedValue != null) {
-            return cachedValue;
-        }
-
-        // 从数据库获取
-        SystemConfig config = systemConfigMapper.findByKey(configKey);
-        if (config == null) {
-            log.warn("配置不存在: {}", configKey);
+        // 只在内存快照中查找，配置键不会进入SQL
+        ConfigEntry entry = currentSnapshot().entries.get(configKey);
+        if (entry == null || entry.value == null) {
             return defaultValue;
         }
-
-        // 如果配置未启用，返回默认值
-        if (!config.getIsEnabled()) {
-            return config.getDefaultValue() != null ? config.getDefaultValue() : defaultValue;
-        }
-
-        String value = config.getConfigValue();
-
-        // 缓存结果
-        redisTemplate.opsForValue().set(cacheKey, value, CACHE_EXPIRE_HOURS, TimeUnit.HOURS);
-
-        return value;
+        return entry.value;
     }
 
     @Override
@@ -95,37 +139,25 @@ public class ConfigServiceImpl implements ConfigService {
         return getConfigValue(configKey, type, null);
     }
 
+    /**
+     * 转换结果按类型缓存在快照条目中，List/Map 返回只读视图，避免调用方修改共享的缓存值
+     */
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getConfigValue(String configKey, Class<T> type, T defaultValue) {
-        String value = this.getConfigValue(configKey, (String) null);
-        if (value == null) {
+        if (!StringUtils.hasText(configKey)) {
+            throw new WeebException("配置键不能为空");
+        }
+        ConfigEntry entry = currentSnapshot().entries.get(configKey);
+        if (entry == null || entry.value == null) {
             return defaultValue;
         }
 
-        try {
-            if (type == String.class) {
-                return (T) value;
-            } else if (type == Integer.class || type == int.class) {
-                return (T) Integer.valueOf(value);
-            } else if (type == Long.class || type == long.class) {
-                return (T) Long.valueOf(value);
-            } else if (type == Double.class || type == double.class) {
-                return (T) Double.valueOf(value);
-            } else if (type == Boolean.class || type == boolean.class) {
-                return (T) Boolean.valueOf(value);
-            } else if (type == List.class) {
-                return (T) objectMapper.readValue(value, List.class);
-            } else if (type == Map.class) {
-                return (T) objectMapper.readValue(value, Map.class);
-            } else {
-                log.warn("不支持的配置类型: {}", type.getName());
-                return defaultValue;
-            }
-        } catch (Exception e) {
-            log.error("配置值类型转换失败: {} -> {}", configKey, type.getName(), e);
-            return defaultValue;
+        Object converted = entry.typedValues.get(type);
+        if (converted == null) {
+            converted = entry.typedValues.computeIfAbsent(type, t -> convertValue(configKey, entry.value, t));
         }
+        return converted == CONVERSION_FAILED ? defaultValue : (T) converted;
     }
 
     @Override
@@ -140,30 +172,14 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     public Map<String, Object> getAllConfigs(String group) {
-        String cacheKey = CACHE_GROUP_PREFIX + (group != null ? group : "all");
-        Map<String, Object> cachedConfigs = (Map<String, Object>) redisTemplate.opsForValue().get(cacheKey);
-
-        if (cachedConfigs != null) {
-            return cachedConfigs;
-        }
-
-        List<SystemConfig> configs;
-        if (group != null && !group.isEmpty()) {
-            configs = systemConfigMapper.findEnabledByGroup(group);
-        } else {
-            configs = systemConfigMapper.findConfigsWithFilters(0, 10000, null, null, null, null, null, null, null);
-        }
-
+        boolean allGroups = group == null || group.isEmpty();
         Map<String, Object> result = new HashMap<>();
-        for (SystemConfig config : configs) {
-            if (config.getIsEnabled()) {
-                result.put(config.getConfigKey(), config.getConfigValue());
+        for (Map.Entry<String, ConfigEntry> entry : currentSnapshot().entries.entrySet()) {
+            ConfigEntry config = entry.getValue();
+            if (config.enabled && (allGroups || group.equals(config.group))) {
+                result.put(entry.getKey(), config.value);
             }
         }
-
-        // 缓存结果
-        redisTemplate.opsForValue().set(cacheKey, result, CACHE_EXPIRE_HOURS, TimeUnit.HOURS);
-
         return result;
     }
 
@@ -662,7 +678,6 @@ public class ConfigServiceImpl implements ConfigService {
 
                             if (systemConfigMapper.updateConfig(existingConfig) > 0) {
                                 recordConfigHistory(existingConfig, "IMPORT", oldValue, operatorId);
-                                refreshConfigCache(configKey);
                                 successKeys.add(configKey);
                             }
                         } else {
@@ -692,7 +707,6 @@ public class ConfigServiceImpl implements ConfigService {
 
                         if (systemConfigMapper.insertConfig(newConfig) > 0) {
                             recordConfigHistory(newConfig, "CREATE", null, operatorId);
-                            refreshConfigCache(configKey);
                             successKeys.add(configKey);
                         }
                     }
@@ -704,6 +718,11 @@ public class ConfigServiceImpl implements ConfigService {
                 }
             }
 
+            // 整批导入只通知一次
+            if (!successKeys.isEmpty()) {
+                refreshConfigCache(null);
+            }
+
             result.put("successCount", successKeys.size());
             result.put("errorCount", errors.size());
             result.put("successKeys", successKeys);
@@ -834,26 +853,47 @@ public class ConfigServiceImpl implements ConfigService {
         }
     }
 
+    /**
+     * 在事务提交后递增配置版本并通知所有节点重新加载快照，无事务时立即执行
+     */
     @Override
     public void refreshConfigCache(String configKey) {
-        try {
-            if (configKey != null && !configKey.isEmpty()) {
-                // 清除单个配置缓存
-                redisTemplate.delete(CACHE_PREFIX + configKey);
-            }
-
-            // 清除所有分组缓存
-            Set<String> keys = redisTemplate.keys(CACHE_GROUP_PREFIX + "*");
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-            }
+        TransactionUtils.afterCommit(this::publishConfigChange);
+        log.info("配置缓存已刷新: {}", configKey != null ? configKey : "all");
+    }
 
-            log.info("配置缓存已刷新: {}", configKey != null ? configKey : "all");
-        } catch (Exception e) {
-            log.error("刷新配置缓存失败", e);
+    @Override
+    public void syncConfigSnapshot() {
+        ConfigSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long remoteVersion = readRemoteVersion();
+        // 版本号落后说明漏掉了变更通知；超过最大存活时间时兜底重新加载（如直接改库）
+        if (remoteVersion > current.version
+                || System.currentTimeMillis() - current.loadedAt > snapshotMaxAgeMs) {
+            reloadSnapshot();
         }
     }
 
+    @Override
+    public Map<String, Object> getConfigCacheStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        ConfigSnapshot current = snapshot;
+        stats.put("loaded", current != null);
+        stats.put("version", current != null ? current.version : null);
+        stats.put("configCount", current != null ? current.entries.size() : 0);
+        stats.put("snapshotAgeMs", current != null ? System.currentTimeMillis() - current.loadedAt : null);
+        stats.put("remoteVersion", readRemoteVersion());
+        stats.put("snapshotReloads", snapshotReloads.get());
+        stats.put("changeNotifications", changeNotifications.get());
+        stats.put("publishedChanges", publishedChanges.get());
+        stats.put("typedConversions", typedConversions.get());
+        stats.put("lastReloadDuration", lastReloadDuration);
+        stats.put("maxAgeMs", snapshotMaxAgeMs);
+        return stats;
+    }
+
     @Override
     public List<String> checkConfigDependencies(String configKey) {
         try {
@@ -1124,12 +1164,7 @@ public class ConfigServiceImpl implements ConfigService {
             summary.put("recentChanges", recentHistory);
 
             // 缓存状态
-            try {
-                Set<String> cacheKeys = redisTemplate.keys(CACHE_PREFIX + "*");
-                summary.put("cacheKeys", cacheKeys != null ? cacheKeys.size() : 0);
-            } catch (Exception e) {
-                summary.put("cacheKeys", "未知");
-            }
+            summary.put("configCache", getConfigCacheStatistics());
 
             summary.put("status", "healthy");
             summary.put("checkedAt", LocalDateTime.now().toString());
@@ -1143,52 +1178,23 @@ public class ConfigServiceImpl implements ConfigService {
         return summary;
     }
 
+    /**
+     * 配置快照直接从数据库加载，缓存中不存在数据库之外的配置值，因此无需回写；
+     * 这里只重新加载快照，保证本节点与数据库一致
+     */
     @Override
-    @Transactional
     public Map<String, Object> syncConfigsToDatabase() {
         Map<String, Object> result = new HashMap<>();
 
         try {
-            // 获取所有缓存的配置键
-            Set<String> cacheKeys = redisTemplate.keys(CACHE_PREFIX + "*");
-            int syncedCount = 0;
-            List<String> errors = new ArrayList<>();
-
-            if (cacheKeys != null && !cacheKeys.isEmpty()) {
-                for (String cacheKey : cacheKeys) {
-                    try {
-                        String configKey = cacheKey.substring(CACHE_PREFIX.length());
-                        Object cachedValue = redisTemplate.opsForValue().get(cacheKey);
-
-                        if (cachedValue != null) {
-                            // 查找对应的数据库记录
-                            SystemConfig config = systemConfigMapper.findByKey(configKey);
-                            if (config != null) {
-                                // 更新数据库中的配置值
-                                config.setConfigValue(String.valueOf(cachedValue));
-                                config.setUpdatedAt(LocalDateTime.now());
-
-                                int updateResult = systemConfigMapper.updateConfig(config);
-                                if (updateResult > 0) {
-                                    syncedCount++;
-                                }
-                            } else {
-                                errors.add("配置键不存在于数据库: " + configKey);
-                            }
-                        }
-                    } catch (Exception e) {
-                        errors.add("同步配置失败: " + cacheKey + " - " + e.getMessage());
-                    }
-                }
-            }
+            ConfigSnapshot current = reloadSnapshot();
 
             result.put("success", true);
-            result.put("syncedCount", syncedCount);
-            result.put("errorCount", errors.size());
-            result.put("errors", errors);
-            result.put("message", "配置同步完成");
-
-            log.info("配置同步到数据库完成，同步数量: {}, 错误数量: {}", syncedCount, errors.size());
+            result.put("syncedCount", 0);
+            result.put("errorCount", 0);
+            result.put("errors", Collections.emptyList());
+            result.put("version", current.version);
+            result.put("message", "配置缓存直接从数据库加载，无需同步");
 
         } catch (Exception e) {
             log.error("配置同步到数据库失败", e);
@@ -1202,14 +1208,9 @@ public class ConfigServiceImpl implements ConfigService {
     @Override
     public Map<String, Object> reloadConfigs() {
         try {
-            // 清除所有缓存
-            refreshConfigCache(null);
-
-            // 预热常用配置
+            // 通知所有节点重新加载快照（本节点同步加载）
+            publishConfigChange();
             List<String> groups = getConfigGroups();
-            for (String group : groups) {
-                getAllConfigs(group);
-            }
 
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
@@ -1229,6 +1230,119 @@ public class ConfigServiceImpl implements ConfigService {
 
     // ==================== 私有辅助方法 ====================
 
+    private ConfigSnapshot currentSnapshot() {
+        ConfigSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            return snapshot != null ? snapshot : reloadSnapshot();
+        }
+    }
+
+    /**
+     * 从数据库整体加载配置并替换快照。先读版本号再读数据，保证快照数据不旧于其版本号
+     */
+    private synchronized ConfigSnapshot reloadSnapshot() {
+        long start = System.currentTimeMillis();
+        long version = readRemoteVersion();
+        List<SystemConfig> configs = systemConfigMapper.findConfigsWithFilters(
+                0, MAX_SNAPSHOT_CONFIGS, null, null, null, null, null, null, null);
+
+        Map<String, ConfigEntry> entries = new HashMap<>(configs.size() * 2);
+        for (SystemConfig config : configs) {
+            boolean enabled = Boolean.TRUE.equals(config.getIsEnabled());
+            String value = enabled ? config.getConfigValue() : config.getDefaultValue();
+            entries.put(config.getConfigKey(), new ConfigEntry(value, config.getConfigGroup(), enabled));
+        }
+
+        ConfigSnapshot loaded = new ConfigSnapshot(version, Collections.unmodifiableMap(entries));
+        snapshot = loaded;
+        snapshotReloads.incrementAndGet();
+        lastReloadDuration = System.currentTimeMillis() - start;
+        log.info("配置快照已加载: version={}, configs={}, 耗时={}ms", version, entries.size(), lastReloadDuration);
+        return loaded;
+    }
+
+    /**
+     * 递增配置版本号，重新加载本节点快照，再通知其他节点
+     */
+    private void publishConfigChange() {
+        Long version = null;
+        try {
+            version = stringRedisTemplate.opsForValue().increment(CONFIG_VERSION_KEY);
+        } catch (Exception e) {
+            log.warn("递增配置版本号失败，其他节点将在快照过期后重新加载: {}", e.getMessage());
+        }
+
+        reloadSnapshot();
+
+        if (version != null) {
+            try {
+                stringRedisTemplate.convertAndSend(CONFIG_CHANGE_TOPIC, String.valueOf(version));
+                publishedChanges.incrementAndGet();
+            } catch (Exception e) {
+                log.warn("发送配置变更通知失败，其他节点将通过版本比对重新加载: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 处理配置变更通知：通知中的版本号比本地快照新时重新加载（本节点自己发出的通知会被跳过）
+     */
+    private void onConfigChanged(String message) {
+        changeNotifications.incrementAndGet();
+        try {
+            long version = Long.parseLong(message.trim());
+            ConfigSnapshot current = snapshot;
+            if (current == null || version > current.version) {
+                reloadSnapshot();
+            }
+        } catch (Exception e) {
+            log.error("处理配置变更通知失败: {}", message, e);
+        }
+    }
+
+    /**
+     * 读取 Redis 中的配置版本号，Redis 不可用或尚无变更时返回 0
+     */
+    private long readRemoteVersion() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(CONFIG_VERSION_KEY);
+            return version != null ? Long.parseLong(version) : 0L;
+        } catch (Exception e) {
+            log.warn("读取配置版本号失败: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private Object convertValue(String configKey, String value, Class<?> type) {
+        typedConversions.incrementAndGet();
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            } else if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            } else if (type == Double.class || type == double.class) {
+                return Double.valueOf(value);
+            } else if (type == Boolean.class || type == boolean.class) {
+                return Boolean.valueOf(value);
+            } else if (type == List.class) {
+                return Collections.unmodifiableList(objectMapper.readValue(value, List.class));
+            } else if (type == Map.class) {
+                return Collections.unmodifiableMap(objectMapper.readValue(value, Map.class));
+            } else {
+                log.warn("不支持的配置类型: {}", type.getName());
+                return CONVERSION_FAILED;
+            }
+        } catch (Exception e) {
+            log.error("配置值类型转换失败: {} -> {}", configKey, type.getName(), e);
+            return CONVERSION_FAILED;
+        }
+    }
+
     private void recordConfigHistory(SystemConfig config, String actionType, String oldValue, Long operatorId) {
         try {
             SystemConfigHistory history = new SystemConfigHistory();
@@ -32,6 +32,15 @@ public class ContactServiceImpl implements ContactService {
     @Autowired
     private com.web.service.NotificationService notificationService;
 
+    @Autowired
+    private com.web.service.UserProfileLoaderService userProfileLoaderService;
+
+    @Autowired
+    private com.web.service.SocialGraphService socialGraphService;
+
+    @Autowired
+    private com.web.service.RelationshipCacheService relationshipCacheService;
+
     @Override
     public void apply(ContactApplyVo applyVo, Long fromUserId) {
         // 输入验证
@@ -76,6 +85,7 @@ public class ContactServiceImpl implements ContactService {
         if (result <= 0) {
             throw new WeebException("申请添加好友失败");
         }
+        relationshipCacheService.invalidate(fromUserId, applyVo.getFriendId());
         
         // 发送好友申请通知
         try {
@@ -215,6 +225,7 @@ public class ContactServiceImpl implements ContactService {
         if (result <= 0) {
             throw new WeebException("申请添加好友失败");
         }
+        relationshipCacheService.invalidate(fromUserId, targetUser.getId());
         
         log.info("好友申请创建成功 - 申请人ID: {}, 目标用户ID: {}, 过期时间: {}", 
                  fromUserId, targetUser.getId(), newContact.getExpireAt());
@@ -308,6 +319,8 @@ public class ContactServiceImpl implements ContactService {
                 }
             }
         }
+        socialGraphService.refreshFriendship(applicantId, acceptorId);
+        relationshipCacheService.invalidate(applicantId, acceptorId);
         
         // 发送好友申请被接受的通知（双向通知）
         try {
@@ -365,6 +378,13 @@ public class ContactServiceImpl implements ContactService {
             String action = newStatus == ContactStatus.REJECTED ? "拒绝" : "拉黑";
             throw new WeebException(action + "操作失败");
         }
+
+        // 拉黑可能作用于已确认的好友记录，按数据库最终状态刷新社交图
+        com.web.model.Contact contact = contactMapper.selectById(contactId);
+        if (contact != null) {
+            socialGraphService.refreshFriendship(contact.getUserId(), contact.getFriendId());
+            relationshipCacheService.invalidate(contact.getUserId(), contact.getFriendId());
+        }
     }
 
     @Override
@@ -631,10 +651,12 @@ public class ContactServiceImpl implements ContactService {
                     .eq("status", ContactStatus.ACCEPTED.getCode())
             );
 
-            // 转换为UserDto列表
+            // 转换为UserDto列表，联系人资料一次批量加载
+            java.util.Map<Long, com.web.model.User> users = userProfileLoaderService.getUsers(
+                contacts.stream().map(com.web.model.Contact::getFriendId).collect(java.util.stream.Collectors.toList()));
             return contacts.stream()
                 .map(contact -> {
-                    com.web.model.User user = userService.getUserBasicInfo(contact.getFriendId());
+                    com.web.model.User user = users.get(contact.getFriendId());
                     if (user != null) {
                         UserDto dto = new UserDto();
                         dto.setId(user.getId());
@@ -752,6 +774,8 @@ public class ContactServiceImpl implements ContactService {
             // 删除联系人记录
             int result = contactMapper.deleteById(contactId);
             if (result > 0) {
+                socialGraphService.refreshFriendship(contact.getUserId(), contact.getFriendId());
+                relationshipCacheService.invalidate(contact.getUserId(), contact.getFriendId());
                 log.info("联系人删除成功: contactId={}, userId={}", contactId, userId);
                 return true;
             } else {
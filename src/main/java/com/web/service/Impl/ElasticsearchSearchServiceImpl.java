@@ -13,23 +13,41 @@ import co.elastic.clients.elasticsearch._types.query_dsl.MatchQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermsQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
 import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.CalendarInterval;
+import co.elastic.clients.elasticsearch._types.aggregations.DateHistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.LongTermsBucket;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.search.TotalHits;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.exception.WeebException;
+import com.web.mapper.ChatListMapper;
+import com.web.mapper.GroupMapper;
+import com.web.model.ChatList;
+import com.web.model.Group;
 import com.web.model.elasticsearch.MessageDocument;
 import com.web.repository.MessageSearchRepository;
 import com.web.service.ElasticsearchSearchService;
+import com.web.service.TypeaheadIndexService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -47,9 +65,34 @@ public class ElasticsearchSearchServiceImpl implements ElasticsearchSearchServic
     @Autowired
     private MessageSearchRepository messageSearchRepository;
 
-  
+    @Autowired
+    private TypeaheadIndexService typeaheadIndexService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChatListMapper chatListMapper;
+
+    @Autowired
+    private GroupMapper groupMapper;
+
+    @Value("${weeb.search.message.pit-keep-alive:2m}")
+    private String pitKeepAlive;
+
+    @Value("${weeb.search.message.facet-size:20}")
+    private int facetSize;
+
+    @Value("${weeb.search.message.total-hits-threshold:10000}")
+    private int totalHitsThreshold;
+
     private static final String MESSAGE_INDEX = "message";
 
+    // 游标分页统计
+    private final AtomicLong cursorSearchCount = new AtomicLong();
+    private final AtomicLong pitOpenCount = new AtomicLong();
+    private final AtomicLong pitExpiredCount = new AtomicLong();
+
     // ==================== 消息搜索 ====================
 
     @Override
@@ -100,36 +143,11 @@ public class ElasticsearchSearchServiceImpl implements ElasticsearchSearchServic
     public Map<String, Object> searchMessages(String keyword, Long fromUserId, Long chatListId,
                                               int page, int size) {
         try {
-            // 构建查询条件
-            BoolQuery boolQuery = BoolQuery.of(b -> {
-                // 关键词搜索
-                if (keyword != null && !keyword.trim().isEmpty()) {
-                    b.must(m -> m.match(MatchQuery.of(mq -> mq
-                            .field("content")
-                            .query(keyword.trim())
-                            .operator(Operator.And))));
-                }
-
-                // 发送者过滤
-                if (fromUserId != null) {
-                    b.filter(f -> f.term(TermQuery.of(t -> t
-                            .field("fromId")
-                            .value(fromUserId))));
-                }
-
-                // 聊天过滤
-                if (chatListId != null) {
-                    b.filter(f -> f.term(TermQuery.of(t -> t
-                            .field("chatListId")
-                            .value(chatListId))));
-                }
-
-                return b;
-            });
+            Query query = buildMessageQuery(keyword, fromUserId, chatListId, null, null, null);
 
             SearchRequest searchRequest = SearchRequest.of(s -> s
                     .index(MESSAGE_INDEX)
-                    .query(boolQuery._toQuery())
+                    .query(query)
                     .from(page * size)
                     .size(size)
                     .sort(SortOptions.of(so -> so
@@ -158,6 +176,83 @@ public class ElasticsearchSearchServiceImpl implements ElasticsearchSearchServic
         }
     }
 
+    @Override
+    public Map<String, Object> searchMessagesByCursor(Long userId, String keyword, Long fromUserId, Long chatListId,
+                                                      String startDate, String endDate, String cursor, int size,
+                                                      boolean withTotal, boolean withFacets) {
+        // 只能搜索自己所在的聊天：指定聊天时校验成员身份，未指定时限定在全部所在聊天内
+        Set<Long> chatIds = accessibleChatIds(userId);
+        if (chatListId != null && !chatIds.contains(chatListId)) {
+            throw new AccessDeniedException("无权搜索该聊天的消息");
+        }
+        if (chatIds.isEmpty()) {
+            return emptyCursorResult(size);
+        }
+        String fingerprint = queryFingerprint(userId, keyword, fromUserId, chatListId, startDate, endDate);
+        MessageCursor current = cursor != null && !cursor.isEmpty() ? decodeCursor(cursor, fingerprint) : null;
+        boolean firstPage = current == null;
+        Query query = buildMessageQuery(keyword, fromUserId, chatListId, chatListId == null ? chatIds : null,
+                startDate, endDate);
+        cursorSearchCount.incrementAndGet();
+
+        String pitId = null;
+        try {
+            pitId = firstPage ? openPointInTime() : current.pit;
+            List<FieldValue> searchAfter = firstPage ? null : current.after;
+
+            SearchResponse<MessageDocument> response;
+            try {
+                response = searchPage(query, pitId, searchAfter, size, firstPage && withTotal, firstPage && withFacets);
+            } catch (ElasticsearchException e) {
+                if (firstPage) {
+                    throw e;
+                }
+                // point-in-time已过期：按相同的排序位置在新的PIT上继续
+                pitExpiredCount.incrementAndGet();
+                log.debug("消息搜索PIT已失效，重新打开: {}", e.getMessage());
+                pitId = openPointInTime();
+                response = searchPage(query, pitId, searchAfter, size, false, false);
+            }
+            if (response.pitId() != null) {
+                pitId = response.pitId();
+            }
+
+            List<Hit<MessageDocument>> hits = response.hits().hits();
+            List<MessageDocument> documents = hits.stream()
+                    .map(Hit::source)
+                    .collect(Collectors.toList());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("documents", documents);
+            result.put("size", size);
+
+            boolean hasMore = hits.size() == size;
+            result.put("hasMore", hasMore);
+            if (hasMore) {
+                result.put("nextCursor", encodeCursor(pitId, hits.get(hits.size() - 1).sort(), fingerprint));
+            } else {
+                // 已到最后一页，提前释放PIT
+                closePointInTime(pitId);
+                result.put("nextCursor", null);
+            }
+
+            TotalHits total = response.hits().total();
+            if (total != null) {
+                result.put("total", total.value());
+                result.put("totalRelation", total.relation().jsonValue());
+            }
+            if (firstPage && withFacets && response.aggregations() != null) {
+                result.put("facets", extractFacets(response.aggregations()));
+            }
+            return result;
+
+        } catch (IOException | ElasticsearchException e) {
+            log.error("消息游标搜索失败: keyword={}", keyword, e);
+            closePointInTime(pitId);
+            return emptyCursorResult(size);
+        }
+    }
+
     @Override
     public MessageDocument searchMessageById(Long messageId) {
         try {
@@ -301,9 +396,20 @@ public class ElasticsearchSearchServiceImpl implements ElasticsearchSearchServic
 
     @Override
     public List<String> searchSuggestions(String prefix, int size) {
-        // 实现搜索建议功能
-        // 可以使用ES的完成建议器
-        return List.of();
+        // 由内存输入联想索引提供候选（用户名/昵称/群组名），无需访问ES
+        if (prefix == null || prefix.trim().isEmpty() || size <= 0) {
+            return List.of();
+        }
+        LinkedHashSet<String> suggestions = new LinkedHashSet<>();
+        for (String type : List.of(TypeaheadIndexService.TYPE_USER, TypeaheadIndexService.TYPE_GROUP)) {
+            for (Map<String, Object> item : typeaheadIndexService.suggest(type, prefix, size)) {
+                Object name = item.get("name");
+                if (name != null) {
+                    suggestions.add(name.toString());
+                }
+            }
+        }
+        return suggestions.stream().limit(size).collect(Collectors.toList());
     }
 
     @Override
@@ -317,6 +423,9 @@ public class ElasticsearchSearchServiceImpl implements ElasticsearchSearchServic
             } else {
                 stats.put("indexExists", false);
             }
+            stats.put("cursorSearchCount", cursorSearchCount.get());
+            stats.put("pitOpenCount", pitOpenCount.get());
+            stats.put("pitExpiredCount", pitExpiredCount.get());
         } catch (Exception e) {
             log.error("获取搜索统计信息失败", e);
             stats.put("error", e.getMessage());
@@ -326,6 +435,248 @@ public class ElasticsearchSearchServiceImpl implements ElasticsearchSearchServic
 
     // ==================== 辅助方法 ====================
 
+    /**
+     * 游标内容：PIT ID、上一页最后一条的排序值、查询条件指纹
+     */
+    private static final class MessageCursor {
+        final String pit;
+        final List<FieldValue> after;
+
+        MessageCursor(String pit, List<FieldValue> after) {
+            this.pit = pit;
+            this.after = after;
+        }
+    }
+
+    /**
+     * @param allowedChatIds 限定的聊天ID集合（可选），用于把结果限制在调用者所在的聊天内
+     */
+    private Query buildMessageQuery(String keyword, Long fromUserId, Long chatListId, Collection<Long> allowedChatIds,
+                                    String startDate, String endDate) {
+        return BoolQuery.of(b -> {
+            // 关键词搜索
+            if (keyword != null && !keyword.trim().isEmpty()) {
+                b.must(m -> m.match(MatchQuery.of(mq -> mq
+                        .field("content")
+                        .query(keyword.trim())
+                        .operator(Operator.And))));
+            }
+
+            // 发送者过滤
+            if (fromUserId != null) {
+                b.filter(f -> f.term(TermQuery.of(t -> t
+                        .field("fromId")
+                        .value(fromUserId))));
+            }
+
+            // 聊天过滤
+            if (chatListId != null) {
+                b.filter(f -> f.term(TermQuery.of(t -> t
+                        .field("chatListId")
+                        .value(chatListId))));
+            }
+            if (allowedChatIds != null) {
+                List<FieldValue> values = allowedChatIds.stream()
+                        .map(id -> FieldValue.of(id.longValue()))
+                        .collect(Collectors.toList());
+                b.filter(f -> f.terms(TermsQuery.of(t -> t
+                        .field("chatListId")
+                        .terms(v -> v.value(values)))));
+            }
+
+            // 日期范围过滤（结束日期包含当天）
+            boolean hasStart = startDate != null && !startDate.isEmpty();
+            boolean hasEnd = endDate != null && !endDate.isEmpty();
+            if (hasStart || hasEnd) {
+                b.filter(f -> f.range(RangeQuery.of(r -> r.date(d -> {
+                    d.field("sendTime")
+                            .format("yyyy-MM-dd")
+                            .timeZone(ZoneId.systemDefault().getId());
+                    if (hasStart) {
+                        d.gte(startDate);
+                    }
+                    if (hasEnd) {
+                        d.lte(endDate + "||/d");
+                    }
+                    return d;
+                }))));
+            }
+
+            return b;
+        })._toQuery();
+    }
+
+    /**
+     * 在PIT上执行一页搜索：按发送时间、消息ID倒序，ID作为同一时间的决胜字段
+     */
+    private SearchResponse<MessageDocument> searchPage(Query query, String pitId, List<FieldValue> searchAfter,
+                                                       int size, boolean withTotal, boolean withFacets) throws IOException {
+        SearchRequest request = SearchRequest.of(s -> {
+            s.query(query)
+                    .size(size)
+                    .pit(p -> p.id(pitId).keepAlive(t -> t.time(pitKeepAlive)))
+                    .sort(so -> so.field(f -> f.field("sendTime").order(SortOrder.Desc)))
+                    .sort(so -> so.field(f -> f.field("id").order(SortOrder.Desc)));
+            if (searchAfter != null) {
+                s.searchAfter(searchAfter);
+            }
+            if (withTotal) {
+                s.trackTotalHits(t -> t.count(totalHitsThreshold));
+            } else {
+                s.trackTotalHits(t -> t.enabled(false));
+            }
+            if (withFacets) {
+                s.aggregations("byChat", a -> a.terms(t -> t.field("chatListId").size(facetSize)))
+                        .aggregations("bySender", a -> a.terms(t -> t.field("fromId").size(facetSize)))
+                        .aggregations("byDay", a -> a.dateHistogram(d -> d
+                                .field("sendTime")
+                                .calendarInterval(CalendarInterval.Day)
+                                .format("yyyy-MM-dd")
+                                .timeZone(ZoneId.systemDefault().getId())
+                                .minDocCount(1)));
+            }
+            return s;
+        });
+        return elasticsearchClient.search(request, MessageDocument.class);
+    }
+
+    private String openPointInTime() throws IOException {
+        pitOpenCount.incrementAndGet();
+        return elasticsearchClient.openPointInTime(o -> o
+                .index(MESSAGE_INDEX)
+                .keepAlive(t -> t.time(pitKeepAlive))).id();
+    }
+
+    private void closePointInTime(String pitId) {
+        if (pitId == null) {
+            return;
+        }
+        try {
+            elasticsearchClient.closePointInTime(c -> c.id(pitId));
+        } catch (Exception e) {
+            // 关闭失败无需处理，PIT会在keep-alive到期后自动释放
+            log.debug("关闭PIT失败: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Object> extractFacets(Map<String, Aggregate> aggregations) {
+        Map<String, Object> facets = new HashMap<>();
+        facets.put("byChat", extractLongTerms(aggregations.get("byChat")));
+        facets.put("bySender", extractLongTerms(aggregations.get("bySender")));
+
+        List<Map<String, Object>> days = new ArrayList<>();
+        Aggregate byDay = aggregations.get("byDay");
+        if (byDay != null && byDay.isDateHistogram()) {
+            for (DateHistogramBucket bucket : byDay.dateHistogram().buckets().array()) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("date", bucket.keyAsString());
+                item.put("count", bucket.docCount());
+                days.add(item);
+            }
+        }
+        facets.put("byDay", days);
+        return facets;
+    }
+
+    private static List<Map<String, Object>> extractLongTerms(Aggregate aggregate) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        if (aggregate != null && aggregate.isLterms()) {
+            for (LongTermsBucket bucket : aggregate.lterms().buckets().array()) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("id", bucket.key());
+                item.put("count", bucket.docCount());
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private static String queryFingerprint(Long userId, String keyword, Long fromUserId, Long chatListId,
+                                           String startDate, String endDate) {
+        String normalized = keyword != null ? keyword.trim() : "";
+        return Integer.toHexString(Objects.hash(userId, normalized, fromUserId, chatListId, startDate, endDate));
+    }
+
+    /**
+     * 用户所在聊天的共享聊天ID：chat_list 中的会话，加上所在群组的群聊（群聊会话可能尚未生成 chat_list 记录）
+     */
+    private Set<Long> accessibleChatIds(Long userId) {
+        Set<Long> chatIds = new HashSet<>();
+        if (userId == null) {
+            return chatIds;
+        }
+        for (ChatList chatList : chatListMapper.selectChatListByUserId(userId)) {
+            if (chatList.getSharedChatId() != null) {
+                chatIds.add(chatList.getSharedChatId());
+            }
+        }
+        for (Group group : groupMapper.findGroupsByUserId(userId)) {
+            if (group.getSharedChatId() != null) {
+                chatIds.add(group.getSharedChatId());
+            }
+        }
+        return chatIds;
+    }
+
+    private static Map<String, Object> emptyCursorResult(int size) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("documents", List.of());
+        result.put("size", size);
+        result.put("hasMore", false);
+        result.put("nextCursor", null);
+        return result;
+    }
+
+    private String encodeCursor(String pitId, List<FieldValue> sortValues, String fingerprint) {
+        List<Object> after = new ArrayList<>(sortValues.size());
+        for (FieldValue value : sortValues) {
+            after.add(value._get());
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("pit", pitId);
+        payload.put("after", after);
+        payload.put("q", fingerprint);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(payload));
+        } catch (Exception e) {
+            throw new WeebException("生成搜索游标失败");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private MessageCursor decodeCursor(String cursor, String fingerprint) {
+        Map<String, Object> payload;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            payload = objectMapper.readValue(json, Map.class);
+        } catch (Exception e) {
+            throw new WeebException("搜索游标无效");
+        }
+        if (!fingerprint.equals(payload.get("q"))) {
+            throw new WeebException("搜索游标与查询条件不匹配");
+        }
+        Object pit = payload.get("pit");
+        Object after = payload.get("after");
+        if (!(pit instanceof String) || !(after instanceof List)) {
+            throw new WeebException("搜索游标无效");
+        }
+        List<FieldValue> values = new ArrayList<>();
+        for (Object value : (List<Object>) after) {
+            if (value instanceof Integer || value instanceof Long) {
+                values.add(FieldValue.of(((Number) value).longValue()));
+            } else if (value instanceof Number) {
+                values.add(FieldValue.of(((Number) value).doubleValue()));
+            } else if (value instanceof Boolean) {
+                values.add(FieldValue.of((Boolean) value));
+            } else if (value != null) {
+                values.add(FieldValue.of(value.toString()));
+            } else {
+                values.add(FieldValue.NULL);
+            }
+        }
+        return new MessageCursor((String) pit, values);
+    }
+
     private Map<String, Object> createEmptySearchResult(int page, int size) {
         Map<String, Object> result = new HashMap<>();
         result.put("documents", List.of());
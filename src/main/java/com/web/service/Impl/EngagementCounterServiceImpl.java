@@ -0,0 +1,340 @@
+package com.web.service.Impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.web.dto.EngagementDelta;
+import com.web.mapper.ArticleMapper;
+import com.web.model.Article;
+import com.web.service.ArticleRecommendationService;
+import com.web.service.EngagementCounterService;
+import com.web.service.LeaderboardService;
+import com.web.service.UserLevelEngineService;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 文章互动计数服务实现
+ * 增量按文章ID存放在ConcurrentHashMap中，累加与摘取都通过compute/remove在单个键上原子完成，
+ * 不同文章互不阻塞；刷写时同一文章的多次操作合并为一条CASE批量更新，作者汇总按增量累加
+ */
+@Slf4j
+@Service
+public class EngagementCounterServiceImpl implements EngagementCounterService {
+
+    // 单条批量UPDATE包含的最大行数
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ArticleRecommendationService articleRecommendationService;
+
+    @Autowired
+    private UserLevelEngineService userLevelEngineService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Value("${weeb.article.engagement.author-cache-size:50000}")
+    private long authorCacheSize;
+
+    /**
+     * 单篇文章尚未刷写的增量，只在pending的compute回调中修改
+     */
+    private static final class PendingCounts {
+        final Long articleId;
+        final Long authorId;
+        long likes;
+        long favorites;
+        long reads;
+        double coins;
+        long operations;
+
+        PendingCounts(Long articleId, Long authorId) {
+            this.articleId = articleId;
+            this.authorId = authorId;
+        }
+
+        void merge(PendingCounts other) {
+            likes += other.likes;
+            favorites += other.favorites;
+            reads += other.reads;
+            coins += other.coins;
+            operations += other.operations;
+        }
+
+        PendingCounts copy() {
+            PendingCounts copy = new PendingCounts(articleId, authorId);
+            copy.merge(this);
+            return copy;
+        }
+    }
+
+    private final Map<Long, PendingCounts> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private Cache<Long, Long> authorCache;
+    private TransactionTemplate transactionTemplate;
+
+    // 统计信息
+    private final AtomicLong recordedOperations = new AtomicLong();
+    private final AtomicLong flushedOperations = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedArticles = new AtomicLong();
+    private final AtomicLong flushedAuthors = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final AtomicLong discardedOperations = new AtomicLong();
+    private volatile long lastFlushMillis = 0;
+    private volatile long lastFlushAt = 0;
+
+    @PostConstruct
+    public void init() {
+        this.authorCache = Caffeine.newBuilder()
+                .maximumSize(authorCacheSize)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 停机前刷写剩余增量，避免丢失计数
+        int articles = flush();
+        log.info("互动计数停机刷写完成: articles={}", articles);
+    }
+
+    @Override
+    public void addLikes(Long articleId, Long authorId, long delta) {
+        TransactionUtils.afterCommit(() -> record(articleId, authorId, c -> c.likes += delta));
+    }
+
+    @Override
+    public void addFavorites(Long articleId, Long authorId, long delta) {
+        TransactionUtils.afterCommit(() -> record(articleId, authorId, c -> c.favorites += delta));
+    }
+
+    @Override
+    public void addReads(Long articleId, Long authorId, long delta) {
+        TransactionUtils.afterCommit(() -> record(articleId, authorId, c -> c.reads += delta));
+    }
+
+    @Override
+    public void addCoins(Long articleId, Long authorId, double amount) {
+        TransactionUtils.afterCommit(() -> record(articleId, authorId, c -> c.coins += amount));
+    }
+
+    @Override
+    public Long resolveAuthorId(Long articleId) {
+        if (articleId == null) {
+            return null;
+        }
+        Long authorId = authorCache.getIfPresent(articleId);
+        if (authorId != null) {
+            return authorId;
+        }
+        Article article = articleMapper.selectArticleById(articleId);
+        if (article == null || article.getUserId() == null) {
+            return null;
+        }
+        authorCache.put(articleId, article.getUserId());
+        return article.getUserId();
+    }
+
+    @Override
+    public void applyPending(Article article) {
+        if (article == null || article.getArticleId() == null) {
+            return;
+        }
+        PendingCounts[] holder = new PendingCounts[1];
+        pending.computeIfPresent(article.getArticleId(), (id, counts) -> {
+            holder[0] = counts.copy();
+            return counts;
+        });
+        PendingCounts counts = holder[0];
+        if (counts == null) {
+            return;
+        }
+        if (counts.likes != 0) {
+            int likes = article.getLikesCount() != null ? article.getLikesCount() : 0;
+            article.setLikesCount((int) Math.max(0, likes + counts.likes));
+        }
+        if (counts.favorites != 0) {
+            int favorites = article.getFavoritesCount() != null ? article.getFavoritesCount() : 0;
+            article.setFavoritesCount((int) Math.max(0, favorites + counts.favorites));
+        }
+        if (counts.reads != 0) {
+            long reads = article.getExposureCount() != null ? article.getExposureCount() : 0L;
+            article.setExposureCount(reads + counts.reads);
+        }
+        if (counts.coins != 0) {
+            double coins = article.getSponsorsCount() != null ? article.getSponsorsCount() : 0.0;
+            article.setSponsorsCount(coins + counts.coins);
+        }
+    }
+
+    @Override
+    public void discard(Long articleId) {
+        if (articleId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            PendingCounts removed = pending.remove(articleId);
+            if (removed != null) {
+                discardedOperations.addAndGet(removed.operations);
+            }
+            authorCache.invalidate(articleId);
+        });
+    }
+
+    @Override
+    public int flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            // 逐个键原子摘取，摘取之后到达的增量会进入新的PendingCounts，不会丢失
+            List<PendingCounts> drained = new ArrayList<>();
+            for (Long articleId : pending.keySet()) {
+                PendingCounts counts = pending.remove(articleId);
+                if (counts != null) {
+                    drained.add(counts);
+                }
+            }
+            if (drained.isEmpty()) {
+                return 0;
+            }
+
+            List<EngagementDelta> articleDeltas = new ArrayList<>(drained.size());
+            Map<Long, EngagementDelta> authorDeltas = new HashMap<>();
+            long operations = 0;
+            for (PendingCounts counts : drained) {
+                operations += counts.operations;
+                if (counts.likes == 0 && counts.favorites == 0 && counts.reads == 0 && counts.coins == 0) {
+                    continue;
+                }
+                articleDeltas.add(new EngagementDelta(counts.articleId, counts.likes, counts.favorites,
+                        counts.reads, counts.coins));
+                if (counts.authorId != null) {
+                    EngagementDelta author = authorDeltas.computeIfAbsent(counts.authorId,
+                            id -> new EngagementDelta(id, 0, 0, 0, 0.0));
+                    author.setLikes(author.getLikes() + counts.likes);
+                    author.setFavorites(author.getFavorites() + counts.favorites);
+                    author.setReads(author.getReads() + counts.reads);
+                    author.setCoins(author.getCoins() + counts.coins);
+                }
+            }
+
+            try {
+                List<EngagementDelta> authors = new ArrayList<>(authorDeltas.values());
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int from = 0; from < articleDeltas.size(); from += MAX_BATCH_SIZE) {
+                        articleMapper.applyArticleEngagementDeltas(
+                                articleDeltas.subList(from, Math.min(from + MAX_BATCH_SIZE, articleDeltas.size())));
+                    }
+                    for (int from = 0; from < authors.size(); from += MAX_BATCH_SIZE) {
+                        articleMapper.applyUserStatsEngagementDeltas(
+                                authors.subList(from, Math.min(from + MAX_BATCH_SIZE, authors.size())));
+                    }
+                });
+            } catch (Exception e) {
+                // 事务已回滚，把增量放回缓冲区等待下次刷写
+                for (PendingCounts counts : drained) {
+                    pending.merge(counts.articleId, counts, (current, restored) -> {
+                        current.merge(restored);
+                        return current;
+                    });
+                }
+                flushFailures.incrementAndGet();
+                log.error("互动计数刷写失败，增量已放回缓冲区: articles={}", drained.size(), e);
+                return 0;
+            }
+
+            // 已落库的增量同步调整推荐排名
+            articleRecommendationService.applyEngagement(articleDeltas);
+
+            // 作者的累计浏览量参与等级计算，点赞与浏览同步到排行榜
+            Map<Long, Long> authorReads = new HashMap<>();
+            Map<Long, Long> authorLikes = new HashMap<>();
+            authorDeltas.forEach((authorId, delta) -> {
+                if (delta.getReads() != 0) {
+                    authorReads.put(authorId, delta.getReads());
+                }
+                if (delta.getLikes() != 0) {
+                    authorLikes.put(authorId, delta.getLikes());
+                }
+            });
+            userLevelEngineService.incrementAll(UserLevelEngineService.COUNTER_VIEWS, authorReads);
+            leaderboardService.incrementAll(LeaderboardService.BOARD_EXPOSURE, authorReads);
+            leaderboardService.incrementAll(LeaderboardService.BOARD_LIKES, authorLikes);
+
+            flushCount.incrementAndGet();
+            flushedOperations.addAndGet(operations);
+            flushedArticles.addAndGet(articleDeltas.size());
+            flushedAuthors.addAndGet(authorDeltas.size());
+            lastFlushMillis = System.currentTimeMillis() - start;
+            lastFlushAt = System.currentTimeMillis();
+            log.debug("互动计数刷写完成: operations={}, articles={}, authors={}, cost={}ms",
+                    operations, articleDeltas.size(), authorDeltas.size(), lastFlushMillis);
+            return articleDeltas.size();
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long flushedOps = flushedOperations.get();
+        long flushedRows = flushedArticles.get() + flushedAuthors.get();
+        stats.put("pendingArticles", pending.size());
+        stats.put("recordedOperations", recordedOperations.get());
+        stats.put("flushedOperations", flushedOps);
+        stats.put("flushCount", flushCount.get());
+        stats.put("flushedArticleRows", flushedArticles.get());
+        stats.put("flushedAuthorRows", flushedAuthors.get());
+        // 合并比：每条数据库行更新平均吸收的操作数
+        stats.put("coalesceRatio", flushedRows > 0 ? (double) flushedOps / flushedRows : 0.0);
+        stats.put("flushFailures", flushFailures.get());
+        stats.put("discardedOperations", discardedOperations.get());
+        stats.put("authorCacheSize", authorCache.estimatedSize());
+        stats.put("lastFlushMillis", lastFlushMillis);
+        stats.put("lastFlushAt", lastFlushAt);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void record(Long articleId, Long authorId, Consumer<PendingCounts> update) {
+        if (articleId == null) {
+            return;
+        }
+        pending.compute(articleId, (id, counts) -> {
+            PendingCounts target = counts != null ? counts : new PendingCounts(id, authorId);
+            update.accept(target);
+            target.operations++;
+            return target;
+        });
+        recordedOperations.incrementAndGet();
+    }
+}
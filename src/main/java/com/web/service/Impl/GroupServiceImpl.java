@@ -4,7 +4,6 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.web.exception.WeebException;
 import com.web.mapper.GroupMapper;
 import com.web.mapper.GroupMemberMapper;
-import com.web.mapper.UserMapper;
 import com.web.model.Group;
 import com.web.model.GroupMember;
 import com.web.model.User;
@@ -46,9 +45,6 @@ public class GroupServiceImpl extends ServiceImpl<GroupMapper, Group> implements
     @Autowired
     private GroupMemberMapper groupMemberMapper;
 
-    @Autowired
-    private UserMapper userMapper;
-
     @Autowired
     private UserTypeSecurityService userTypeSecurityService;
 
@@ -67,6 +63,15 @@ public class GroupServiceImpl extends ServiceImpl<GroupMapper, Group> implements
     @Autowired
     private com.web.mapper.ChatListMapper chatListMapper;
 
+    @Autowired
+    private com.web.service.TypeaheadIndexService typeaheadIndexService;
+
+    @Autowired
+    private com.web.service.SearchResultCacheService searchResultCacheService;
+
+    @Autowired
+    private com.web.service.UserProfileLoaderService userProfileLoaderService;
+
     /**
      * 检查用户在群组中的权限
      * @param groupId 群组ID
@@ -226,6 +231,11 @@ public class GroupServiceImpl extends ServiceImpl<GroupMapper, Group> implements
         log.info("群组创建成功: groupId={}, groupName={}, ownerId={}, sharedChatId={}",
             group.getId(), group.getGroupName(), userId, sharedChatId);
 
+        // 事务提交后加入输入联想索引
+        typeaheadIndexService.refreshGroup(group.getId());
+        searchResultCacheService.invalidate(com.web.service.SearchResultCacheService.TYPE_GROUP,
+                group.getId(), group.getGroupName());
+
         return group;
     }
 
@@ -478,6 +488,8 @@ public class GroupServiceImpl extends ServiceImpl<GroupMapper, Group> implements
         
         // 删除群组
         removeById(groupId);
+        typeaheadIndexService.removeGroup(groupId);
+        searchResultCacheService.invalidate(com.web.service.SearchResultCacheService.TYPE_GROUP, groupId);
     }
 
     @Override
@@ -565,14 +577,18 @@ public class GroupServiceImpl extends ServiceImpl<GroupMapper, Group> implements
 
     @Override
     public List<Map<String, Object>> getGroupMembers(Long groupId) {
-        List<Long> memberIds = groupMemberMapper.findUserIdsByGroupId(groupId);
+        // 成员记录与用户资料各一次批量查询，避免逐个成员查询
+        List<GroupMember> groupMembers = groupMemberMapper.selectList(
+            new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<GroupMember>()
+                .eq("group_id", groupId));
+        Map<Long, User> users = userProfileLoaderService.getUsers(
+            groupMembers.stream().map(GroupMember::getUserId).collect(java.util.stream.Collectors.toList()));
         List<Map<String, Object>> members = new ArrayList<>();
         
-        for (Long memberId : memberIds) {
-            User user = userMapper.selectById(memberId);
-            GroupMember member = groupMemberMapper.findByGroupAndUser(groupId, memberId);
+        for (GroupMember member : groupMembers) {
+            User user = users.get(member.getUserId());
             
-            if (user != null && member != null) {
+            if (user != null) {
                 Map<String, Object> memberInfo = new HashMap<>();
                 memberInfo.put("userId", user.getId());
                 memberInfo.put("username", user.getUsername());
@@ -624,6 +640,12 @@ public class GroupServiceImpl extends ServiceImpl<GroupMapper, Group> implements
         
         // 保存更新
         updateById(existingGroup);
+        if (changes.containsKey("newGroupName")) {
+            typeaheadIndexService.refreshGroup(groupId);
+        }
+        // 名称或头像变化都会影响已缓存的搜索结果
+        searchResultCacheService.invalidate(com.web.service.SearchResultCacheService.TYPE_GROUP,
+                groupId, existingGroup.getGroupName());
         
         // ✅ 广播群组信息变更事件
         if (hasChanges) {
@@ -1281,7 +1303,7 @@ public class GroupServiceImpl extends ServiceImpl<GroupMapper, Group> implements
 
             // 获取群主用户名
             if (group.getOwnerId() != null) {
-                User owner = userMapper.selectById(group.getOwnerId());
+                User owner = userProfileLoaderService.getUser(group.getOwnerId());
                 if (owner != null) {
                     groupDto.setOwnerUsername(owner.getUsername());
                 }
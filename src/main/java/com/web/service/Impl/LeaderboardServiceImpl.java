@@ -0,0 +1,385 @@
+package com.web.service.Impl;
+
+import com.web.exception.WeebException;
+import com.web.mapper.UserStatsMapper;
+import com.web.model.User;
+import com.web.model.UserStats;
+import com.web.service.LeaderboardService;
+import com.web.service.UserProfileLoaderService;
+import com.web.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 排行榜服务实现
+ * 键格式为 leaderboard:{board}:all / :d:yyyyMMdd / :w:yyyyWww，同一榜单的键共用哈希标签；
+ * 总榜只在已建立时累加，避免在空集合上从0开始形成残缺排名，日榜、周榜只记录窗口内的增量
+ */
+@Slf4j
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final String KEY_PREFIX = "leaderboard:";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // 榜单名 -> 从user_stats读取对应字段
+    private static final Map<String, Function<UserStats, Long>> BOARD_FIELDS = Map.of(
+            BOARD_LIKES, UserStats::getTotalLikes,
+            BOARD_FANS, UserStats::getFansCount,
+            BOARD_COINS, UserStats::getWebsiteCoins,
+            BOARD_EXPOSURE, UserStats::getTotalArticleExposure);
+
+    // KEYS: 总榜、重建中的临时总榜、日榜、周榜；ARGV: 成员、增量、日榜TTL、周榜TTL（秒）
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, 2 do " +
+            "if redis.call('EXISTS', KEYS[i]) == 1 then redis.call('ZINCRBY', KEYS[i], ARGV[2], ARGV[1]) end end " +
+            "redis.call('ZINCRBY', KEYS[3], ARGV[2], ARGV[1]) " +
+            "redis.call('EXPIRE', KEYS[3], ARGV[3]) " +
+            "redis.call('ZINCRBY', KEYS[4], ARGV[2], ARGV[1]) " +
+            "redis.call('EXPIRE', KEYS[4], ARGV[4]) " +
+            "return 1", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private UserStatsMapper userStatsMapper;
+
+    @Autowired
+    private UserProfileLoaderService userProfileLoaderService;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    @Value("${weeb.leaderboard.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${weeb.leaderboard.day-ttl-hours:48}")
+    private long dayTtlHours;
+
+    @Value("${weeb.leaderboard.week-ttl-days:15}")
+    private long weekTtlDays;
+
+    @Value("${weeb.leaderboard.rebuild-chunk-size:1000}")
+    private int rebuildChunkSize;
+
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+
+    // 统计信息
+    private final AtomicLong incrementCount = new AtomicLong();
+    private final AtomicLong incrementFailures = new AtomicLong();
+    private final AtomicLong queryCount = new AtomicLong();
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private final AtomicLong rebuildRows = new AtomicLong();
+    private volatile long lastRebuildAt = 0;
+    private volatile long lastRebuildMillis = 0;
+    private volatile String lastRebuildResult = "never";
+
+    @Override
+    public void increment(String board, Long userId, long delta) {
+        if (userId == null || delta == 0 || !isSupported(board)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> apply(board, userId, delta));
+    }
+
+    @Override
+    public void incrementAll(String board, Map<Long, Long> deltas) {
+        if (deltas == null || deltas.isEmpty() || !isSupported(board)) {
+            return;
+        }
+        Map<Long, Long> snapshot = new HashMap<>(deltas);
+        TransactionUtils.afterCommit(() -> snapshot.forEach((userId, delta) -> {
+            if (userId != null && delta != null && delta != 0) {
+                apply(board, userId, delta);
+            }
+        }));
+    }
+
+    @Override
+    public List<Map<String, Object>> getTop(String board, String window, int limit) {
+        String key = windowKey(board, window);
+        queryCount.incrementAndGet();
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, 0, clampLimit(limit) - 1L);
+        return toEntries(tuples, 1);
+    }
+
+    @Override
+    public List<Long> getTopUserIds(String board, int limit) {
+        String key = windowKey(board, WINDOW_ALL);
+        queryCount.incrementAndGet();
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(key, 0, clampLimit(limit) - 1L);
+        List<Long> userIds = new ArrayList<>();
+        if (members != null) {
+            members.forEach(member -> userIds.add(Long.parseLong(member)));
+        }
+        return userIds;
+    }
+
+    @Override
+    public Map<String, Object> getRank(String board, String window, Long userId) {
+        String key = windowKey(board, window);
+        queryCount.incrementAndGet();
+        String member = String.valueOf(userId);
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.zRevRank(key, member);
+            conn.zScore(key, member);
+            conn.zCard(key);
+            return null;
+        });
+
+        Map<String, Object> rank = new HashMap<>();
+        rank.put("board", board);
+        rank.put("window", window);
+        rank.put("userId", userId);
+        rank.put("rank", results.get(0) != null ? ((Number) results.get(0)).longValue() + 1 : null);
+        rank.put("score", results.get(1) != null ? ((Number) results.get(1)).longValue() : 0L);
+        rank.put("total", results.get(2) != null ? ((Number) results.get(2)).longValue() : 0L);
+        return rank;
+    }
+
+    @Override
+    public List<Map<String, Object>> getAround(String board, String window, Long userId, int radius) {
+        String key = windowKey(board, window);
+        queryCount.incrementAndGet();
+        Long index = stringRedisTemplate.opsForZSet().reverseRank(key, String.valueOf(userId));
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        int safeRadius = Math.max(0, Math.min(radius, maxLimit / 2));
+        long start = Math.max(0, index - safeRadius);
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, start, index + safeRadius);
+        return toEntries(tuples, start + 1);
+    }
+
+    @Override
+    public boolean isSupported(String board) {
+        return board != null && BOARD_FIELDS.containsKey(board);
+    }
+
+    @Override
+    public boolean startRebuild() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } finally {
+                rebuildRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, Object> sizes = new LinkedHashMap<>();
+        try {
+            for (String board : BOARD_FIELDS.keySet()) {
+                sizes.put(board, stringRedisTemplate.opsForZSet().zCard(windowKey(board, WINDOW_ALL)));
+            }
+        } catch (Exception e) {
+            log.warn("读取排行榜大小失败: {}", e.getMessage());
+        }
+        stats.put("boardSizes", sizes);
+        stats.put("increments", incrementCount.get());
+        stats.put("incrementFailures", incrementFailures.get());
+        stats.put("queries", queryCount.get());
+        stats.put("rebuildRunning", rebuildRunning.get());
+        stats.put("rebuilds", rebuildCount.get());
+        stats.put("rebuildRows", rebuildRows.get());
+        stats.put("lastRebuildAt", lastRebuildAt);
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        stats.put("lastRebuildResult", lastRebuildResult);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void apply(String board, Long userId, long delta) {
+        try {
+            LocalDate today = LocalDate.now();
+            List<String> keys = List.of(
+                    allKey(board), rebuildKey(board), dayKey(board, today), weekKey(board, today));
+            stringRedisTemplate.execute(INCREMENT_SCRIPT, keys, String.valueOf(userId), String.valueOf(delta),
+                    String.valueOf(dayTtlHours * 3600), String.valueOf(weekTtlDays * 86400));
+            incrementCount.incrementAndGet();
+        } catch (Exception e) {
+            incrementFailures.incrementAndGet();
+            log.warn("更新排行榜失败: board={}, userId={}, delta={}, error={}",
+                    board, userId, delta, e.getMessage());
+        }
+    }
+
+    /**
+     * 分批扫描user_stats写入各榜单的临时集合，全部完成后用RENAME原子替换总榜；
+     * 重建期间的增量同时累加到临时集合，替换后不会丢失
+     */
+    private void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        long rows = 0;
+        try {
+            List<String> rebuildKeys = new ArrayList<>();
+            BOARD_FIELDS.keySet().forEach(board -> rebuildKeys.add(rebuildKey(board)));
+            stringRedisTemplate.delete(rebuildKeys);
+
+            long lastId = 0;
+            while (true) {
+                List<UserStats> chunk = userStatsMapper.selectLeaderboardStatsAfter(lastId, rebuildChunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                writeChunk(chunk);
+                rows += chunk.size();
+                lastId = chunk.get(chunk.size() - 1).getUserId();
+                if (chunk.size() < rebuildChunkSize) {
+                    break;
+                }
+            }
+
+            for (String board : BOARD_FIELDS.keySet()) {
+                if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(rebuildKey(board)))) {
+                    stringRedisTemplate.rename(rebuildKey(board), allKey(board));
+                } else {
+                    stringRedisTemplate.delete(allKey(board));
+                }
+            }
+            rebuildCount.incrementAndGet();
+            rebuildRows.addAndGet(rows);
+            lastRebuildResult = "completed";
+            log.info("排行榜重建完成: rows={}, 耗时={}ms", rows, System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            lastRebuildResult = "failed: " + e.getMessage();
+            log.error("排行榜重建失败: rows={}", rows, e);
+        } finally {
+            lastRebuildAt = System.currentTimeMillis();
+            lastRebuildMillis = lastRebuildAt - startedAt;
+        }
+    }
+
+    private void writeChunk(List<UserStats> chunk) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (UserStats stats : chunk) {
+                String member = String.valueOf(stats.getUserId());
+                BOARD_FIELDS.forEach((board, field) -> {
+                    Long value = field.apply(stats);
+                    // 分数为0的用户不上榜，保持集合紧凑
+                    if (value != null && value > 0) {
+                        conn.zAdd(rebuildKey(board), value, member);
+                    }
+                });
+            }
+            return null;
+        });
+    }
+
+    private List<Map<String, Object>> toEntries(Set<ZSetOperations.TypedTuple<String>> tuples, long firstRank) {
+        if (tuples == null || tuples.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> userIds = new ArrayList<>(tuples.size());
+        tuples.forEach(tuple -> userIds.add(Long.parseLong(tuple.getValue())));
+        Map<Long, User> users = userProfileLoaderService.getUsers(userIds);
+
+        List<Map<String, Object>> entries = new ArrayList<>(tuples.size());
+        long rank = firstRank;
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            Long userId = Long.parseLong(tuple.getValue());
+            User user = users.get(userId);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rank", rank++);
+            entry.put("userId", userId);
+            entry.put("score", tuple.getScore() != null ? tuple.getScore().longValue() : 0L);
+            entry.put("username", user != null ? user.getUsername() : null);
+            entry.put("nickname", user != null ? user.getNickname() : null);
+            entry.put("avatar", user != null ? user.getAvatar() : null);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private String windowKey(String board, String window) {
+        if (!isSupported(board)) {
+            throw new WeebException("不支持的排行榜: " + board);
+        }
+        LocalDate today = LocalDate.now();
+        String w = window != null ? window.toLowerCase() : WINDOW_ALL;
+        switch (w) {
+            case WINDOW_ALL:
+                ensureBuilt(board);
+                return allKey(board);
+            case WINDOW_DAY:
+                return dayKey(board, today);
+            case WINDOW_WEEK:
+                return weekKey(board, today);
+            default:
+                throw new WeebException("不支持的时间窗口: " + window);
+        }
+    }
+
+    /**
+     * 本进程启动后从未重建过且总榜不存在时，在后台触发一次重建
+     */
+    private void ensureBuilt(String board) {
+        if (lastRebuildAt == 0 && !rebuildRunning.get()
+                && !Boolean.TRUE.equals(stringRedisTemplate.hasKey(allKey(board)))) {
+            startRebuild();
+        }
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, maxLimit));
+    }
+
+    private static String boardPrefix(String board) {
+        // 哈希标签保证同一榜单的键落在同一槽位，脚本可在集群模式下执行
+        return KEY_PREFIX + "{" + board + "}:";
+    }
+
+    private static String allKey(String board) {
+        return boardPrefix(board) + "all";
+    }
+
+    private static String rebuildKey(String board) {
+        return boardPrefix(board) + "all:rebuild";
+    }
+
+    private static String dayKey(String board, LocalDate date) {
+        return boardPrefix(board) + "d:" + date.format(DAY_FORMAT);
+    }
+
+    private static String weekKey(String board, LocalDate date) {
+        return boardPrefix(board) + "w:" + String.format("%dW%02d",
+                date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+}
@@ -0,0 +1,550 @@
+package com.web.service.Impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.web.dto.LinkPreviewData;
+import com.web.model.LinkPreview;
+import com.web.service.LinkPreviewFetchService;
+import com.web.util.HtmlHeadSubscriber;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 链接预览抓取服务实现
+ * 抓取全程走 HttpClient.sendAsync：等待连接和响应期间不占用线程，大量待抓取链接只占内存；
+ * 响应体由 HtmlHeadSubscriber 流式读取，读到 </head> 或上限即断开。
+ * 同一规范化URL的并发请求共享一个 future；每个域名的并发抓取数受限，超出的排队等前一个完成
+ */
+@Slf4j
+@Service
+public class LinkPreviewFetchServiceImpl implements LinkPreviewFetchService {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; LinkPreviewBot/1.0)";
+
+    // 规范化时去掉的跟踪参数（另外去掉所有 utm_ 开头的参数）
+    private static final Set<String> TRACKING_PARAMS = Set.of(
+            "fbclid", "gclid", "yclid", "msclkid", "mc_cid", "mc_eid", "spm", "_hsenc", "_hsmi");
+
+    @Autowired
+    @Qualifier("linkPreviewExecutor")
+    private Executor linkPreviewExecutor;
+
+    @Value("${weeb.link-preview.timeout-ms:15000}")
+    private long timeoutMs;
+
+    @Value("${weeb.link-preview.max-head-bytes:65536}")
+    private int maxHeadBytes;
+
+    @Value("${weeb.link-preview.per-host-concurrency:4}")
+    private int perHostConcurrency;
+
+    @Value("${weeb.link-preview.max-pending:5000}")
+    private int maxPending;
+
+    @Value("${weeb.link-preview.cache-max-size:20000}")
+    private long cacheMaxSize;
+
+    @Value("${weeb.link-preview.cache-ttl-minutes:360}")
+    private long cacheTtlMinutes;
+
+    @Value("${weeb.link-preview.failure-ttl-seconds:60}")
+    private long failureTtlSeconds;
+
+    @Autowired
+    private HttpClient httpClient;
+
+    private Cache<String, LinkPreviewData> cache;
+
+    // 正在抓取的链接，同一链接的后续请求直接复用
+    private final ConcurrentHashMap<String, CompletableFuture<LinkPreviewData>> inflight = new ConcurrentHashMap<>();
+
+    // 各域名的并发闸门，空闲时移除；所有修改都在 compute 中进行
+    private final ConcurrentHashMap<String, HostGate> hostGates = new ConcurrentHashMap<>();
+
+    // 统计信息
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong hostQueued = new AtomicLong();
+    private final AtomicLong waitingForHost = new AtomicLong();
+    private final AtomicLong fetched = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong fetchMs = new AtomicLong();
+    private final AtomicLong headChars = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        long successTtlNanos = TimeUnit.MINUTES.toNanos(cacheTtlMinutes);
+        long failureTtlNanos = TimeUnit.SECONDS.toNanos(failureTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, LinkPreviewData>() {
+                    @Override
+                    public long expireAfterCreate(String key, LinkPreviewData value, long currentTime) {
+                        return value.isSuccess() ? successTtlNanos : failureTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, LinkPreviewData value, long currentTime, long currentDuration) {
+                        return value.isSuccess() ? successTtlNanos : failureTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, LinkPreviewData value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<LinkPreviewData> fetch(String url) {
+        String key = canonicalize(url);
+        if (key == null) {
+            return CompletableFuture.completedFuture(failure(url, 0, "无效的URL"));
+        }
+        LinkPreviewData cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<LinkPreviewData> created = new CompletableFuture<>();
+        CompletableFuture<LinkPreviewData> existing = inflight.putIfAbsent(key, created);
+        if (existing != null) {
+            deduplicated.incrementAndGet();
+            return existing;
+        }
+        if (inflight.size() > maxPending) {
+            // 不缓存，稍后刷新即可重试
+            inflight.remove(key, created);
+            rejected.incrementAndGet();
+            created.complete(failure(key, 0, "预览抓取繁忙，请稍后重试"));
+            return created;
+        }
+        misses.incrementAndGet();
+        created.whenComplete((data, error) -> inflight.remove(key, created));
+
+        String host = URI.create(key).getHost();
+        enter(host, () -> start(key, host, created));
+        return created;
+    }
+
+    @Override
+    public LinkPreviewData getCached(String url) {
+        String key = canonicalize(url);
+        return key != null ? cache.getIfPresent(key) : null;
+    }
+
+    @Override
+    public boolean evict(String url) {
+        String key = canonicalize(url);
+        if (key == null) {
+            return false;
+        }
+        boolean present = cache.getIfPresent(key) != null;
+        cache.invalidate(key);
+        return present;
+    }
+
+    @Override
+    public String canonicalize(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            URI uri = new URI(url.trim());
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : null;
+            String host = uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : null;
+            if (host == null || !("http".equals(scheme) || "https".equals(scheme))) {
+                return null;
+            }
+            int port = uri.getPort();
+            boolean defaultPort = port == -1 || ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+            StringJoiner query = new StringJoiner("&");
+            if (uri.getRawQuery() != null) {
+                for (String param : uri.getRawQuery().split("&")) {
+                    if (param.isEmpty()) {
+                        continue;
+                    }
+                    int eq = param.indexOf('=');
+                    String name = (eq >= 0 ? param.substring(0, eq) : param).toLowerCase(Locale.ROOT);
+                    if (!name.startsWith("utm_") && !TRACKING_PARAMS.contains(name)) {
+                        query.add(param);
+                    }
+                }
+            }
+            String rawQuery = query.toString();
+            return scheme + "://" + host + (defaultPort ? "" : ":" + port) + path
+                    + (rawQuery.isEmpty() ? "" : "?" + rawQuery);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long requests = hits.get() + misses.get() + deduplicated.get();
+        long fetchCount = fetched.get();
+        stats.put("cacheSize", cache.estimatedSize());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("hitRate", requests > 0 ? (double) (hits.get() + deduplicated.get()) / requests : 0.0);
+        stats.put("rejected", rejected.get());
+        stats.put("inflight", inflight.size());
+        stats.put("activeHosts", hostGates.size());
+        stats.put("waitingForHost", waitingForHost.get());
+        stats.put("hostQueued", hostQueued.get());
+        stats.put("fetched", fetchCount);
+        stats.put("failed", failed.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("avgFetchMs", fetchCount > 0 ? (double) fetchMs.get() / fetchCount : 0.0);
+        stats.put("avgHeadChars", fetchCount > 0 ? headChars.get() / fetchCount : 0);
+        stats.put("perHostConcurrency", perHostConcurrency);
+        stats.put("maxHeadBytes", maxHeadBytes);
+        return stats;
+    }
+
+    // ==================== 抓取 ====================
+
+    private void start(String key, String host, CompletableFuture<LinkPreviewData> target) {
+        long startTime = System.currentTimeMillis();
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(key))
+                    .header("User-Agent", USER_AGENT)
+                    .header("Accept", "text/html,application/xhtml+xml;q=0.9,*/*;q=0.5")
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .GET()
+                    .build();
+            httpClient.sendAsync(request, HtmlHeadSubscriber.handler(maxHeadBytes))
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .whenComplete((response, error) -> {
+                        leave(host);
+                        long elapsed = System.currentTimeMillis() - startTime;
+                        LinkPreviewData data = error != null
+                                ? failure(key, 0, describe(error))
+                                : toData(key, response);
+                        data.setGenerationTime(elapsed);
+                        record(data, elapsed, error);
+                        cache.put(key, data);
+                        target.complete(data);
+                    });
+        } catch (Exception e) {
+            leave(host);
+            LinkPreviewData data = failure(key, 0, e.getMessage());
+            record(data, System.currentTimeMillis() - startTime, e);
+            cache.put(key, data);
+            target.complete(data);
+        }
+    }
+
+    private LinkPreviewData toData(String key, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            return failure(key, status, "HTTP " + status);
+        }
+        LinkPreviewData data = new LinkPreviewData();
+        data.setCanonicalUrl(key);
+        data.setFinalUrl(response.uri().toString());
+        data.setStatusCode(status);
+        data.setSuccess(true);
+        data.setFetchedAt(System.currentTimeMillis());
+
+        String html = response.body();
+        if (html == null) {
+            // 非网页内容（图片、视频、文件等）只按类型和文件名生成预览
+            String contentType = response.headers().firstValue("Content-Type").orElse("");
+            data.setContentType(mediaType(contentType));
+            data.setTitle(fileName(response.uri()));
+            data.setSiteName(extractDomainFromUrl(data.getFinalUrl()));
+            return data;
+        }
+        parseHtmlHead(data, html);
+        return data;
+    }
+
+    private void record(LinkPreviewData data, long elapsed, Throwable error) {
+        fetched.incrementAndGet();
+        fetchMs.addAndGet(elapsed);
+        if (!data.isSuccess()) {
+            failed.incrementAndGet();
+        }
+        if (unwrap(error) instanceof TimeoutException) {
+            timeouts.incrementAndGet();
+        }
+    }
+
+    private static LinkPreviewData failure(String key, int status, String message) {
+        LinkPreviewData data = new LinkPreviewData();
+        data.setCanonicalUrl(key);
+        data.setFinalUrl(key);
+        data.setStatusCode(status);
+        data.setSuccess(false);
+        data.setErrorMessage(message);
+        data.setFetchedAt(System.currentTimeMillis());
+        return data;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof TimeoutException) {
+            return "抓取超时";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private static String mediaType(String contentType) {
+        String lower = contentType.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("image/")) {
+            return LinkPreview.ContentType.IMAGE;
+        } else if (lower.startsWith("video/")) {
+            return LinkPreview.ContentType.VIDEO;
+        } else if (lower.startsWith("audio/")) {
+            return LinkPreview.ContentType.AUDIO;
+        }
+        return LinkPreview.ContentType.OTHER;
+    }
+
+    private static String fileName(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.isEmpty() || path.endsWith("/")) {
+            return uri.getHost();
+        }
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    // ==================== 域名并发闸门 ====================
+
+    /**
+     * 未达到域名并发上限时立即开始抓取，否则排队
+     */
+    private void enter(String host, Runnable task) {
+        boolean[] runNow = {false};
+        hostGates.compute(host, (h, gate) -> {
+            HostGate current = gate != null ? gate : new HostGate();
+            if (current.active < perHostConcurrency) {
+                current.active++;
+                runNow[0] = true;
+            } else {
+                current.waiting.add(task);
+            }
+            return current;
+        });
+        if (runNow[0]) {
+            task.run();
+        } else {
+            hostQueued.incrementAndGet();
+            waitingForHost.incrementAndGet();
+        }
+    }
+
+    /**
+     * 抓取完成后把名额交给同域名的下一个排队任务，没有排队任务时归还名额
+     */
+    private void leave(String host) {
+        Runnable[] next = {null};
+        hostGates.computeIfPresent(host, (h, gate) -> {
+            next[0] = gate.waiting.poll();
+            if (next[0] != null) {
+                return gate;
+            }
+            gate.active--;
+            return gate.active > 0 ? gate : null;
+        });
+        if (next[0] != null) {
+            waitingForHost.decrementAndGet();
+            // 交给线程池启动，避免在回调线程里层层嵌套
+            linkPreviewExecutor.execute(next[0]);
+        }
+    }
+
+    private static final class HostGate {
+        private int active;
+        private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+    }
+
+    // ==================== HTML头部解析 ====================
+
+    private void parseHtmlHead(LinkPreviewData data, String html) {
+        headChars.addAndGet(html.length());
+
+        // 提取标题
+        String title = extractMetaTag(html, "title");
+        if (title == null || title.trim().isEmpty()) {
+            title = extractMetaProperty(html, "og:title");
+        }
+        if (title == null || title.trim().isEmpty()) {
+            title = extractTitleTag(html);
+        }
+        data.setTitle(title);
+
+        // 提取描述
+        String description = extractMetaTag(html, "description");
+        if (description == null || description.trim().isEmpty()) {
+            description = extractMetaProperty(html, "og:description");
+        }
+        data.setDescription(description);
+
+        // 提取网站名称
+        String siteName = extractMetaProperty(html, "og:site_name");
+        if (siteName == null || siteName.trim().isEmpty()) {
+            siteName = extractDomainFromUrl(data.getFinalUrl());
+        }
+        data.setSiteName(siteName);
+
+        // 提取图片
+        String imageUrl = extractMetaProperty(html, "og:image");
+        if (imageUrl == null || imageUrl.trim().isEmpty()) {
+            imageUrl = extractMetaTag(html, "twitter:image");
+        }
+        data.setImageUrl(imageUrl);
+
+        // 提取内容类型
+        String contentType = extractMetaProperty(html, "og:type");
+        if (contentType == null || contentType.trim().isEmpty()) {
+            contentType = LinkPreview.ContentType.WEBSITE;
+        }
+        data.setContentType(contentType);
+
+        // 存储Open Graph标签
+        data.setOgTags(extractAllOgTags(html));
+        data.setTwitterTags(extractAllTwitterTags(html));
+    }
+
+    /**
+     * 提取meta标签内容
+     */
+    private String extractMetaTag(String html, String name) {
+        Pattern pattern = Pattern.compile(
+            "<meta[^>]*name=[\"']" + Pattern.quote(name) + "[\"'][^>]*content=[\"']([^\"']*)[\"'][^>]*>",
+            Pattern.CASE_INSENSITIVE
+        );
+
+        Matcher matcher = pattern.matcher(html);
+        return matcher.find() ? matcher.group(1).trim() : null;
+    }
+
+    /**
+     * 提取meta property标签内容
+     */
+    private String extractMetaProperty(String html, String property) {
+        Pattern pattern = Pattern.compile(
+            "<meta[^>]*property=[\"']" + Pattern.quote(property) + "[\"'][^>]*content=[\"']([^\"']*)[\"'][^>]*>",
+            Pattern.CASE_INSENSITIVE
+        );
+
+        Matcher matcher = pattern.matcher(html);
+        return matcher.find() ? matcher.group(1).trim() : null;
+    }
+
+    /**
+     * 提取title标签内容
+     */
+    private String extractTitleTag(String html) {
+        Pattern pattern = Pattern.compile("<title[^>]*>([^<]*)</title>", Pattern.CASE_INSENSITIVE);
+        Matcher matcher = pattern.matcher(html);
+        return matcher.find() ? matcher.group(1).trim() : null;
+    }
+
+    /**
+     * 提取所有Open Graph标签
+     */
+    private String extractAllOgTags(String html) {
+        Pattern pattern = Pattern.compile("<meta[^>]*property=[\"']og:[^\"']*[\"'][^>]*content=[\"']([^\"']*)[\"'][^>]*>", Pattern.CASE_INSENSITIVE);
+        Matcher matcher = pattern.matcher(html);
+
+        Map<String, String> ogTags = new HashMap<>();
+        while (matcher.find()) {
+            String tag = matcher.group();
+            String property = extractAttribute(tag, "property");
+            String content = extractAttribute(tag, "content");
+            if (property != null && content != null) {
+                ogTags.put(property, content);
+            }
+        }
+
+        return ogTags.isEmpty() ? null : ogTags.toString();
+    }
+
+    /**
+     * 提取所有Twitter Card标签
+     */
+    private String extractAllTwitterTags(String html) {
+        Pattern pattern = Pattern.compile("<meta[^>]*name=[\"']twitter:[^\"']*[\"'][^>]*content=[\"']([^\"']*)[\"'][^>]*>", Pattern.CASE_INSENSITIVE);
+        Matcher matcher = pattern.matcher(html);
+
+        Map<String, String> twitterTags = new HashMap<>();
+        while (matcher.find()) {
+            String tag = matcher.group();
+            String name = extractAttribute(tag, "name");
+            String content = extractAttribute(tag, "content");
+            if (name != null && content != null) {
+                twitterTags.put(name, content);
+            }
+        }
+
+        return twitterTags.isEmpty() ? null : twitterTags.toString();
+    }
+
+    /**
+     * 从URL提取域名
+     */
+    private String extractDomainFromUrl(String url) {
+        try {
+            URI uri = URI.create(url);
+            String domain = uri.getHost();
+            if (domain != null && domain.startsWith("www.")) {
+                domain = domain.substring(4);
+            }
+            return domain;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 从meta标签中提取属性值
+     */
+    private String extractAttribute(String tag, String attribute) {
+        Pattern pattern = Pattern.compile("\\b" + attribute + "=[\"']([^\"']*)[\"']", Pattern.CASE_INSENSITIVE);
+        Matcher matcher = pattern.matcher(tag);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
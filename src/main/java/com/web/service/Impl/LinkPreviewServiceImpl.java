@@ -1,5 +1,6 @@
 package com.web.service.Impl;
 
+import com.web.dto.LinkPreviewData;
 import com.web.exception.WeebException;
 import com.web.mapper.LinkPreviewMapper;
 import com.web.mapper.MessageMapper;
@@ -7,20 +8,17 @@ import com.web.mapper.UserMapper;
 import com.web.model.LinkPreview;
 import com.web.model.Message;
 import com.web.model.User;
+import com.web.service.LinkPreviewFetchService;
 import com.web.service.LinkPreviewService;
+import com.web.util.TransactionUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -35,7 +33,7 @@ public class LinkPreviewServiceImpl implements LinkPreviewService {
     private final LinkPreviewMapper linkPreviewMapper;
     private final MessageMapper messageMapper;
     private final UserMapper userMapper;
-    private final HttpClient httpClient;
+    private final LinkPreviewFetchService linkPreviewFetchService;
 
     // URL 正则表达式
     private static final Pattern URL_PATTERN = Pattern.compile(
@@ -44,13 +42,12 @@ public class LinkPreviewServiceImpl implements LinkPreviewService {
     );
 
     @Autowired
-    public LinkPreviewServiceImpl(LinkPreviewMapper linkPreviewMapper, MessageMapper messageMapper, UserMapper userMapper) {
+    public LinkPreviewServiceImpl(LinkPreviewMapper linkPreviewMapper, MessageMapper messageMapper, UserMapper userMapper,
+                                  LinkPreviewFetchService linkPreviewFetchService) {
         this.linkPreviewMapper = linkPreviewMapper;
         this.messageMapper = messageMapper;
         this.userMapper = userMapper;
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(java.time.Duration.ofSeconds(10))
-                .build();
+        this.linkPreviewFetchService = linkPreviewFetchService;
     }
 
     @Override
@@ -101,8 +98,9 @@ public class LinkPreviewServiceImpl implements LinkPreviewService {
 
             linkPreviewMapper.insert(preview);
 
-            // 异步生成预览内容
-            generatePreviewAsync(preview.getId());
+            // 事务提交后异步生成预览内容
+            Long previewId = preview.getId();
+            TransactionUtils.afterCommit(() -> generatePreviewAsync(previewId));
 
             log.info("链接预览创建成功: previewId={}", preview.getId());
             return preview;
@@ -114,57 +112,22 @@ public class LinkPreviewServiceImpl implements LinkPreviewService {
     }
 
     @Override
-    @Async
     public void generatePreviewAsync(Long previewId) {
         log.info("异步生成预览: previewId={}", previewId);
 
-        try {
-            LinkPreview preview = linkPreviewMapper.findById(previewId);
-            if (preview == null) {
-                log.warn("预览不存在: previewId={}", previewId);
-                return;
-            }
-
-            // 发送HTTP请求获取页面内容
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(preview.getOriginalUrl()))
-                .header("User-Agent", "Mozilla/5.0 (compatible; LinkPreviewBot/1.0)")
-                .timeout(java.time.Duration.ofSeconds(15))
-                .GET()
-                .build();
-
-            long startTime = System.currentTimeMillis();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            long endTime = System.currentTimeMillis();
-
-            // 记录生成时间
-            preview.setGenerationTime(endTime - startTime);
-
-            if (response.statusCode() == 200) {
-                // 解析页面内容
-                parseHtmlContent(preview, response.body());
-                preview.markAsSuccess();
-            } else {
-                preview.markAsFailed("HTTP " + response.statusCode() + ": " + response.body());
-            }
-
-            linkPreviewMapper.update(preview);
-            log.info("预览生成完成: previewId={}, status={}", previewId, preview.getStatus());
-
-        } catch (Exception e) {
-            log.error("生成预览失败: previewId={}, error={}", previewId, e.getMessage(), e);
-
-            // 更新失败状态
-            try {
-                LinkPreview preview = linkPreviewMapper.findById(previewId);
-                if (preview != null) {
-                    preview.markAsFailed(e.getMessage());
-                    linkPreviewMapper.update(preview);
-                }
-            } catch (Exception updateError) {
-                log.error("更新预览失败状态失败: {}", updateError.getMessage(), updateError);
-            }
+        LinkPreview preview = linkPreviewMapper.findById(previewId);
+        if (preview == null) {
+            log.warn("预览不存在: previewId={}", previewId);
+            return;
         }
+
+        // 抓取不占用当前线程，同一链接的预览共享缓存和进行中的抓取
+        linkPreviewFetchService.fetch(preview.getOriginalUrl())
+                .thenAccept(data -> applyFetchResult(previewId, data))
+                .exceptionally(e -> {
+                    log.error("生成预览失败: previewId={}, error={}", previewId, e.getMessage(), e);
+                    return null;
+                });
     }
 
     @Override
@@ -228,8 +191,9 @@ public class LinkPreviewServiceImpl implements LinkPreviewService {
             preview.setErrorMessage(null);
             linkPreviewMapper.update(preview);
 
-            // 异步重新生成
-            generatePreviewAsync(previewId);
+            // 清除共享缓存，事务提交后重新抓取
+            linkPreviewFetchService.evict(preview.getOriginalUrl());
+            TransactionUtils.afterCommit(() -> generatePreviewAsync(previewId));
 
             log.info("预览刷新成功: previewId={}", previewId);
             return true;
@@ -554,186 +518,57 @@ public class LinkPreviewServiceImpl implements LinkPreviewService {
 
     @Override
     public Map<String, Object> getPreviewCache(String url) {
-        // 这里可以实现 Redis 缓存逻辑
         log.debug("获取预览缓存: url={}", url);
-        return Map.of("cached", false, "data", null);
+        LinkPreviewData data = linkPreviewFetchService.getCached(url);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("canonicalUrl", linkPreviewFetchService.canonicalize(url));
+        result.put("cached", data != null);
+        result.put("data", data);
+        return result;
     }
 
     @Override
     public boolean clearPreviewCache(String url) {
-        // 这里可以实现清除 Redis 缓存的逻辑
         log.info("清除预览缓存: url={}", url);
+        if (linkPreviewFetchService.canonicalize(url) == null) {
+            return false;
+        }
+        linkPreviewFetchService.evict(url);
         return true;
     }
 
     /**
-     * 解析HTML内容
+     * 把抓取结果写回预览记录；抓取期间记录可能已被删除，以数据库中的最新记录为准
      */
-    private void parseHtmlContent(LinkPreview preview, String html) {
+    private void applyFetchResult(Long previewId, LinkPreviewData data) {
         try {
-            // 简单的HTML解析，提取关键信息
-            // 在实际项目中，建议使用专业的HTML解析库如 jsoup
-
-            // 提取标题
-            String title = extractMetaTag(html, "title");
-            if (title == null || title.trim().isEmpty()) {
-                title = extractTitleTag(html);
-            }
-            preview.setTitle(title);
-
-            // 提取描述
-            String description = extractMetaTag(html, "description");
-            if (description == null || description.trim().isEmpty()) {
-                description = extractMetaProperty(html, "og:description");
-            }
-            preview.setDescription(description);
-
-            // 提取网站名称
-            String siteName = extractMetaProperty(html, "og:site_name");
-            if (siteName == null || siteName.trim().isEmpty()) {
-                siteName = extractDomainFromUrl(preview.getOriginalUrl());
-            }
-            preview.setSiteName(siteName);
-
-            // 提取图片
-            String imageUrl = extractMetaProperty(html, "og:image");
-            if (imageUrl == null || imageUrl.trim().isEmpty()) {
-                imageUrl = extractMetaProperty(html, "twitter:image");
-            }
-            preview.setImageUrl(imageUrl);
-
-            // 提取内容类型
-            String contentType = extractMetaProperty(html, "og:type");
-            if (contentType == null || contentType.trim().isEmpty()) {
-                contentType = LinkPreview.ContentType.WEBSITE;
-            }
-            preview.setContentType(contentType);
-
-            // 存储Open Graph标签
-            preview.setOgTags(extractAllOgTags(html));
-            preview.setTwitterTags(extractAllTwitterTags(html));
-
-        } catch (Exception e) {
-            log.error("解析HTML内容失败: {}", e.getMessage(), e);
-            preview.markAsFailed("HTML解析失败: " + e.getMessage());
-        }
-    }
-
-    /**
-     * 提取meta标签内容
-     */
-    private String extractMetaTag(String html, String name) {
-        Pattern pattern = Pattern.compile(
-            "<meta[^>]*name=[\"']" + Pattern.quote(name) + "[\"'][^>]*content=[\"']([^\"']*)[\"'][^>]*>",
-            Pattern.CASE_INSENSITIVE
-        );
-
-        Matcher matcher = pattern.matcher(html);
-        return matcher.find() ? matcher.group(1).trim() : null;
-    }
-
-    /**
-     * 提取meta property标签内容
-     */
-    private String extractMetaProperty(String html, String property) {
-        Pattern pattern = Pattern.compile(
-            "<meta[^>]*property=[\"']" + Pattern.quote(property) + "[\"'][^>]*content=[\"']([^\"']*)[\"'][^>]*>",
-            Pattern.CASE_INSENSITIVE
-        );
-
-        Matcher matcher = pattern.matcher(html);
-        return matcher.find() ? matcher.group(1).trim() : null;
-    }
-
-    /**
-     * 提取title标签内容
-     */
-    private String extractTitleTag(String html) {
-        Pattern pattern = Pattern.compile("<title[^>]*>([^<]*)</title>", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(html);
-        return matcher.find() ? matcher.group(1).trim() : null;
-    }
-
-    /**
-     * 提取所有Open Graph标签
-     */
-    private String extractAllOgTags(String html) {
-        Pattern pattern = Pattern.compile("<meta[^>]*property=[\"']og:[^\"']*[\"'][^>]*content=[\"']([^\"']*)[\"'][^>]*>", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(html);
-
-        Map<String, String> ogTags = new HashMap<>();
-        while (matcher.find()) {
-            String tag = matcher.group();
-            String property = extractPropertyFromTag(tag);
-            String content = extractContentFromTag(tag);
-            if (property != null && content != null) {
-                ogTags.put(property, content);
+            LinkPreview preview = linkPreviewMapper.findById(previewId);
+            if (preview == null) {
+                log.debug("预览已删除，忽略抓取结果: previewId={}", previewId);
+                return;
             }
-        }
 
-        return ogTags.isEmpty() ? null : ogTags.toString();
-    }
-
-    /**
-     * 提取所有Twitter Card标签
-     */
-    private String extractAllTwitterTags(String html) {
-        Pattern pattern = Pattern.compile("<meta[^>]*name=[\"']twitter:[^\"']*[\"'][^>]*content=[\"']([^\"']*)[\"'][^>]*>", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(html);
-
-        Map<String, String> twitterTags = new HashMap<>();
-        while (matcher.find()) {
-            String tag = matcher.group();
-            String name = extractNameFromTag(tag);
-            String content = extractContentFromTag(tag);
-            if (name != null && content != null) {
-                twitterTags.put(name, content);
+            preview.setGenerationTime(data.getGenerationTime());
+            if (data.isSuccess()) {
+                preview.setFinalUrl(data.getFinalUrl());
+                preview.setTitle(data.getTitle());
+                preview.setDescription(data.getDescription());
+                preview.setSiteName(data.getSiteName());
+                preview.setImageUrl(data.getImageUrl());
+                preview.setContentType(data.getContentType());
+                preview.setOgTags(data.getOgTags());
+                preview.setTwitterTags(data.getTwitterTags());
+                preview.markAsSuccess();
+            } else {
+                preview.markAsFailed(data.getErrorMessage());
             }
-        }
 
-        return twitterTags.isEmpty() ? null : twitterTags.toString();
-    }
+            linkPreviewMapper.update(preview);
+            log.info("预览生成完成: previewId={}, status={}", previewId, preview.getStatus());
 
-    /**
-     * 从URL提取域名
-     */
-    private String extractDomainFromUrl(String url) {
-        try {
-            URI uri = URI.create(url);
-            String domain = uri.getHost();
-            if (domain != null && domain.startsWith("www.")) {
-                domain = domain.substring(4);
-            }
-            return domain;
         } catch (Exception e) {
-            return null;
+            log.error("更新预览结果失败: previewId={}, error={}", previewId, e.getMessage(), e);
         }
     }
-
-    /**
-     * 从meta标签中提取property属性
-     */
-    private String extractPropertyFromTag(String tag) {
-        Pattern pattern = Pattern.compile("property=[\"']([^\"']*)[\"']", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(tag);
-        return matcher.find() ? matcher.group(1) : null;
-    }
-
-    /**
-     * 从meta标签中提取name属性
-     */
-    private String extractNameFromTag(String tag) {
-        Pattern pattern = Pattern.compile("name=[\"']([^\"']*)[\"']", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(tag);
-        return matcher.find() ? matcher.group(1) : null;
-    }
-
-    /**
-     * 从meta标签中提取content属性
-     */
-    private String extractContentFromTag(String tag) {
-        Pattern pattern = Pattern.compile("content=[\"']([^\"']*)[\"']", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(tag);
-        return matcher.find() ? matcher.group(1) : null;
-    }
-}
\ No newline at end of file
+}
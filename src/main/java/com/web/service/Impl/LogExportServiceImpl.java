@@ -0,0 +1,657 @@
+package com.web.service.Impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.web.exception.WeebException;
+import com.web.mapper.SystemLogMapper;
+import com.web.model.SystemLog;
+import com.web.service.LogExportService;
+import com.web.util.ValidationUtils;
+import com.web.vo.admin.LogExportRequestVo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 系统日志导出服务实现
+ * 每批按 id > 上一批最后ID 取固定条数（不用 OFFSET），写完一批即 flush 推给客户端或文件；
+ * 每批是独立的短查询，不会在整个导出期间占住数据库连接或事务。
+ * 后台任务在独立线程池中执行，先写 .part 临时文件，完成后改名，进度按已写条数/预估总数计算
+ */
+@Slf4j
+@Service
+public class LogExportServiceImpl implements LogExportService {
+
+    private static final Set<String> FORMATS = Set.of("csv", "ndjson", "json");
+    private static final String CSV_HEADER = "ID,操作者ID,操作类型,详情,IP地址,创建时间\n";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final String STATUS_QUEUED = "QUEUED";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+    private static final String STATUS_CANCELLED = "CANCELLED";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicLong streamExports = new AtomicLong();
+    private final AtomicInteger activeStreamExports = new AtomicInteger();
+    private final AtomicLong jobsSubmitted = new AtomicLong();
+    private final AtomicLong jobsRejected = new AtomicLong();
+    private final AtomicLong rowsExported = new AtomicLong();
+    private final AtomicLong bytesExported = new AtomicLong();
+
+    @Autowired
+    private SystemLogMapper systemLogMapper;
+
+    @Autowired
+    @Qualifier("logExportExecutor")
+    private Executor logExportExecutor;
+
+    @Value("${weeb.log-export.page-size:2000}")
+    private int pageSize;
+
+    @Value("${weeb.log-export.dir:data/log-exports}")
+    private String exportDir;
+
+    @Value("${weeb.log-export.retention-hours:24}")
+    private int retentionHours;
+
+    @PostConstruct
+    public void init() {
+        try {
+            Path dir = Paths.get(exportDir);
+            Files.createDirectories(dir);
+            // 上次运行留下的文件没有对应任务，无法下载，启动时直接清掉
+            try (var files = Files.list(dir)) {
+                files.filter(Files::isRegularFile).forEach(this::deleteQuietly);
+            }
+        } catch (IOException e) {
+            log.error("初始化日志导出目录失败: {}", exportDir, e);
+        }
+    }
+
+    @Override
+    public void validate(LogExportRequestVo request) {
+        if (request == null) {
+            throw new WeebException("导出请求不能为空");
+        }
+        String format = request.getFormat() == null ? "csv" : request.getFormat().trim().toLowerCase(Locale.ROOT);
+        if (!FORMATS.contains(format)) {
+            throw new WeebException("不支持的导出格式: " + request.getFormat() + "，可选 csv、ndjson、json");
+        }
+        request.setFormat(format);
+
+        String startDate = trimToNull(request.getStartDate());
+        String endDate = trimToNull(request.getEndDate());
+        if (startDate != null && !ValidationUtils.isValidDate(startDate)) {
+            throw new WeebException("开始日期格式不正确，应为 yyyy-MM-dd 格式");
+        }
+        if (endDate != null && !ValidationUtils.isValidDate(endDate)) {
+            throw new WeebException("结束日期格式不正确，应为 yyyy-MM-dd 格式");
+        }
+        if (startDate != null && endDate != null && startDate.compareTo(endDate) > 0) {
+            throw new WeebException("开始日期不能晚于结束日期");
+        }
+        request.setStartDate(startDate);
+        request.setEndDate(endDate);
+
+        String ipAddress = trimToNull(request.getIpAddress());
+        if (ipAddress != null && !ValidationUtils.isValidIpAddress(ipAddress)) {
+            throw new WeebException("IP地址格式不正确");
+        }
+        request.setIpAddress(ipAddress);
+        request.setAction(trimToNull(request.getAction()));
+
+        String keyword = trimToNull(request.getKeyword());
+        if (keyword != null) {
+            keyword = ValidationUtils.sanitizeSearchKeyword(keyword);
+            if (keyword.length() > 50) {
+                throw new WeebException("搜索关键词长度不能超过50个字符");
+            }
+        }
+        request.setKeyword(keyword);
+        if (request.getGzip() == null) {
+            request.setGzip(false);
+        }
+    }
+
+    @Override
+    public long export(LogExportRequestVo request, OutputStream out) throws IOException {
+        validate(request);
+        streamExports.incrementAndGet();
+        activeStreamExports.incrementAndGet();
+        long start = System.currentTimeMillis();
+        try {
+            CountingOutputStream counter = new CountingOutputStream(out);
+            long rows = writeLogs(request, counter, null);
+            log.info("流式导出系统日志完成: format={}, gzip={}, rows={}, bytes={}, 耗时={}ms",
+                    request.getFormat(), request.getGzip(), rows, counter.getCount(), System.currentTimeMillis() - start);
+            return rows;
+        } finally {
+            activeStreamExports.decrementAndGet();
+        }
+    }
+
+    @Override
+    public String getFileName(LogExportRequestVo request) {
+        StringBuilder name = new StringBuilder("system-logs");
+        if (request.getStartDate() != null || request.getEndDate() != null) {
+            name.append('_').append(request.getStartDate() != null ? request.getStartDate() : "begin")
+                .append('_').append(request.getEndDate() != null ? request.getEndDate() : "now");
+        }
+        name.append('_').append(LocalDateTime.now().format(FILE_TIME)).append('.').append(request.getFormat());
+        if (Boolean.TRUE.equals(request.getGzip())) {
+            name.append(".gz");
+        }
+        return name.toString();
+    }
+
+    @Override
+    public String getContentType(LogExportRequestVo request) {
+        if (Boolean.TRUE.equals(request.getGzip())) {
+            return "application/gzip";
+        }
+        switch (request.getFormat()) {
+            case "csv":
+                return "text/csv;charset=UTF-8";
+            case "ndjson":
+                return "application/x-ndjson;charset=UTF-8";
+            default:
+                return "application/json;charset=UTF-8";
+        }
+    }
+
+    @Override
+    public Map<String, Object> submitJob(LogExportRequestVo request, Long operatorId) {
+        validate(request);
+        String jobId = UUID.randomUUID().toString().replace("-", "");
+        String fileName = getFileName(request);
+        ExportJob job = new ExportJob(jobId, request, operatorId, fileName,
+                Paths.get(exportDir).resolve(jobId + "_" + fileName));
+        jobs.put(jobId, job);
+        try {
+            logExportExecutor.execute(() -> runJob(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            jobsRejected.incrementAndGet();
+            throw new WeebException("导出任务过多，请稍后再试");
+        }
+        jobsSubmitted.incrementAndGet();
+        log.info("已提交日志导出任务: jobId={}, operatorId={}, format={}", jobId, operatorId, request.getFormat());
+        return job.toMap();
+    }
+
+    @Override
+    public Map<String, Object> getJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        return job != null ? job.toMap() : null;
+    }
+
+    @Override
+    public List<Map<String, Object>> listJobs() {
+        List<ExportJob> list = new ArrayList<>(jobs.values());
+        list.sort(Comparator.comparingLong((ExportJob job) -> job.createdAt).reversed());
+        List<Map<String, Object>> result = new ArrayList<>(list.size());
+        for (ExportJob job : list) {
+            result.add(job.toMap());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean cancelJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    @Override
+    public Path getJobFile(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new WeebException("导出任务不存在或已过期: " + jobId);
+        }
+        if (!STATUS_COMPLETED.equals(job.status)) {
+            throw new WeebException("导出任务尚未完成，当前状态: " + job.status);
+        }
+        if (!Files.exists(job.file)) {
+            throw new WeebException("导出文件已被清理: " + jobId);
+        }
+        return job.file;
+    }
+
+    @Override
+    public int cleanupExpiredJobs() {
+        long expireBefore = System.currentTimeMillis() - retentionHours * 3600_000L;
+        int removed = 0;
+        for (ExportJob job : jobs.values()) {
+            if (job.isFinished() && job.finishedAt < expireBefore && jobs.remove(job.id, job)) {
+                deleteQuietly(job.file);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("已清理 {} 个过期日志导出任务", removed);
+        }
+        return removed;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Integer> jobStatus = new HashMap<>();
+        for (ExportJob job : jobs.values()) {
+            jobStatus.merge(job.status, 1, Integer::sum);
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("streamExports", streamExports.get());
+        stats.put("activeStreamExports", activeStreamExports.get());
+        stats.put("jobsSubmitted", jobsSubmitted.get());
+        stats.put("jobsRejected", jobsRejected.get());
+        stats.put("jobsByStatus", jobStatus);
+        stats.put("rowsExported", rowsExported.get());
+        stats.put("bytesExported", bytesExported.get());
+        stats.put("pageSize", pageSize);
+        stats.put("exportDir", Paths.get(exportDir).toAbsolutePath().toString());
+        stats.put("retentionHours", retentionHours);
+        return stats;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private void runJob(ExportJob job) {
+        if (job.cancelled) {
+            job.finish(STATUS_CANCELLED, null);
+            return;
+        }
+        job.status = STATUS_RUNNING;
+        job.startedAt = System.currentTimeMillis();
+        Path part = job.file.resolveSibling(job.file.getFileName() + ".part");
+        try {
+            LogExportRequestVo request = job.request;
+            job.estimatedTotal = systemLogMapper.countLogsWithFilters(request.getOperatorId(), request.getAction(),
+                    request.getIpAddress(), request.getStartDate(), request.getEndDate(), request.getKeyword());
+            try (OutputStream file = Files.newOutputStream(part)) {
+                writeLogs(request, new CountingOutputStream(file, job.bytesWritten), job);
+            }
+            Files.move(part, job.file, StandardCopyOption.REPLACE_EXISTING);
+            job.finish(STATUS_COMPLETED, null);
+            log.info("日志导出任务完成: jobId={}, rows={}, bytes={}, 耗时={}ms", job.id, job.rowsWritten.get(),
+                    job.bytesWritten.get(), job.finishedAt - job.startedAt);
+        } catch (CancellationException e) {
+            deleteQuietly(part);
+            job.finish(STATUS_CANCELLED, null);
+            log.info("日志导出任务已取消: jobId={}, rows={}", job.id, job.rowsWritten.get());
+        } catch (Exception e) {
+            deleteQuietly(part);
+            job.finish(STATUS_FAILED, e.getMessage());
+            log.error("日志导出任务失败: jobId={}", job.id, e);
+        }
+    }
+
+    /**
+     * 按ID游标分批读取并写出，每批写完 flush 一次；job 不为空时更新进度并响应取消
+     */
+    private long writeLogs(LogExportRequestVo request, OutputStream out, ExportJob job) throws IOException {
+        LocalDateTime startTime = request.getStartDate() != null
+                ? LocalDate.parse(request.getStartDate()).atStartOfDay() : null;
+        LocalDateTime endTime = request.getEndDate() != null
+                ? LocalDate.parse(request.getEndDate()).plusDays(1).atStartOfDay() : null;
+        boolean gzip = Boolean.TRUE.equals(request.getGzip());
+
+        // gzip 流在这里结束（finish）但不关闭外层流，外层流由调用方管理
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(new NonClosingOutputStream(out), 8192, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                gzipOut != null ? gzipOut : new NonClosingOutputStream(out), StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = createRowWriter(request.getFormat(), writer);
+
+        long rows = 0;
+        long afterId = 0;
+        boolean completed = false;
+        try {
+            rowWriter.begin();
+            while (true) {
+                List<SystemLog> batch = systemLogMapper.findLogsForExport(afterId, pageSize, request.getOperatorId(),
+                        request.getAction(), request.getIpAddress(), startTime, endTime, request.getKeyword());
+                for (SystemLog systemLog : batch) {
+                    rowWriter.write(systemLog);
+                }
+                rowWriter.flush();
+                rows += batch.size();
+                rowsExported.addAndGet(batch.size());
+                if (job != null) {
+                    job.rowsWritten.addAndGet(batch.size());
+                    if (job.cancelled) {
+                        throw new CancellationException();
+                    }
+                }
+                if (batch.size() < pageSize) {
+                    break;
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            rowWriter.end();
+            writer.close();
+            completed = true;
+            return rows;
+        } finally {
+            if (!completed && gzipOut != null) {
+                // 中途失败时释放 Deflater 占用的本地内存，输出已不完整，写尾部出错也无妨
+                try {
+                    gzipOut.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private RowWriter createRowWriter(String format, Writer writer) throws IOException {
+        switch (format) {
+            case "csv":
+                return new CsvRowWriter(writer);
+            case "ndjson":
+                return new JsonRowWriter(jsonFactory.createGenerator(writer), false, writer);
+            default:
+                return new JsonRowWriter(jsonFactory.createGenerator(writer), true, writer);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除导出文件失败: {}", path, e);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * 逐行写出日志
+     */
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void write(SystemLog systemLog) throws IOException;
+
+        void flush() throws IOException;
+
+        void end() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            // BOM 让 Excel 按UTF-8识别中文表头
+            writer.write('\uFEFF');
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(SystemLog systemLog) throws IOException {
+            writer.write(String.valueOf(systemLog.getId()));
+            writer.write(',');
+            writer.write(systemLog.getOperatorId() != null ? systemLog.getOperatorId().toString() : "");
+            writer.write(',');
+            writer.write(escapeCsv(systemLog.getAction()));
+            writer.write(',');
+            writer.write(escapeCsv(systemLog.getDetails()));
+            writer.write(',');
+            writer.write(escapeCsv(systemLog.getIpAddress()));
+            writer.write(',');
+            writer.write(systemLog.getCreatedAt() != null ? systemLog.getCreatedAt().toString() : "");
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * JSON 输出：array=true 时为一个JSON数组，否则每行一个JSON对象（NDJSON）
+     */
+    private static final class JsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final boolean array;
+        private final Writer writer;
+
+        JsonRowWriter(JsonGenerator generator, boolean array, Writer writer) {
+            this.generator = generator;
+            this.array = array;
+            this.writer = writer;
+            // 外层 Writer 由 writeLogs 负责关闭
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 默认在相邻的顶层值之间插入空格，NDJSON 由我们自己换行
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            if (array) {
+                generator.writeStartArray();
+            }
+        }
+
+        @Override
+        public void write(SystemLog systemLog) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", systemLog.getId());
+            if (systemLog.getOperatorId() != null) {
+                generator.writeNumberField("operatorId", systemLog.getOperatorId());
+            } else {
+                generator.writeNullField("operatorId");
+            }
+            generator.writeStringField("action", systemLog.getAction());
+            generator.writeStringField("details", systemLog.getDetails());
+            generator.writeStringField("ipAddress", systemLog.getIpAddress());
+            generator.writeStringField("createdAt",
+                    systemLog.getCreatedAt() != null ? systemLog.getCreatedAt().toString() : null);
+            generator.writeEndObject();
+            if (!array) {
+                generator.flush();
+                writer.write('\n');
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            if (array) {
+                generator.writeEndArray();
+            }
+            generator.close();
+            writer.flush();
+        }
+    }
+
+    /**
+     * 统计写出字节数的输出流
+     */
+    private final class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong count;
+
+        CountingOutputStream(OutputStream out) {
+            this(out, new AtomicLong());
+        }
+
+        CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+            bytesExported.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+            bytesExported.addAndGet(len);
+        }
+
+        long getCount() {
+            return count.get();
+        }
+    }
+
+    /**
+     * close 时只 flush 不关闭底层流，用于结束 gzip 和字符编码层而保留调用方的输出流
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * 后台导出任务
+     */
+    private static final class ExportJob {
+        final String id;
+        final LogExportRequestVo request;
+        final Long operatorId;
+        final String fileName;
+        final Path file;
+        final long createdAt = System.currentTimeMillis();
+        final AtomicLong rowsWritten = new AtomicLong();
+        final AtomicLong bytesWritten = new AtomicLong();
+        volatile String status = STATUS_QUEUED;
+        volatile long estimatedTotal = -1;
+        volatile long startedAt;
+        volatile long finishedAt;
+        volatile String error;
+        volatile boolean cancelled;
+
+        ExportJob(String id, LogExportRequestVo request, Long operatorId, String fileName, Path file) {
+            this.id = id;
+            this.request = request;
+            this.operatorId = operatorId;
+            this.fileName = fileName;
+            this.file = file;
+        }
+
+        boolean isFinished() {
+            String current = status;
+            return STATUS_COMPLETED.equals(current) || STATUS_FAILED.equals(current) || STATUS_CANCELLED.equals(current);
+        }
+
+        void finish(String finalStatus, String errorMessage) {
+            error = errorMessage;
+            finishedAt = System.currentTimeMillis();
+            status = finalStatus;
+        }
+
+        Map<String, Object> toMap() {
+            String current = status;
+            long rows = rowsWritten.get();
+            long total = estimatedTotal;
+            int progress;
+            if (STATUS_COMPLETED.equals(current)) {
+                progress = 100;
+            } else if (total > 0) {
+                // 导出期间仍可能写入新日志，完成前最多显示99%
+                progress = (int) Math.min(99, rows * 100 / total);
+            } else {
+                progress = 0;
+            }
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("status", current);
+            map.put("format", request.getFormat());
+            map.put("gzip", request.getGzip());
+            map.put("fileName", fileName);
+            map.put("operatorId", operatorId);
+            map.put("rowsWritten", rows);
+            map.put("estimatedTotal", total);
+            map.put("progress", progress);
+            map.put("bytesWritten", bytesWritten.get());
+            map.put("createdAt", createdAt);
+            map.put("startedAt", startedAt);
+            map.put("finishedAt", finishedAt);
+            map.put("error", error);
+            return map;
+        }
+    }
+}
@@ -3,11 +3,15 @@ package com.web.service.Impl;
 import com.web.exception.WeebException;
 import com.web.mapper.SystemLogMapper;
 import com.web.model.SystemLog;
+import com.web.service.AuditLogService;
 import com.web.service.LogService;
+import com.web.service.SystemLogPartitionService;
 import com.web.util.ValidationUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
@@ -22,9 +26,24 @@ public class LogServiceImpl implements LogService {
     @Autowired
     private SystemLogMapper systemLogMapper;
 
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private SystemLogPartitionService systemLogPartitionService;
+
+    // 原始日志保留天数；汇总保留得更久，累计统计只算保留期内的部分，与原始日志口径一致
+    @Value("${weeb.system-log.retention-days:0}")
+    private int retentionDays;
+
     @Override
     public void recordLog(SystemLog log) {
-        systemLogMapper.insertLog(log);
+        auditLogService.record(log, false);
+    }
+
+    @Override
+    public boolean recordLog(SystemLog log, boolean sync) {
+        return auditLogService.record(log, sync);
     }
 
     @Override
@@ -99,34 +118,38 @@ public class LogServiceImpl implements LogService {
         Map<String, Object> statistics = new HashMap<>();
 
         try {
+            // 统计读取按天汇总表，不扫描原始日志（当天数据延迟不超过一个汇总周期）
+            java.time.LocalDate today = java.time.LocalDate.now();
+            // 累计统计的起始日期：未配置保留期时原始日志不清理，统计全部汇总
+            java.time.LocalDate since = retentionDays > 0 ? today.minusDays(retentionDays) : null;
+            statistics.put("statisticsSince", since != null ? since.toString() : null);
+
             // 获取总日志数
-            long totalLogs = systemLogMapper.countLogs();
+            long totalLogs = systemLogMapper.sumDailyRollup(since, null, null);
             statistics.put("totalLogs", totalLogs);
 
             // 获取今日日志数
-            long todayLogs = systemLogMapper.countLogsByDate(java.time.LocalDate.now().toString());
+            long todayLogs = systemLogMapper.sumDailyRollup(today, today, null);
             statistics.put("todayLogs", todayLogs);
 
             // 获取本周日志数
-            long weekLogs = systemLogMapper.countLogsByWeek(
-                java.time.LocalDate.now().minusDays(7).toString()
-            );
+            long weekLogs = systemLogMapper.sumDailyRollup(today.minusDays(7), today, null);
             statistics.put("weekLogs", weekLogs);
 
             // 获取错误日志数
-            long errorLogs = systemLogMapper.countLogsByAction("ERROR");
+            long errorLogs = systemLogMapper.sumDailyRollup(since, null, "ERROR");
             statistics.put("errorLogs", errorLogs);
 
             // 获取警告日志数
-            long warningLogs = systemLogMapper.countLogsByAction("WARNING");
+            long warningLogs = systemLogMapper.sumDailyRollup(since, null, "WARNING");
             statistics.put("warningLogs", warningLogs);
 
             // 获取最活跃的操作员
-            List<Map<String, Object>> topOperators = systemLogMapper.getTopOperators(10);
+            List<Map<String, Object>> topOperators = systemLogMapper.getTopOperatorsFromRollup(since, 10);
             statistics.put("topOperators", topOperators);
 
             // 获取最常见的操作
-            List<Map<String, Object>> topActions = systemLogMapper.getTopActions(10);
+            List<Map<String, Object>> topActions = systemLogMapper.getTopActionsFromRollup(since, 10);
             statistics.put("topActions", topActions);
 
             statistics.put("generatedAt", java.time.LocalDateTime.now().toString());
@@ -145,26 +168,23 @@ public class LogServiceImpl implements LogService {
 
         try {
             java.time.LocalDateTime endTime = java.time.LocalDateTime.now();
-            java.time.LocalDateTime startTime = endTime.minusHours(hours);
-
-            // 获取错误日志列表
-            List<SystemLog> errorLogs = systemLogMapper.findErrorLogs(startTime, endTime);
-
-            // 统计错误类型分布
-            Map<String, Long> errorTypes = errorLogs.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(
-                            log -> log.getAction(),
-                            java.util.stream.Collectors.counting()
-                    ));
-
-            // 统计错误发生的时间分布
-            Map<Integer, Long> hourlyErrors = errorLogs.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(
-                            log -> log.getCreatedAt().getHour(),
-                            java.util.stream.Collectors.counting()
-                    ));
+            // 小时汇总的粒度为整点，起点向下取整
+            java.time.LocalDateTime startTime = endTime.minusHours(hours).truncatedTo(java.time.temporal.ChronoUnit.HOURS);
+
+            List<Map<String, Object>> rows = systemLogMapper.sumHourlyRollupByHour(startTime, endTime, "ERROR");
+
+            // 统计错误类型分布和错误发生的时间分布
+            Map<String, Long> errorTypes = new HashMap<>();
+            Map<Integer, Long> hourlyErrors = new HashMap<>();
+            long totalErrors = 0;
+            for (Map<String, Object> row : rows) {
+                long count = ((Number) row.get("count")).longValue();
+                errorTypes.merge((String) row.get("action"), count, Long::sum);
+                hourlyErrors.merge(((Number) row.get("hour")).intValue(), count, Long::sum);
+                totalErrors += count;
+            }
 
-            errorStats.put("totalErrors", errorLogs.size());
+            errorStats.put("totalErrors", totalErrors);
             errorStats.put("errorTypes", errorTypes);
             errorStats.put("hourlyDistribution", hourlyErrors);
             errorStats.put("timeRange", hours + " hours");
@@ -246,39 +266,7 @@ public class LogServiceImpl implements LogService {
     }
 
     @Override
-    public byte[] exportLogs(String format, String startDate, String endDate, Map<String, Object> filters) {
-        try {
-            log.info("开始导出系统日志，格式：{}，时间范围：{} 至 {}", format, startDate, endDate);
-
-            // 获取日志数据
-            List<SystemLog> logs = systemLogMapper.findLogsWithFilters(
-                    0, 10000, // 导出最多10000条
-                    (Long) filters.get("operatorId"),
-                    (String) filters.get("action"),
-                    (String) filters.get("ipAddress"),
-                    startDate,
-                    endDate,
-                    (String) filters.get("keyword")
-            );
-
-            switch (format.toLowerCase()) {
-                case "csv":
-                    return exportToCsv(logs, startDate, endDate);
-                case "xlsx":
-                    return exportToExcel(logs, startDate, endDate);
-                case "json":
-                    return exportToJson(logs, startDate, endDate);
-                default:
-                    throw new IllegalArgumentException("不支持的导出格式: " + format);
-            }
-
-        } catch (Exception e) {
-            log.error("导出系统日志失败", e);
-            throw new RuntimeException("导出失败: " + e.getMessage(), e);
-        }
-    }
-
-    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> cleanupOldLogs(int days) {
         Map<String, Object> result = new HashMap<>();
 
@@ -287,15 +275,28 @@ public class LogServiceImpl implements LogService {
                 throw new WeebException("保留天数不能少于7天");
             }
 
-            java.time.LocalDateTime cutoffDate = java.time.LocalDateTime.now().minusDays(days);
-
-            int deletedCount = systemLogMapper.deleteLogsBefore(cutoffDate);
+            java.time.LocalDate cutoffDate = java.time.LocalDate.now().minusDays(days);
+
+            if (systemLogPartitionService.isPartitioned()) {
+                // 按天分区时直接删除整个分区，不产生逐行DELETE；保留粒度为天
+                Map<String, Object> dropped = systemLogPartitionService.dropPartitionsBefore(cutoffDate);
+                result.put("deletedCount", dropped.get("estimatedRows"));
+                result.put("droppedPartitions", dropped.get("droppedPartitions"));
+            } else {
+                // 未分区时分批删除，每批一个短事务
+                int deletedCount = 0;
+                int batch;
+                do {
+                    batch = systemLogMapper.deleteLogsBefore(cutoffDate.atStartOfDay(), 5000);
+                    deletedCount += batch;
+                } while (batch >= 5000);
+                result.put("deletedCount", deletedCount);
+            }
 
-            result.put("deletedCount", deletedCount);
             result.put("cutoffDate", cutoffDate.toString());
-            result.put("message", "已清理 " + deletedCount + " 条超过 " + days + " 天的日志");
+            result.put("message", "已清理 " + result.get("deletedCount") + " 条超过 " + days + " 天的日志");
 
-            log.info("日志清理完成，删除 {} 条 {} 天前的日志", deletedCount, days);
+            log.info("日志清理完成，删除 {} 条 {} 天前的日志", result.get("deletedCount"), days);
 
         } catch (Exception e) {
             log.error("清理过期日志失败", e);
@@ -354,27 +355,24 @@ public class LogServiceImpl implements LogService {
         Map<String, Object> distribution = new HashMap<>();
 
         try {
-            List<SystemLog> logs = systemLogMapper.findLogsWithFilters(
-                    0, 10000, null, null, null, startDate, endDate, null
-            );
-
-            // 统计不同操作类型的分布
-            Map<String, Long> actionDistribution = logs.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(
-                            SystemLog::getAction,
-                            java.util.stream.Collectors.counting()
-                    ));
-
-            // 统计每天的分布
-            Map<String, Long> dailyDistribution = logs.stream()
-                    .collect(java.util.stream.Collectors.groupingBy(
-                            log -> log.getCreatedAt().toLocalDate().toString(),
-                            java.util.stream.Collectors.counting()
-                    ));
+            java.time.LocalDate start = startDate != null && !startDate.isBlank() ? java.time.LocalDate.parse(startDate) : null;
+            java.time.LocalDate end = endDate != null && !endDate.isBlank() ? java.time.LocalDate.parse(endDate) : null;
+            List<Map<String, Object>> rows = systemLogMapper.sumDailyRollupByDay(start, end);
+
+            // 统计不同操作类型的分布和每天的分布
+            Map<String, Long> actionDistribution = new HashMap<>();
+            Map<String, Long> dailyDistribution = new java.util.TreeMap<>();
+            long totalLogs = 0;
+            for (Map<String, Object> row : rows) {
+                long count = ((Number) row.get("count")).longValue();
+                actionDistribution.merge((String) row.get("action"), count, Long::sum);
+                dailyDistribution.merge((String) row.get("bucketDate"), count, Long::sum);
+                totalLogs += count;
+            }
 
             distribution.put("actionDistribution", actionDistribution);
             distribution.put("dailyDistribution", dailyDistribution);
-            distribution.put("totalLogs", logs.size());
+            distribution.put("totalLogs", totalLogs);
             distribution.put("timeRange", startDate + " 至 " + endDate);
 
         } catch (Exception e) {
@@ -390,27 +388,26 @@ public class LogServiceImpl implements LogService {
         Map<String, Object> statistics = new HashMap<>();
 
         try {
-            java.time.LocalDateTime startOfDay = java.time.LocalDateTime.parse(date + "T00:00:00");
-            java.time.LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
-
-            List<SystemLog> logs = systemLogMapper.findLogsByDate(date);
+            java.time.LocalDateTime startOfDay = java.time.LocalDate.parse(date).atStartOfDay();
+            List<Map<String, Object>> rows = systemLogMapper.sumHourlyRollupByHour(startOfDay, startOfDay.plusDays(1), null);
 
             // 统计每小时的日志数量
-            int[] hourlyCounts = new int[24];
-            Map<String, Long> hourlyActivity = new java.util.HashMap<>();
-
-            for (SystemLog log : logs) {
-                int hour = log.getCreatedAt().getHour();
-                hourlyCounts[hour]++;
+            long[] hourlyCounts = new long[24];
+            long totalLogs = 0;
+            for (Map<String, Object> row : rows) {
+                long count = ((Number) row.get("count")).longValue();
+                hourlyCounts[((Number) row.get("hour")).intValue()] += count;
+                totalLogs += count;
             }
 
             // 构建每小时统计
+            Map<String, Long> hourlyActivity = new java.util.HashMap<>();
             for (int hour = 0; hour < 24; hour++) {
-                hourlyActivity.put(String.format("%02d:00", hour), (long) hourlyCounts[hour]);
+                hourlyActivity.put(String.format("%02d:00", hour), hourlyCounts[hour]);
             }
 
             statistics.put("hourlyActivity", hourlyActivity);
-            statistics.put("totalLogs", logs.size());
+            statistics.put("totalLogs", totalLogs);
             statistics.put("date", date);
             statistics.put("generatedAt", java.time.LocalDateTime.now().toString());
 
@@ -442,76 +439,6 @@ public class LogServiceImpl implements LogService {
         }
     }
 
-    // ==================== 私有辅助方法 ====================
-
-    private byte[] exportToCsv(List<SystemLog> logs, String startDate, String endDate) {
-        StringBuilder csv = new StringBuilder();
-
-        // CSV 头部
-        csv.append("ID,操作者ID,操作类型,详情,IP地址,创建时间\n");
-        csv.append("导出时间:").append(java.time.LocalDateTime.now()).append("\n");
-        csv.append("时间范围:").append(startDate).append(" 至 ").append(endDate).append("\n\n");
-
-        // CSV 数据行
-        for (SystemLog log : logs) {
-            csv.append(log.getId()).append(",");
-            csv.append(log.getOperatorId()).append(",");
-            csv.append(escapeCsv(log.getAction())).append(",");
-            csv.append(escapeCsv(log.getDetails())).append(",");
-            csv.append(escapeCsv(log.getIpAddress())).append(",");
-            csv.append(log.getCreatedAt()).append("\n");
-        }
-
-        return csv.toString().getBytes();
-    }
-
-    private byte[] exportToExcel(List<SystemLog> logs, String startDate, String endDate) {
-        // 简化的Excel导出实现
-        StringBuilder excel = new StringBuilder();
-
-        excel.append("系统日志导出\n");
-        excel.append("导出时间:").append(java.time.LocalDateTime.now()).append("\n");
-        excel.append("时间范围:").append(startDate).append(" 至 ").append(endDate).append("\n");
-        excel.append("导出数量:").append(logs.size()).append(" 条\n\n");
-
-        excel.append("ID\t操作者ID\t操作类型\t详情\tIP地址\t创建时间\n");
-        for (SystemLog log : logs) {
-            excel.append(log.getId()).append("\t")
-                .append(log.getOperatorId()).append("\t")
-                .append(log.getAction()).append("\t")
-                .append(log.getDetails()).append("\t")
-                .append(log.getIpAddress()).append("\t")
-                .append(log.getCreatedAt()).append("\n");
-        }
-
-        return excel.toString().getBytes();
-    }
-
-    private byte[] exportToJson(List<SystemLog> logs, String startDate, String endDate) {
-        try {
-            Map<String, Object> exportData = new HashMap<>();
-            exportData.put("exportTime", java.time.LocalDateTime.now());
-            exportData.put("timeRange", Map.of("start", startDate, "end", endDate));
-            exportData.put("totalLogs", logs.size());
-            exportData.put("logs", logs);
-
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            mapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-            return mapper.writeValueAsBytes(exportData);
-        } catch (Exception e) {
-            log.error("JSON导出失败", e);
-            return "{}".getBytes();
-        }
-    }
-
-    private String escapeCsv(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
-
     // ==================== 缺失方法的实现 ====================
 
     /**
@@ -635,7 +562,7 @@ public class LogServiceImpl implements LogService {
      */
     private int deleteLogsBefore(java.time.LocalDateTime cutoffTime) {
         try {
-            return systemLogMapper.deleteLogsBefore(cutoffTime);
+            return systemLogMapper.deleteLogsBefore(cutoffTime, Integer.MAX_VALUE);
         } catch (Exception e) {
             log.warn("删除过期日志失败", e);
             return 0;
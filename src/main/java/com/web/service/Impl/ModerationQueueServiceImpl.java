@@ -0,0 +1,653 @@
+package com.web.service.Impl;
+
+import com.web.mapper.ArticleMapper;
+import com.web.model.Article;
+import com.web.service.AIService;
+import com.web.service.ArticleService;
+import com.web.service.ModerationQueueService;
+import com.web.service.SensitiveWordService;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 文章审核队列服务实现
+ * 调度键 = 提交时间 - (优先级 - 最低优先级) × 老化步长：高优先级相当于提前若干步长提交，
+ * 低优先级文章等得越久越靠前，不会被持续涌入的高优先级文章饿死；
+ * 键在入队时确定，队列用 TreeSet 维护，领取、移除都是 O(log n)。
+ * 领取后的文章进入租约表，超时未处理自动放回队列
+ */
+@Slf4j
+@Service
+public class ModerationQueueServiceImpl implements ModerationQueueService {
+
+    private static final int STATUS_PENDING = 0;
+
+    // 打分规则：与原先“3个敏感词为高优先级、5个为紧急”的划分保持一致
+    private static final int SCORE_PER_WORD = 15;
+    private static final int SCORE_BLOCKED_DOMAIN = 45;
+    private static final int SCORE_IP_LINK = 15;
+    private static final int SCORE_TOO_MANY_LINKS = 15;
+    private static final int SCORE_AI_HIGH_RISK = 45;
+    private static final int SCORE_AI_ISSUE = 15;
+    private static final int SCORE_HIGH = 45;
+    private static final int SCORE_URGENT = 75;
+
+    private static final Pattern URL_HOST = Pattern.compile("https?://([^/\\s:?#\"'<>()]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern IP_HOST = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    private static final Comparator<QueueEntry> SCHEDULE_ORDER =
+            Comparator.comparingLong((QueueEntry e) -> e.sortKey).thenComparingLong(e -> e.articleId);
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private SensitiveWordService sensitiveWordService;
+
+    @Autowired
+    private AIService aiService;
+
+    // 自动发布走文章服务的审核通过流程（缓存失效、推荐、等级），文章服务又依赖本服务，故延迟注入
+    @Autowired
+    @Lazy
+    private ArticleService articleService;
+
+    @Autowired
+    @Qualifier("moderationExecutor")
+    private Executor moderationExecutor;
+
+    @Value("${weeb.moderation.queue.ai-check-enabled:false}")
+    private boolean aiCheckEnabled;
+
+    @Value("${weeb.moderation.queue.auto-publish-clean:false}")
+    private boolean autoPublishClean;
+
+    @Value("${weeb.moderation.queue.aging-step-minutes:120}")
+    private long agingStepMinutes;
+
+    @Value("${weeb.moderation.queue.lease-minutes:30}")
+    private long leaseMinutes;
+
+    @Value("${weeb.moderation.queue.max-links:10}")
+    private int maxLinks;
+
+    @Value("${weeb.moderation.queue.blocked-domains:}")
+    private String blockedDomainsConfig;
+
+    @Value("${weeb.moderation.queue.rebuild-page-size:500}")
+    private int rebuildPageSize;
+
+    private Set<String> blockedDomains = new HashSet<>();
+
+    // 队列与租约表由 lock 保护
+    private final Object lock = new Object();
+    private final TreeSet<QueueEntry> queue = new TreeSet<>(SCHEDULE_ORDER);
+    private final Map<Long, QueueEntry> queued = new HashMap<>();
+    private final Map<Long, QueueEntry> leased = new HashMap<>();
+
+    // 最近60分钟每分钟的完成数（环形数组，由 lock 保护）
+    private final long[] completedPerMinute = new long[60];
+    private final long[] bucketMinute = new long[60];
+
+    // 统计信息
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong scanFailures = new AtomicLong();
+    private final AtomicLong scanNanos = new AtomicLong();
+    private final AtomicLong autoPublished = new AtomicLong();
+    private final AtomicLong claims = new AtomicLong();
+    private final AtomicLong claimWaitMs = new AtomicLong();
+    private final AtomicLong staleSkipped = new AtomicLong();
+    private final AtomicLong releases = new AtomicLong();
+    private final AtomicLong leaseExpirations = new AtomicLong();
+    private final AtomicLong completions = new AtomicLong();
+    private volatile long lastRebuildTime;
+
+    @PostConstruct
+    public void init() {
+        Set<String> domains = new HashSet<>();
+        if (blockedDomainsConfig != null) {
+            for (String domain : blockedDomainsConfig.split(",")) {
+                String trimmed = domain.trim().toLowerCase();
+                if (!trimmed.isEmpty()) {
+                    domains.add(trimmed);
+                }
+            }
+        }
+        this.blockedDomains = domains;
+    }
+
+    @Override
+    public void submit(Long articleId) {
+        if (articleId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        TransactionUtils.afterCommit(() -> submitScan(articleId, now));
+    }
+
+    @Override
+    public Map<String, Object> claimNext(Long reviewerId) {
+        reclaimExpiredLeases();
+        while (true) {
+            QueueEntry entry;
+            long now = System.currentTimeMillis();
+            synchronized (lock) {
+                entry = queue.pollFirst();
+                if (entry == null) {
+                    return null;
+                }
+                queued.remove(entry.articleId);
+                entry.claimedBy = reviewerId;
+                entry.leaseExpiresAt = now + leaseMinutes * 60_000L;
+                leased.put(entry.articleId, entry);
+            }
+            // 检测期间文章可能已被审核或删除，领取时再确认一次状态
+            Integer status = articleMapper.selectStatusByArticleId(entry.articleId);
+            if (status != null && status == STATUS_PENDING) {
+                claims.incrementAndGet();
+                claimWaitMs.addAndGet(now - entry.submittedAt);
+                log.info("审核员领取文章: reviewerId={}, articleId={}, priority={}, score={}",
+                        reviewerId, entry.articleId, entry.priority, entry.score);
+                return toMap(entry, now);
+            }
+            synchronized (lock) {
+                leased.remove(entry.articleId, entry);
+            }
+            staleSkipped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean release(Long articleId, Long reviewerId) {
+        if (articleId == null) {
+            return false;
+        }
+        synchronized (lock) {
+            QueueEntry entry = leased.get(articleId);
+            if (entry == null || (reviewerId != null && !reviewerId.equals(entry.claimedBy))) {
+                return false;
+            }
+            leased.remove(articleId);
+            requeue(entry);
+        }
+        releases.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public void complete(Long articleId) {
+        if (articleId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            synchronized (lock) {
+                QueueEntry entry = queued.remove(articleId);
+                if (entry != null) {
+                    queue.remove(entry);
+                }
+                QueueEntry lease = leased.remove(articleId);
+                if (entry == null && lease == null) {
+                    return;
+                }
+                recordCompletion(System.currentTimeMillis());
+            }
+            completions.incrementAndGet();
+        });
+    }
+
+    @Override
+    public boolean setPriority(Long articleId, int priority) {
+        if (articleId == null || priority < PRIORITY_LOW || priority > PRIORITY_URGENT) {
+            return false;
+        }
+        QueueEntry updated;
+        synchronized (lock) {
+            QueueEntry entry = queued.get(articleId);
+            if (entry == null) {
+                entry = leased.get(articleId);
+                if (entry == null) {
+                    return false;
+                }
+                updated = entry.withPriority(priority);
+                updated.claimedBy = entry.claimedBy;
+                updated.leaseExpiresAt = entry.leaseExpiresAt;
+                leased.put(articleId, updated);
+            } else {
+                queue.remove(entry);
+                updated = entry.withPriority(priority);
+                queue.add(updated);
+                queued.put(articleId, updated);
+            }
+        }
+        articleMapper.updateReviewPriority(articleId, toReviewPriority(priority));
+        return true;
+    }
+
+    @Override
+    public List<Map<String, Object>> peek(int limit) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            Iterator<QueueEntry> iterator = queue.iterator();
+            while (iterator.hasNext() && items.size() < limit) {
+                items.add(toMap(iterator.next(), now));
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public List<Map<String, Object>> getOverdue(int hours) {
+        long now = System.currentTimeMillis();
+        long threshold = now - hours * 3_600_000L;
+        List<QueueEntry> overdue = new ArrayList<>();
+        synchronized (lock) {
+            for (QueueEntry entry : queued.values()) {
+                if (entry.submittedAt < threshold) {
+                    overdue.add(entry);
+                }
+            }
+            for (QueueEntry entry : leased.values()) {
+                if (entry.submittedAt < threshold) {
+                    overdue.add(entry);
+                }
+            }
+        }
+        overdue.sort(Comparator.comparingLong(e -> e.submittedAt));
+        List<Map<String, Object>> items = new ArrayList<>(overdue.size());
+        for (QueueEntry entry : overdue) {
+            items.add(toMap(entry, now));
+        }
+        return items;
+    }
+
+    @Override
+    public int reclaimExpiredLeases() {
+        long now = System.currentTimeMillis();
+        int reclaimed = 0;
+        synchronized (lock) {
+            if (leased.isEmpty()) {
+                return 0;
+            }
+            Iterator<QueueEntry> iterator = leased.values().iterator();
+            while (iterator.hasNext()) {
+                QueueEntry entry = iterator.next();
+                if (entry.leaseExpiresAt <= now) {
+                    iterator.remove();
+                    requeue(entry);
+                    reclaimed++;
+                }
+            }
+        }
+        if (reclaimed > 0) {
+            leaseExpirations.addAndGet(reclaimed);
+            log.info("收回过期审核租约: {}篇", reclaimed);
+        }
+        return reclaimed;
+    }
+
+    @Override
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        Set<Long> pending = new HashSet<>();
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> page = articleMapper.selectPendingReviewAfter(lastId, rebuildPageSize);
+            for (Map<String, Object> row : page) {
+                Long articleId = ((Number) row.get("article_id")).longValue();
+                Object createdMillis = row.get("created_millis");
+                pending.add(articleId);
+                submitScan(articleId, createdMillis instanceof Number ? ((Number) createdMillis).longValue() : start);
+                lastId = articleId;
+            }
+            if (page.size() < rebuildPageSize) {
+                break;
+            }
+        }
+
+        // 清理已不在待审核状态的条目；重建开始后才提交的文章不在本次扫描范围内，保留
+        int removed = 0;
+        synchronized (lock) {
+            Iterator<Map.Entry<Long, QueueEntry>> iterator = queued.entrySet().iterator();
+            while (iterator.hasNext()) {
+                QueueEntry entry = iterator.next().getValue();
+                if (!pending.contains(entry.articleId) && entry.enqueuedAt < start) {
+                    iterator.remove();
+                    queue.remove(entry);
+                    removed++;
+                }
+            }
+            Iterator<QueueEntry> leaseIterator = leased.values().iterator();
+            while (leaseIterator.hasNext()) {
+                QueueEntry entry = leaseIterator.next();
+                if (!pending.contains(entry.articleId) && entry.enqueuedAt < start) {
+                    leaseIterator.remove();
+                    removed++;
+                }
+            }
+        }
+        lastRebuildTime = System.currentTimeMillis();
+        log.info("审核队列重建完成: 待审核{}篇已提交检测, 清理失效条目{}个, 耗时{}ms",
+                pending.size(), removed, lastRebuildTime - start);
+        return pending.size();
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new HashMap<>();
+        Map<Integer, Integer> byPriority = new LinkedHashMap<>();
+        for (int priority = PRIORITY_URGENT; priority >= PRIORITY_LOW; priority--) {
+            byPriority.put(priority, 0);
+        }
+        long oldestSubmittedAt = Long.MAX_VALUE;
+        long completedLastHour = 0;
+        synchronized (lock) {
+            stats.put("queueDepth", queue.size());
+            stats.put("leased", leased.size());
+            for (QueueEntry entry : queued.values()) {
+                byPriority.merge(entry.priority, 1, Integer::sum);
+                oldestSubmittedAt = Math.min(oldestSubmittedAt, entry.submittedAt);
+            }
+            for (QueueEntry entry : leased.values()) {
+                oldestSubmittedAt = Math.min(oldestSubmittedAt, entry.submittedAt);
+            }
+            long minute = now / 60_000L;
+            for (int i = 0; i < completedPerMinute.length; i++) {
+                if (minute - bucketMinute[i] < completedPerMinute.length) {
+                    completedLastHour += completedPerMinute[i];
+                }
+            }
+        }
+        long scanCount = scanned.get();
+        long claimCount = claims.get();
+        stats.put("byPriority", byPriority);
+        stats.put("oldestWaitMs", oldestSubmittedAt == Long.MAX_VALUE ? 0 : now - oldestSubmittedAt);
+        stats.put("avgClaimWaitMs", claimCount > 0 ? claimWaitMs.get() / claimCount : 0);
+        stats.put("submitted", submitted.get());
+        stats.put("scanned", scanCount);
+        stats.put("scanFailures", scanFailures.get());
+        stats.put("avgScanMs", scanCount > 0 ? scanNanos.get() / 1_000_000.0 / scanCount : 0.0);
+        stats.put("autoPublished", autoPublished.get());
+        stats.put("claims", claimCount);
+        stats.put("staleSkipped", staleSkipped.get());
+        stats.put("releases", releases.get());
+        stats.put("leaseExpirations", leaseExpirations.get());
+        stats.put("completions", completions.get());
+        stats.put("completedLastHour", completedLastHour);
+        stats.put("aiCheckEnabled", aiCheckEnabled);
+        stats.put("autoPublishClean", autoPublishClean);
+        stats.put("agingStepMinutes", agingStepMinutes);
+        stats.put("leaseMinutes", leaseMinutes);
+        stats.put("lastRebuildTime", lastRebuildTime);
+        if (moderationExecutor instanceof ThreadPoolTaskExecutor) {
+            ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) moderationExecutor;
+            stats.put("scanActiveThreads", executor.getActiveCount());
+            stats.put("scanBacklog", executor.getThreadPoolExecutor().getQueue().size());
+        }
+        return stats;
+    }
+
+    // ==================== 检测与打分 ====================
+
+    private void submitScan(Long articleId, long submittedAt) {
+        submitted.incrementAndGet();
+        try {
+            moderationExecutor.execute(() -> scan(articleId, submittedAt));
+        } catch (RejectedExecutionException e) {
+            // 线程池关闭时丢弃，下次启动重建队列时会重新提交
+            log.warn("审核检测任务被拒绝: articleId={}", articleId);
+        }
+    }
+
+    private void scan(Long articleId, long submittedAt) {
+        long start = System.nanoTime();
+        try {
+            Article article = articleMapper.selectArticleById(articleId);
+            if (article == null || article.getStatus() == null || article.getStatus() != STATUS_PENDING) {
+                staleSkipped.incrementAndGet();
+                return;
+            }
+            String title = article.getArticleTitle() != null ? article.getArticleTitle() : "";
+            String text = title + "\n" + (article.getArticleContent() != null ? article.getArticleContent() : "");
+
+            List<String> reasons = new ArrayList<>();
+            List<String> words = sensitiveWordService.findWords(text);
+            int score = words.size() * SCORE_PER_WORD;
+            if (!words.isEmpty()) {
+                reasons.add("敏感词: " + String.join(", ", words));
+            }
+            score += scoreLinks(text, reasons);
+            if (aiCheckEnabled) {
+                score += scoreCompliance(text, reasons);
+            }
+            int priority = toPriority(score);
+            articleMapper.updateModerationScan(articleId, !words.isEmpty(), toReviewPriority(priority));
+
+            if (score == 0 && autoPublishClean) {
+                if (articleService.approveArticle(articleId)) {
+                    autoPublished.incrementAndGet();
+                    log.info("文章未检出风险，自动发布: articleId={}", articleId);
+                    return;
+                }
+            }
+            enqueue(new QueueEntry(articleId, article.getUserId(), title, priority, score, reasons, submittedAt));
+        } catch (Exception e) {
+            // 检测失败不能漏审，按普通优先级入队
+            scanFailures.incrementAndGet();
+            log.error("文章自动检测失败，按普通优先级入队: articleId={}", articleId, e);
+            enqueue(new QueueEntry(articleId, null, null, PRIORITY_NORMAL, 0, List.of("自动检测失败"), submittedAt));
+        } finally {
+            scanned.incrementAndGet();
+            scanNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 链接信誉：命中屏蔽域名（含子域名）、直接使用IP地址的链接、链接数量过多
+     */
+    private int scoreLinks(String text, List<String> reasons) {
+        Set<String> blocked = new LinkedHashSet<>();
+        Set<String> ipHosts = new LinkedHashSet<>();
+        int links = 0;
+        Matcher matcher = URL_HOST.matcher(text);
+        while (matcher.find()) {
+            links++;
+            String host = matcher.group(1).toLowerCase();
+            if (isBlockedDomain(host)) {
+                blocked.add(host);
+            } else if (IP_HOST.matcher(host).matches()) {
+                ipHosts.add(host);
+            }
+        }
+        int score = 0;
+        if (!blocked.isEmpty()) {
+            score += blocked.size() * SCORE_BLOCKED_DOMAIN;
+            reasons.add("屏蔽域名链接: " + String.join(", ", blocked));
+        }
+        if (!ipHosts.isEmpty()) {
+            score += ipHosts.size() * SCORE_IP_LINK;
+            reasons.add("IP地址链接: " + String.join(", ", ipHosts));
+        }
+        if (links > maxLinks) {
+            score += SCORE_TOO_MANY_LINKS;
+            reasons.add("链接过多: " + links);
+        }
+        return score;
+    }
+
+    private boolean isBlockedDomain(String host) {
+        if (blockedDomains.isEmpty()) {
+            return false;
+        }
+        // 依次检查 a.b.example.com、b.example.com、example.com、com
+        String suffix = host;
+        while (true) {
+            if (blockedDomains.contains(suffix)) {
+                return true;
+            }
+            int dot = suffix.indexOf('.');
+            if (dot < 0) {
+                return false;
+            }
+            suffix = suffix.substring(dot + 1);
+        }
+    }
+
+    private int scoreCompliance(String text, List<String> reasons) {
+        Map<String, Object> result = aiService.checkContentCompliance(text);
+        if (result == null || result.containsKey("error")) {
+            reasons.add("AI合规检查失败");
+            return 0;
+        }
+        if (!Boolean.FALSE.equals(result.get("compliant"))) {
+            return 0;
+        }
+        reasons.add("AI合规: " + result.getOrDefault("issues", "不合规"));
+        return "high".equals(result.get("risk")) ? SCORE_AI_HIGH_RISK : SCORE_AI_ISSUE;
+    }
+
+    private static int toPriority(int score) {
+        if (score >= SCORE_URGENT) {
+            return PRIORITY_URGENT;
+        } else if (score >= SCORE_HIGH) {
+            return PRIORITY_HIGH;
+        } else if (score > 0) {
+            return PRIORITY_NORMAL;
+        }
+        return PRIORITY_LOW;
+    }
+
+    /**
+     * 队列优先级映射到 articles.review_priority（0=普通, 1=高, 2=紧急）
+     */
+    private static int toReviewPriority(int priority) {
+        if (priority >= PRIORITY_URGENT) {
+            return 2;
+        }
+        return priority == PRIORITY_HIGH ? 1 : 0;
+    }
+
+    // ==================== 队列维护（调用方持有 lock 或自行加锁） ====================
+
+    /**
+     * 入队或以新的检测结果替换已有条目；保留最早的提交时间，编辑后重新检测不会重置等待时长
+     */
+    private void enqueue(QueueEntry entry) {
+        synchronized (lock) {
+            QueueEntry lease = leased.get(entry.articleId);
+            if (lease != null) {
+                QueueEntry updated = entry.withSubmittedAt(Math.min(entry.submittedAt, lease.submittedAt));
+                updated.claimedBy = lease.claimedBy;
+                updated.leaseExpiresAt = lease.leaseExpiresAt;
+                leased.put(entry.articleId, updated);
+                return;
+            }
+            QueueEntry existing = queued.remove(entry.articleId);
+            if (existing != null) {
+                queue.remove(existing);
+                entry = entry.withSubmittedAt(Math.min(entry.submittedAt, existing.submittedAt));
+            }
+            queue.add(entry);
+            queued.put(entry.articleId, entry);
+        }
+    }
+
+    private void requeue(QueueEntry entry) {
+        entry.claimedBy = null;
+        entry.leaseExpiresAt = 0;
+        queue.add(entry);
+        queued.put(entry.articleId, entry);
+    }
+
+    private void recordCompletion(long now) {
+        long minute = now / 60_000L;
+        int index = (int) (minute % completedPerMinute.length);
+        if (bucketMinute[index] != minute) {
+            bucketMinute[index] = minute;
+            completedPerMinute[index] = 0;
+        }
+        completedPerMinute[index]++;
+    }
+
+    private Map<String, Object> toMap(QueueEntry entry, long now) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("articleId", entry.articleId);
+        item.put("authorId", entry.authorId);
+        item.put("title", entry.title);
+        item.put("priority", entry.priority);
+        item.put("score", entry.score);
+        item.put("reasons", entry.reasons);
+        item.put("submittedAt", entry.submittedAt);
+        item.put("waitMs", now - entry.submittedAt);
+        if (entry.claimedBy != null) {
+            item.put("claimedBy", entry.claimedBy);
+            item.put("leaseExpiresAt", entry.leaseExpiresAt);
+        }
+        return item;
+    }
+
+    /**
+     * 队列条目；sortKey 在构造时确定，放入 TreeSet 后不再变化
+     */
+    private final class QueueEntry {
+        private final Long articleId;
+        private final Long authorId;
+        private final String title;
+        private final int priority;
+        private final int score;
+        private final List<String> reasons;
+        private final long submittedAt;
+        private final long enqueuedAt;
+        private final long sortKey;
+        private Long claimedBy;
+        private long leaseExpiresAt;
+
+        private QueueEntry(Long articleId, Long authorId, String title, int priority, int score,
+                           List<String> reasons, long submittedAt) {
+            this.articleId = articleId;
+            this.authorId = authorId;
+            this.title = title;
+            this.priority = priority;
+            this.score = score;
+            this.reasons = reasons;
+            this.submittedAt = submittedAt;
+            this.enqueuedAt = System.currentTimeMillis();
+            this.sortKey = submittedAt - (priority - PRIORITY_LOW) * agingStepMinutes * 60_000L;
+        }
+
+        private QueueEntry withPriority(int newPriority) {
+            return new QueueEntry(articleId, authorId, title, newPriority, score, reasons, submittedAt);
+        }
+
+        private QueueEntry withSubmittedAt(long earliest) {
+            return earliest == submittedAt ? this
+                    : new QueueEntry(articleId, authorId, title, priority, score, reasons, earliest);
+        }
+    }
+}
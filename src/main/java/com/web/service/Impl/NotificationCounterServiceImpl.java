@@ -0,0 +1,213 @@
+package com.web.service.Impl;
+
+import com.web.mapper.NotificationMapper;
+import com.web.model.User;
+import com.web.service.NotificationCounterService;
+import com.web.service.UserProfileLoaderService;
+import com.web.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通知计数服务实现
+ * 计数保存在Redis哈希 notification:counts:{userId}（字段unread、total）中，带过期时间，
+ * 过期后从数据库重新统计，以此校准并发下可能出现的少量偏差；
+ * 增量只在哈希存在时执行，结果为负时删除缓存并改为从数据库重新统计
+ */
+@Slf4j
+@Service
+public class NotificationCounterServiceImpl implements NotificationCounterService {
+
+    private static final String KEY_PREFIX = "notification:counts:";
+    private static final String FIELD_UNREAD = "unread";
+    private static final String FIELD_TOTAL = "total";
+    private static final String BADGE_DESTINATION = "/queue/notification-badge";
+
+    // 哈希存在时累加并返回 {unread, total}；不存在或结果为负时返回nil
+    private static final DefaultRedisScript<List> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return false end " +
+            "local unread = redis.call('HINCRBY', KEYS[1], 'unread', ARGV[1]) " +
+            "local total = redis.call('HINCRBY', KEYS[1], 'total', ARGV[2]) " +
+            "if unread < 0 or total < 0 or unread > total then redis.call('DEL', KEYS[1]) return false end " +
+            "return {unread, total}", List.class);
+
+    // 哈希不存在时才写入从数据库统计的值，避免覆盖已累加的增量
+    private static final DefaultRedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "redis.call('HSET', KEYS[1], 'unread', ARGV[1], 'total', ARGV[2]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private UserProfileLoaderService userProfileLoaderService;
+
+    @Value("${weeb.notification.counter-ttl-seconds:3600}")
+    private long counterTtlSeconds;
+
+    // 统计信息
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong adjustments = new AtomicLong();
+    private final AtomicLong redisFailures = new AtomicLong();
+    private final AtomicLong badgePushes = new AtomicLong();
+
+    @Override
+    public int getUnreadCount(Long userId) {
+        return (int) getCounts(userId)[0];
+    }
+
+    @Override
+    public int getTotalCount(Long userId) {
+        return (int) getCounts(userId)[1];
+    }
+
+    @Override
+    public void adjust(Long userId, long unreadDelta, long totalDelta) {
+        if (userId == null || (unreadDelta == 0 && totalDelta == 0)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> apply(userId, unreadDelta, totalDelta));
+    }
+
+    @Override
+    public void addCreated(Map<Long, Long> created) {
+        if (created == null || created.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> snapshot = new HashMap<>(created);
+        TransactionUtils.afterCommit(() -> snapshot.forEach((userId, count) -> {
+            if (userId != null && count != null && count > 0) {
+                apply(userId, count, count);
+            }
+        }));
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        try {
+            stringRedisTemplate.delete(key(userId));
+        } catch (Exception e) {
+            redisFailures.incrementAndGet();
+            log.warn("删除通知计数缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long total = hits.get() + reloads.get();
+        stats.put("hits", hits.get());
+        stats.put("reloads", reloads.get());
+        stats.put("hitRate", total > 0 ? (double) hits.get() / total : 0.0);
+        stats.put("adjustments", adjustments.get());
+        stats.put("redisFailures", redisFailures.get());
+        stats.put("badgePushes", badgePushes.get());
+        stats.put("ttlSeconds", counterTtlSeconds);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 读取 {未读数, 总数}，缓存缺失时从数据库统计并写回
+     */
+    private long[] getCounts(Long userId) {
+        try {
+            List<Object> values = stringRedisTemplate.opsForHash().multiGet(key(userId),
+                    List.of(FIELD_UNREAD, FIELD_TOTAL));
+            if (values.get(0) != null && values.get(1) != null) {
+                hits.incrementAndGet();
+                return new long[] {
+                        Long.parseLong(String.valueOf(values.get(0))),
+                        Long.parseLong(String.valueOf(values.get(1)))};
+            }
+        } catch (Exception e) {
+            redisFailures.incrementAndGet();
+            log.warn("读取通知计数缓存失败，改为查询数据库: userId={}, error={}", userId, e.getMessage());
+            return loadCounts(userId);
+        }
+        return reload(userId);
+    }
+
+    private void apply(Long userId, long unreadDelta, long totalDelta) {
+        long[] counts = null;
+        try {
+            List<?> result = stringRedisTemplate.execute(ADJUST_SCRIPT, List.of(key(userId)),
+                    String.valueOf(unreadDelta), String.valueOf(totalDelta));
+            adjustments.incrementAndGet();
+            if (result != null && result.size() == 2) {
+                counts = new long[] {
+                        ((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue()};
+            }
+        } catch (Exception e) {
+            redisFailures.incrementAndGet();
+            log.warn("更新通知计数失败: userId={}, error={}", userId, e.getMessage());
+            invalidate(userId);
+        }
+        if (counts == null) {
+            // 缓存不存在或已失准：变更已提交，直接从数据库统计
+            counts = reload(userId);
+        }
+        pushBadge(userId, counts);
+    }
+
+    private long[] reload(Long userId) {
+        long[] counts = loadCounts(userId);
+        reloads.incrementAndGet();
+        try {
+            stringRedisTemplate.execute(SEED_SCRIPT, List.of(key(userId)),
+                    String.valueOf(counts[0]), String.valueOf(counts[1]), String.valueOf(counterTtlSeconds));
+        } catch (Exception e) {
+            redisFailures.incrementAndGet();
+            log.warn("写入通知计数缓存失败: userId={}, error={}", userId, e.getMessage());
+        }
+        return counts;
+    }
+
+    private long[] loadCounts(Long userId) {
+        Map<String, Object> row = notificationMapper.selectNotificationCounts(userId);
+        long unread = row != null && row.get("unreadCount") != null ? ((Number) row.get("unreadCount")).longValue() : 0;
+        long total = row != null && row.get("totalCount") != null ? ((Number) row.get("totalCount")).longValue() : 0;
+        return new long[] {unread, total};
+    }
+
+    private void pushBadge(Long userId, long[] counts) {
+        try {
+            // WebSocket会话的Principal是用户名
+            User user = userProfileLoaderService.getUser(userId);
+            if (user == null) {
+                return;
+            }
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("unreadCount", counts[0]);
+            payload.put("totalCount", counts[1]);
+            messagingTemplate.convertAndSendToUser(user.getUsername(), BADGE_DESTINATION, payload);
+            badgePushes.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("推送通知角标失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
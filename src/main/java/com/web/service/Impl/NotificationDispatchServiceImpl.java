@@ -0,0 +1,392 @@
+package com.web.service.Impl;
+
+import com.web.mapper.NotificationMapper;
+import com.web.model.Notification;
+import com.web.model.User;
+import com.web.service.NotificationCounterService;
+import com.web.service.NotificationDispatchService;
+import com.web.service.UserProfileLoaderService;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通知分发服务实现
+ * 写库后，属于摘要类型的通知按接收者放入窗口，窗口内按“类型+实体”分组计数；
+ * 窗口到期时每组推送一条（只有一条时保持原有单条通知格式），其余类型写库后立即推送
+ */
+@Slf4j
+@Service
+public class NotificationDispatchServiceImpl implements NotificationDispatchService {
+
+    private static final int MAX_DIGEST_ACTORS = 3;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private UserProfileLoaderService userProfileLoaderService;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${weeb.notification.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${weeb.notification.batch-size:500}")
+    private int batchSize;
+
+    @Value("${weeb.notification.digest-window-ms:10000}")
+    private long digestWindowMillis;
+
+    @Value("${weeb.notification.digest-types:like,follow,comment}")
+    private Set<String> digestTypes;
+
+    /**
+     * 排队中的通知
+     */
+    private static final class PendingNotification {
+        final Notification notification;
+        final long enqueuedAt;
+
+        PendingNotification(Notification notification, long enqueuedAt) {
+            this.notification = notification;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * 接收者在一个窗口内的摘要分组
+     */
+    private static final class DigestGroup {
+        final List<Long> actorIds = new ArrayList<>();
+        final Set<Long> distinctActors = new HashSet<>();
+        Notification latest;
+        int count;
+
+        void add(Notification notification) {
+            count++;
+            latest = notification;
+            if (distinctActors.add(notification.getActorId()) && actorIds.size() < MAX_DIGEST_ACTORS) {
+                actorIds.add(notification.getActorId());
+            }
+        }
+    }
+
+    /**
+     * 接收者的摘要窗口
+     */
+    private static final class RecipientWindow {
+        final long openedAt;
+        final Map<String, DigestGroup> groups = new LinkedHashMap<>();
+
+        RecipientWindow(long openedAt) {
+            this.openedAt = openedAt;
+        }
+    }
+
+    private BlockingQueue<PendingNotification> queue;
+    private final Map<Long, RecipientWindow> windows = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    // 统计信息
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong persistFailures = new AtomicLong();
+    private final AtomicLong duplicatesCollapsed = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong pushes = new AtomicLong();
+    private final AtomicLong digestPushes = new AtomicLong();
+    private final AtomicLong digestedNotifications = new AtomicLong();
+    private final AtomicLong pushFailures = new AtomicLong();
+    private volatile long lastLagMillis = 0;
+    private volatile long maxLagMillis = 0;
+    private volatile long lastFlushMillis = 0;
+
+    @PostConstruct
+    public void init() {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 停机前写入剩余通知并推送所有未到期窗口
+        flush();
+        synchronized (flushLock) {
+            publishWindows(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void submit(Long recipientId, Long actorId, String type, String entityType, Long entityId) {
+        if (recipientId == null || actorId == null || type == null || recipientId.equals(actorId)) {
+            return;
+        }
+        Notification notification = new Notification();
+        notification.setRecipientId(recipientId);
+        notification.setActorId(actorId);
+        notification.setType(type);
+        notification.setEntityType(entityType);
+        notification.setEntityId(entityId);
+        notification.setIsRead(false);
+        notification.setCreatedAt(LocalDateTime.now());
+
+        TransactionUtils.afterCommit(() -> enqueue(new PendingNotification(notification, System.currentTimeMillis())));
+    }
+
+    @Override
+    public int flush() {
+        synchronized (flushLock) {
+            long start = System.currentTimeMillis();
+            int written = 0;
+            List<PendingNotification> drained = new ArrayList<>(batchSize);
+            while (queue.drainTo(drained, batchSize) > 0) {
+                written += persistAndStage(drained);
+                drained.clear();
+            }
+            publishWindows(start);
+            if (written > 0) {
+                lastFlushMillis = System.currentTimeMillis() - start;
+            }
+            return written;
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("openWindows", windows.size());
+        stats.put("submitted", submitted.get());
+        stats.put("dropped", dropped.get());
+        stats.put("persisted", persisted.get());
+        stats.put("persistFailures", persistFailures.get());
+        stats.put("duplicatesCollapsed", duplicatesCollapsed.get());
+        stats.put("batches", batchCount.get());
+        stats.put("pushes", pushes.get());
+        stats.put("digestPushes", digestPushes.get());
+        stats.put("digestedNotifications", digestedNotifications.get());
+        stats.put("pushFailures", pushFailures.get());
+        stats.put("lastLagMillis", lastLagMillis);
+        stats.put("maxLagMillis", maxLagMillis);
+        stats.put("lastFlushMillis", lastFlushMillis);
+        stats.put("digestWindowMillis", digestWindowMillis);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void enqueue(PendingNotification pending) {
+        submitted.incrementAndGet();
+        if (queue.offer(pending)) {
+            return;
+        }
+        // 队列已满：由提交线程代为刷写一次，再尝试入队
+        flush();
+        if (!queue.offer(pending)) {
+            dropped.incrementAndGet();
+            log.error("通知队列已满，丢弃通知: recipientId={}, type={}",
+                    pending.notification.getRecipientId(), pending.notification.getType());
+        }
+    }
+
+    /**
+     * 合并同一批次内完全相同的通知后批量写库，写入成功的通知进入摘要窗口或立即推送
+     */
+    private int persistAndStage(List<PendingNotification> drained) {
+        long now = System.currentTimeMillis();
+        Map<String, Notification> unique = new LinkedHashMap<>();
+        for (PendingNotification pending : drained) {
+            Notification n = pending.notification;
+            String key = n.getRecipientId() + ":" + n.getActorId() + ":" + n.getType() + ":"
+                    + n.getEntityType() + ":" + n.getEntityId();
+            if (unique.putIfAbsent(key, n) != null) {
+                duplicatesCollapsed.incrementAndGet();
+            }
+            lastLagMillis = now - pending.enqueuedAt;
+            maxLagMillis = Math.max(maxLagMillis, lastLagMillis);
+        }
+
+        List<Notification> batch = new ArrayList<>(unique.values());
+        List<Notification> saved = insert(batch);
+        batchCount.incrementAndGet();
+        persisted.addAndGet(saved.size());
+
+        // 每个接收者的未读角标每批只更新、推送一次
+        Map<Long, Long> createdByRecipient = new HashMap<>();
+        saved.forEach(notification -> createdByRecipient.merge(notification.getRecipientId(), 1L, Long::sum));
+        notificationCounterService.addCreated(createdByRecipient);
+
+        List<Notification> immediate = new ArrayList<>();
+        for (Notification notification : saved) {
+            if (digestTypes.contains(notification.getType())) {
+                windows.computeIfAbsent(notification.getRecipientId(), id -> new RecipientWindow(now))
+                        .groups.computeIfAbsent(digestKey(notification), key -> new DigestGroup())
+                        .add(notification);
+            } else {
+                immediate.add(notification);
+            }
+        }
+        if (!immediate.isEmpty()) {
+            Set<Long> userIds = new HashSet<>();
+            immediate.forEach(notification -> {
+                userIds.add(notification.getActorId());
+                userIds.add(notification.getRecipientId());
+            });
+            Map<Long, User> users = loadUsers(userIds);
+            for (Notification notification : immediate) {
+                DigestGroup single = new DigestGroup();
+                single.add(notification);
+                push(single, users);
+            }
+        }
+        return saved.size();
+    }
+
+    /**
+     * 批量写入；整批失败时逐条写入，跳过无法写入的通知（如操作者已被删除）
+     */
+    private List<Notification> insert(List<Notification> batch) {
+        try {
+            notificationMapper.insertBatch(batch);
+            return batch;
+        } catch (Exception e) {
+            log.warn("通知批量写入失败，改为逐条写入: size={}, error={}", batch.size(), e.getMessage());
+        }
+        List<Notification> saved = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            try {
+                notificationMapper.insert(notification);
+                saved.add(notification);
+            } catch (Exception e) {
+                persistFailures.incrementAndGet();
+                log.error("写入通知失败: recipientId={}, actorId={}, type={}",
+                        notification.getRecipientId(), notification.getActorId(), notification.getType(), e);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * 推送打开时间早于截止时间减去窗口长度的接收者窗口
+     */
+    private void publishWindows(long now) {
+        List<RecipientWindow> due = new ArrayList<>();
+        Iterator<Map.Entry<Long, RecipientWindow>> iterator = windows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            RecipientWindow window = iterator.next().getValue();
+            if (now == Long.MAX_VALUE || now - window.openedAt >= digestWindowMillis) {
+                due.add(window);
+                iterator.remove();
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        for (RecipientWindow window : due) {
+            for (DigestGroup group : window.groups.values()) {
+                userIds.add(group.latest.getRecipientId());
+                userIds.add(group.latest.getActorId());
+                userIds.addAll(group.actorIds);
+            }
+        }
+        Map<Long, User> users = loadUsers(userIds);
+        for (RecipientWindow window : due) {
+            for (DigestGroup group : window.groups.values()) {
+                push(group, users);
+                if (group.count > 1) {
+                    digestPushes.incrementAndGet();
+                    digestedNotifications.addAndGet(group.count);
+                }
+            }
+        }
+    }
+
+    private Map<Long, User> loadUsers(Set<Long> userIds) {
+        try {
+            return userProfileLoaderService.getUsers(userIds);
+        } catch (Exception e) {
+            log.warn("加载通知用户信息失败: {}", e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private void push(DigestGroup group, Map<Long, User> users) {
+        Notification notification = group.latest;
+        try {
+            User recipientUser = users.get(notification.getRecipientId());
+            if (recipientUser == null) {
+                return;
+            }
+            User actor = users.get(notification.getActorId());
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("id", notification.getId());
+            payload.put("type", notification.getType());
+            payload.put("entityType", notification.getEntityType());
+            payload.put("entityId", notification.getEntityId());
+            payload.put("actorId", notification.getActorId());
+            payload.put("actorName", actor != null ? actor.getUsername() : null);
+            payload.put("createdAt", notification.getCreatedAt());
+            if (group.count > 1) {
+                List<String> actorNames = new ArrayList<>();
+                for (Long actorId : group.actorIds) {
+                    User user = users.get(actorId);
+                    actorNames.add(user != null ? user.getUsername() : null);
+                }
+                payload.put("digest", true);
+                payload.put("count", group.count);
+                payload.put("actorCount", group.distinctActors.size());
+                payload.put("actorIds", group.actorIds);
+                payload.put("actorNames", actorNames);
+            }
+
+            // WebSocket会话的Principal是用户名
+            String recipient = recipientUser.getUsername();
+            messagingTemplate.convertAndSendToUser(recipient, "/queue/notifications", payload);
+            // 联系人相关通知额外发送到联系人主题
+            if ("CONTACT".equals(notification.getEntityType())) {
+                messagingTemplate.convertAndSendToUser(recipient, "/queue/contacts", payload);
+            }
+            pushes.incrementAndGet();
+        } catch (Exception e) {
+            pushFailures.incrementAndGet();
+            log.error("推送通知失败 - 接收者: {}, 类型: {}", notification.getRecipientId(), notification.getType(), e);
+        }
+    }
+
+    /**
+     * 摘要分组键：关注通知的实体就是操作者本身，只按类型分组；其余按类型和实体分组
+     */
+    private static String digestKey(Notification notification) {
+        if ("user".equalsIgnoreCase(notification.getEntityType())) {
+            return notification.getType();
+        }
+        return notification.getType() + ":" + notification.getEntityType() + ":" + notification.getEntityId();
+    }
+}
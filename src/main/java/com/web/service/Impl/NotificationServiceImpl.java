@@ -2,19 +2,15 @@ package com.web.service.Impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.web.mapper.NotificationMapper;
-import com.web.mapper.UserMapper;
-import com.web.mapper.ArticleMapper;
 import com.web.model.Notification;
-import com.web.model.User;
-import com.web.model.Article;
+import com.web.service.NotificationCounterService;
+import com.web.service.NotificationDispatchService;
 import com.web.service.NotificationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,80 +28,22 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
     private NotificationMapper notificationMapper;
 
     @Autowired
-    private UserMapper userMapper;
+    private NotificationDispatchService notificationDispatchService;
 
     @Autowired
-    private ArticleMapper articleMapper;
-    
-    @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private NotificationCounterService notificationCounterService;
 
     @Override
     public void createAndPublishNotification(Long recipientId, Long actorId, String type, String entityType, Long entityId) {
-        // 不给自己发通知
-        if (recipientId.equals(actorId)) {
-            return;
-        }
-        
-        User actor = userMapper.selectById(actorId);
-        if (actor == null) {
-            return;
-        }
-        
-        Notification notification = new Notification();
-        notification.setRecipientId(recipientId);
-        notification.setActorId(actorId);
-        notification.setType(type);
-        notification.setEntityType(entityType);
-        notification.setEntityId(entityId);
-        notification.setIsRead(false);
-        notification.setCreatedAt(LocalDateTime.now());
-        
-        // Note: Notification model doesn't have title and content fields
-        // The notification details are determined by type, entityType, and entityId
-        
-        save(notification);
-        
-        // 通过 WebSocket 推送通知
-        try {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("id", notification.getId());
-            payload.put("type", type);
-            payload.put("entityType", entityType);
-            payload.put("entityId", entityId);
-            payload.put("actorId", actorId);
-            payload.put("actorName", actor.getUsername());
-            payload.put("createdAt", notification.getCreatedAt());
-            
-            // 发送到用户专属主题
-            messagingTemplate.convertAndSendToUser(
-                recipientId.toString(),
-                "/queue/notifications",
-                payload
-            );
-            
-            // 如果是联系人相关通知，额外发送到联系人主题
-            if ("CONTACT".equals(entityType)) {
-                messagingTemplate.convertAndSendToUser(
-                    recipientId.toString(),
-                    "/queue/contacts",
-                    payload
-                );
-                log.info("联系人通知已推送 - 接收者: {}, 类型: {}", recipientId, type);
-            }
-            
-            log.debug("WebSocket 通知已推送 - 接收者: {}, 类型: {}", recipientId, type);
-        } catch (Exception e) {
-            log.error("推送 WebSocket 通知失败 - 接收者: {}, 类型: {}", recipientId, type, e);
-            // 不抛出异常，通知推送失败不应影响业务流程
-        }
+        // 写库、合并与推送由分发服务在后台完成，调用方不再等待
+        notificationDispatchService.submit(recipientId, actorId, type, entityType, entityId);
     }
 
     @Override
     public Map<String, Object> getNotificationsForUser(Long userId, int page, int size) {
         int offset = (page - 1) * size;
         List<Notification> notifications = notificationMapper.findNotificationsByRecipientId(userId, offset, size);
-        int totalCount = notificationMapper.countTotalNotifications(userId);
+        int totalCount = notificationCounterService.getTotalCount(userId);
         
         Map<String, Object> result = new HashMap<>();
         result.put("notifications", notifications);
@@ -119,29 +57,37 @@ public class NotificationServiceImpl extends ServiceImpl<NotificationMapper, Not
 
     @Override
     public int getUnreadCount(Long userId) {
-        return notificationMapper.countUnreadNotifications(userId);
+        return notificationCounterService.getUnreadCount(userId);
     }
 
     @Override
     public boolean markAllAsRead(Long userId) {
         int result = notificationMapper.markAllAsRead(userId);
+        notificationCounterService.adjust(userId, -result, 0);
         return result > 0;
     }
 
     @Override
     public boolean markAsRead(Long notificationId, Long userId) {
         int result = notificationMapper.markAsRead(notificationId, userId);
-        return result > 0;
+        if (result > 0) {
+            notificationCounterService.adjust(userId, -result, 0);
+            return true;
+        }
+        // 已读的通知视为成功，只有通知不存在或不属于该用户时返回false
+        return notificationMapper.countByIdAndRecipient(notificationId, userId) > 0;
     }
 
     @Override
     public int deleteReadNotifications(Long userId) {
-        return notificationMapper.deleteReadNotifications(userId);
+        int deleted = notificationMapper.deleteReadNotifications(userId);
+        notificationCounterService.adjust(userId, 0, -deleted);
+        return deleted;
     }
 
     @Override
     public int getTotalCount(Long userId) {
-        return notificationMapper.countTotalNotifications(userId);
+        return notificationCounterService.getTotalCount(userId);
     }
 
     @Override
@@ -0,0 +1,278 @@
+package com.web.service.Impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.web.constant.ContactStatus;
+import com.web.mapper.ContactMapper;
+import com.web.mapper.UserFollowMapper;
+import com.web.model.Contact;
+import com.web.model.UserFollow;
+import com.web.service.RelationshipCacheService;
+import com.web.service.SocialGraphService;
+import com.web.service.SocialRelationshipService.RelationshipStatus;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 关系状态缓存服务实现
+ * 缓存键为 "较小ID:较大ID"，值为相对这一顺序的状态位；社交图就绪时关注与好友位直接取自社交图，
+ * 只有待处理申请需要查库，否则关注、联系人各一次批量查询。
+ * 批量加载期间如有失效发生，本次结果只返回不写入缓存，避免旧数据覆盖失效
+ */
+@Slf4j
+@Service
+public class RelationshipCacheServiceImpl implements RelationshipCacheService {
+
+    // 状态位：low、high 分别为用户对中ID较小、较大的一方
+    private static final int LOW_FOLLOWS_HIGH = 1;
+    private static final int HIGH_FOLLOWS_LOW = 1 << 1;
+    private static final int FRIEND = 1 << 2;
+    private static final int LOW_REQUESTED = 1 << 3;
+    private static final int HIGH_REQUESTED = 1 << 4;
+
+    @Autowired
+    private ContactMapper contactMapper;
+
+    @Autowired
+    private UserFollowMapper userFollowMapper;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Value("${weeb.relationship-cache.max-size:200000}")
+    private long maxSize;
+
+    @Value("${weeb.relationship-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${weeb.relationship-cache.load-chunk-size:200}")
+    private int loadChunkSize;
+
+    private Cache<String, Integer> cache;
+
+    // 每次失效递增，批量加载前后不一致时放弃写入
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    // 统计信息
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong batchLoads = new AtomicLong();
+    private final AtomicLong discardedLoads = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public RelationshipStatus getStatus(Long userId, Long targetUserId) {
+        if (userId == null || targetUserId == null || userId.equals(targetUserId)) {
+            return RelationshipStatus.STRANGER;
+        }
+        return toStatus(userId, targetUserId, getFlags(userId, List.of(targetUserId)).get(targetUserId));
+    }
+
+    @Override
+    public Map<Long, RelationshipStatus> getStatuses(Long userId, Collection<Long> targetUserIds) {
+        Map<Long, RelationshipStatus> result = new LinkedHashMap<>();
+        if (userId == null || targetUserIds == null || targetUserIds.isEmpty()) {
+            return result;
+        }
+        Map<Long, Integer> flags = getFlags(userId, targetUserIds);
+        for (Long targetUserId : targetUserIds) {
+            if (targetUserId != null) {
+                result.put(targetUserId, toStatus(userId, targetUserId, flags.get(targetUserId)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isFriend(Long userId, Long otherUserId) {
+        if (userId == null || otherUserId == null || userId.equals(otherUserId)) {
+            return false;
+        }
+        Integer flags = getFlags(userId, List.of(otherUserId)).get(otherUserId);
+        return flags != null && (flags & FRIEND) != 0;
+    }
+
+    @Override
+    public boolean isMutualFollow(Long userId, Long otherUserId) {
+        if (userId == null || otherUserId == null || userId.equals(otherUserId)) {
+            return false;
+        }
+        Integer flags = getFlags(userId, List.of(otherUserId)).get(otherUserId);
+        int both = LOW_FOLLOWS_HIGH | HIGH_FOLLOWS_LOW;
+        return flags != null && (flags & both) == both;
+    }
+
+    @Override
+    public void invalidate(Long userId, Long otherUserId) {
+        if (userId == null || otherUserId == null) {
+            return;
+        }
+        String key = key(userId, otherUserId);
+        TransactionUtils.afterCommit(() -> {
+            invalidationVersion.incrementAndGet();
+            cache.invalidate(key);
+            invalidations.incrementAndGet();
+        });
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long total = hits.get() + misses.get();
+        stats.put("size", cache.estimatedSize());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRate", total > 0 ? (double) hits.get() / total : 0.0);
+        stats.put("batchLoads", batchLoads.get());
+        stats.put("discardedLoads", discardedLoads.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 读取用户对的状态位，未命中的目标用户分块批量加载
+     */
+    private Map<Long, Integer> getFlags(Long userId, Collection<Long> targetUserIds) {
+        Map<Long, Integer> flags = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long targetUserId : targetUserIds) {
+            if (targetUserId == null || targetUserId.equals(userId)) {
+                continue;
+            }
+            Integer cached = cache.getIfPresent(key(userId, targetUserId));
+            if (cached != null) {
+                flags.put(targetUserId, cached);
+            } else {
+                missing.add(targetUserId);
+            }
+        }
+        hits.addAndGet(flags.size());
+        misses.addAndGet(missing.size());
+
+        List<Long> pending = new ArrayList<>(missing);
+        for (int from = 0; from < pending.size(); from += loadChunkSize) {
+            List<Long> chunk = pending.subList(from, Math.min(pending.size(), from + loadChunkSize));
+            flags.putAll(load(userId, chunk));
+        }
+        return flags;
+    }
+
+    private Map<Long, Integer> load(Long userId, List<Long> targetUserIds) {
+        long version = invalidationVersion.get();
+        Map<Long, Integer> flags = new HashMap<>();
+        for (Long targetUserId : targetUserIds) {
+            flags.put(targetUserId, 0);
+        }
+
+        boolean fromGraph = socialGraphService.isReady();
+        if (fromGraph) {
+            for (Long targetUserId : targetUserIds) {
+                int value = 0;
+                if (socialGraphService.isFollowing(userId, targetUserId)) {
+                    value |= follows(userId, targetUserId);
+                }
+                if (socialGraphService.isFollowing(targetUserId, userId)) {
+                    value |= follows(targetUserId, userId);
+                }
+                if (socialGraphService.isFriend(userId, targetUserId)) {
+                    value |= FRIEND;
+                }
+                flags.put(targetUserId, value);
+            }
+        } else {
+            for (UserFollow follow : userFollowMapper.selectFollowsBetween(userId, targetUserIds)) {
+                Long other = userId.equals(follow.getFollowerId()) ? follow.getFolloweeId() : follow.getFollowerId();
+                flags.computeIfPresent(other, (id, value) -> value | follows(follow.getFollowerId(), follow.getFolloweeId()));
+            }
+        }
+
+        for (Contact contact : contactMapper.selectContactsBetween(userId, targetUserIds)) {
+            if (contact.getStatus() == null) {
+                continue;
+            }
+            Long other = userId.equals(contact.getUserId()) ? contact.getFriendId() : contact.getUserId();
+            int bit = 0;
+            if (contact.getStatus() == ContactStatus.ACCEPTED.getCode() && !fromGraph) {
+                bit = FRIEND;
+            } else if (contact.getStatus() == ContactStatus.PENDING.getCode()) {
+                bit = contact.getUserId() < contact.getFriendId() ? LOW_REQUESTED : HIGH_REQUESTED;
+            }
+            if (bit != 0) {
+                int finalBit = bit;
+                flags.computeIfPresent(other, (id, value) -> value | finalBit);
+            }
+        }
+        batchLoads.incrementAndGet();
+
+        if (invalidationVersion.get() == version) {
+            flags.forEach((targetUserId, value) -> cache.put(key(userId, targetUserId), value));
+        } else {
+            discardedLoads.incrementAndGet();
+        }
+        return flags;
+    }
+
+    /**
+     * 与原先逐项查询的判断顺序一致：好友 > 关注关系 > 待处理申请
+     */
+    private static RelationshipStatus toStatus(Long userId, Long targetUserId, Integer flags) {
+        if (flags == null || flags == 0) {
+            return RelationshipStatus.STRANGER;
+        }
+        if ((flags & FRIEND) != 0) {
+            return RelationshipStatus.FRIEND;
+        }
+        boolean userIsLow = userId < targetUserId;
+        boolean iFollowTarget = (flags & (userIsLow ? LOW_FOLLOWS_HIGH : HIGH_FOLLOWS_LOW)) != 0;
+        boolean targetFollowsMe = (flags & (userIsLow ? HIGH_FOLLOWS_LOW : LOW_FOLLOWS_HIGH)) != 0;
+        if (iFollowTarget && targetFollowsMe) {
+            return RelationshipStatus.MUTUAL_FOLLOW;
+        } else if (iFollowTarget) {
+            return RelationshipStatus.FOLLOWING;
+        } else if (targetFollowsMe) {
+            return RelationshipStatus.FOLLOWER;
+        }
+        if ((flags & (userIsLow ? LOW_REQUESTED : HIGH_REQUESTED)) != 0) {
+            return RelationshipStatus.FRIEND_REQUEST_SENT;
+        }
+        if ((flags & (userIsLow ? HIGH_REQUESTED : LOW_REQUESTED)) != 0) {
+            return RelationshipStatus.FRIEND_REQUEST_RECEIVED;
+        }
+        return RelationshipStatus.STRANGER;
+    }
+
+    private static int follows(Long followerId, Long followeeId) {
+        return followerId < followeeId ? LOW_FOLLOWS_HIGH : HIGH_FOLLOWS_LOW;
+    }
+
+    private static String key(Long userId, Long otherUserId) {
+        return userId < otherUserId ? userId + ":" + otherUserId : otherUserId + ":" + userId;
+    }
+}
@@ -0,0 +1,346 @@
+package com.web.service.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.web.model.Article;
+import com.web.model.Group;
+import com.web.model.User;
+import com.web.service.SearchResultCacheService;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 搜索结果缓存服务实现
+ * 基于CacheConfig中的searchCache（Caffeine，按权重即估算字节数限制容量）；
+ * 缓存的结果为只读副本，多个请求共享同一份对象。
+ * 用户、群组按结果中的ID和名称定向失效；文章的可搜索文本是正文，逐项比对代价过高，
+ * 改为递增该类型的失效代次，代次落后的缓存项在读取时视为未命中
+ */
+@Slf4j
+@Service
+public class SearchResultCacheServiceImpl implements SearchResultCacheService {
+
+    // 无法序列化估算大小时使用的默认权重（字节）
+    private static final int DEFAULT_WEIGHT = 16 * 1024;
+
+    @Autowired
+    @Qualifier("searchCache")
+    private Caffeine<Object, Object> searchCacheBuilder;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${weeb.search.cache.refresh-after-seconds:60}")
+    private long refreshAfterSeconds;
+
+    @Value("${weeb.search.cache.hot-threshold:3}")
+    private int hotThreshold;
+
+    /**
+     * 缓存项：结果 + 估算字节数 + 结果中的实体ID（用于定向失效）+ 加载时的整体失效代次
+     */
+    private static final class CachedResult {
+        final Map<String, Object> value;
+        final int weight;
+        final long loadedAt;
+        final String type;
+        final String query;
+        final Set<Long> ids;
+        final long epoch;
+        final AtomicInteger hits = new AtomicInteger();
+
+        CachedResult(Map<String, Object> value, int weight, String type, String query, Set<Long> ids, long epoch) {
+            this.value = value;
+            this.weight = weight;
+            this.loadedAt = System.currentTimeMillis();
+            this.type = type;
+            this.query = query;
+            this.ids = ids;
+            this.epoch = epoch;
+        }
+    }
+
+    /**
+     * 单个搜索类型的统计计数
+     */
+    private static final class TypeStats {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong staleHits = new AtomicLong();
+        final AtomicLong refreshes = new AtomicLong();
+        final AtomicLong invalidations = new AtomicLong();
+        // 失效代次：加载期间发生失效时，加载结果不再写入缓存
+        final AtomicLong generation = new AtomicLong();
+        // 整体失效代次：缓存项的代次落后即视为已失效，失效时无需遍历缓存
+        final AtomicLong epoch = new AtomicLong();
+    }
+
+    private Cache<String, CachedResult> cache;
+    private final Map<String, TypeStats> statsByType = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        this.cache = searchCacheBuilder
+                .weigher((String key, CachedResult result) -> result.weight)
+                .build();
+    }
+
+    @Override
+    public Map<String, Object> get(String type, String query, Map<String, Object> filters, int page, int size,
+                                   Supplier<Map<String, Object>> loader) {
+        String normalizedQuery = normalizeQuery(query);
+        String key = buildKey(type, normalizedQuery, filters, page, size);
+        TypeStats stats = stats(type);
+
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null && cached.epoch != stats.epoch.get()) {
+            cache.invalidate(key);
+            cached = null;
+        }
+        if (cached != null) {
+            stats.hits.incrementAndGet();
+            int hits = cached.hits.incrementAndGet();
+            long age = System.currentTimeMillis() - cached.loadedAt;
+            if (age > refreshAfterSeconds * 1000 && hits >= hotThreshold) {
+                // 热门查询：先返回旧结果，后台刷新
+                stats.staleHits.incrementAndGet();
+                scheduleRefresh(key, type, normalizedQuery, loader, stats);
+            }
+            return cached.value;
+        }
+
+        stats.misses.incrementAndGet();
+        long generation = stats.generation.get();
+        long epoch = stats.epoch.get();
+        Map<String, Object> value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        Map<String, Object> readOnly = readOnlyCopy(value);
+        if (stats.generation.get() == generation) {
+            cache.put(key, wrap(readOnly, type, normalizedQuery, epoch));
+        }
+        return readOnly;
+    }
+
+    @Override
+    public void invalidate(String type, Long entityId, String... texts) {
+        if (TYPE_ARTICLE.equals(type)) {
+            invalidateAll(type);
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            TypeStats stats = stats(type);
+            stats.generation.incrementAndGet();
+
+            Set<String> normalizedTexts = new HashSet<>();
+            if (texts != null) {
+                for (String text : texts) {
+                    String normalized = normalizeQuery(text);
+                    if (!normalized.isEmpty()) {
+                        normalizedTexts.add(normalized);
+                    }
+                }
+            }
+
+            int removed = 0;
+            for (Map.Entry<String, CachedResult> entry : cache.asMap().entrySet()) {
+                CachedResult result = entry.getValue();
+                if (!type.equals(result.type)) {
+                    continue;
+                }
+                boolean affected = entityId != null && result.ids.contains(entityId);
+                if (!affected) {
+                    // 搜索为LIKE %q% 语义：查询词出现在实体文本中即可能命中
+                    for (String text : normalizedTexts) {
+                        if (text.contains(result.query)) {
+                            affected = true;
+                            break;
+                        }
+                    }
+                }
+                if (affected) {
+                    cache.invalidate(entry.getKey());
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                stats.invalidations.addAndGet(removed);
+                log.debug("搜索缓存定向失效: type={}, entityId={}, removed={}", type, entityId, removed);
+            }
+        });
+    }
+
+    @Override
+    public void invalidateAll(String type) {
+        TransactionUtils.afterCommit(() -> {
+            TypeStats stats = stats(type);
+            stats.generation.incrementAndGet();
+            stats.epoch.incrementAndGet();
+            stats.invalidations.incrementAndGet();
+        });
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> result = new HashMap<>();
+        Map<String, Object> byType = new HashMap<>();
+        statsByType.forEach((type, stats) -> {
+            long hits = stats.hits.get();
+            long misses = stats.misses.get();
+            Map<String, Object> item = new HashMap<>();
+            item.put("hits", hits);
+            item.put("misses", misses);
+            item.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+            item.put("staleHits", stats.staleHits.get());
+            item.put("refreshes", stats.refreshes.get());
+            item.put("invalidations", stats.invalidations.get());
+            item.put("epoch", stats.epoch.get());
+            byType.put(type, item);
+        });
+        result.put("byType", byType);
+        result.put("entries", cache.estimatedSize());
+        result.put("weightBytes", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+        result.put("maxWeightBytes", cache.policy().eviction()
+                .map(eviction -> eviction.getMaximum()).orElse(0L));
+        result.put("evictions", cache.stats().evictionCount());
+        result.put("refreshing", refreshing.size());
+        return result;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void scheduleRefresh(String key, String type, String normalizedQuery,
+                                 Supplier<Map<String, Object>> loader, TypeStats stats) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        long generation = stats.generation.get();
+        long epoch = stats.epoch.get();
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    Map<String, Object> value = loader.get();
+                    if (value != null && stats.generation.get() == generation) {
+                        cache.put(key, wrap(readOnlyCopy(value), type, normalizedQuery, epoch));
+                        stats.refreshes.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    log.warn("搜索缓存后台刷新失败: key={}, error={}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (Exception e) {
+            refreshing.remove(key);
+            log.warn("提交搜索缓存刷新任务失败: key={}", key, e);
+        }
+    }
+
+    private CachedResult wrap(Map<String, Object> value, String type, String normalizedQuery, long epoch) {
+        return new CachedResult(value, estimateWeight(value), type, normalizedQuery, extractIds(value), epoch);
+    }
+
+    /**
+     * 缓存的结果被多个请求共享，结果Map及其中的列表、Map都换成只读副本
+     */
+    private static Map<String, Object> readOnlyCopy(Map<String, Object> value) {
+        Map<String, Object> copy = new HashMap<>(value.size());
+        value.forEach((name, v) -> {
+            if (v instanceof List) {
+                v = Collections.unmodifiableList(new ArrayList<>((List<?>) v));
+            } else if (v instanceof Map) {
+                v = Collections.unmodifiableMap(new HashMap<>((Map<?, ?>) v));
+            }
+            copy.put(name, v);
+        });
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private int estimateWeight(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsBytes(value).length;
+        } catch (Exception e) {
+            return DEFAULT_WEIGHT;
+        }
+    }
+
+    private static Set<Long> extractIds(Map<String, Object> value) {
+        Object list = value.get("list");
+        if (!(list instanceof Collection)) {
+            return Set.of();
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Object item : (Collection<?>) list) {
+            Long id = null;
+            if (item instanceof User) {
+                id = ((User) item).getId();
+            } else if (item instanceof Group) {
+                id = ((Group) item).getId();
+            } else if (item instanceof Article) {
+                id = ((Article) item).getArticleId();
+            }
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private TypeStats stats(String type) {
+        return statsByType.computeIfAbsent(type, t -> new TypeStats());
+    }
+
+    /**
+     * 查询词规范化：Unicode兼容分解（全角转半角）、转小写、合并空白
+     */
+    private static String normalizeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFKC);
+        return normalized.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private static String buildKey(String type, String normalizedQuery, Map<String, Object> filters, int page, int size) {
+        StringBuilder key = new StringBuilder(type).append('|').append(normalizedQuery);
+        if (filters != null) {
+            // 过滤条件按键排序，忽略空值，保证等价查询得到相同的键
+            new TreeMap<>(filters).forEach((name, v) -> {
+                if (v != null && !(v instanceof String && ((String) v).trim().isEmpty())) {
+                    key.append('|').append(name).append('=').append(v.toString().trim().toLowerCase(Locale.ROOT));
+                }
+            });
+        }
+        return key.append("|p=").append(page).append("|s=").append(size).toString();
+    }
+}
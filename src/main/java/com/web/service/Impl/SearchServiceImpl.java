@@ -4,16 +4,20 @@ import com.web.mapper.UserMapper;
 import com.web.mapper.GroupMapper;
 import com.web.model.User;
 import com.web.model.Group;
+import com.web.service.SearchResultCacheService;
 import com.web.service.SearchService;
+import com.web.service.TypeaheadIndexService;
 import com.web.exception.WeebException;
 import com.web.util.SqlInjectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 /**
  * 搜索服务实现类
@@ -29,6 +33,44 @@ public class SearchServiceImpl implements SearchService {
     @Autowired
     private GroupMapper groupMapper;
 
+    @Autowired
+    private TypeaheadIndexService typeaheadIndexService;
+
+    @Autowired
+    private SearchResultCacheService searchResultCacheService;
+
+    /**
+     * 截掉为判断是否还有下一页而多查的一条，并在result中写入hasMore
+     * 分页应以hasMore为准，total仅用于展示
+     */
+    private static <T> List<T> trimPage(List<T> rows, int size, Map<String, Object> result) {
+        boolean hasMore = rows.size() > size;
+        result.put("hasMore", hasMore);
+        return hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+    }
+
+    /**
+     * 计算搜索结果总数
+     * 没有下一页时总数可直接推算；否则使用输入联想索引前缀树的子树计数作为估算值，
+     * 仅在索引尚未就绪时回退到COUNT查询
+     * @return 总数；估算值时在result中标记totalApproximate（估算口径与SQL不同，分页以hasMore为准）
+     */
+    private long resolveTotal(String type, String keyword, int offset, int returned, boolean hasMore,
+                              LongSupplier exactCounter, Map<String, Object> result) {
+        if (!hasMore && (returned > 0 || offset == 0)) {
+            result.put("totalApproximate", false);
+            return offset + returned;
+        }
+        long estimate = typeaheadIndexService.estimateCount(type, keyword);
+        if (estimate < 0) {
+            result.put("totalApproximate", false);
+            return exactCounter.getAsLong();
+        }
+        result.put("totalApproximate", true);
+        // 已知还有下一页时，总数至少要比已翻过的条目多一条
+        return hasMore ? Math.max(estimate, offset + returned + 1L) : Math.max(estimate, offset + returned);
+    }
+
     /**
      * 构建用户搜索的排序SQL子句
      * 修复SQL注入漏洞：不再直接拼接keyword，改用参数化查询
@@ -93,6 +135,41 @@ public class SearchServiceImpl implements SearchService {
 
     @Override
     public Map<String, Object> searchGroups(String keyword, int page, int size) {
+        return searchResultCacheService.get(SearchResultCacheService.TYPE_GROUP, keyword, null, page, size,
+                () -> doSearchGroups(keyword, page, size));
+    }
+
+    @Override
+    public Map<String, Object> searchUsers(String keyword, int page, int size) {
+        return searchResultCacheService.get(SearchResultCacheService.TYPE_USER, keyword, null, page, size,
+                () -> doSearchUsers(keyword, page, size));
+    }
+
+    @Override
+    public Map<String, Object> searchGroupsWithFilters(String keyword, int page, int size, String startDate, String endDate, String sortBy) {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("startDate", startDate);
+        filters.put("endDate", endDate);
+        filters.put("sortBy", sortBy);
+        return searchResultCacheService.get(SearchResultCacheService.TYPE_GROUP, keyword, filters, page, size,
+                () -> doSearchGroupsWithFilters(keyword, page, size, startDate, endDate, sortBy));
+    }
+
+    @Override
+    public Map<String, Object> searchUsersWithFilters(String keyword, int page, int size, String startDate, String endDate, String sortBy) {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("startDate", startDate);
+        filters.put("endDate", endDate);
+        filters.put("sortBy", sortBy);
+        return searchResultCacheService.get(SearchResultCacheService.TYPE_USER, keyword, filters, page, size,
+                () -> doSearchUsersWithFilters(keyword, page, size, startDate, endDate, sortBy));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private Map<String, Object> doSearchGroups(String keyword, int page, int size) {
         try {
             // 输入验证
             if (keyword == null || keyword.trim().isEmpty()) {
@@ -118,10 +195,13 @@ public class SearchServiceImpl implements SearchService {
             int offset = page * size;
 
             // 使用专门的搜索方法进行数据库级别的分页查询
-            List<Group> groups = groupMapper.searchGroups(keyword, offset, size);
-            long total = groupMapper.countSearchGroups(keyword);
-
+            // 多查一条用于判断是否还有下一页
             Map<String, Object> result = new HashMap<>();
+            List<Group> groups = trimPage(groupMapper.searchGroups(keyword, offset, size + 1), size, result);
+
+            final String safeKeyword = keyword;
+            long total = resolveTotal(TypeaheadIndexService.TYPE_GROUP, keyword, offset, groups.size(),
+                    (Boolean) result.get("hasMore"), () -> groupMapper.countSearchGroups(safeKeyword), result);
             result.put("list", groups);
             result.put("total", total);
 
@@ -131,8 +211,7 @@ public class SearchServiceImpl implements SearchService {
         }
     }
 
-    @Override
-    public Map<String, Object> searchUsers(String keyword, int page, int size) {
+    private Map<String, Object> doSearchUsers(String keyword, int page, int size) {
         try {
             // 输入验证
             if (keyword == null || keyword.trim().isEmpty()) {
@@ -158,15 +237,18 @@ public class SearchServiceImpl implements SearchService {
             int offset = page * size;
 
             // 使用专门的搜索方法进行数据库级别的分页查询
-            List<User> users = userMapper.searchUsers(keyword, offset, size);
-            long total = userMapper.countSearchUsers(keyword);
+            // 多查一条用于判断是否还有下一页
+            Map<String, Object> result = new HashMap<>();
+            List<User> users = trimPage(userMapper.searchUsers(keyword, offset, size + 1), size, result);
 
             // 过滤敏感信息（不返回密码等）
             users.forEach(user -> {
                 user.setPassword(null); // 不返回密码
             });
 
-            Map<String, Object> result = new HashMap<>();
+            final String safeKeyword = keyword;
+            long total = resolveTotal(TypeaheadIndexService.TYPE_USER, keyword, offset, users.size(),
+                    (Boolean) result.get("hasMore"), () -> userMapper.countSearchUsers(safeKeyword), result);
             result.put("list", users);
             result.put("total", total);
 
@@ -176,8 +258,7 @@ public class SearchServiceImpl implements SearchService {
         }
     }
 
-    @Override
-    public Map<String, Object> searchGroupsWithFilters(String keyword, int page, int size, String startDate, String endDate, String sortBy) {
+    private Map<String, Object> doSearchGroupsWithFilters(String keyword, int page, int size, String startDate, String endDate, String sortBy) {
         // 参数验证
         if (keyword == null || keyword.trim().isEmpty()) {
             Map<String, Object> result = new HashMap<>();
@@ -200,18 +281,27 @@ public class SearchServiceImpl implements SearchService {
         // 构建排序SQL子句（已修复SQL注入）
         String sortClause = buildGroupSortClause(sortBy, keyword);
 
-        List<Group> groups = groupMapper.searchGroupsWithFilters(keyword, offset, size, startDate, endDate, sortClause);
-        long total = groupMapper.countSearchGroupsWithFilters(keyword, startDate, endDate);
-
+        // 多查一条用于判断是否还有下一页
         Map<String, Object> result = new HashMap<>();
+        List<Group> groups = trimPage(groupMapper.searchGroupsWithFilters(keyword, offset, size + 1, startDate, endDate, sortClause),
+                size, result);
+
+        final String safeKeyword = keyword;
+        long total;
+        if (isBlank(startDate) && isBlank(endDate)) {
+            // 无日期过滤时与索引口径一致，可使用索引计数
+            total = resolveTotal(TypeaheadIndexService.TYPE_GROUP, keyword, offset, groups.size(),
+                    (Boolean) result.get("hasMore"), () -> groupMapper.countSearchGroupsWithFilters(safeKeyword, null, null), result);
+        } else {
+            total = groupMapper.countSearchGroupsWithFilters(keyword, startDate, endDate);
+        }
         result.put("list", groups);
         result.put("total", total);
 
         return result;
     }
 
-    @Override
-    public Map<String, Object> searchUsersWithFilters(String keyword, int page, int size, String startDate, String endDate, String sortBy) {
+    private Map<String, Object> doSearchUsersWithFilters(String keyword, int page, int size, String startDate, String endDate, String sortBy) {
         // 参数验证
         if (keyword == null || keyword.trim().isEmpty()) {
             Map<String, Object> result = new HashMap<>();
@@ -234,15 +324,25 @@ public class SearchServiceImpl implements SearchService {
         // 构建排序SQL子句（已修复SQL注入）
         String sortClause = buildUserSortClause(sortBy, keyword);
 
-        List<User> users = userMapper.searchUsersWithFilters(keyword, offset, size, startDate, endDate, sortClause);
-        long total = userMapper.countSearchUsersWithFilters(keyword, startDate, endDate);
+        // 多查一条用于判断是否还有下一页
+        Map<String, Object> result = new HashMap<>();
+        List<User> users = trimPage(userMapper.searchUsersWithFilters(keyword, offset, size + 1, startDate, endDate, sortClause),
+                size, result);
 
         // 过滤敏感信息（不返回密码等）
         users.forEach(user -> {
             user.setPassword(null); // 不返回密码
         });
 
-        Map<String, Object> result = new HashMap<>();
+        final String safeKeyword = keyword;
+        long total;
+        if (isBlank(startDate) && isBlank(endDate)) {
+            // 无日期过滤时与索引口径一致，可使用索引计数
+            total = resolveTotal(TypeaheadIndexService.TYPE_USER, keyword, offset, users.size(),
+                    (Boolean) result.get("hasMore"), () -> userMapper.countSearchUsersWithFilters(safeKeyword, null, null), result);
+        } else {
+            total = userMapper.countSearchUsersWithFilters(keyword, startDate, endDate);
+        }
         result.put("list", users);
         result.put("total", total);
 
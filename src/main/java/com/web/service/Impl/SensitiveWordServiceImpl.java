@@ -0,0 +1,186 @@
+package com.web.service.Impl;
+
+import com.web.service.SensitiveWordService;
+import com.web.util.SensitiveWordMatcher;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 敏感词服务实现
+ * 词表 = 内置词表 moderation/sensitive-words.txt + 可选的外部词表 weeb.moderation.words-path；
+ * 外部词表按修改时间检测变化，重建在检测线程中完成后替换 volatile 引用。
+ * 只用于内容审核；ValidationUtils 的字段校验使用单独的窄词表 moderation/field-sensitive-words.txt
+ */
+@Slf4j
+@Service
+public class SensitiveWordServiceImpl implements SensitiveWordService {
+
+    private static final String BUILTIN_WORDS = "moderation/sensitive-words.txt";
+
+    @Value("${weeb.moderation.words-path:}")
+    private String wordsPath;
+
+    @Value("${weeb.moderation.skip-symbols:true}")
+    private boolean skipSymbols;
+
+    private volatile SensitiveWordMatcher matcher = SensitiveWordMatcher.empty();
+
+    // 外部词表最近一次加载时的修改时间，-1表示不存在
+    private volatile long externalLastModified = -1;
+
+    // 统计信息
+    private final AtomicLong scans = new AtomicLong();
+    private final AtomicLong matchedScans = new AtomicLong();
+    private final AtomicLong scannedChars = new AtomicLong();
+    private final AtomicLong scanNanos = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private volatile long lastReloadTime;
+    private volatile long lastBuildMs;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    @Override
+    public boolean contains(String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean found = matcher.containsAny(text);
+        record(text.length(), found, start);
+        return found;
+    }
+
+    @Override
+    public List<String> findWords(String text) {
+        if (text == null || text.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        List<String> words = matcher.findWords(text);
+        record(text.length(), !words.isEmpty(), start);
+        return words;
+    }
+
+    @Override
+    public List<Map<String, Object>> findPositions(String text) {
+        List<Map<String, Object>> positions = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return positions;
+        }
+        long start = System.nanoTime();
+        for (SensitiveWordMatcher.Match match : matcher.findAll(text)) {
+            Map<String, Object> position = new HashMap<>();
+            position.put("word", match.getWord());
+            position.put("start", match.getStart());
+            position.put("end", match.getEnd());
+            positions.add(position);
+        }
+        record(text.length(), !positions.isEmpty(), start);
+        return positions;
+    }
+
+    @Override
+    public synchronized int reload() {
+        long start = System.currentTimeMillis();
+        List<String> words = SensitiveWordMatcher.loadWords(BUILTIN_WORDS);
+
+        long lastModified = -1;
+        Path external = externalPath();
+        if (external != null && Files.isRegularFile(external)) {
+            try {
+                lastModified = Files.getLastModifiedTime(external).toMillis();
+                try (BufferedReader reader = Files.newBufferedReader(external, StandardCharsets.UTF_8)) {
+                    SensitiveWordMatcher.readWords(reader, words);
+                }
+            } catch (IOException e) {
+                // 外部词表读取失败时保留当前匹配器，下次检测再试
+                log.error("读取外部敏感词表失败: {}", external, e);
+                return matcher.getWordCount();
+            }
+        }
+
+        SensitiveWordMatcher rebuilt = SensitiveWordMatcher.build(words, skipSymbols);
+        matcher = rebuilt;
+        externalLastModified = lastModified;
+        reloads.incrementAndGet();
+        lastReloadTime = System.currentTimeMillis();
+        lastBuildMs = lastReloadTime - start;
+        log.info("敏感词表已加载: words={}, nodes={}, external={}, 耗时{}ms",
+                rebuilt.getWordCount(), rebuilt.getNodeCount(), external != null ? external : "无", lastBuildMs);
+        return rebuilt.getWordCount();
+    }
+
+    @Override
+    public boolean reloadIfChanged() {
+        Path external = externalPath();
+        if (external == null) {
+            return false;
+        }
+        long lastModified = -1;
+        try {
+            if (Files.isRegularFile(external)) {
+                lastModified = Files.getLastModifiedTime(external).toMillis();
+            }
+        } catch (IOException e) {
+            log.warn("检查外部敏感词表失败: {}, error={}", external, e.getMessage());
+            return false;
+        }
+        if (lastModified == externalLastModified) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        SensitiveWordMatcher current = matcher;
+        Map<String, Object> stats = new HashMap<>();
+        long scanCount = scans.get();
+        stats.put("wordCount", current.getWordCount());
+        stats.put("nodeCount", current.getNodeCount());
+        stats.put("skipSymbols", current.isSkipSymbols());
+        stats.put("wordsPath", wordsPath);
+        stats.put("scans", scanCount);
+        stats.put("matchedScans", matchedScans.get());
+        stats.put("matchRate", scanCount > 0 ? (double) matchedScans.get() / scanCount : 0.0);
+        stats.put("scannedChars", scannedChars.get());
+        stats.put("avgScanMicros", scanCount > 0 ? scanNanos.get() / 1000.0 / scanCount : 0.0);
+        stats.put("reloads", reloads.get());
+        stats.put("lastReloadTime", lastReloadTime);
+        stats.put("lastBuildMs", lastBuildMs);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void record(int length, boolean matched, long startNanos) {
+        scanNanos.addAndGet(System.nanoTime() - startNanos);
+        scans.incrementAndGet();
+        scannedChars.addAndGet(length);
+        if (matched) {
+            matchedScans.incrementAndGet();
+        }
+    }
+
+    private Path externalPath() {
+        return wordsPath == null || wordsPath.isBlank() ? null : Paths.get(wordsPath.trim());
+    }
+}
@@ -0,0 +1,783 @@
+package com.web.service.Impl;
+
+import com.web.constant.ContactStatus;
+import com.web.mapper.ContactMapper;
+import com.web.mapper.UserFollowMapper;
+import com.web.model.Contact;
+import com.web.model.UserFollow;
+import com.web.service.SocialGraphService;
+import com.web.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 社交图服务实现
+ * 好友、关注、粉丝三张图各自由一份CSR压缩邻接数组（节点、偏移、边均为基本类型数组，邻居升序）
+ * 加上增量层组成：关系变更只写增量层，增量超过阈值或定时任务触发时合并回压缩数组；
+ * 写操作在事务提交后串行执行，读操作无锁。全量重建期间的变更会记录下来，在新图替换后重放
+ */
+@Slf4j
+@Service
+public class SocialGraphServiceImpl implements SocialGraphService {
+
+    private static final long[] NO_IDS = new long[0];
+
+    @Autowired
+    private ContactMapper contactMapper;
+
+    @Autowired
+    private UserFollowMapper userFollowMapper;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    @Value("${weeb.social-graph.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    @Value("${weeb.social-graph.max-fanout:50000}")
+    private int maxFanout;
+
+    @Value("${weeb.social-graph.compact-threshold:20000}")
+    private int compactThreshold;
+
+    @Value("${weeb.social-graph.precompute-size:50}")
+    private int precomputeSize;
+
+    @Value("${weeb.social-graph.precompute-ttl-ms:1800000}")
+    private long precomputeTtlMs;
+
+    @Value("${weeb.social-graph.precompute-threads:4}")
+    private int precomputeThreads;
+
+    @Value("${weeb.social-graph.max-precomputed:20000}")
+    private int maxPrecomputed;
+
+    // 好友图按双向存边，关注图与粉丝图互为反向
+    private final LayeredGraph friends = new LayeredGraph();
+    private final LayeredGraph following = new LayeredGraph();
+    private final LayeredGraph followers = new LayeredGraph();
+
+    private final Object mutationLock = new Object();
+    // 非null表示正在全量重建，期间的变更在新图替换后重放（受mutationLock保护）
+    private List<Runnable> replayLog;
+
+    private volatile boolean ready;
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+
+    // 预计算的好友推荐
+    private final ConcurrentHashMap<Long, Recommendation> precomputed = new ConcurrentHashMap<>();
+    private final Set<Long> recentRequesters = ConcurrentHashMap.newKeySet();
+
+    // 统计信息
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong recommendationQueries = new AtomicLong();
+    private final AtomicLong precomputeHits = new AtomicLong();
+    private final AtomicLong fanoutTruncations = new AtomicLong();
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private volatile long lastReloadTime;
+    private volatile long lastReloadDurationMs;
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public boolean isFriend(Long userId, Long otherUserId) {
+        if (userId == null || otherUserId == null) {
+            return false;
+        }
+        lookups.incrementAndGet();
+        return friends.contains(userId, otherUserId);
+    }
+
+    @Override
+    public boolean isFollowing(Long followerId, Long followeeId) {
+        if (followerId == null || followeeId == null) {
+            return false;
+        }
+        lookups.incrementAndGet();
+        return following.contains(followerId, followeeId);
+    }
+
+    @Override
+    public boolean isMutualFollow(Long userId, Long otherUserId) {
+        return isFollowing(userId, otherUserId) && isFollowing(otherUserId, userId);
+    }
+
+    @Override
+    public long[] getFriendIds(Long userId) {
+        return userId == null ? NO_IDS : friends.neighbors(userId);
+    }
+
+    @Override
+    public long[] getFollowingIds(Long userId) {
+        return userId == null ? NO_IDS : following.neighbors(userId);
+    }
+
+    @Override
+    public long[] getFollowerIds(Long userId) {
+        return userId == null ? NO_IDS : followers.neighbors(userId);
+    }
+
+    @Override
+    public int countMutualFriends(Long userId, Long otherUserId) {
+        if (userId == null || otherUserId == null) {
+            return 0;
+        }
+        lookups.incrementAndGet();
+        return intersectionSize(friends.neighbors(userId), friends.neighbors(otherUserId));
+    }
+
+    @Override
+    public Map<Long, Integer> recommendFriends(Long userId, int limit) {
+        if (userId == null || limit <= 0) {
+            return new LinkedHashMap<>();
+        }
+        recommendationQueries.incrementAndGet();
+        if (recentRequesters.size() < maxPrecomputed) {
+            recentRequesters.add(userId);
+        }
+
+        Recommendation cached = precomputed.get(userId);
+        if (cached != null && limit <= precomputeSize
+                && System.currentTimeMillis() - cached.computedAt < precomputeTtlMs) {
+            precomputeHits.incrementAndGet();
+            return cached.toMap(limit);
+        }
+        return twoHop(friends, userId, limit);
+    }
+
+    @Override
+    public Map<Long, Integer> recommendFollows(Long userId, int limit) {
+        if (userId == null || limit <= 0) {
+            return new LinkedHashMap<>();
+        }
+        recommendationQueries.incrementAndGet();
+        return twoHop(following, userId, limit);
+    }
+
+    @Override
+    public void onFollow(Long followerId, Long followeeId) {
+        if (followerId == null || followeeId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> mutate(() -> {
+            following.set(followerId, followeeId, true);
+            followers.set(followeeId, followerId, true);
+        }));
+    }
+
+    @Override
+    public void onUnfollow(Long followerId, Long followeeId) {
+        if (followerId == null || followeeId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> mutate(() -> {
+            following.set(followerId, followeeId, false);
+            followers.set(followeeId, followerId, false);
+        }));
+    }
+
+    @Override
+    public void refreshFriendship(Long userId, Long otherUserId) {
+        if (userId == null || otherUserId == null || userId.equals(otherUserId)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                boolean present = contactMapper.countContactsBetween(
+                        userId, otherUserId, ContactStatus.ACCEPTED.getCode()) > 0;
+                mutate(() -> {
+                    friends.set(userId, otherUserId, present);
+                    friends.set(otherUserId, userId, present);
+                });
+                // 双方的二度候选直接受影响；好友的好友等间接影响由预计算过期时间兜底
+                precomputed.remove(userId);
+                precomputed.remove(otherUserId);
+            } catch (Exception e) {
+                log.warn("刷新社交图好友关系失败: userId={}, otherUserId={}, error={}",
+                        userId, otherUserId, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public int precomputeRecommendations(Collection<Long> userIds) {
+        if (!ready || userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+        evictExpired();
+        List<Long> ids = new ArrayList<>(userIds);
+        int chunks = Math.max(1, Math.min(precomputeThreads, ids.size()));
+        int chunkSize = (ids.size() + chunks - 1) / chunks;
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(chunks);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            futures.add(CompletableFuture.supplyAsync(() -> precomputeChunk(chunk), taskExecutor));
+        }
+        int done = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            try {
+                done += future.join();
+            } catch (Exception e) {
+                log.warn("预计算好友推荐失败: {}", e.getMessage());
+            }
+        }
+        return done;
+    }
+
+    @Override
+    public Collection<Long> drainRecentRequesters() {
+        List<Long> drained = new ArrayList<>(recentRequesters);
+        recentRequesters.removeAll(drained);
+        return drained;
+    }
+
+    @Override
+    public boolean startReload() {
+        if (!reloading.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(this::reload);
+        } catch (Exception e) {
+            reloading.set(false);
+            log.error("提交社交图重建任务失败", e);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void compact() {
+        if (reloading.get() || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            synchronized (mutationLock) {
+                int merged = 0;
+                for (LayeredGraph graph : List.of(friends, following, followers)) {
+                    if (graph.overlaySize() > 0) {
+                        graph.compact();
+                        merged++;
+                    }
+                }
+                if (merged > 0) {
+                    compactions.incrementAndGet();
+                }
+            }
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", ready);
+        stats.put("reloading", reloading.get());
+        stats.put("friends", friends.describe());
+        stats.put("following", following.describe());
+        stats.put("followers", followers.describe());
+        stats.put("memoryBytes", friends.memoryBytes() + following.memoryBytes() + followers.memoryBytes());
+        stats.put("lookups", lookups.get());
+        stats.put("recommendationQueries", recommendationQueries.get());
+        stats.put("precomputeHits", precomputeHits.get());
+        stats.put("precomputedUsers", precomputed.size());
+        stats.put("recentRequesters", recentRequesters.size());
+        stats.put("fanoutTruncations", fanoutTruncations.get());
+        stats.put("mutations", mutations.get());
+        stats.put("compactions", compactions.get());
+        stats.put("reloads", reloads.get());
+        stats.put("lastReloadTime", lastReloadTime);
+        stats.put("lastReloadDurationMs", lastReloadDurationMs);
+        stats.put("maxFanout", maxFanout);
+        stats.put("compactThreshold", compactThreshold);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 串行执行一次图变更；重建期间同时记入重放日志
+     */
+    private void mutate(Runnable change) {
+        boolean overThreshold;
+        synchronized (mutationLock) {
+            change.run();
+            if (replayLog != null) {
+                replayLog.add(change);
+            }
+            overThreshold = friends.overlaySize() + following.overlaySize() + followers.overlaySize()
+                    >= compactThreshold;
+        }
+        mutations.incrementAndGet();
+        if (overThreshold && !compacting.get() && !reloading.get()) {
+            try {
+                taskExecutor.execute(this::compact);
+            } catch (Exception e) {
+                log.warn("提交社交图压缩任务失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void reload() {
+        long start = System.currentTimeMillis();
+        synchronized (mutationLock) {
+            replayLog = new ArrayList<>();
+        }
+        try {
+            EdgeBuffer friendEdges = new EdgeBuffer();
+            long lastId = 0;
+            while (true) {
+                List<Contact> batch = contactMapper.selectContactEdgesAfter(
+                        ContactStatus.ACCEPTED.getCode(), lastId, loadBatchSize);
+                for (Contact contact : batch) {
+                    if (contact.getUserId() != null && contact.getFriendId() != null
+                            && !contact.getUserId().equals(contact.getFriendId())) {
+                        friendEdges.add(contact.getUserId(), contact.getFriendId());
+                        friendEdges.add(contact.getFriendId(), contact.getUserId());
+                    }
+                }
+                if (batch.size() < loadBatchSize) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+
+            EdgeBuffer followingEdges = new EdgeBuffer();
+            EdgeBuffer followerEdges = new EdgeBuffer();
+            lastId = 0;
+            while (true) {
+                List<UserFollow> batch = userFollowMapper.selectFollowEdgesAfter(lastId, loadBatchSize);
+                for (UserFollow follow : batch) {
+                    if (follow.getFollowerId() != null && follow.getFolloweeId() != null) {
+                        followingEdges.add(follow.getFollowerId(), follow.getFolloweeId());
+                        followerEdges.add(follow.getFolloweeId(), follow.getFollowerId());
+                    }
+                }
+                if (batch.size() < loadBatchSize) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+
+            CsrGraph friendGraph = friendEdges.build();
+            CsrGraph followingGraph = followingEdges.build();
+            CsrGraph followerGraph = followerEdges.build();
+            int replayed;
+            synchronized (mutationLock) {
+                friends.reset(friendGraph);
+                following.reset(followingGraph);
+                followers.reset(followerGraph);
+                replayed = replayLog.size();
+                replayLog.forEach(Runnable::run);
+                replayLog = null;
+            }
+            precomputed.clear();
+            ready = true;
+            reloads.incrementAndGet();
+            lastReloadTime = System.currentTimeMillis();
+            lastReloadDurationMs = lastReloadTime - start;
+            log.info("社交图重建完成: friendEdges={}, followEdges={}, replayed={}, 耗时{}ms",
+                    friendGraph.edgeCount(), followingGraph.edgeCount(), replayed, lastReloadDurationMs);
+        } catch (Exception e) {
+            synchronized (mutationLock) {
+                replayLog = null;
+            }
+            log.error("社交图重建失败", e);
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    /**
+     * 二度关系计数：收集一度邻居的邻居（排除自己和一度邻居），排序后按连续段计数，
+     * 用小顶堆取前limit个；候选总数超过max-fanout时截断，避免大V账号拖慢查询
+     */
+    private Map<Long, Integer> twoHop(LayeredGraph graph, long userId, int limit) {
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        long[] firstHop = graph.neighbors(userId);
+        if (firstHop.length == 0) {
+            return result;
+        }
+
+        long[] candidates = new long[Math.min(maxFanout, 1024)];
+        int size = 0;
+        boolean truncated = false;
+        outer:
+        for (long mid : firstHop) {
+            for (long candidate : graph.neighbors(mid)) {
+                if (candidate == userId || Arrays.binarySearch(firstHop, candidate) >= 0) {
+                    continue;
+                }
+                if (size == maxFanout) {
+                    truncated = true;
+                    break outer;
+                }
+                if (size == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, Math.min(maxFanout, size * 2));
+                }
+                candidates[size++] = candidate;
+            }
+        }
+        if (truncated) {
+            fanoutTruncations.incrementAndGet();
+        }
+        if (size == 0) {
+            return result;
+        }
+
+        Arrays.sort(candidates, 0, size);
+        // 堆顶为当前第limit名：分数低者优先，同分时ID大者优先淘汰
+        PriorityQueue<long[]> heap = new PriorityQueue<>(limit + 1, (a, b) ->
+                a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(b[0], a[0]));
+        int i = 0;
+        while (i < size) {
+            int j = i;
+            while (j < size && candidates[j] == candidates[i]) {
+                j++;
+            }
+            heap.offer(new long[] {candidates[i], j - i});
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+            i = j;
+        }
+        long[][] top = new long[heap.size()][];
+        for (int k = top.length - 1; k >= 0; k--) {
+            top[k] = heap.poll();
+        }
+        for (long[] entry : top) {
+            result.put(entry[0], (int) entry[1]);
+        }
+        return result;
+    }
+
+    private int precomputeChunk(List<Long> userIds) {
+        int done = 0;
+        for (Long userId : userIds) {
+            if (precomputed.size() >= maxPrecomputed && !precomputed.containsKey(userId)) {
+                break;
+            }
+            Map<Long, Integer> top = twoHop(friends, userId, precomputeSize);
+            precomputed.put(userId, Recommendation.of(top));
+            done++;
+        }
+        return done;
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        precomputed.entrySet().removeIf(entry -> now - entry.getValue().computedAt >= precomputeTtlMs);
+    }
+
+    private static int intersectionSize(long[] a, long[] b) {
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 预计算的推荐结果，按分数降序
+     */
+    private static final class Recommendation {
+        final long[] ids;
+        final int[] scores;
+        final long computedAt;
+
+        private Recommendation(long[] ids, int[] scores) {
+            this.ids = ids;
+            this.scores = scores;
+            this.computedAt = System.currentTimeMillis();
+        }
+
+        static Recommendation of(Map<Long, Integer> ranked) {
+            long[] ids = new long[ranked.size()];
+            int[] scores = new int[ranked.size()];
+            int i = 0;
+            for (Map.Entry<Long, Integer> entry : ranked.entrySet()) {
+                ids[i] = entry.getKey();
+                scores[i++] = entry.getValue();
+            }
+            return new Recommendation(ids, scores);
+        }
+
+        Map<Long, Integer> toMap(int limit) {
+            Map<Long, Integer> map = new LinkedHashMap<>();
+            for (int i = 0; i < ids.length && i < limit; i++) {
+                map.put(ids[i], scores[i]);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * CSR压缩邻接表：nodes升序，第i个节点的邻居为 edges[offsets[i], offsets[i+1])，且升序无重复
+     */
+    private static final class CsrGraph {
+        static final CsrGraph EMPTY = new CsrGraph(new long[0], new int[1], new long[0]);
+
+        final long[] nodes;
+        final int[] offsets;
+        final long[] edges;
+
+        CsrGraph(long[] nodes, int[] offsets, long[] edges) {
+            this.nodes = nodes;
+            this.offsets = offsets;
+            this.edges = edges;
+        }
+
+        boolean contains(long src, long dst) {
+            int index = Arrays.binarySearch(nodes, src);
+            return index >= 0 && Arrays.binarySearch(edges, offsets[index], offsets[index + 1], dst) >= 0;
+        }
+
+        long[] neighbors(long src) {
+            int index = Arrays.binarySearch(nodes, src);
+            return index < 0 ? NO_IDS : Arrays.copyOfRange(edges, offsets[index], offsets[index + 1]);
+        }
+
+        int nodeCount() {
+            return nodes.length;
+        }
+
+        int edgeCount() {
+            return offsets[nodes.length];
+        }
+
+        long memoryBytes() {
+            return nodes.length * 8L + offsets.length * 4L + edges.length * 8L;
+        }
+    }
+
+    /**
+     * 边缓冲：按源节点计数排序生成CSR，每段邻居排序去重
+     */
+    private static final class EdgeBuffer {
+        private long[] src = new long[1024];
+        private long[] dst = new long[1024];
+        private int size;
+
+        void add(long from, long to) {
+            if (size == src.length) {
+                src = Arrays.copyOf(src, size * 2);
+                dst = Arrays.copyOf(dst, size * 2);
+            }
+            src[size] = from;
+            dst[size] = to;
+            size++;
+        }
+
+        CsrGraph build() {
+            if (size == 0) {
+                return CsrGraph.EMPTY;
+            }
+            long[] sorted = Arrays.copyOf(src, size);
+            Arrays.sort(sorted);
+            int nodeCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[nodeCount++] = sorted[i];
+                }
+            }
+            long[] nodes = Arrays.copyOf(sorted, nodeCount);
+
+            int[] index = new int[size];
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < size; i++) {
+                index[i] = Arrays.binarySearch(nodes, src[i]);
+                offsets[index[i] + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            long[] edges = new long[size];
+            int[] cursor = Arrays.copyOf(offsets, nodeCount);
+            for (int i = 0; i < size; i++) {
+                edges[cursor[index[i]]++] = dst[i];
+            }
+
+            // 每段排序去重并就地前移
+            int write = 0;
+            int[] compacted = new int[nodeCount + 1];
+            for (int n = 0; n < nodeCount; n++) {
+                int from = offsets[n];
+                int to = offsets[n + 1];
+                Arrays.sort(edges, from, to);
+                compacted[n] = write;
+                for (int i = from; i < to; i++) {
+                    if (i == from || edges[i] != edges[i - 1]) {
+                        edges[write++] = edges[i];
+                    }
+                }
+            }
+            compacted[nodeCount] = write;
+            return new CsrGraph(nodes, compacted, write == size ? edges : Arrays.copyOf(edges, write));
+        }
+    }
+
+    /**
+     * 压缩基础图 + 增量层（新增边、删除边）；写操作需在外部串行化，读操作无锁
+     */
+    private static final class LayeredGraph {
+        private volatile CsrGraph base = CsrGraph.EMPTY;
+        private final ConcurrentHashMap<Long, Set<Long>> added = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, Set<Long>> removed = new ConcurrentHashMap<>();
+        private final AtomicInteger overlaySize = new AtomicInteger();
+
+        boolean contains(long src, long dst) {
+            Set<Long> gone = removed.get(src);
+            if (gone != null && gone.contains(dst)) {
+                return false;
+            }
+            Set<Long> extra = added.get(src);
+            if (extra != null && extra.contains(dst)) {
+                return true;
+            }
+            return base.contains(src, dst);
+        }
+
+        long[] neighbors(long src) {
+            long[] ids = base.neighbors(src);
+            Set<Long> extra = added.get(src);
+            Set<Long> gone = removed.get(src);
+            if ((extra == null || extra.isEmpty()) && (gone == null || gone.isEmpty())) {
+                return ids;
+            }
+            long[] merged = new long[ids.length + (extra != null ? extra.size() : 0)];
+            int size = 0;
+            for (long id : ids) {
+                if (gone == null || !gone.contains(id)) {
+                    merged[size++] = id;
+                }
+            }
+            if (extra != null) {
+                for (Long id : extra) {
+                    if (size == merged.length) {
+                        merged = Arrays.copyOf(merged, size + 8);
+                    }
+                    merged[size++] = id;
+                }
+            }
+            Arrays.sort(merged, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || merged[i] != merged[i - 1]) {
+                    merged[unique++] = merged[i];
+                }
+            }
+            return unique == merged.length ? merged : Arrays.copyOf(merged, unique);
+        }
+
+        void set(long src, long dst, boolean present) {
+            boolean inBase = base.contains(src, dst);
+            if (present) {
+                removeFrom(removed, src, dst);
+                if (!inBase) {
+                    addTo(added, src, dst);
+                }
+            } else {
+                removeFrom(added, src, dst);
+                if (inBase) {
+                    addTo(removed, src, dst);
+                }
+            }
+        }
+
+        void compact() {
+            EdgeBuffer buffer = new EdgeBuffer();
+            CsrGraph current = base;
+            for (int n = 0; n < current.nodes.length; n++) {
+                long src = current.nodes[n];
+                Set<Long> gone = removed.get(src);
+                for (int i = current.offsets[n]; i < current.offsets[n + 1]; i++) {
+                    if (gone == null || !gone.contains(current.edges[i])) {
+                        buffer.add(src, current.edges[i]);
+                    }
+                }
+            }
+            added.forEach((src, targets) -> targets.forEach(dst -> buffer.add(src, dst)));
+            reset(buffer.build());
+        }
+
+        /**
+         * 先替换基础图再清空增量层：两者之间的读取看到的新图已包含全部增量，结果仍一致
+         */
+        void reset(CsrGraph graph) {
+            base = graph;
+            added.clear();
+            removed.clear();
+            overlaySize.set(0);
+        }
+
+        int overlaySize() {
+            return overlaySize.get();
+        }
+
+        long memoryBytes() {
+            return base.memoryBytes() + overlaySize.get() * 64L;
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> info = new HashMap<>();
+            CsrGraph current = base;
+            info.put("nodes", current.nodeCount());
+            info.put("edges", current.edgeCount());
+            info.put("overlay", overlaySize.get());
+            info.put("memoryBytes", memoryBytes());
+            return info;
+        }
+
+        private void addTo(ConcurrentHashMap<Long, Set<Long>> layer, long src, long dst) {
+            if (layer.computeIfAbsent(src, k -> ConcurrentHashMap.newKeySet()).add(dst)) {
+                overlaySize.incrementAndGet();
+            }
+        }
+
+        private void removeFrom(ConcurrentHashMap<Long, Set<Long>> layer, long src, long dst) {
+            Set<Long> targets = layer.get(src);
+            if (targets != null && targets.remove(dst)) {
+                overlaySize.decrementAndGet();
+                if (targets.isEmpty()) {
+                    layer.remove(src, targets);
+                }
+            }
+        }
+    }
+}
@@ -3,13 +3,15 @@ package com.web.service.Impl;
 import com.web.constant.ContactStatus;
 import com.web.mapper.ContactMapper;
 import com.web.mapper.UserFollowMapper;
-import com.web.mapper.UserMapper;
 import com.web.model.Contact;
 import com.web.model.User;
 import com.web.model.UserFollow;
 import com.web.service.ContactService;
+import com.web.service.RelationshipCacheService;
+import com.web.service.SocialGraphService;
 import com.web.service.SocialRelationshipService;
 import com.web.service.UserFollowService;
+import com.web.service.UserProfileLoaderService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -34,64 +36,43 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
     @Autowired
     private UserFollowMapper userFollowMapper;
 
-    @Autowired
-    private UserMapper userMapper;
-
     @Autowired
     private ContactService contactService;
 
     @Autowired
     private UserFollowService userFollowService;
 
-    @Override
-    public RelationshipStatus getRelationshipStatus(Long userId, Long targetUserId) {
-        try {
-            // 检查是否为好友
-            if (isFriend(userId, targetUserId)) {
-                return RelationshipStatus.FRIEND;
-            }
-
-            // 检查关注关系
-            boolean iFollowTarget = userFollowMapper.isFollowing(userId, targetUserId);
-            boolean targetFollowsMe = userFollowMapper.isFollowing(targetUserId, userId);
-
-            if (iFollowTarget && targetFollowsMe) {
-                return RelationshipStatus.MUTUAL_FOLLOW;
-            } else if (iFollowTarget) {
-                return RelationshipStatus.FOLLOWING;
-            } else if (targetFollowsMe) {
-                return RelationshipStatus.FOLLOWER;
-            }
-
-            // 检查是否有待处理的好友请求
-            Contact sentRequest = contactMapper.selectOne(
-                new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<Contact>()
-                    .eq("user_id", userId)
-                    .eq("friend_id", targetUserId)
-                    .eq("status", ContactStatus.PENDING.getCode())
-            );
-            if (sentRequest != null) {
-                return RelationshipStatus.FRIEND_REQUEST_SENT;
-            }
+    @Autowired
+    private UserProfileLoaderService userProfileLoaderService;
 
-            Contact receivedRequest = contactMapper.selectOne(
-                new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<Contact>()
-                    .eq("user_id", targetUserId)
-                    .eq("friend_id", userId)
-                    .eq("status", ContactStatus.PENDING.getCode())
-            );
-            if (receivedRequest != null) {
-                return RelationshipStatus.FRIEND_REQUEST_RECEIVED;
-            }
+    @Autowired
+    private SocialGraphService socialGraphService;
 
-            return RelationshipStatus.STRANGER;
+    @Autowired
+    private RelationshipCacheService relationshipCacheService;
 
+    @Override
+    public RelationshipStatus getRelationshipStatus(Long userId, Long targetUserId) {
+        try {
+            // 好友 > 关注关系 > 待处理申请，由关系缓存按用户对一次判定
+            return relationshipCacheService.getStatus(userId, targetUserId);
         } catch (Exception e) {
             log.error("获取关系状态失败: userId={}, targetUserId={}", userId, targetUserId, e);
             return RelationshipStatus.STRANGER;
         }
     }
 
+    @Override
+    public Map<Long, RelationshipStatus> getRelationshipStatuses(Long userId, Collection<Long> targetUserIds) {
+        try {
+            return relationshipCacheService.getStatuses(userId, targetUserIds);
+        } catch (Exception e) {
+            log.error("批量获取关系状态失败: userId={}, count={}", userId,
+                targetUserIds != null ? targetUserIds.size() : 0, e);
+            return new LinkedHashMap<>();
+        }
+    }
+
     @Override
     @Transactional
     public boolean followUser(Long userId, Long targetUserId) {
@@ -188,8 +169,8 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
     @Transactional
     public boolean removeFriend(Long userId, Long friendId, boolean keepFollow) {
         try {
-            // 查找好友关系记录
-            Contact contact = contactMapper.selectOne(
+            // 查找好友关系记录（接受申请后双向各有一条）
+            List<Contact> contacts = contactMapper.selectList(
                 new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<Contact>()
                     .and(wrapper -> wrapper
                         .eq("user_id", userId).eq("friend_id", friendId)
@@ -199,18 +180,22 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
                     .eq("status", ContactStatus.ACCEPTED.getCode())
             );
 
-            if (contact == null) {
+            if (contacts.isEmpty()) {
                 log.warn("好友关系不存在: userId={}, friendId={}", userId, friendId);
                 return false;
             }
 
             // 删除好友关系
-            contactMapper.deleteById(contact.getId());
+            for (Contact contact : contacts) {
+                contactMapper.deleteById(contact.getId());
+            }
+            socialGraphService.refreshFriendship(userId, friendId);
 
             // 如果不保留关注关系，则取消关注
-            if (!keepFollow) {
-                userFollowMapper.unfollowUser(userId, friendId);
+            if (!keepFollow && userFollowMapper.unfollowUser(userId, friendId) > 0) {
+                socialGraphService.onUnfollow(userId, friendId);
             }
+            relationshipCacheService.invalidate(userId, friendId);
 
             log.info("删除好友成功: userId={}, friendId={}, keepFollow={}", userId, friendId, keepFollow);
             return true;
@@ -224,8 +209,7 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
     @Override
     public boolean isMutualFollow(Long userId, Long targetUserId) {
         try {
-            return userFollowMapper.isFollowing(userId, targetUserId) 
-                && userFollowMapper.isFollowing(targetUserId, userId);
+            return relationshipCacheService.isMutualFollow(userId, targetUserId);
         } catch (Exception e) {
             log.error("检查互相关注失败: userId={}, targetUserId={}", userId, targetUserId, e);
             return false;
@@ -235,16 +219,7 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
     @Override
     public boolean isFriend(Long userId, Long targetUserId) {
         try {
-            Contact contact = contactMapper.selectOne(
-                new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<Contact>()
-                    .and(wrapper -> wrapper
-                        .eq("user_id", userId).eq("friend_id", targetUserId)
-                        .or()
-                        .eq("user_id", targetUserId).eq("friend_id", userId)
-                    )
-                    .eq("status", ContactStatus.ACCEPTED.getCode())
-            );
-            return contact != null;
+            return relationshipCacheService.isFriend(userId, targetUserId);
         } catch (Exception e) {
             log.error("检查好友关系失败: userId={}, targetUserId={}", userId, targetUserId, e);
             return false;
@@ -298,14 +273,7 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
     @Override
     public List<Map<String, Object>> getMutualFollowList(Long userId) {
         try {
-            List<Long> followingIds = userFollowMapper.getFollowingIds(userId);
-            List<Long> followerIds = userFollowMapper.getFollowerIds(userId);
-            
-            // 找出互相关注的用户
-            Set<Long> mutualFollowIds = new HashSet<>(followingIds);
-            mutualFollowIds.retainAll(followerIds);
-            
-            return buildUserInfoList(new ArrayList<>(mutualFollowIds), RelationshipStatus.MUTUAL_FOLLOW);
+            return buildUserInfoList(new ArrayList<>(getMutualFollowIds(userId)), RelationshipStatus.MUTUAL_FOLLOW);
 
         } catch (Exception e) {
             log.error("获取互相关注列表失败: userId={}", userId, e);
@@ -317,38 +285,14 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
     public List<Map<String, Object>> getFriendRecommendations(Long userId, int limit) {
         try {
             // 基于共同好友的推荐算法
-            List<Long> friendIds = contactMapper.selectContactUserIdsByUserAndStatus(
-                userId, ContactStatus.ACCEPTED.getCode()
-            );
-
-            if (friendIds.isEmpty()) {
-                return new ArrayList<>();
-            }
-
-            // 获取好友的好友（二度关系）
-            Map<Long, Integer> recommendationScores = new HashMap<>();
-            for (Long friendId : friendIds) {
-                List<Long> friendOfFriendIds = contactMapper.selectContactUserIdsByUserAndStatus(
-                    friendId, ContactStatus.ACCEPTED.getCode()
-                );
-                
-                for (Long candidateId : friendOfFriendIds) {
-                    // 排除自己和已经是好友的用户
-                    if (!candidateId.equals(userId) && !friendIds.contains(candidateId)) {
-                        recommendationScores.put(candidateId, 
-                            recommendationScores.getOrDefault(candidateId, 0) + 1);
-                    }
-                }
+            Map<Long, Integer> recommendationScores;
+            if (socialGraphService.isReady()) {
+                recommendationScores = socialGraphService.recommendFriends(userId, limit);
+            } else {
+                recommendationScores = rankSecondDegree(userId, limit,
+                    id -> contactMapper.selectContactUserIdsByUserAndStatus(id, ContactStatus.ACCEPTED.getCode()));
             }
-
-            // 按共同好友数量排序
-            List<Long> recommendedIds = recommendationScores.entrySet().stream()
-                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-            return buildUserInfoList(recommendedIds, RelationshipStatus.STRANGER);
+            return buildRecommendationList(recommendationScores, "mutualFriendCount");
 
         } catch (Exception e) {
             log.error("获取好友推荐失败: userId={}", userId, e);
@@ -359,33 +303,14 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
     @Override
     public List<Map<String, Object>> getFollowRecommendations(Long userId, int limit) {
         try {
-            // 基于关注关系的推荐
-            List<Long> followingIds = userFollowMapper.getFollowingIds(userId);
-            
-            if (followingIds.isEmpty()) {
-                return new ArrayList<>();
-            }
-
-            // 获取关注用户的关注列表
-            Map<Long, Integer> recommendationScores = new HashMap<>();
-            for (Long followingId : followingIds) {
-                List<Long> theirFollowingIds = userFollowMapper.getFollowingIds(followingId);
-                
-                for (Long candidateId : theirFollowingIds) {
-                    if (!candidateId.equals(userId) && !followingIds.contains(candidateId)) {
-                        recommendationScores.put(candidateId,
-                            recommendationScores.getOrDefault(candidateId, 0) + 1);
-                    }
-                }
+            // 基于关注关系的推荐：关注的人也关注了
+            Map<Long, Integer> recommendationScores;
+            if (socialGraphService.isReady()) {
+                recommendationScores = socialGraphService.recommendFollows(userId, limit);
+            } else {
+                recommendationScores = rankSecondDegree(userId, limit, userFollowMapper::getFollowingIds);
             }
-
-            List<Long> recommendedIds = recommendationScores.entrySet().stream()
-                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-            return buildUserInfoList(recommendedIds, RelationshipStatus.STRANGER);
+            return buildRecommendationList(recommendationScores, "mutualFollowCount");
 
         } catch (Exception e) {
             log.error("获取关注推荐失败: userId={}", userId, e);
@@ -399,32 +324,14 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
             Map<String, Object> stats = new HashMap<>();
             
             // 好友数
-            Long friendCountLong = contactMapper.selectCount(
-                new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<Contact>()
-                    .and(wrapper -> wrapper
-                        .eq("user_id", userId)
-                        .or()
-                        .eq("friend_id", userId)
-                    )
-                    .eq("status", ContactStatus.ACCEPTED.getCode())
-            );
-            int friendCount = friendCountLong != null ? friendCountLong.intValue() : 0;
-            stats.put("friendCount", friendCount);
-
-            // 关注数
-            int followingCount = userFollowMapper.getFollowingIds(userId).size();
-            stats.put("followingCount", followingCount);
-
-            // 粉丝数
-            int followerCount = userFollowMapper.getFollowerIds(userId).size();
-            stats.put("followerCount", followerCount);
-
-            // 互相关注数
-            List<Long> followingIds = userFollowMapper.getFollowingIds(userId);
-            List<Long> followerIds = userFollowMapper.getFollowerIds(userId);
-            Set<Long> mutualFollowSet = new HashSet<>(followingIds);
-            mutualFollowSet.retainAll(followerIds);
-            stats.put("mutualFollowCount", mutualFollowSet.size());
+            if (socialGraphService.isReady()) {
+                stats.put("friendCount", socialGraphService.getFriendIds(userId).length);
+                stats.put("followingCount", socialGraphService.getFollowingIds(userId).length);
+                stats.put("followerCount", socialGraphService.getFollowerIds(userId).length);
+                stats.put("mutualFollowCount", getMutualFollowIds(userId).size());
+            } else {
+                putSocialCountsFromDb(userId, stats);
+            }
 
             // 待处理好友请求数
             Long pendingRequestCountLong = contactMapper.selectCount(
@@ -443,18 +350,38 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
         }
     }
 
+    /**
+     * 社交图未就绪时从数据库统计好友、关注、粉丝与互关数
+     */
+    private void putSocialCountsFromDb(Long userId, Map<String, Object> stats) {
+        Long friendCountLong = contactMapper.selectCount(
+            new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<Contact>()
+                .and(wrapper -> wrapper
+                    .eq("user_id", userId)
+                    .or()
+                    .eq("friend_id", userId)
+                )
+                .eq("status", ContactStatus.ACCEPTED.getCode())
+        );
+        stats.put("friendCount", friendCountLong != null ? friendCountLong.intValue() : 0);
+        stats.put("followingCount", userFollowMapper.getFollowingIds(userId).size());
+        stats.put("followerCount", userFollowMapper.getFollowerIds(userId).size());
+        stats.put("mutualFollowCount", getMutualFollowIds(userId).size());
+    }
+
     @Override
     @Transactional
     public void handleMutualFollowAutoFriend(Long userId, Long targetUserId) {
         try {
+            // 触发本次检查的关注尚未提交，社交图中还看不到，这里直接查数据库
             // 检查是否已经是好友
-            if (isFriend(userId, targetUserId)) {
+            if (isFriendInDb(userId, targetUserId)) {
                 log.info("用户已经是好友，跳过自动建立: userId={}, targetUserId={}", userId, targetUserId);
                 return;
             }
 
             // 检查是否互相关注
-            if (!isMutualFollow(userId, targetUserId)) {
+            if (!isMutualFollowInDb(userId, targetUserId)) {
                 log.info("用户未互相关注，跳过自动建立: userId={}, targetUserId={}", userId, targetUserId);
                 return;
             }
@@ -469,6 +396,8 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
             contact.setUpdateTime(new Date());
             
             contactMapper.insert(contact);
+            socialGraphService.refreshFriendship(userId, targetUserId);
+            relationshipCacheService.invalidate(userId, targetUserId);
 
             log.info("互相关注自动建立好友关系成功: userId={}, targetUserId={}", userId, targetUserId);
 
@@ -477,6 +406,78 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
         }
     }
 
+    private boolean isFriendInDb(Long userId, Long targetUserId) {
+        return contactMapper.countContactsBetween(userId, targetUserId, ContactStatus.ACCEPTED.getCode()) > 0;
+    }
+
+    private boolean isMutualFollowInDb(Long userId, Long targetUserId) {
+        return userFollowMapper.isFollowing(userId, targetUserId)
+            && userFollowMapper.isFollowing(targetUserId, userId);
+    }
+
+    /**
+     * 互相关注的用户ID：社交图就绪时对两个有序数组求交集
+     */
+    private List<Long> getMutualFollowIds(Long userId) {
+        List<Long> mutualFollowIds = new ArrayList<>();
+        if (socialGraphService.isReady()) {
+            long[] followingIds = socialGraphService.getFollowingIds(userId);
+            long[] followerIds = socialGraphService.getFollowerIds(userId);
+            int i = 0, j = 0;
+            while (i < followingIds.length && j < followerIds.length) {
+                if (followingIds[i] == followerIds[j]) {
+                    mutualFollowIds.add(followingIds[i]);
+                    i++;
+                    j++;
+                } else if (followingIds[i] < followerIds[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return mutualFollowIds;
+        }
+        Set<Long> followerIds = new HashSet<>(userFollowMapper.getFollowerIds(userId));
+        for (Long id : userFollowMapper.getFollowingIds(userId)) {
+            if (followerIds.contains(id)) {
+                mutualFollowIds.add(id);
+            }
+        }
+        return mutualFollowIds;
+    }
+
+    /**
+     * 社交图未就绪时的二度关系计数（逐个查询一度邻居的关系列表）
+     */
+    private Map<Long, Integer> rankSecondDegree(Long userId, int limit,
+                                                java.util.function.Function<Long, List<Long>> neighbors) {
+        Set<Long> firstHop = new HashSet<>(neighbors.apply(userId));
+        Map<Long, Integer> recommendationScores = new HashMap<>();
+        for (Long middleId : firstHop) {
+            for (Long candidateId : neighbors.apply(middleId)) {
+                // 排除自己和已有关系的用户
+                if (!candidateId.equals(userId) && !firstHop.contains(candidateId)) {
+                    recommendationScores.merge(candidateId, 1, Integer::sum);
+                }
+            }
+        }
+        return recommendationScores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+            .limit(limit)
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * 构建推荐列表，保持分数顺序并附带分数字段
+     */
+    private List<Map<String, Object>> buildRecommendationList(Map<Long, Integer> scores, String scoreField) {
+        List<Map<String, Object>> result = buildUserInfoList(new ArrayList<>(scores.keySet()), RelationshipStatus.STRANGER);
+        for (Map<String, Object> userInfo : result) {
+            userInfo.put(scoreField, scores.get((Long) userInfo.get("userId")));
+        }
+        return result;
+    }
+
     /**
      * 构建用户信息列表
      */
@@ -485,9 +486,11 @@ public class SocialRelationshipServiceImpl implements SocialRelationshipService
             return new ArrayList<>();
         }
 
+        // 一次批量加载，避免逐个查询用户
+        Map<Long, User> users = userProfileLoaderService.getUsers(userIds);
         return userIds.stream()
             .map(id -> {
-                User user = userMapper.selectById(id);
+                User user = users.get(id);
                 if (user == null) {
                     return null;
                 }
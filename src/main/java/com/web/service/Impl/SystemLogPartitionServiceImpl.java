@@ -0,0 +1,240 @@
+package com.web.service.Impl;
+
+import com.web.service.SystemLogPartitionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 系统日志分区管理服务实现
+ * 分区命名为 p{yyyyMMdd}（只含当天日志，上界为次日），另有 p_history（保留期之前的旧数据，转换时生成）
+ * 和 p_future（MAXVALUE）。新分区通过拆分 p_future 创建，p_future 平时为空，拆分不需要搬数据。
+ * 分区DDL会隐式提交，因此这里直接用 JdbcTemplate 在事务之外执行。
+ * 默认关闭；未分区的旧表需先手动执行 sql/migration/01_partition_system_logs.sql 转换，这里不会重建表
+ */
+@Slf4j
+@Service
+public class SystemLogPartitionServiceImpl implements SystemLogPartitionService {
+
+    private static final String TABLE = "system_logs";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final String HISTORY_PARTITION = "p_history";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    // MySQL TO_DAYS('1970-01-01')，用于把分区上界换算为日期
+    private static final long TO_DAYS_EPOCH = 719528L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${weeb.system-log.partition.enabled:false}")
+    private boolean enabled;
+
+    @Value("${weeb.system-log.partition.ahead-days:7}")
+    private int aheadDays;
+
+    @Value("${weeb.system-log.retention-days:0}")
+    private int retentionDays;
+
+    private final AtomicLong createdPartitions = new AtomicLong();
+    private final AtomicLong droppedPartitions = new AtomicLong();
+    private volatile String lastError;
+    private volatile long lastCheckMillis;
+    private volatile boolean unpartitionedWarned;
+
+    /**
+     * 单个分区：上界为 null 表示 MAXVALUE
+     */
+    private static final class Partition {
+        final String name;
+        final LocalDate upperBound;
+        final long rows;
+
+        Partition(String name, LocalDate upperBound, long rows) {
+            this.name = name;
+            this.upperBound = upperBound;
+            this.rows = rows;
+        }
+    }
+
+    @Override
+    public synchronized int ensurePartitions() {
+        if (!enabled || !tableExists()) {
+            return 0;
+        }
+        lastCheckMillis = System.currentTimeMillis();
+        try {
+            if (!isPartitioned()) {
+                // 只提示一次，避免每次维护都刷日志
+                if (!unpartitionedWarned) {
+                    unpartitionedWarned = true;
+                    log.warn("系统日志表尚未分区，跳过分区维护；请先在低峰期执行 sql/migration/01_partition_system_logs.sql");
+                }
+                return 0;
+            }
+            List<Partition> partitions = loadPartitions();
+            LocalDate lastBound = null;
+            for (Partition partition : partitions) {
+                if (partition.upperBound != null && (lastBound == null || partition.upperBound.isAfter(lastBound))) {
+                    lastBound = partition.upperBound;
+                }
+            }
+
+            LocalDate today = LocalDate.now();
+            LocalDate end = today.plusDays(aheadDays);
+            List<String> definitions = new ArrayList<>();
+            LocalDate firstDay;
+            if (lastBound == null) {
+                // 首次拆分 p_future：保留期内按天建分区，更早的数据放入 p_history，等待保留期清理
+                firstDay = retentionDays > 0 ? today.minusDays(retentionDays) : today;
+                LocalDate minDay = jdbcTemplate.queryForObject(
+                        "SELECT DATE(MIN(created_at)) FROM " + TABLE, LocalDate.class);
+                if (minDay != null && minDay.isBefore(firstDay)) {
+                    definitions.add(definition(HISTORY_PARTITION, firstDay));
+                } else if (minDay != null && minDay.isBefore(today)) {
+                    firstDay = minDay;
+                } else {
+                    firstDay = today;
+                }
+            } else {
+                firstDay = lastBound;
+            }
+            for (LocalDate day = firstDay; !day.isAfter(end); day = day.plusDays(1)) {
+                definitions.add(definition("p" + day.format(NAME_FORMAT), day.plusDays(1)));
+            }
+            if (definitions.isEmpty()) {
+                return 0;
+            }
+            definitions.add("PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION
+                    + " INTO (" + String.join(", ", definitions) + ")");
+
+            int created = definitions.size() - 1;
+            createdPartitions.addAndGet(created);
+            lastError = null;
+            log.info("系统日志已新建 {} 个分区，最新分区至 {}", created, end);
+            return created;
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            log.error("维护系统日志分区失败", e);
+            return 0;
+        }
+    }
+
+    @Override
+    public synchronized Map<String, Object> dropPartitionsBefore(LocalDate cutoffDate) {
+        Map<String, Object> result = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        long rows = 0;
+        for (Partition partition : loadPartitions()) {
+            if (partition.upperBound != null && !partition.upperBound.isAfter(cutoffDate)) {
+                names.add(partition.name);
+                rows += partition.rows;
+            }
+        }
+        if (!names.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", names));
+            droppedPartitions.addAndGet(names.size());
+            log.info("已删除 {} 之前的系统日志分区: {}，约 {} 行", cutoffDate, names, rows);
+        }
+        result.put("droppedPartitions", names);
+        result.put("estimatedRows", rows);
+        result.put("cutoffDate", cutoffDate.toString());
+        return result;
+    }
+
+    @Override
+    public int applyRetention() {
+        if (!enabled || retentionDays <= 0 || !tableExists() || !isPartitioned()) {
+            return 0;
+        }
+        try {
+            Map<String, Object> result = dropPartitionsBefore(LocalDate.now().minusDays(retentionDays));
+            return ((List<?>) result.get("droppedPartitions")).size();
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            log.error("按保留期删除系统日志分区失败", e);
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public List<Map<String, Object>> listPartitions() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        LocalDate lowerBound = null;
+        for (Partition partition : loadPartitions()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("name", partition.name);
+            item.put("fromDate", lowerBound != null ? lowerBound.toString() : null);
+            item.put("toDate", partition.upperBound != null ? partition.upperBound.toString() : null);
+            item.put("estimatedRows", partition.rows);
+            result.add(item);
+            lowerBound = partition.upperBound;
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("aheadDays", aheadDays);
+        stats.put("retentionDays", retentionDays);
+        stats.put("createdPartitions", createdPartitions.get());
+        stats.put("droppedPartitions", droppedPartitions.get());
+        stats.put("lastCheckMillis", lastCheckMillis);
+        stats.put("lastError", lastError);
+        try {
+            stats.put("partitioned", isPartitioned());
+            stats.put("partitions", listPartitions());
+        } catch (Exception e) {
+            stats.put("error", "读取分区信息失败: " + e.getMessage());
+        }
+        return stats;
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    private List<Partition> loadPartitions() {
+        return jdbcTemplate.query(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, rowNum) -> {
+                    String description = rs.getString("PARTITION_DESCRIPTION");
+                    LocalDate upperBound = description == null || "MAXVALUE".equalsIgnoreCase(description)
+                            ? null : LocalDate.ofEpochDay(Long.parseLong(description.trim()) - TO_DAYS_EPOCH);
+                    return new Partition(rs.getString("PARTITION_NAME"), upperBound, rs.getLong("TABLE_ROWS"));
+                },
+                TABLE);
+    }
+
+    private boolean tableExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    private static String definition(String name, LocalDate upperBound) {
+        return "PARTITION " + name + " VALUES LESS THAN (TO_DAYS('" + upperBound + "'))";
+    }
+}
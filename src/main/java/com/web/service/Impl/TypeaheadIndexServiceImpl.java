@@ -0,0 +1,377 @@
+package com.web.service.Impl;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.extra.pinyin.PinyinUtil;
+import com.web.mapper.GroupMapper;
+import com.web.mapper.UserMapper;
+import com.web.model.Group;
+import com.web.model.User;
+import com.web.service.TypeaheadIndexService;
+import com.web.util.PrefixTrie;
+import com.web.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 输入联想索引服务实现
+ * 全量构建按ID游标分批扫描，构建期间的增量变更记入日志并在切换前重放，保证不丢更新
+ */
+@Slf4j
+@Service
+public class TypeaheadIndexServiceImpl implements TypeaheadIndexService {
+
+    private static final int SCAN_BATCH_SIZE = 1000;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private GroupMapper groupMapper;
+
+    @Value("${weeb.search.typeahead.top-k:10}")
+    private int topK;
+
+    /**
+     * 单一类型的索引：前缀树 + 每个条目对应的索引键（用于增量删除）
+     */
+    private static final class IndexState {
+        final PrefixTrie trie;
+        final Map<Long, Set<String>> keysById = new ConcurrentHashMap<>();
+
+        IndexState(int k) {
+            this.trie = new PrefixTrie(k);
+        }
+
+        void put(long id, String label, long score, Set<String> keys) {
+            remove(id);
+            PrefixTrie.Entry entry = new PrefixTrie.Entry(id, label, score);
+            for (String key : keys) {
+                trie.insert(key, entry);
+            }
+            keysById.put(id, keys);
+        }
+
+        void remove(long id) {
+            Set<String> oldKeys = keysById.remove(id);
+            if (oldKeys != null) {
+                for (String key : oldKeys) {
+                    trie.remove(key, id);
+                }
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        final IndexState users;
+        final IndexState groups;
+
+        Snapshot(int k) {
+            this.users = new IndexState(k);
+            this.groups = new IndexState(k);
+        }
+    }
+
+    private volatile Snapshot snapshot;
+    private volatile boolean ready = false;
+
+    // 增量变更与全量切换互斥；重建期间的变更同时记入journal
+    private final Object mutationLock = new Object();
+    private List<Consumer<Snapshot>> journal;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private volatile boolean pinyinAvailable = true;
+
+    // 统计信息
+    private final AtomicLong suggestCount = new AtomicLong();
+    private final AtomicLong suggestNanos = new AtomicLong();
+    private final AtomicLong estimateCount = new AtomicLong();
+    private final AtomicLong incrementalUpdates = new AtomicLong();
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private volatile long lastRebuildMillis = 0;
+    private volatile long lastRebuildAt = 0;
+
+    @Override
+    public List<Map<String, Object>> suggest(String type, String prefix, int limit) {
+        IndexState state = stateOf(type);
+        String normalized = normalize(prefix);
+        if (state == null || normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        List<PrefixTrie.Entry> entries = state.trie.topK(normalized, limit);
+        suggestNanos.addAndGet(System.nanoTime() - start);
+        suggestCount.incrementAndGet();
+
+        List<Map<String, Object>> result = new ArrayList<>(entries.size());
+        for (PrefixTrie.Entry entry : entries) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", entry.getId());
+            item.put("name", entry.getLabel());
+            item.put("type", type);
+            result.add(item);
+        }
+        return result;
+    }
+
+    @Override
+    public long estimateCount(String type, String keyword) {
+        IndexState state = stateOf(type);
+        String normalized = normalize(keyword);
+        if (!ready || state == null || normalized.isEmpty()) {
+            return -1;
+        }
+        estimateCount.incrementAndGet();
+        return state.trie.countPrefix(normalized);
+    }
+
+    @Override
+    public void refreshUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            User user = userMapper.selectById(userId);
+            if (user == null) {
+                mutate(s -> s.users.remove(userId));
+                return;
+            }
+            Set<String> keys = buildKeys(user.getUsername(), user.getNickname());
+            String label = user.getNickname() != null && !user.getNickname().isBlank()
+                    ? user.getNickname() : user.getUsername();
+            long score = user.getUserLevel() != null ? user.getUserLevel() : 0;
+            mutate(s -> s.users.put(userId, label, score, keys));
+        });
+    }
+
+    @Override
+    public void removeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> mutate(s -> s.users.remove(userId)));
+    }
+
+    @Override
+    public void refreshGroup(Long groupId) {
+        if (groupId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            Group group = groupMapper.selectById(groupId);
+            if (group == null || (group.getStatus() != null && group.getStatus() != 1)) {
+                mutate(s -> s.groups.remove(groupId));
+                return;
+            }
+            Set<String> keys = buildKeys(group.getGroupName());
+            long score = group.getMemberCount() != null ? group.getMemberCount() : 0;
+            mutate(s -> s.groups.put(groupId, group.getGroupName(), score, keys));
+        });
+    }
+
+    @Override
+    public void removeGroup(Long groupId) {
+        if (groupId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> mutate(s -> s.groups.remove(groupId)));
+    }
+
+    @Override
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("输入联想索引正在重建，跳过本次请求");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            synchronized (mutationLock) {
+                journal = new ArrayList<>();
+            }
+
+            Snapshot fresh = new Snapshot(topK);
+            long lastId = 0L;
+            List<User> users;
+            do {
+                users = userMapper.selectSearchKeysAfter(lastId, SCAN_BATCH_SIZE);
+                for (User user : users) {
+                    String label = user.getNickname() != null && !user.getNickname().isBlank()
+                            ? user.getNickname() : user.getUsername();
+                    long score = user.getUserLevel() != null ? user.getUserLevel() : 0;
+                    fresh.users.put(user.getId(), label, score, buildKeys(user.getUsername(), user.getNickname()));
+                    lastId = user.getId();
+                }
+            } while (users.size() == SCAN_BATCH_SIZE);
+
+            lastId = 0L;
+            List<Group> groups;
+            do {
+                groups = groupMapper.selectSearchKeysAfter(lastId, SCAN_BATCH_SIZE);
+                for (Group group : groups) {
+                    long score = group.getMemberCount() != null ? group.getMemberCount() : 0;
+                    fresh.groups.put(group.getId(), group.getGroupName(), score, buildKeys(group.getGroupName()));
+                    lastId = group.getId();
+                }
+            } while (groups.size() == SCAN_BATCH_SIZE);
+
+            synchronized (mutationLock) {
+                // 重放构建期间发生的增量变更后再切换
+                for (Consumer<Snapshot> op : journal) {
+                    op.accept(fresh);
+                }
+                journal = null;
+                snapshot = fresh;
+                ready = true;
+            }
+
+            lastRebuildMillis = System.currentTimeMillis() - start;
+            lastRebuildAt = System.currentTimeMillis();
+            rebuildCount.incrementAndGet();
+            log.info("输入联想索引重建完成: users={}, groups={}, cost={}ms",
+                    fresh.users.keysById.size(), fresh.groups.keysById.size(), lastRebuildMillis);
+        } catch (Exception e) {
+            synchronized (mutationLock) {
+                journal = null;
+            }
+            log.error("输入联想索引重建失败", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        Snapshot current = snapshot;
+        stats.put("ready", ready);
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("pinyinAvailable", pinyinAvailable);
+        if (current != null) {
+            stats.put("userEntries", current.users.keysById.size());
+            stats.put("userKeys", current.users.trie.size());
+            stats.put("userNodes", current.users.trie.nodeCount());
+            stats.put("groupEntries", current.groups.keysById.size());
+            stats.put("groupKeys", current.groups.trie.size());
+            stats.put("groupNodes", current.groups.trie.nodeCount());
+        }
+        long suggests = suggestCount.get();
+        stats.put("suggestCount", suggests);
+        stats.put("avgSuggestMicros", suggests > 0 ? suggestNanos.get() / suggests / 1000.0 : 0.0);
+        stats.put("estimateCount", estimateCount.get());
+        stats.put("incrementalUpdates", incrementalUpdates.get());
+        stats.put("rebuildCount", rebuildCount.get());
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        stats.put("lastRebuildAt", lastRebuildAt);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private IndexState stateOf(String type) {
+        Snapshot current = snapshot;
+        if (current == null || type == null) {
+            return null;
+        }
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case TYPE_USER:
+                return current.users;
+            case TYPE_GROUP:
+                return current.groups;
+            default:
+                return null;
+        }
+    }
+
+    private void mutate(Consumer<Snapshot> op) {
+        synchronized (mutationLock) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                op.accept(current);
+            }
+            if (journal != null) {
+                journal.add(op);
+            }
+        }
+        incrementalUpdates.incrementAndGet();
+    }
+
+    /**
+     * 为名称生成索引键：原文、按空白切分的词、中文名的拼音全拼与首字母
+     */
+    private Set<String> buildKeys(String... names) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String name : names) {
+            String normalized = normalize(name);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            keys.add(normalized);
+            for (String token : normalized.split("\\s+")) {
+                if (!token.isEmpty()) {
+                    keys.add(token);
+                }
+            }
+            addPinyinKeys(name, keys);
+        }
+        return keys;
+    }
+
+    private void addPinyinKeys(String name, Set<String> keys) {
+        if (!pinyinAvailable || !containsChinese(name)) {
+            return;
+        }
+        try {
+            String full = normalize(PinyinUtil.getPinyin(name, ""));
+            String initials = normalize(PinyinUtil.getFirstLetter(name, ""));
+            if (!full.isEmpty()) {
+                keys.add(full);
+            }
+            if (!initials.isEmpty()) {
+                keys.add(initials);
+            }
+        } catch (Exception e) {
+            // 缺少拼音引擎时降级为仅原文索引
+            pinyinAvailable = false;
+            log.warn("拼音引擎不可用，输入联想索引将不包含拼音键: {}", e.getMessage());
+        }
+    }
+
+    private static boolean containsChinese(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (PinyinUtil.isChinese(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 规范化：全角转半角、转小写、去除首尾空白并限制长度
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Convert.toDBC(text).toLowerCase(Locale.ROOT).trim();
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+}
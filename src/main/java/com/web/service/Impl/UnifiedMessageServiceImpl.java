@@ -55,6 +55,12 @@ public class UnifiedMessageServiceImpl implements UnifiedMessageService {
     @Autowired
     private com.web.service.MessageRetryService messageRetryService;
 
+    @Autowired
+    private BehaviorEventService behaviorEventService;
+
+    @Autowired
+    private UserLevelEngineService userLevelEngineService;
+
     // 消息类型常量
     private static final String MESSAGE_TYPE_PRIVATE = "PRIVATE";
     private static final String MESSAGE_TYPE_GROUP = "GROUP";
@@ -165,6 +171,8 @@ public class UnifiedMessageServiceImpl implements UnifiedMessageService {
 
             // 保存消息
             messageMapper.insert(message);
+            behaviorEventService.record(BehaviorEventService.EVENT_MESSAGE_SENT, senderId, null);
+            userLevelEngineService.increment(senderId, UserLevelEngineService.COUNTER_MESSAGES, 1);
 
             // 更新聊天列表
             chatListMapper.updateLastMessageAndUnreadCount(chatList.getId(), content);
@@ -238,6 +246,8 @@ public class UnifiedMessageServiceImpl implements UnifiedMessageService {
 
             // 保存消息
             messageMapper.insert(message);
+            behaviorEventService.record(BehaviorEventService.EVENT_MESSAGE_SENT, senderId, null);
+            userLevelEngineService.increment(senderId, UserLevelEngineService.COUNTER_MESSAGES, 1);
 
             // 更新群组成员的未读消息数（这里简化处理）
             updateGroupUnreadCounts(groupId, senderId);
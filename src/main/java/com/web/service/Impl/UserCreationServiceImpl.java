@@ -10,6 +10,9 @@ import com.web.mapper.UserStatsMapper;
 import com.web.model.User;
 import com.web.model.UserStats;
 import com.web.service.AuthService;
+import com.web.service.BehaviorEventService;
+import com.web.service.SearchResultCacheService;
+import com.web.service.TypeaheadIndexService;
 import com.web.service.UserCreationService;
 import com.web.exception.WeebException;
 import lombok.extern.slf4j.Slf4j;
@@ -34,18 +37,27 @@ public class UserCreationServiceImpl implements UserCreationService {
     private final UserStatsMapper userStatsMapper;
     // private final RoleMapper roleMapper;
     private final AuthService authService;
+    private final TypeaheadIndexService typeaheadIndexService;
+    private final SearchResultCacheService searchResultCacheService;
+    private final BehaviorEventService behaviorEventService;
 
     @Autowired
     public UserCreationServiceImpl(
             UserMapper userMapper,
             UserStatsMapper userStatsMapper,
-            @Lazy AuthService authService) {
+            @Lazy AuthService authService,
+            TypeaheadIndexService typeaheadIndexService,
+            SearchResultCacheService searchResultCacheService,
+            BehaviorEventService behaviorEventService) {
         this.userMapper = userMapper;
         // RBAC相关mapper已删除
         // this.userRoleMapper = userRoleMapper;
         this.userStatsMapper = userStatsMapper;
         // this.roleMapper = roleMapper;
         this.authService = authService;
+        this.typeaheadIndexService = typeaheadIndexService;
+        this.searchResultCacheService = searchResultCacheService;
+        this.behaviorEventService = behaviorEventService;
     }
 
     @Override
@@ -72,6 +84,12 @@ public class UserCreationServiceImpl implements UserCreationService {
             log.debug("初始化用户统计数据");
             initializeUserStats(user.getId());
 
+            // 事务提交后加入输入联想索引
+            typeaheadIndexService.refreshUser(user.getId());
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_USER, user.getId(),
+                    user.getUsername(), user.getNickname());
+            behaviorEventService.record(BehaviorEventService.EVENT_REGISTER, user.getId(), null);
+
             log.info("用户及其依赖数据创建完成: userId={}, username={}", user.getId(), user.getUsername());
 
             return user;
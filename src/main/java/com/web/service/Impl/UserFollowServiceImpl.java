@@ -5,6 +5,9 @@ import com.web.mapper.UserFollowMapper;
 import com.web.mapper.UserMapper;
 import com.web.model.UserFollow;
 import com.web.service.NotificationService;
+import com.web.service.RelationshipCacheService;
+import com.web.service.SocialGraphService;
+import com.web.service.UserLevelEngineService;
 import com.web.service.UserFollowService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -31,6 +34,15 @@ public class UserFollowServiceImpl implements UserFollowService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private UserLevelEngineService userLevelEngineService;
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private RelationshipCacheService relationshipCacheService;
+
     @Override
     public void followUser(Long followerId, Long followeeId) {
         if (followerId.equals(followeeId)) {
@@ -54,6 +66,9 @@ public class UserFollowServiceImpl implements UserFollowService {
         userFollow.setCreatedAt(new Date());
         
         userFollowMapper.insert(userFollow);
+        userLevelEngineService.increment(followeeId, UserLevelEngineService.COUNTER_FOLLOWERS, 1);
+        socialGraphService.onFollow(followerId, followeeId);
+        relationshipCacheService.invalidate(followerId, followeeId);
         
         // 创建关注通知
         try {
@@ -74,6 +89,9 @@ public class UserFollowServiceImpl implements UserFollowService {
         if (deleted == 0) {
             throw new WeebException("未关注该用户");
         }
+        userLevelEngineService.increment(followeeId, UserLevelEngineService.COUNTER_FOLLOWERS, -1);
+        socialGraphService.onUnfollow(followerId, followeeId);
+        relationshipCacheService.invalidate(followerId, followeeId);
     }
 
     @Override
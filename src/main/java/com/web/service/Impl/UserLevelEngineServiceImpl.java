@@ -0,0 +1,425 @@
+package com.web.service.Impl;
+
+import com.web.constant.UserLevel;
+import com.web.mapper.UserMapper;
+import com.web.model.User;
+import com.web.service.UserLevelEngineService;
+import com.web.service.UserProfileLoaderService;
+import com.web.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户等级引擎服务实现
+ * 计数保存在Redis哈希 user:level:counters:{userId} 中，首次访问时用一次批量查询从数据库加载；
+ * 增量更新用脚本保证只在哈希已存在时执行，避免在未加载的计数上从0开始累加
+ */
+@Slf4j
+@Service
+public class UserLevelEngineServiceImpl implements UserLevelEngineService {
+
+    private static final String KEY_PREFIX = "user:level:counters:";
+    private static final String RESYNC_CURSOR_KEY = "user:level:resync:cursor";
+    private static final List<String> COUNTERS = Arrays.asList(
+            COUNTER_ARTICLES, COUNTER_MESSAGES, COUNTER_LIKES, COUNTER_FOLLOWERS, COUNTER_VIEWS, COUNTER_COMMENTS);
+
+    // 等级要求字段 -> 计数名
+    private static final Map<String, String> REQUIREMENT_COUNTERS = Map.of(
+            "minArticles", COUNTER_ARTICLES,
+            "minMessages", COUNTER_MESSAGES,
+            "minLikes", COUNTER_LIKES,
+            "minFollowers", COUNTER_FOLLOWERS,
+            "minViews", COUNTER_VIEWS);
+
+    // 计数名 -> 升序门槛，由等级要求推导，等级规则调整后自动生效
+    private static final Map<String, long[]> THRESHOLDS = buildThresholds();
+
+    // 哈希存在时才累加并返回新值，否则返回nil
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+            "return redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) end " +
+            "return false", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserProfileLoaderService userProfileLoaderService;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    @Autowired
+    @Qualifier("levelResyncExecutor")
+    private Executor levelResyncExecutor;
+
+    @Value("${weeb.user.level-engine.resync-chunk-size:500}")
+    private int resyncChunkSize;
+
+    @Value("${weeb.user.level-engine.resync-threads:4}")
+    private int resyncThreads;
+
+    private final Set<Long> pendingEvaluations = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean resyncRunning = new AtomicBoolean();
+
+    // 统计信息
+    private final AtomicLong incrementCount = new AtomicLong();
+    private final AtomicLong seedCount = new AtomicLong();
+    private final AtomicLong recountCount = new AtomicLong();
+    private final AtomicLong thresholdCrossings = new AtomicLong();
+    private final AtomicLong incrementFailures = new AtomicLong();
+    private final AtomicLong evaluationsDrained = new AtomicLong();
+    private final AtomicLong resyncUsers = new AtomicLong();
+    private final AtomicLong resyncCandidates = new AtomicLong();
+    private volatile long resyncCursor = 0;
+    private volatile long resyncStartedAt = 0;
+    private volatile long lastResyncMillis = 0;
+    private volatile String lastResyncResult = "never";
+
+    @Override
+    public void increment(Long userId, String counter, long delta) {
+        if (userId == null || delta == 0 || !COUNTERS.contains(counter)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> apply(userId, counter, delta));
+    }
+
+    @Override
+    public void incrementAll(String counter, Map<Long, Long> deltas) {
+        if (deltas == null || deltas.isEmpty() || !COUNTERS.contains(counter)) {
+            return;
+        }
+        Map<Long, Long> snapshot = new HashMap<>(deltas);
+        TransactionUtils.afterCommit(() -> snapshot.forEach((userId, delta) -> {
+            if (userId != null && delta != null && delta != 0) {
+                apply(userId, counter, delta);
+            }
+        }));
+    }
+
+    @Override
+    public void recount(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                store(loadCounters(List.of(userId)));
+                recountCount.incrementAndGet();
+                pendingEvaluations.add(userId);
+            } catch (Exception e) {
+                log.warn("重新统计用户等级计数失败: userId={}, error={}", userId, e.getMessage());
+                evict(userId);
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Object> getUserStats(Long userId) {
+        Map<String, Long> counters = readCounters(userId);
+        User user = userProfileLoaderService.getUser(userId);
+        Date registeredAt = user != null ? user.getCreatedAt() : null;
+
+        Map<String, Object> stats = toStats(counters, loginDays(registeredAt));
+        stats.put("registrationDate", registeredAt);
+        stats.put("lastLoginDate", user != null ? user.getLoginTime() : null);
+        return stats;
+    }
+
+    @Override
+    public Set<Long> drainPendingEvaluations(int limit) {
+        Set<Long> drained = new HashSet<>();
+        Iterator<Long> iterator = pendingEvaluations.iterator();
+        while (iterator.hasNext() && drained.size() < limit) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        evaluationsDrained.addAndGet(drained.size());
+        return drained;
+    }
+
+    @Override
+    public boolean startResync(boolean fromBeginning) {
+        if (!resyncRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                runResync(fromBeginning);
+            } finally {
+                resyncRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("increments", incrementCount.get());
+        stats.put("seeds", seedCount.get());
+        stats.put("recounts", recountCount.get());
+        stats.put("thresholdCrossings", thresholdCrossings.get());
+        stats.put("incrementFailures", incrementFailures.get());
+        stats.put("pendingEvaluations", pendingEvaluations.size());
+        stats.put("evaluationsDrained", evaluationsDrained.get());
+        stats.put("resyncRunning", resyncRunning.get());
+        stats.put("resyncCursor", resyncCursor);
+        stats.put("resyncUsers", resyncUsers.get());
+        stats.put("resyncCandidates", resyncCandidates.get());
+        stats.put("lastResyncMillis", lastResyncMillis);
+        stats.put("lastResyncResult", lastResyncResult);
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void apply(Long userId, String counter, long delta) {
+        try {
+            Long value = stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(key(userId)),
+                    counter, String.valueOf(delta));
+            incrementCount.incrementAndGet();
+            if (value == null) {
+                // 计数尚未加载：整体从数据库加载，已提交的本次变更包含在结果中
+                store(loadCounters(List.of(userId)));
+                seedCount.incrementAndGet();
+                pendingEvaluations.add(userId);
+                return;
+            }
+            if (crossesThreshold(counter, value - delta, value)) {
+                thresholdCrossings.incrementAndGet();
+                pendingEvaluations.add(userId);
+            }
+        } catch (Exception e) {
+            incrementFailures.incrementAndGet();
+            log.warn("更新用户等级计数失败: userId={}, counter={}, delta={}, error={}",
+                    userId, counter, delta, e.getMessage());
+            // 删除可能已不准确的计数，下次访问时重新加载
+            evict(userId);
+        }
+    }
+
+    private Map<String, Long> readCounters(Long userId) {
+        try {
+            Map<Object, Object> raw = stringRedisTemplate.opsForHash().entries(key(userId));
+            if (!raw.isEmpty()) {
+                Map<String, Long> counters = new HashMap<>();
+                raw.forEach((field, value) -> counters.put(String.valueOf(field), Long.parseLong(String.valueOf(value))));
+                return counters;
+            }
+        } catch (Exception e) {
+            log.warn("读取用户等级计数失败，改为查询数据库: userId={}, error={}", userId, e.getMessage());
+            return loadCounters(List.of(userId)).get(userId);
+        }
+        Map<Long, Map<String, Long>> loaded = loadCounters(List.of(userId));
+        try {
+            store(loaded);
+            seedCount.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("写入用户等级计数失败: userId={}, error={}", userId, e.getMessage());
+        }
+        return loaded.get(userId);
+    }
+
+    /**
+     * 一次批量查询加载多个用户的全部计数，缺失的计数补0
+     */
+    private Map<Long, Map<String, Long>> loadCounters(List<Long> userIds) {
+        Map<Long, Map<String, Long>> result = new HashMap<>(userIds.size() * 2);
+        for (Long userId : userIds) {
+            Map<String, Long> counters = new HashMap<>();
+            for (String counter : COUNTERS) {
+                counters.put(counter, 0L);
+            }
+            result.put(userId, counters);
+        }
+        for (Map<String, Object> row : userMapper.selectLevelCounters(userIds)) {
+            Object userId = row.get("userId");
+            Object value = row.get("value");
+            if (userId == null || value == null) {
+                continue;
+            }
+            Map<String, Long> counters = result.get(((Number) userId).longValue());
+            if (counters != null) {
+                counters.put(String.valueOf(row.get("counter")), ((Number) value).longValue());
+            }
+        }
+        return result;
+    }
+
+    private void store(Map<Long, Map<String, Long>> countersByUser) {
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            countersByUser.forEach((userId, counters) -> {
+                Map<String, String> fields = new HashMap<>();
+                counters.forEach((counter, value) -> fields.put(counter, String.valueOf(value)));
+                redis.hMSet(key(userId), fields);
+            });
+            return null;
+        });
+    }
+
+    private void evict(Long userId) {
+        try {
+            stringRedisTemplate.delete(key(userId));
+        } catch (Exception e) {
+            log.debug("删除用户等级计数失败: userId={}", userId);
+        }
+    }
+
+    private void runResync(boolean fromBeginning) {
+        long cursor = fromBeginning ? 0L : readResyncCursor();
+        long started = System.currentTimeMillis();
+        resyncStartedAt = started;
+        resyncCursor = cursor;
+        resyncUsers.set(0);
+        resyncCandidates.set(0);
+        log.info("开始用户等级全量重算: cursor={}, chunkSize={}, threads={}", cursor, resyncChunkSize, resyncThreads);
+
+        try {
+            while (true) {
+                // 每轮取threads个批次并行处理，整轮完成后才推进游标，中断后从上一轮结束处续跑
+                List<Long> ids = userMapper.selectUserIdsAfter(cursor, resyncChunkSize * resyncThreads);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (int from = 0; from < ids.size(); from += resyncChunkSize) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + resyncChunkSize, ids.size()));
+                    futures.add(CompletableFuture.runAsync(() -> resyncChunk(chunk), levelResyncExecutor));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+                cursor = ids.get(ids.size() - 1);
+                resyncCursor = cursor;
+                stringRedisTemplate.opsForValue().set(RESYNC_CURSOR_KEY, String.valueOf(cursor), 7, TimeUnit.DAYS);
+            }
+            stringRedisTemplate.delete(RESYNC_CURSOR_KEY);
+            lastResyncResult = "completed";
+            log.info("用户等级全量重算完成: users={}, candidates={}, elapsed={}ms",
+                    resyncUsers.get(), resyncCandidates.get(), System.currentTimeMillis() - started);
+        } catch (CompletionException e) {
+            lastResyncResult = "interrupted at " + cursor;
+            log.error("用户等级全量重算中断，下次从游标继续: cursor={}", cursor, e.getCause());
+        } catch (Exception e) {
+            lastResyncResult = "interrupted at " + cursor;
+            log.error("用户等级全量重算中断，下次从游标继续: cursor={}", cursor, e);
+        } finally {
+            lastResyncMillis = System.currentTimeMillis() - started;
+        }
+    }
+
+    private void resyncChunk(List<Long> userIds) {
+        Map<Long, Map<String, Long>> countersByUser = loadCounters(userIds);
+        // 重算期间并发的增量可能被覆盖，误差在下一次增量或重算时收敛
+        store(countersByUser);
+        resyncUsers.addAndGet(userIds.size());
+
+        // 只用计数做初筛（登录天数按已满足处理），满足最低升级门槛的用户交给评估任务做完整检查，
+        // 登录天数随时间自然增长而没有事件，也依靠全量重算补上评估
+        countersByUser.forEach((userId, counters) -> {
+            Map<String, Object> stats = toStats(counters, Integer.MAX_VALUE);
+            if (UserLevel.canUpgradeTo(UserLevel.LEVEL_BASIC_USER, UserLevel.LEVEL_ADVANCED_USER, stats)) {
+                pendingEvaluations.add(userId);
+                resyncCandidates.incrementAndGet();
+            }
+        });
+    }
+
+    private long readResyncCursor() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(RESYNC_CURSOR_KEY);
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            log.warn("读取等级重算游标失败，从头开始: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private static Map<String, Object> toStats(Map<String, Long> counters, int loginDays) {
+        Map<String, Object> stats = new HashMap<>();
+        for (String counter : COUNTERS) {
+            long value = counters != null ? counters.getOrDefault(counter, 0L) : 0L;
+            stats.put(counter, (int) Math.min(Integer.MAX_VALUE, Math.max(0, value)));
+        }
+        stats.put("loginDays", loginDays);
+
+        // 互动率 = (点赞数 + 评论数) / 浏览量
+        int engagement = (Integer) stats.get(COUNTER_LIKES) + (Integer) stats.get(COUNTER_COMMENTS);
+        int views = Math.max(1, (Integer) stats.get(COUNTER_VIEWS));
+        stats.put("engagementRate", (double) engagement / views);
+        return stats;
+    }
+
+    private static int loginDays(Date registeredAt) {
+        if (registeredAt == null) {
+            return 0;
+        }
+        return (int) TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis() - registeredAt.getTime());
+    }
+
+    private static boolean crossesThreshold(String counter, long before, long after) {
+        long[] thresholds = THRESHOLDS.get(counter);
+        if (thresholds == null || before == after) {
+            return false;
+        }
+        long low = Math.min(before, after);
+        long high = Math.max(before, after);
+        for (long threshold : thresholds) {
+            // 门槛落在(low, high]区间内即视为越过，向下越过同样需要重新评估
+            if (threshold > low && threshold <= high) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, long[]> buildThresholds() {
+        Map<String, Set<Long>> collected = new HashMap<>();
+        for (int level = UserLevel.LEVEL_BASIC_USER; level <= UserLevel.LEVEL_SUPER_ADMIN; level++) {
+            UserLevel.getLevelRequirements(level).forEach((requirement, value) -> {
+                String counter = REQUIREMENT_COUNTERS.get(requirement);
+                if (counter != null && value instanceof Number) {
+                    collected.computeIfAbsent(counter, c -> new TreeSet<>()).add(((Number) value).longValue());
+                }
+            });
+        }
+        Map<String, long[]> thresholds = new HashMap<>();
+        collected.forEach((counter, values) -> thresholds.put(counter,
+                values.stream().mapToLong(Long::longValue).toArray()));
+        return thresholds;
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
@@ -6,12 +6,20 @@ import com.web.mapper.UserLevelHistoryMapper;
 import com.web.mapper.UserMapper;
 import com.web.model.User;
 import com.web.model.UserLevelHistory;
+import com.web.service.UserLevelEngineService;
 import com.web.service.UserLevelHistoryService;
 import com.web.service.UserLevelService;
+import com.web.service.UserProfileLoaderService;
+import com.web.util.IpUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.sql.Timestamp;
@@ -37,20 +45,30 @@ public class UserLevelServiceImpl implements UserLevelService {
     @Autowired
     private UserLevelHistoryService userLevelHistoryService;
 
-    
-    @Autowired(required = false)
-    private HttpServletRequest request;
+    @Autowired
+    private UserProfileLoaderService userProfileLoaderService;
+
+    @Autowired
+    private UserLevelEngineService userLevelEngineService;
+
+    // 经代理调用 setUserLevel，使等级变更和历史记录在同一事务中提交或回滚
+    @Autowired
+    @Lazy
+    private UserLevelService self;
 
     @Override
     public int getUserLevel(Long userId) {
         try {
-            User user = userMapper.selectById(userId);
+            // 当前等级以最近一次有效的等级变更记录为准
+            Integer level = userLevelHistoryMapper.getCurrentLevelByUserId(userId);
+            if (level != null) {
+                return level;
+            }
+
+            User user = userProfileLoaderService.getUser(userId);
             if (user == null) {
                 log.warn("用户不存在: userId={}", userId);
-                return UserLevel.LEVEL_NEW_USER;
             }
-
-            // TODO: 实现用户等级获取逻辑 - User 模型暂无 getUserLevel 方法
             return UserLevel.LEVEL_NEW_USER;
         } catch (Exception e) {
             log.error("获取用户等级失败: userId={}", userId, e);
@@ -82,6 +100,8 @@ public class UserLevelServiceImpl implements UserLevelService {
             int result = userMapper.updateById(user);
 
             if (result > 0) {
+                userProfileLoaderService.invalidate(userId);
+
                 // 1. 记录等级变更历史
                 String changeReason = operatorId != null 
                     ? String.format("管理员手动调整等级从 %s 到 %s",
@@ -102,8 +122,9 @@ public class UserLevelServiceImpl implements UserLevelService {
                     operatorId, ipAddress, userAgent
                 );
 
+                // 当前等级以历史记录为准，没有记录时整个变更回滚
                 if (!historyRecorded) {
-                    log.warn("记录等级变更历史失败: userId={}", userId);
+                    throw new WeebException("记录等级变更历史失败: userId=" + userId);
                 }
 
                 
@@ -121,44 +142,25 @@ public class UserLevelServiceImpl implements UserLevelService {
     }
 
     /**
-     * 获取客户端IP地址
+     * 获取客户端IP地址；定时任务等没有绑定请求的线程返回 null
      */
     private String getClientIpAddress() {
-        if (request == null) {
-            return null;
-        }
-        
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_CLIENT_IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_X_FORWARDED_FOR");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // 处理多个IP的情况，取第一个
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
+        HttpServletRequest request = currentRequest();
+        return request != null ? IpUtil.getIpAddr(request) : null;
     }
 
     /**
-     * 获取User-Agent
+     * 获取User-Agent；没有绑定请求时返回 null
      */
     private String getUserAgent() {
-        if (request == null) {
-            return null;
-        }
-        return request.getHeader("User-Agent");
+        HttpServletRequest request = currentRequest();
+        return request != null ? request.getHeader("User-Agent") : null;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest() : null;
     }
 
     @Override
@@ -178,6 +180,7 @@ public class UserLevelServiceImpl implements UserLevelService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> checkAndUpgradeUserLevel(Long userId) {
         Map<String, Object> result = new HashMap<>();
 
@@ -201,7 +204,8 @@ public class UserLevelServiceImpl implements UserLevelService {
 
             if (maxUpgradeableLevel > currentLevel) {
                 // 自动升级到最高可升级等级
-                boolean upgradeSuccess = setUserLevel(userId, maxUpgradeableLevel, null); // 系统自动升级
+                // 系统自动升级：经代理调用，失败时等级和历史记录一起回滚，异常由下方统一处理
+                self.setUserLevel(userId, maxUpgradeableLevel, null);
 
                 result.put("upgraded", true);
                 result.put("newLevel", maxUpgradeableLevel);
@@ -230,57 +234,19 @@ public class UserLevelServiceImpl implements UserLevelService {
 
     @Override
     public Map<String, Object> getUserStats(Long userId) {
-        Map<String, Object> stats = new HashMap<>();
+        Map<String, Object> stats;
 
         try {
-            // 这里需要从各个表统计用户数据
-            // 为了简化，这里使用模拟数据，实际项目中应该从数据库查询
-
-            // 获取用户基本信息
-            User user = userMapper.selectById(userId);
-            if (user != null) {
-                stats.put("registrationDate", user.getCreatedAt());
-                // TODO: 实现最后登录时间获取 - User 模型暂无 getLastLoginTime 方法
-                stats.put("lastLoginDate", null);
-            }
-
-            // 统计文章数量
-            stats.put("articleCount", userMapper.countUserArticles(userId));
-
-            // 统计消息数量
-            stats.put("messageCount", userMapper.countUserMessages(userId));
-
-            // 统计点赞数量
-            stats.put("likeCount", userMapper.countUserLikes(userId));
-
-            // 统计关注者数量
-            stats.put("followerCount", userMapper.countUserFollowers(userId));
-
-            // 统计浏览量
-            stats.put("viewCount", userMapper.countUserArticleViews(userId));
-
-            // 计算登录天数
-            if (user != null && user.getCreatedAt() != null) {
-                long daysSinceRegistration = (System.currentTimeMillis() - user.getCreatedAt().getTime()) / (24 * 60 * 60 * 1000);
-                stats.put("loginDays", (int) daysSinceRegistration);
-            } else {
-                stats.put("loginDays", 0);
-            }
-
-            // 计算互动率 (点赞数 + 评论数) / 浏览量
-            int totalEngagement = (Integer) stats.getOrDefault("likeCount", 0) +
-                                 (int) userMapper.countUserComments(userId);
-            int totalViews = (Integer) stats.getOrDefault("viewCount", 1);
-            double engagementRate = (double) totalEngagement / totalViews;
-            stats.put("engagementRate", engagementRate);
+            // 计数由等级引擎增量维护，这里不再逐项查询基础表
+            stats = userLevelEngineService.getUserStats(userId);
 
             // 计算声誉值（基于活跃度和内容质量）
-            int reputation = calculateReputation(stats);
-            stats.put("reputation", reputation);
+            stats.put("reputation", calculateReputation(stats));
 
         } catch (Exception e) {
             log.error("获取用户统计数据失败: userId={}", userId, e);
             // 返回默认值
+            stats = new HashMap<>();
             stats.put("articleCount", 0);
             stats.put("messageCount", 0);
             stats.put("likeCount", 0);
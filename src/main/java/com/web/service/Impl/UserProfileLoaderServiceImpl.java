@@ -0,0 +1,166 @@
+package com.web.service.Impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.web.mapper.UserMapper;
+import com.web.model.User;
+import com.web.service.UserProfileLoaderService;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户资料加载服务实现
+ * 近缓存中保存不含密码的用户快照，对外始终返回副本，调用方修改返回对象不会污染缓存
+ */
+@Slf4j
+@Service
+public class UserProfileLoaderServiceImpl implements UserProfileLoaderService {
+
+    // 单条IN查询的最大ID数量
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    @Qualifier("userCache")
+    private Caffeine<Object, Object> userCacheBuilder;
+
+    private Cache<Long, User> cache;
+
+    // 统计信息
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong batchCallCount = new AtomicLong();
+    private final AtomicLong dbQueryCount = new AtomicLong();
+    private final AtomicLong dbLoadedCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        this.cache = userCacheBuilder.build();
+    }
+
+    @Override
+    public User getUser(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getUsers(List.of(userId)).get(userId);
+    }
+
+    @Override
+    public Map<Long, User> getUsers(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : userIds) {
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        lookupCount.addAndGet(userIds.size());
+        batchCallCount.incrementAndGet();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        // 未命中的ID由Caffeine合并后交给loadBatch，同一ID的并发加载也只会执行一次
+        Map<Long, User> snapshots = cache.getAll(ids, this::loadBatch);
+        Map<Long, User> result = new HashMap<>(snapshots.size() * 2);
+        snapshots.forEach((id, snapshot) -> result.put(id, copyOf(snapshot)));
+        return result;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            cache.invalidate(userId);
+            invalidationCount.incrementAndGet();
+        });
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long lookups = lookupCount.get();
+        long dbQueries = dbQueryCount.get();
+        CacheStats cacheStats = cache.stats();
+        stats.put("lookups", lookups);
+        stats.put("batchCalls", batchCallCount.get());
+        stats.put("dbQueries", dbQueries);
+        stats.put("dbLoaded", dbLoadedCount.get());
+        // 被合并的查找数：未单独产生数据库查询的查找次数
+        stats.put("coalescedLookups", Math.max(0, lookups - dbQueries));
+        stats.put("coalesceRatio", lookups > 0 ? (double) (lookups - dbQueries) / lookups : 0.0);
+        stats.put("cacheHitRate", cacheStats.hitRate());
+        stats.put("cacheSize", cache.estimatedSize());
+        stats.put("evictions", cacheStats.evictionCount());
+        stats.put("invalidations", invalidationCount.get());
+        return stats;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private Map<Long, User> loadBatch(Set<? extends Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        Map<Long, User> loaded = new HashMap<>(idList.size() * 2);
+        for (int from = 0; from < idList.size(); from += MAX_BATCH_SIZE) {
+            List<Long> chunk = idList.subList(from, Math.min(from + MAX_BATCH_SIZE, idList.size()));
+            List<User> users = userMapper.selectList(new QueryWrapper<User>().in("id", chunk));
+            dbQueryCount.incrementAndGet();
+            for (User user : users) {
+                User snapshot = copyOf(user);
+                snapshot.setPassword(null);
+                loaded.put(user.getId(), snapshot);
+            }
+        }
+        dbLoadedCount.addAndGet(loaded.size());
+        log.debug("批量加载用户资料: requested={}, loaded={}", idList.size(), loaded.size());
+        return loaded;
+    }
+
+    private static User copyOf(User source) {
+        User copy = new User();
+        copy.setId(source.getId());
+        copy.setUsername(source.getUsername());
+        copy.setPassword(source.getPassword());
+        copy.setSex(source.getSex());
+        copy.setPhoneNumber(source.getPhoneNumber());
+        copy.setUserEmail(source.getUserEmail());
+        copy.setUniqueArticleLink(source.getUniqueArticleLink());
+        copy.setUniqueVideoLink(source.getUniqueVideoLink());
+        copy.setRegistrationDate(source.getRegistrationDate());
+        copy.setIpOwnership(source.getIpOwnership());
+        copy.setType(source.getType());
+        copy.setAvatar(source.getAvatar());
+        copy.setNickname(source.getNickname());
+        copy.setBadge(source.getBadge());
+        copy.setLoginTime(source.getLoginTime());
+        copy.setBio(source.getBio());
+        copy.setOnlineStatus(source.getOnlineStatus());
+        copy.setStatus(source.getStatus());
+        copy.setUserLevel(source.getUserLevel());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
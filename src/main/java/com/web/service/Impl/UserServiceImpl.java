@@ -8,8 +8,14 @@ import com.web.model.User;
 import com.web.model.UserStats;
 import com.web.model.UserWithStats;
 // import com.web.service.PermissionService; // 权限系统已禁用
+import com.web.service.BehaviorEventService;
+import com.web.service.LeaderboardService;
 import com.web.service.UserService;
 import com.web.service.RedisCacheService;
+import com.web.service.SearchResultCacheService;
+import com.web.service.TypeaheadIndexService;
+import com.web.service.UserProfileLoaderService;
+import com.web.service.VerifiedTokenCacheService;
 import com.web.util.ValidationUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -18,15 +24,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
-import java.util.stream.IntStream;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
@@ -55,6 +62,24 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private RedisCacheService redisCacheService;
 
+    @Autowired
+    private TypeaheadIndexService typeaheadIndexService;
+
+    @Autowired
+    private SearchResultCacheService searchResultCacheService;
+
+    @Autowired
+    private UserProfileLoaderService userProfileLoaderService;
+
+    @Autowired
+    private VerifiedTokenCacheService verifiedTokenCacheService;
+
+    @Autowired
+    private BehaviorEventService behaviorEventService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -102,6 +127,13 @@ public class UserServiceImpl implements UserService {
             throw new WeebException("用户ID必须为正数");
         }
         int result = userMapper.updateUser(user);
+        if (result > 0) {
+            evictUserCache(user.getId());
+        }
+        if (result > 0 && (user.getUsername() != null || user.getNickname() != null)) {
+            typeaheadIndexService.refreshUser(user.getId());
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_USER, user.getId(), user.getUsername(), user.getNickname());
+        }
         return result > 0;
     }
 
@@ -145,6 +177,9 @@ public class UserServiceImpl implements UserService {
             }
 
             userMapper.updateUser(user);
+            evictUserCache(user.getId());
+            typeaheadIndexService.refreshUser(user.getId());
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_USER, user.getId(), user.getUsername(), user.getNickname());
 
             // 更新统计数据
             if (userWithStats.getUserStats() != null) {
@@ -186,6 +221,8 @@ public class UserServiceImpl implements UserService {
             userStats.setWebsiteCoins(0L);
 
             userStatsMapper.insertUserStats(userStats);
+            typeaheadIndexService.refreshUser(user.getId());
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_USER, user.getId(), user.getUsername(), user.getNickname());
 
             // 返回完整的用户信息
             return getUserProfile(user.getId());
@@ -207,6 +244,9 @@ public class UserServiceImpl implements UserService {
             userStatsMapper.deleteByUserId(userId);
             // 删除用户基本信息
             int result = userMapper.deleteById(userId);
+            evictUserCache(userId);
+            typeaheadIndexService.removeUser(userId);
+            searchResultCacheService.invalidate(SearchResultCacheService.TYPE_USER, userId);
             return result > 0;
         } catch (Exception e) {
             log.error("删除用户失败: {}", e.getMessage(), e);
@@ -230,6 +270,9 @@ public class UserServiceImpl implements UserService {
         try {
             // 增加被关注用户的粉丝数
             int result = userStatsMapper.incrementFansCount(followedId);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_FANS, followedId, 1);
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("关注用户失败: {}", e.getMessage(), e);
@@ -253,6 +296,9 @@ public class UserServiceImpl implements UserService {
         try {
             // 减少被关注用户的粉丝数
             int result = userStatsMapper.decrementFansCount(followedId);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_FANS, followedId, -1);
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("取消关注用户失败: {}", e.getMessage(), e);
@@ -265,6 +311,9 @@ public class UserServiceImpl implements UserService {
         try {
             // 增加文章作者的总点赞数
             int result = userStatsMapper.incrementTotalLikes(authorId, 1L);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_LIKES, authorId, 1);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -287,6 +336,9 @@ public class UserServiceImpl implements UserService {
         try {
             // 增加文章作者的总曝光数
             int result = userStatsMapper.incrementArticleExposure(authorId, exposureCount);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_EXPOSURE, authorId, exposureCount);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -298,7 +350,9 @@ public class UserServiceImpl implements UserService {
         try {
             // 增加被赞助用户的总赞助金额和网站金币
             userStatsMapper.addSponsorship(recipientId, amount);
-            userStatsMapper.addWebsiteCoins(recipientId, amount);
+            if (userStatsMapper.addWebsiteCoins(recipientId, amount) > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_COINS, recipientId, amount);
+            }
             return true;
         } catch (Exception e) {
             return false;
@@ -310,6 +364,9 @@ public class UserServiceImpl implements UserService {
         try {
             // 扣除用户的网站金币（仅在余额足够时）
             int result = userStatsMapper.deductWebsiteCoins(userId, coins);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_COINS, userId, -coins);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -321,6 +378,9 @@ public class UserServiceImpl implements UserService {
         try {
             // 增加用户的网站金币
             int result = userStatsMapper.addWebsiteCoins(userId, coins);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_COINS, userId, coins);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -329,18 +389,39 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<UserWithStats> getUserRanking(String statType, int limit) {
-        // 根据统计类型构建排序字段
-        String orderBy = switch (statType.toLowerCase()) {
-            case "fans" -> "fans_count DESC";
-            case "likes" -> "total_likes DESC";
-            case "favorites" -> "total_favorites DESC";
-            case "sponsorship" -> "total_sponsorship DESC";
-            case "exposure" -> "article_exposure DESC";
-            case "coins" -> "website_coins DESC";
-            default -> "fans_count DESC";
+        String type = statType.toLowerCase();
+        if (leaderboardService.isSupported(type)) {
+            // 点赞、粉丝、金币、曝光直接读取排行榜有序集合，再按名次批量加载用户资料
+            List<Long> userIds = leaderboardService.getTopUserIds(type, limit);
+            if (!userIds.isEmpty()) {
+                Map<Long, UserWithStats> byId = new HashMap<>();
+                for (UserWithStats userWithStats : userMapper.selectUsersWithStatsByIds(userIds)) {
+                    byId.put(userWithStats.getId(), userWithStats);
+                }
+                List<UserWithStats> ranking = new ArrayList<>(userIds.size());
+                for (Long userId : userIds) {
+                    UserWithStats userWithStats = byId.get(userId);
+                    if (userWithStats != null) {
+                        ranking.add(userWithStats);
+                    }
+                }
+                return ranking;
+            }
+        }
+
+        // 没有对应排行榜或排行榜尚未建立时查询数据库
+        String orderBy = switch (type) {
+            case "fans" -> "fans_count";
+            case "likes" -> "total_likes";
+            case "favorites" -> "total_favorites";
+            case "sponsorship" -> "total_sponsorship";
+            case "exposure" -> "total_article_exposure";
+            case "coins" -> "website_coins";
+            default -> "fans_count";
         };
-        
-        return userMapper.selectUserListWithStats(null, null, null, null, null, orderBy);
+
+        List<UserWithStats> users = userMapper.selectUserListWithStats(null, null, null, null, null, orderBy);
+        return users.size() > limit ? new ArrayList<>(users.subList(0, Math.max(limit, 0))) : users;
     }
 
     @Override
@@ -388,7 +469,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getUserBasicInfo(Long userId) {
-        return userMapper.selectById(userId);
+        return userProfileLoaderService.getUser(userId);
     }
 
     @Override
@@ -483,6 +564,7 @@ public class UserServiceImpl implements UserService {
             int result = userMapper.updateUser(user);
 
             if (result > 0) {
+                evictUserCache(userId);
                 log.info("封禁用户成功: userId={}", userId);
                 return true;
             } else {
@@ -514,6 +596,7 @@ public class UserServiceImpl implements UserService {
             int result = userMapper.updateUser(user);
 
             if (result > 0) {
+                evictUserCache(userId);
                 log.info("解封用户成功: userId={}", userId);
                 return true;
             } else {
@@ -557,6 +640,7 @@ public class UserServiceImpl implements UserService {
             int result = userMapper.updateUser(user);
 
             if (result > 0) {
+                evictUserCache(userId);
                 log.info("重置用户密码成功: userId={}", userId);
                 return true;
             } else {
@@ -652,6 +736,7 @@ public class UserServiceImpl implements UserService {
             int result = userMapper.updateUser(user);
 
             if (result > 0) {
+                evictUserCache(userId);
                 log.info("修改密码成功: userId={}", userId);
                 return true;
             } else {
@@ -762,6 +847,9 @@ public class UserServiceImpl implements UserService {
      * @param userId 用户ID
      */
     private void evictUserCache(Long userId) {
+        userProfileLoaderService.invalidate(userId);
+        // 用户名（决定权限）、状态或密码变化后，已验证的令牌需要重新验证
+        verifiedTokenCacheService.revokeUser(userId);
         try {
             redisCacheService.evictUserCache(userId);
             log.debug("清除用户缓存: userId={}", userId);
@@ -871,6 +959,9 @@ public class UserServiceImpl implements UserService {
             analysis.put("pageViews", getTotalPageViews(startTime, endTime));
             analysis.put("avgSessionDuration", getAverageSessionDuration(startTime, endTime));
             analysis.put("bounceRate", getBounceRate(startTime, endTime));
+            LocalDate today = LocalDate.now();
+            analysis.put("dau", behaviorEventService.countActiveUsers(today, today));
+            analysis.put("mau", behaviorEventService.countActiveUsers(today.minusDays(29), today));
 
             // 计算趋势数据（与上一个周期对比）
             LocalDateTime prevStartTime = startTime.minusDays(days);
@@ -1223,9 +1314,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public int getCurrentOnlineUserCount() {
         try {
-            // 从Redis或会话存储中获取当前在线用户数
-            // 这里使用模拟数据，实际项目中应该从实际的会话存储中获取
-            return (int) (Math.random() * 500) + 100;
+            return (int) behaviorEventService.getOnlineUserCount();
         } catch (Exception e) {
             log.error("获取当前在线用户数失败", e);
             return 0;
@@ -1235,9 +1324,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public int getPeakOnlineUsersToday() {
         try {
-            // 获取今日在线用户峰值
-            // 这里使用模拟数据，实际项目中应该从统计数据中获取
-            return (int) (Math.random() * 800) + 200;
+            return (int) behaviorEventService.getPeakOnlineUsersToday();
         } catch (Exception e) {
             log.error("获取今日在线用户峰值失败", e);
             return 0;
@@ -1246,36 +1333,37 @@ public class UserServiceImpl implements UserService {
 
     // ==================== 私有辅助方法 ====================
 
+    // 行为统计按天汇总，时间范围换算为(start, end]覆盖的自然日，相邻周期互不重叠
+
+    private static LocalDate firstDay(LocalDateTime start) {
+        return start.toLocalDate().plusDays(1);
+    }
+
     private int getActiveUsersCount(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现，实际应该从用户行为日志表查询
-        return (int) (Math.random() * 1000) + 500;
+        return (int) behaviorEventService.countActiveUsers(firstDay(start), end.toLocalDate());
     }
 
     private int getTotalPageViews(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现
-        return (int) (Math.random() * 10000) + 5000;
+        return (int) behaviorEventService.countEvents(BehaviorEventService.EVENT_PAGE_VIEW,
+                firstDay(start), end.toLocalDate());
     }
 
+    // 事件流中没有会话边界与离开事件，会话时长和跳出率无法从真实数据推导，不再返回随机数
+
     private String getAverageSessionDuration(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现
-        int minutes = (int) (Math.random() * 30) + 5;
-        return minutes + "m";
+        return "-";
     }
 
     private double getAverageSessionDurationMinutes(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现
-        return (Math.random() * 30) + 5;
+        return 0.0;
     }
 
     private String getBounceRate(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现
-        int rate = (int) (Math.random() * 40) + 20;
-        return rate + "%";
+        return "-";
     }
 
     private double getBounceRateValue(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现
-        return (Math.random() * 40) + 20;
+        return 0.0;
     }
 
     private int calculateTrend(int oldValue, int newValue) {
@@ -1289,73 +1377,100 @@ public class UserServiceImpl implements UserService {
     }
 
     private List<Map<String, Object>> getTopPagesData(LocalDateTime start, LocalDateTime end, int limit) {
-        // 模拟热门页面数据
-        List<String> pages = Arrays.asList("/dashboard", "/profile", "/messages", "/articles", "/settings");
-        return pages.stream().map(path -> {
-            Map<String, Object> page = new HashMap<>();
-            page.put("path", path);
-            page.put("views", (int) (Math.random() * 1000) + 100);
-            page.put("avgDuration", (int) (Math.random() * 10) + 1 + "m");
-            page.put("trend", (int) (Math.random() * 40) - 20);
-            return page;
-        }).sorted((a, b) -> Integer.compare((Integer) b.get("views"), (Integer) a.get("views")))
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<Map<String, Object>> pages = behaviorEventService.getTopPages(firstDay(start), end.toLocalDate(), limit);
+        if (pages.isEmpty()) {
+            return pages;
+        }
+        // 与上一个等长周期对比计算趋势
+        long days = ChronoUnit.DAYS.between(start.toLocalDate(), end.toLocalDate());
+        LocalDateTime prevStart = start.minusDays(days);
+        Map<String, Integer> previous = behaviorEventService.getTopPages(firstDay(prevStart), start.toLocalDate(), 1000)
+                .stream()
+                .collect(Collectors.toMap(page -> (String) page.get("path"), page -> (Integer) page.get("views"),
+                        (a, b) -> a));
+        for (Map<String, Object> page : pages) {
+            page.put("avgDuration", "-");
+            page.put("trend", calculateTrend(previous.getOrDefault((String) page.get("path"), 0),
+                    (Integer) page.get("views")));
+        }
+        return pages;
     }
 
     private int getTotalEvents(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现
-        return (int) (Math.random() * 5000) + 2000;
+        return (int) behaviorEventService.countEvents(null, firstDay(start), end.toLocalDate());
     }
 
     private int getUniqueEventUsers(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现
-        return (int) (Math.random() * 500) + 200;
+        return getActiveUsersCount(start, end);
     }
 
     private String getConversionRate(LocalDateTime start, LocalDateTime end) {
-        // 模拟实现
-        int rate = (int) (Math.random() * 20) + 5;
-        return rate + "%";
+        // 转化率：活跃用户中发送过消息或进行过文章操作的比例
+        long active = behaviorEventService.countActiveUsers(firstDay(start), end.toLocalDate());
+        if (active == 0) {
+            return "0%";
+        }
+        long engaged = behaviorEventService.countActiveUsers(firstDay(start), end.toLocalDate(),
+                BehaviorEventService.EVENT_MESSAGE_SENT, BehaviorEventService.EVENT_ARTICLE_ACTION);
+        return Math.min(100, Math.round(engaged * 100.0 / active)) + "%";
     }
 
     private List<Map<String, Object>> getRecentEvents(LocalDateTime start, LocalDateTime end, int limit) {
-        // 模拟最近事件数据
-        List<String> types = Arrays.asList("PAGE_VIEW", "BUTTON_CLICK", "FORM_SUBMIT", "FILE_DOWNLOAD");
-        List<String> descriptions = Arrays.asList(
-                "访问了首页", "点击了登录按钮", "提交了注册表单", "下载了用户手册",
-                "查看了个人资料", "发送了消息", "创建了文章", "更新了设置"
-        );
-
-        return IntStream.range(0, limit).mapToObj(i -> {
-            Map<String, Object> event = new HashMap<>();
-            event.put("id", i + 1);
-            event.put("type", types.get((int) (Math.random() * types.size())));
-            event.put("description", descriptions.get((int) (Math.random() * descriptions.size())));
-            event.put("username", "user" + (int) (Math.random() * 100));
-            event.put("timestamp", start.plusMinutes((long) (Math.random() * (end.toLocalTime().toSecondOfDay() / 60))).toString());
-            return event;
-        }).collect(Collectors.toList());
+        return getUserEvents(start, end, null, 0, limit);
     }
 
     private List<Map<String, Object>> getUserEvents(LocalDateTime start, LocalDateTime end, String eventType, int offset, int limit) {
-        // 模拟获取用户事件列表
-        return getRecentEvents(start, end, limit).stream()
-                .filter(event -> eventType == null || eventType.equals(event.get("type")))
-                .skip(offset)
-                .limit(limit)
-                .collect(Collectors.toList());
+        // 明细只保留最近的事件，完整历史在事件文件中
+        List<Map<String, Object>> events = behaviorEventService.getRecentEvents(eventType, offset, limit);
+        Set<Long> userIds = events.stream()
+                .map(event -> (Long) event.get("userId"))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userProfileLoaderService.getUsers(userIds);
+        for (int i = 0; i < events.size(); i++) {
+            Map<String, Object> event = events.get(i);
+            User user = users.get((Long) event.get("userId"));
+            event.put("id", offset + i + 1);
+            event.put("username", user != null ? user.getUsername() : null);
+            event.put("description", describeEvent((String) event.get("type"), (String) event.get("target")));
+        }
+        return events;
     }
 
     private int getUserEventsCount(LocalDateTime start, LocalDateTime end, String eventType) {
-        // 模拟获取事件总数
-        List<Map<String, Object>> allEvents = getRecentEvents(start, end, 1000);
-        if (eventType == null) {
-            return allEvents.size();
+        return behaviorEventService.countRecentEvents(eventType);
+    }
+
+    private static String describeEvent(String type, String target) {
+        switch (type) {
+            case BehaviorEventService.EVENT_LOGIN:
+                return "登录";
+            case BehaviorEventService.EVENT_REGISTER:
+                return "注册";
+            case BehaviorEventService.EVENT_PAGE_VIEW:
+                return "访问了 " + target;
+            case BehaviorEventService.EVENT_MESSAGE_SENT:
+                return "发送了消息";
+            case BehaviorEventService.EVENT_ARTICLE_ACTION:
+                if (target == null) {
+                    return "文章操作";
+                }
+                if (target.startsWith("like:")) {
+                    return "点赞了文章 " + target.substring(5);
+                }
+                if (target.startsWith("favorite:")) {
+                    return "收藏了文章 " + target.substring(9);
+                }
+                if (target.startsWith("create:")) {
+                    return "创建了文章 " + target.substring(7);
+                }
+                if (target.startsWith("view:")) {
+                    return "阅读了文章 " + target.substring(5);
+                }
+                return "文章操作 " + target;
+            default:
+                return type;
         }
-        return (int) allEvents.stream()
-                .filter(event -> eventType.equals(event.get("type")))
-                .count();
     }
 
     private Map<String, Object> calculateNewUsersSegment(LocalDateTime start, LocalDateTime end) {
@@ -1477,47 +1592,27 @@ public class UserServiceImpl implements UserService {
     }
 
     private Map<String, Object> generateHourlyHeatmap(LocalDateTime start, LocalDateTime end) {
-        // 生成小时级热力图数据
-        Map<String, Object> heatmap = new HashMap<>();
-        int[][] data = new int[24][7]; // 24小时 x 7天
-
-        // 填充模拟数据
-        for (int hour = 0; hour < 24; hour++) {
-            for (int day = 0; day < 7; day++) {
-                data[hour][day] = (int) (Math.random() * 100);
-            }
-        }
-
-        heatmap.put("data", data);
-        heatmap.put("labels", Arrays.asList("周一", "周二", "周三", "周四", "周五", "周六", "周日"));
-        heatmap.put("hours", IntStream.range(0, 24).mapToObj(i -> i + ":00").collect(Collectors.toList()));
-
-        return heatmap;
+        return behaviorEventService.getActivityHeatmap("hourly", firstDay(start), end.toLocalDate());
     }
 
     private Map<String, Object> generateWeeklyHeatmap(LocalDateTime start, LocalDateTime end) {
-        // 生成周级热力图数据
-        return new HashMap<>();
+        return behaviorEventService.getActivityHeatmap("weekly", firstDay(start), end.toLocalDate());
     }
 
     private Map<String, Object> generateMonthlyHeatmap(LocalDateTime start, LocalDateTime end) {
-        // 生成月级热力图数据
-        return new HashMap<>();
+        return behaviorEventService.getActivityHeatmap("monthly", firstDay(start), end.toLocalDate());
     }
 
     private Map<String, Object> calculateDailyRetention(int periods) {
-        // 计算日留存数据
-        return new HashMap<>();
+        return behaviorEventService.getRetention("daily", periods);
     }
 
     private Map<String, Object> calculateWeeklyRetention(int periods) {
-        // 计算周留存数据
-        return new HashMap<>();
+        return behaviorEventService.getRetention("weekly", periods);
     }
 
     private Map<String, Object> calculateMonthlyRetention(int periods) {
-        // 计算月留存数据
-        return new HashMap<>();
+        return behaviorEventService.getRetention("monthly", periods);
     }
 
     // ==================== 新增的用户统计和资料管理方法 ====================
@@ -1610,8 +1705,8 @@ public class UserServiceImpl implements UserService {
                 return false;
             }
 
-            // 只允许更新特定字段
-            User existingUser = getUserBasicInfo(user.getId());
+            // 只允许更新特定字段（写路径直接读库，不使用近缓存快照）
+            User existingUser = userMapper.selectById(user.getId());
             if (existingUser == null) {
                 return false;
             }
@@ -1636,6 +1731,14 @@ public class UserServiceImpl implements UserService {
             existingUser.setUpdatedAt(new Date());
 
             int result = userMapper.updateById(existingUser);
+            if (result > 0) {
+                evictUserCache(user.getId());
+            }
+            if (result > 0 && user.getNickname() != null) {
+                typeaheadIndexService.refreshUser(user.getId());
+                searchResultCacheService.invalidate(SearchResultCacheService.TYPE_USER, user.getId(),
+                        existingUser.getUsername(), user.getNickname());
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("更新用户资料失败，用户ID: {}", user != null ? user.getId() : null, e);
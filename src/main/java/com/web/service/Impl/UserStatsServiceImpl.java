@@ -5,6 +5,7 @@ import com.web.exception.WeebException;
 import com.web.mapper.UserStatsMapper;
 import com.web.model.UserStats;
 import com.web.model.UserWithStats;
+import com.web.service.LeaderboardService;
 import com.web.service.UserStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -23,6 +24,9 @@ public class UserStatsServiceImpl extends ServiceImpl<UserStatsMapper, UserStats
     @Autowired
     private UserStatsMapper userStatsMapper;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     @Override
     public UserStats getStatsByUserId(Long userId) {
         return userStatsMapper.selectByUserId(userId);
@@ -65,6 +69,9 @@ public class UserStatsServiceImpl extends ServiceImpl<UserStatsMapper, UserStats
     public boolean incrementFansCount(Long userId) {
         try {
             int result = userStatsMapper.incrementFansCount(userId);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_FANS, userId, 1);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -75,6 +82,9 @@ public class UserStatsServiceImpl extends ServiceImpl<UserStatsMapper, UserStats
     public boolean decrementFansCount(Long userId) {
         try {
             int result = userStatsMapper.decrementFansCount(userId);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_FANS, userId, -1);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -85,6 +95,9 @@ public class UserStatsServiceImpl extends ServiceImpl<UserStatsMapper, UserStats
     public boolean incrementTotalLikes(Long userId, Long count) {
         try {
             int result = userStatsMapper.incrementTotalLikes(userId, count);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_LIKES, userId, count);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -105,6 +118,9 @@ public class UserStatsServiceImpl extends ServiceImpl<UserStatsMapper, UserStats
     public boolean incrementArticleExposure(Long userId, Long count) {
         try {
             int result = userStatsMapper.incrementArticleExposure(userId, count);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_EXPOSURE, userId, count);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -115,6 +131,9 @@ public class UserStatsServiceImpl extends ServiceImpl<UserStatsMapper, UserStats
     public boolean addWebsiteCoins(Long userId, Long coins) {
         try {
             int result = userStatsMapper.addWebsiteCoins(userId, coins);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_COINS, userId, coins);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -125,6 +144,9 @@ public class UserStatsServiceImpl extends ServiceImpl<UserStatsMapper, UserStats
     public boolean deductWebsiteCoins(Long userId, Long coins) {
         try {
             int result = userStatsMapper.deductWebsiteCoins(userId, coins);
+            if (result > 0) {
+                leaderboardService.increment(LeaderboardService.BOARD_COINS, userId, -coins);
+            }
             return result > 0;
         } catch (Exception e) {
             return false;
@@ -4,6 +4,7 @@ import com.web.mapper.UserMapper;
 import com.web.mapper.UserStatsMapper;
 import com.web.model.User;
 import com.web.model.UserStats;
+import com.web.service.UserProfileLoaderService;
 import com.web.service.UserStatsSyncService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,13 +21,19 @@ import java.util.List;
 @Slf4j
 public class UserStatsSyncServiceImpl implements UserStatsSyncService {
 
+    // 批量同步时每批扫描的用户数
+    private static final int SYNC_BATCH_SIZE = 500;
+
     private final UserMapper userMapper;
     private final UserStatsMapper userStatsMapper;
+    private final UserProfileLoaderService userProfileLoaderService;
 
     @Autowired
-    public UserStatsSyncServiceImpl(UserMapper userMapper, UserStatsMapper userStatsMapper) {
+    public UserStatsSyncServiceImpl(UserMapper userMapper, UserStatsMapper userStatsMapper,
+                                    UserProfileLoaderService userProfileLoaderService) {
         this.userMapper = userMapper;
         this.userStatsMapper = userStatsMapper;
+        this.userProfileLoaderService = userProfileLoaderService;
     }
 
     @Override
@@ -78,34 +85,39 @@ public class UserStatsSyncServiceImpl implements UserStatsSyncService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void syncAllUserLevels() {
         log.info("开始批量同步所有用户等级");
 
         try {
-            // 获取所有用户的基本信息（只需ID和userLevel）
-            List<User> users = userMapper.selectAllUserLevels();
-
-            if (users == null || users.isEmpty()) {
-                log.info("没有用户数据需要同步");
-                return;
-            }
-
+            // 按ID游标分批扫描，不再一次性加载全部用户，也不在一个长事务里处理所有用户
+            long lastId = 0L;
             int syncedCount = 0;
             int errorCount = 0;
 
-            for (User user : users) {
-                try {
-                    syncUserLevelToStats(user.getId());
-                    syncedCount++;
-                } catch (Exception e) {
-                    errorCount++;
-                    log.error("同步用户等级失败: userId={}, error={}", user.getId(), e.getMessage());
+            while (true) {
+                List<Long> userIds = userMapper.selectUserIdsAfter(lastId, SYNC_BATCH_SIZE);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                for (Long userId : userIds) {
+                    try {
+                        syncUserLevelToStats(userId);
+                        syncedCount++;
+                    } catch (Exception e) {
+                        errorCount++;
+                        log.error("同步用户等级失败: userId={}, error={}", userId, e.getMessage());
+                    }
                 }
+                lastId = userIds.get(userIds.size() - 1);
+            }
+
+            if (syncedCount == 0 && errorCount == 0) {
+                log.info("没有用户数据需要同步");
+                return;
             }
 
             log.info("批量用户等级同步完成: 总数={}, 成功={}, 失败={}",
-                     users.size(), syncedCount, errorCount);
+                     syncedCount + errorCount, syncedCount, errorCount);
 
         } catch (Exception e) {
             log.error("批量同步用户等级失败: error={}", e.getMessage(), e);
@@ -133,6 +145,7 @@ public class UserStatsSyncServiceImpl implements UserStatsSyncService {
             if (userUpdateResult <= 0) {
                 throw new RuntimeException("更新用户User表等级失败");
             }
+            userProfileLoaderService.invalidate(userId);
 
             // 更新UserStats表中的userLevel
             UserStats userStats = new UserStats();
@@ -7,6 +7,7 @@ import com.web.mapper.ArticleMapper;
 import com.web.model.User;
 import com.web.model.UserStats;
 import com.web.model.UserWithStats;
+import com.web.service.LeaderboardService;
 import com.web.service.UserTransactionService;
 import com.web.util.ValidationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +36,9 @@ public class UserTransactionServiceImpl implements UserTransactionService {
     @Autowired
     private ArticleMapper articleMapper;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     @Override
     public List<UserWithStats> batchCreateUsers(List<User> users) {
         List<UserWithStats> result = new ArrayList<>();
@@ -117,12 +121,16 @@ public class UserTransactionServiceImpl implements UserTransactionService {
             switch (activityType.toLowerCase()) {
                 case "publish_article":
                     // 发布文章时更新相关统计
-                    userStatsMapper.incrementArticleExposure(userId, 1L);
+                    if (userStatsMapper.incrementArticleExposure(userId, 1L) > 0) {
+                        leaderboardService.increment(LeaderboardService.BOARD_EXPOSURE, userId, 1);
+                    }
                     break;
                 case "receive_like":
                     // 收到点赞时更新统计
                     Long likeCount = (Long) activityData.getOrDefault("count", 1L);
-                    userStatsMapper.incrementTotalLikes(userId, likeCount);
+                    if (userStatsMapper.incrementTotalLikes(userId, likeCount) > 0) {
+                        leaderboardService.increment(LeaderboardService.BOARD_LIKES, userId, likeCount);
+                    }
                     break;
                 case "receive_favorite":
                     // 收到收藏时更新统计
@@ -144,11 +152,15 @@ public class UserTransactionServiceImpl implements UserTransactionService {
             switch (relationshipType.toLowerCase()) {
                 case "follow":
                     // 关注操作：被关注者粉丝数+1
-                    userStatsMapper.incrementFansCount(toUserId);
+                    if (userStatsMapper.incrementFansCount(toUserId) > 0) {
+                        leaderboardService.increment(LeaderboardService.BOARD_FANS, toUserId, 1);
+                    }
                     break;
                 case "unfollow":
                     // 取消关注：被关注者粉丝数-1
-                    userStatsMapper.decrementFansCount(toUserId);
+                    if (userStatsMapper.decrementFansCount(toUserId) > 0) {
+                        leaderboardService.increment(LeaderboardService.BOARD_FANS, toUserId, -1);
+                    }
                     break;
                 default:
                     return false;
@@ -165,7 +177,9 @@ public class UserTransactionServiceImpl implements UserTransactionService {
             switch (interactionType.toLowerCase()) {
                 case "like":
                     // 点赞：作者总点赞数+1
-                    userStatsMapper.incrementTotalLikes(authorId, 1L);
+                    if (userStatsMapper.incrementTotalLikes(authorId, 1L) > 0) {
+                        leaderboardService.increment(LeaderboardService.BOARD_LIKES, authorId, 1);
+                    }
                     break;
                 case "favorite":
                     // 收藏：作者总收藏数+1
@@ -173,7 +187,9 @@ public class UserTransactionServiceImpl implements UserTransactionService {
                     break;
                 case "view":
                     // 浏览：作者文章曝光数+1
-                    userStatsMapper.incrementArticleExposure(authorId, 1L);
+                    if (userStatsMapper.incrementArticleExposure(authorId, 1L) > 0) {
+                        leaderboardService.increment(LeaderboardService.BOARD_EXPOSURE, authorId, 1);
+                    }
                     break;
                 default:
                     return false;
@@ -192,14 +208,19 @@ public class UserTransactionServiceImpl implements UserTransactionService {
                 case "sponsor":
                     // 赞助：扣除赞助者金币，增加被赞助者金币和赞助总额
                     if (userStatsMapper.deductWebsiteCoins(fromUserId, amount) > 0) {
-                        userStatsMapper.addWebsiteCoins(toUserId, amount);
+                        leaderboardService.increment(LeaderboardService.BOARD_COINS, fromUserId, -amount);
+                        if (userStatsMapper.addWebsiteCoins(toUserId, amount) > 0) {
+                            leaderboardService.increment(LeaderboardService.BOARD_COINS, toUserId, amount);
+                        }
                         userStatsMapper.addSponsorship(toUserId, amount);
                         return true;
                     }
                     return false;
                 case "reward":
                     // 奖励：直接增加用户金币
-                    userStatsMapper.addWebsiteCoins(toUserId, amount);
+                    if (userStatsMapper.addWebsiteCoins(toUserId, amount) > 0) {
+                        leaderboardService.increment(LeaderboardService.BOARD_COINS, toUserId, amount);
+                    }
                     return true;
                 default:
                     return false;
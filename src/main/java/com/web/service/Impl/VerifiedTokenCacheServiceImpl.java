@@ -0,0 +1,232 @@
+package com.web.service.Impl;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.web.service.VerifiedTokenCacheService;
+import com.web.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 已验证令牌缓存服务实现
+ * 每个缓存项的存活时间取令牌剩余有效期与max-ttl-seconds中的较小值。
+ * 撤销先清理本节点缓存，再通过 Redis pub/sub 通知其他节点清理；
+ * pub/sub 消息可能丢失，max-ttl 兜底这种情况下的最长残留时间
+ */
+@Slf4j
+@Service
+public class VerifiedTokenCacheServiceImpl implements VerifiedTokenCacheService {
+
+    @Value("${weeb.security.token-cache.max-ttl-seconds:300}")
+    private long maxTtlSeconds;
+
+    @Value("${weeb.security.token-cache.max-size:100000}")
+    private long maxSize;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    // 撤销通知频道，消息为 user:<用户ID> 或 token:<令牌哈希>
+    private static final String REVOKE_TOPIC = "token:revoked";
+    private static final String USER_PREFIX = "user:";
+    private static final String TOKEN_PREFIX = "token:";
+
+    private Cache<String, VerifiedToken> cache;
+
+    // 用户ID -> 令牌哈希，用于按用户撤销
+    private final Map<Long, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+
+    // 统计信息
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong hitNanos = new AtomicLong();
+    private final AtomicLong missNanos = new AtomicLong();
+    private final AtomicLong revokedTokens = new AtomicLong();
+    private final AtomicLong revokedUsers = new AtomicLong();
+    private final AtomicLong publishedRevocations = new AtomicLong();
+    private final AtomicLong receivedRevocations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        long maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remaining = TimeUnit.MILLISECONDS.toNanos(value.getExpiresAt() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(remaining, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .removalListener((String key, VerifiedToken value, RemovalCause cause) -> {
+                    // 同一令牌被重新写入时键仍然有效，不能从用户索引中移除
+                    if (key != null && value != null && cause != RemovalCause.REPLACED) {
+                        Set<String> hashes = tokensByUser.get(value.getUserId());
+                        if (hashes != null) {
+                            hashes.remove(key);
+                            if (hashes.isEmpty()) {
+                                tokensByUser.remove(value.getUserId(), hashes);
+                            }
+                        }
+                    }
+                })
+                .build();
+
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onRevocation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(REVOKE_TOPIC));
+    }
+
+    @Override
+    public VerifiedToken get(String token) {
+        if (token == null) {
+            return null;
+        }
+        VerifiedToken verified = cache.getIfPresent(hash(token));
+        // 过期检查放在读取侧，避免依赖缓存清理的时机
+        if (verified != null && verified.getExpiresAt() > System.currentTimeMillis()) {
+            return verified;
+        }
+        return null;
+    }
+
+    @Override
+    public void put(String token, VerifiedToken verified) {
+        if (token == null || verified == null || verified.getUserId() == null) {
+            return;
+        }
+        String key = hash(token);
+        tokensByUser.computeIfAbsent(verified.getUserId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        cache.put(key, verified);
+    }
+
+    @Override
+    public void revokeToken(String token) {
+        if (token == null) {
+            return;
+        }
+        String key = hash(token);
+        evictToken(key);
+        publish(TOKEN_PREFIX + key);
+    }
+
+    @Override
+    public void revokeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            evictUser(userId);
+            publish(USER_PREFIX + userId);
+        });
+    }
+
+    @Override
+    public void recordAuthentication(boolean hit, long nanos) {
+        if (hit) {
+            hitCount.incrementAndGet();
+            hitNanos.addAndGet(nanos);
+        } else {
+            missCount.incrementAndGet();
+            missNanos.addAndGet(nanos);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        // 命中路径与完整验签+加载用户路径的平均耗时对比
+        stats.put("avgHitMicros", hits > 0 ? hitNanos.get() / hits / 1000.0 : 0.0);
+        stats.put("avgMissMicros", misses > 0 ? missNanos.get() / misses / 1000.0 : 0.0);
+        stats.put("size", cache.estimatedSize());
+        stats.put("users", tokensByUser.size());
+        stats.put("revokedTokens", revokedTokens.get());
+        stats.put("revokedUsers", revokedUsers.get());
+        stats.put("publishedRevocations", publishedRevocations.get());
+        stats.put("receivedRevocations", receivedRevocations.get());
+        stats.put("maxTtlSeconds", maxTtlSeconds);
+        return stats;
+    }
+
+    private void evictToken(String key) {
+        cache.invalidate(key);
+        revokedTokens.incrementAndGet();
+    }
+
+    private void evictUser(Long userId) {
+        Set<String> hashes = tokensByUser.remove(userId);
+        if (hashes != null && !hashes.isEmpty()) {
+            cache.invalidateAll(hashes);
+            revokedTokens.addAndGet(hashes.size());
+        }
+        revokedUsers.incrementAndGet();
+        log.debug("撤销用户缓存令牌: userId={}, count={}", userId, hashes != null ? hashes.size() : 0);
+    }
+
+    /**
+     * 通知其他节点撤销；发送失败时其他节点的缓存项最多残留 max-ttl-seconds
+     */
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(REVOKE_TOPIC, message);
+            publishedRevocations.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("发送令牌撤销通知失败，其他节点的缓存将在{}秒内过期: {}", maxTtlSeconds, e.getMessage());
+        }
+    }
+
+    /**
+     * 处理撤销通知（本节点发出的通知也会收到，重复清理没有副作用）
+     */
+    private void onRevocation(String message) {
+        receivedRevocations.incrementAndGet();
+        try {
+            if (message.startsWith(USER_PREFIX)) {
+                evictUser(Long.parseLong(message.substring(USER_PREFIX.length()).trim()));
+            } else if (message.startsWith(TOKEN_PREFIX)) {
+                evictToken(message.substring(TOKEN_PREFIX.length()).trim());
+            }
+        } catch (NumberFormatException e) {
+            log.warn("忽略无法解析的令牌撤销通知: {}", message);
+        }
+    }
+
+    private static String hash(String token) {
+        return DigestUtil.sha256Hex(token);
+    }
+}
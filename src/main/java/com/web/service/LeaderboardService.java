@@ -0,0 +1,91 @@
+package com.web.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 排行榜服务接口
+ * 每个统计项（点赞、粉丝、金币、曝光）维护一个有序集合，由修改user_stats的同一处增量同步更新；
+ * 总榜定期从user_stats重建校准，日榜、周榜按时间分桶并自动过期
+ */
+public interface LeaderboardService {
+
+    String BOARD_LIKES = "likes";
+    String BOARD_FANS = "fans";
+    String BOARD_COINS = "coins";
+    String BOARD_EXPOSURE = "exposure";
+
+    String WINDOW_ALL = "all";
+    String WINDOW_DAY = "day";
+    String WINDOW_WEEK = "week";
+
+    /**
+     * 累加用户在某个榜单上的分数（事务提交后执行），同时更新总榜、当日榜和本周榜
+     * @param board 榜单名
+     * @param userId 用户ID
+     * @param delta 变化量，可为负
+     */
+    void increment(String board, Long userId, long delta);
+
+    /**
+     * 批量累加多个用户在同一榜单上的分数（事务提交后执行）
+     * @param board 榜单名
+     * @param deltas 用户ID -> 变化量
+     */
+    void incrementAll(String board, Map<Long, Long> deltas);
+
+    /**
+     * 获取榜单前N名
+     * @param board 榜单名
+     * @param window 时间窗口：all / day / week
+     * @param limit 数量
+     * @return 排名列表，每项包含rank、userId、score、username、nickname、avatar
+     */
+    List<Map<String, Object>> getTop(String board, String window, int limit);
+
+    /**
+     * 获取榜单前N名的用户ID（按名次排序）
+     * @param board 榜单名
+     * @param limit 数量
+     * @return 用户ID列表；总榜尚未建立时返回空列表
+     */
+    List<Long> getTopUserIds(String board, int limit);
+
+    /**
+     * 获取用户在榜单中的名次
+     * @param board 榜单名
+     * @param window 时间窗口
+     * @param userId 用户ID
+     * @return 包含rank（未上榜为null）、score和total
+     */
+    Map<String, Object> getRank(String board, String window, Long userId);
+
+    /**
+     * 获取用户名次前后的相邻用户
+     * @param board 榜单名
+     * @param window 时间窗口
+     * @param userId 用户ID
+     * @param radius 前后各取的人数
+     * @return 排名列表；用户未上榜时返回空列表
+     */
+    List<Map<String, Object>> getAround(String board, String window, Long userId, int radius);
+
+    /**
+     * 判断榜单名是否有效
+     * @param board 榜单名
+     * @return 是否支持
+     */
+    boolean isSupported(String board);
+
+    /**
+     * 启动总榜重建后台任务：分批扫描user_stats写入临时集合，完成后原子替换
+     * @return 是否已启动（已有任务运行时返回false）
+     */
+    boolean startRebuild();
+
+    /**
+     * 获取增量、查询与重建统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,48 @@
+package com.web.service;
+
+import com.web.dto.LinkPreviewData;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 链接预览抓取服务接口
+ * 按规范化URL缓存抓取结果并合并同一链接的并发抓取；抓取使用异步HTTP客户端，
+ * 只读取页面头部，且每个域名同时进行的抓取数有上限
+ */
+public interface LinkPreviewFetchService {
+
+    /**
+     * 抓取链接预览，命中缓存或已有同一链接的抓取时直接复用
+     * @param url 链接
+     * @return 抓取结果（失败时 success=false，不会异常完成）
+     */
+    CompletableFuture<LinkPreviewData> fetch(String url);
+
+    /**
+     * 获取缓存的抓取结果
+     * @param url 链接
+     * @return 抓取结果，未缓存时为null
+     */
+    LinkPreviewData getCached(String url);
+
+    /**
+     * 清除链接的缓存结果
+     * @param url 链接
+     * @return 是否存在缓存
+     */
+    boolean evict(String url);
+
+    /**
+     * 规范化URL：协议和域名小写、去掉默认端口、片段和常见跟踪参数
+     * @param url 链接
+     * @return 规范化后的URL，无效链接返回null
+     */
+    String canonicalize(String url);
+
+    /**
+     * 获取缓存命中、合并、抓取耗时和各域名并发情况统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
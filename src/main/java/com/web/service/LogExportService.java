@@ -0,0 +1,92 @@
+package com.web.service;
+
+import com.web.vo.admin.LogExportRequestVo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 系统日志导出服务接口
+ * 按ID游标分批读取 system_logs 并边读边写到输出流，内存占用与导出总量无关；
+ * 数据量很大时可提交后台导出任务，写入本地文件并查询进度，完成后下载
+ */
+public interface LogExportService {
+
+    /**
+     * 校验并规范化导出请求（格式小写、关键词过滤等），不合法时抛出异常
+     * @param request 导出请求
+     */
+    void validate(LogExportRequestVo request);
+
+    /**
+     * 流式导出日志到输出流（不关闭输出流）
+     * @param request 导出请求
+     * @param out 输出流
+     * @return 导出的日志条数
+     */
+    long export(LogExportRequestVo request, OutputStream out) throws IOException;
+
+    /**
+     * 获取导出文件名
+     * @param request 导出请求
+     * @return 文件名
+     */
+    String getFileName(LogExportRequestVo request);
+
+    /**
+     * 获取导出内容类型
+     * @param request 导出请求
+     * @return 内容类型
+     */
+    String getContentType(LogExportRequestVo request);
+
+    /**
+     * 提交后台导出任务
+     * @param request 导出请求
+     * @param operatorId 提交者ID
+     * @return 任务信息
+     */
+    Map<String, Object> submitJob(LogExportRequestVo request, Long operatorId);
+
+    /**
+     * 获取导出任务进度
+     * @param jobId 任务ID
+     * @return 任务信息，不存在时返回null
+     */
+    Map<String, Object> getJob(String jobId);
+
+    /**
+     * 获取所有导出任务（按提交时间倒序）
+     * @return 任务列表
+     */
+    List<Map<String, Object>> listJobs();
+
+    /**
+     * 取消进行中的导出任务
+     * @param jobId 任务ID
+     * @return 是否已取消
+     */
+    boolean cancelJob(String jobId);
+
+    /**
+     * 获取已完成任务的导出文件
+     * @param jobId 任务ID
+     * @return 文件路径
+     */
+    Path getJobFile(String jobId);
+
+    /**
+     * 清理过期的导出任务和文件
+     * @return 清理的任务数
+     */
+    int cleanupExpiredJobs();
+
+    /**
+     * 获取导出统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -1,17 +1,26 @@
 package com.web.service;
 
 import com.web.model.SystemLog;
+
 import java.util.List;
 import java.util.Map;
 
 public interface LogService {
 
     /**
-     * 记录一条系统日志
+     * 记录一条系统日志（异步批量写入，配置为同步的操作类型除外）
      * @param log 日志实体
      */
     void recordLog(SystemLog log);
 
+    /**
+     * 记录一条系统日志
+     * @param log 日志实体
+     * @param sync 是否等待日志落库后再返回（用于安全相关操作）
+     * @return 同步写入时表示是否已落库，异步写入时表示是否已进入写入队列
+     */
+    boolean recordLog(SystemLog log, boolean sync);
+
     /**
      * 分页获取系统日志
      * @param page 页码
@@ -38,7 +47,7 @@ public interface LogService {
                                                 String endDate, String keyword);
 
     /**
-     * 获取系统日志统计信息
+     * 获取系统日志统计信息（累计数只统计原始日志保留期内的部分，起始日期见 statisticsSince）
      * @return 统计信息
      */
     Map<String, Object> getLogStatistics();
@@ -70,16 +79,6 @@ public interface LogService {
      */
     List<Map<String, Object>> getAvailableOperators(int days);
 
-    /**
-     * 导出系统日志
-     * @param format 导出格式 (csv, xlsx, json)
-     * @param startDate 开始日期
-     * @param endDate 结束日期
-     * @param filters 过滤条件
-     * @return 导出数据
-     */
-    byte[] exportLogs(String format, String startDate, String endDate, Map<String, Object> filters);
-
     /**
      * 清理过期日志
      * @param days 保留天数
@@ -10,6 +10,7 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 消息广播服务
@@ -23,7 +24,7 @@ public class MessageBroadcastService {
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private UserService userService;
+    private UserProfileLoaderService userProfileLoaderService;
 
     @Autowired
     private UserOnlineStatusService onlineStatusService;
@@ -53,7 +54,7 @@ public class MessageBroadcastService {
             }
 
             // 2. 获取发送者信息
-            User sender = userService.getUserBasicInfo(message.getSenderId());
+            User sender = userProfileLoaderService.getUser(message.getSenderId());
             String senderName = sender != null ? sender.getUsername() : "Unknown";
 
             // 3. 构建消息响应对象
@@ -71,7 +72,8 @@ public class MessageBroadcastService {
             response.setRoomId(String.valueOf(groupId));
             response.setIsRecalled(message.getIsRecalled() != null ? message.getIsRecalled() : 0);
 
-            // 4. 批量转发给所有群成员（排除发送者）
+            // 4. 批量转发给所有群成员（排除发送者），成员资料一次批量加载
+            Map<Long, User> members = userProfileLoaderService.getUsers(memberIds);
             int successCount = 0;
             int failCount = 0;
 
@@ -90,7 +92,7 @@ public class MessageBroadcastService {
                     
                     if (isOnline) {
                         // 在线：立即发送
-                        User member = userService.getUserBasicInfo(memberId);
+                        User member = members.get(memberId);
                         if (member != null) {
                             response.setStatus(2); // DELIVERED
                             messagingTemplate.convertAndSendToUser(
@@ -147,15 +149,16 @@ public class MessageBroadcastService {
      */
     public void broadcastMessageToReceiver(Message message, Long receiverId) {
         try {
-            // 1. 获取接收者用户信息
-            User receiver = userService.getUserBasicInfo(receiverId);
+            // 1. 获取接收者与发送者用户信息（一次批量加载）
+            Map<Long, User> users = userProfileLoaderService.getUsers(java.util.Arrays.asList(receiverId, message.getSenderId()));
+            User receiver = users.get(receiverId);
             if (receiver == null) {
                 log.warn("接收者不存在: receiverId={}", receiverId);
                 return;
             }
 
             // 2. 获取发送者用户名
-            User sender = userService.getUserBasicInfo(message.getSenderId());
+            User sender = users.get(message.getSenderId());
             String senderName = sender != null ? sender.getUsername() : "Unknown";
 
             // 3. 构建消息响应对象
@@ -241,7 +244,7 @@ public class MessageBroadcastService {
      */
     public void confirmMessageToSender(Message message, Long senderId, String clientMessageId) {
         try {
-            User sender = userService.getUserBasicInfo(senderId);
+            User sender = userProfileLoaderService.getUser(senderId);
             if (sender == null) {
                 log.warn("发送者不存在: senderId={}", senderId);
                 return;
@@ -287,8 +290,9 @@ public class MessageBroadcastService {
      */
     public void updateChatListForUsers(ChatList chatList, Long userId1, Long userId2) {
         try {
-            User user1 = userService.getUserBasicInfo(userId1);
-            User user2 = userService.getUserBasicInfo(userId2);
+            Map<Long, User> users = userProfileLoaderService.getUsers(java.util.Arrays.asList(userId1, userId2));
+            User user1 = users.get(userId1);
+            User user2 = users.get(userId2);
 
             if (user1 != null) {
                 messagingTemplate.convertAndSendToUser(
@@ -349,7 +353,7 @@ public class MessageBroadcastService {
             }
 
             // 3. 获取受影响用户的信息
-            User affectedUser = userService.getUserBasicInfo(affectedUserId);
+            User affectedUser = userProfileLoaderService.getUser(affectedUserId);
             if (affectedUser != null) {
                 changeEvent.put("affectedUsername", affectedUser.getUsername());
                 changeEvent.put("affectedNickname", affectedUser.getNickname());
@@ -358,14 +362,15 @@ public class MessageBroadcastService {
 
             // 4. 获取操作者信息
             if (operatorId != null) {
-                User operator = userService.getUserBasicInfo(operatorId);
+                User operator = userProfileLoaderService.getUser(operatorId);
                 if (operator != null) {
                     changeEvent.put("operatorUsername", operator.getUsername());
                     changeEvent.put("operatorNickname", operator.getNickname());
                 }
             }
 
-            // 5. 批量广播给所有群成员
+            // 5. 批量广播给所有群成员，成员资料一次批量加载
+            Map<Long, User> members = userProfileLoaderService.getUsers(memberIds);
             int successCount = 0;
             int failCount = 0;
 
@@ -375,7 +380,7 @@ public class MessageBroadcastService {
                     boolean isOnline = onlineStatusService.isUserOnline(memberId);
                     
                     if (isOnline) {
-                        User member = userService.getUserBasicInfo(memberId);
+                        User member = members.get(memberId);
                         if (member != null) {
                             // 在线：立即发送WebSocket消息
                             messagingTemplate.convertAndSendToUser(
@@ -442,14 +447,15 @@ public class MessageBroadcastService {
 
             // 3. 获取操作者信息
             if (operatorId != null) {
-                User operator = userService.getUserBasicInfo(operatorId);
+                User operator = userProfileLoaderService.getUser(operatorId);
                 if (operator != null) {
                     changeEvent.put("operatorUsername", operator.getUsername());
                     changeEvent.put("operatorNickname", operator.getNickname());
                 }
             }
 
-            // 4. 批量广播给所有群成员
+            // 4. 批量广播给所有群成员，成员资料一次批量加载
+            Map<Long, User> members = userProfileLoaderService.getUsers(memberIds);
             int successCount = 0;
 
             for (Long memberId : memberIds) {
@@ -457,7 +463,7 @@ public class MessageBroadcastService {
                     boolean isOnline = onlineStatusService.isUserOnline(memberId);
                     
                     if (isOnline) {
-                        User member = userService.getUserBasicInfo(memberId);
+                        User member = members.get(memberId);
                         if (member != null) {
                             messagingTemplate.convertAndSendToUser(
                                 member.getUsername(),
@@ -524,7 +530,8 @@ public class MessageBroadcastService {
             reactionEvent.put("reactions", reactionData.get("reactions")); // 完整的反应统计
             reactionEvent.put("timestamp", new java.util.Date());
 
-            // 3. 批量广播给所有相关用户
+            // 3. 批量广播给所有相关用户，用户资料一次批量加载
+            Map<Long, User> recipients = userProfileLoaderService.getUsers(recipientIds);
             int successCount = 0;
             int failCount = 0;
 
@@ -534,7 +541,7 @@ public class MessageBroadcastService {
                     boolean isOnline = onlineStatusService.isUserOnline(recipientId);
                     
                     if (isOnline) {
-                        User recipient = userService.getUserBasicInfo(recipientId);
+                        User recipient = recipients.get(recipientId);
                         if (recipient != null) {
                             // 在线：立即发送WebSocket消息
                             messagingTemplate.convertAndSendToUser(
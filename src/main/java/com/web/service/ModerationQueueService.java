@@ -0,0 +1,86 @@
+package com.web.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文章审核队列服务接口
+ * 待审核文章由有界线程池异步检测（敏感词、链接信誉、可选的AI合规检查）并打分，
+ * 再按优先级和等待时间放入调度队列，审核员每次领取当前最紧急的一篇
+ */
+public interface ModerationQueueService {
+
+    // 审核优先级
+    int PRIORITY_LOW = 1;      // 低优先级（未检出风险）
+    int PRIORITY_NORMAL = 2;   // 普通优先级
+    int PRIORITY_HIGH = 3;     // 高优先级
+    int PRIORITY_URGENT = 4;   // 紧急优先级
+
+    /**
+     * 提交文章检测（事务提交后异步执行）
+     * 只处理仍为待审核状态的文章，重复提交会以最新内容重新打分
+     * @param articleId 文章ID
+     */
+    void submit(Long articleId);
+
+    /**
+     * 领取队列中最紧急的文章，领取后在租约期内不会再分配给其他审核员
+     * @param reviewerId 审核员ID
+     * @return 队列条目（articleId、priority、score、reasons、waitMs等），队列为空时为null
+     */
+    Map<String, Object> claimNext(Long reviewerId);
+
+    /**
+     * 归还已领取但未处理的文章
+     * @param articleId 文章ID
+     * @param reviewerId 审核员ID
+     * @return 是否归还成功
+     */
+    boolean release(Long articleId, Long reviewerId);
+
+    /**
+     * 文章已审核或删除，从队列中移除
+     * @param articleId 文章ID
+     */
+    void complete(Long articleId);
+
+    /**
+     * 人工调整排队中文章的优先级（保留原提交时间）
+     * @param articleId 文章ID
+     * @param priority 优先级
+     * @return 文章是否在队列中
+     */
+    boolean setPriority(Long articleId, int priority);
+
+    /**
+     * 按调度顺序查看队首的若干篇文章（不领取）
+     * @param limit 数量
+     * @return 队列条目列表
+     */
+    List<Map<String, Object>> peek(int limit);
+
+    /**
+     * 获取等待超过指定小时数的文章（含已领取未处理的）
+     * @param hours 小时数
+     * @return 按等待时间降序的队列条目列表
+     */
+    List<Map<String, Object>> getOverdue(int hours);
+
+    /**
+     * 收回过期租约，把文章放回队列
+     * @return 收回数量
+     */
+    int reclaimExpiredLeases();
+
+    /**
+     * 从数据库重建队列：所有待审核文章重新提交检测
+     * @return 提交检测的文章数
+     */
+    int rebuild();
+
+    /**
+     * 获取队列深度、等待时长、吞吐量和检测耗时统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
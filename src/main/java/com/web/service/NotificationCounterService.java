@@ -0,0 +1,51 @@
+package com.web.service;
+
+import java.util.Map;
+
+/**
+ * 通知计数服务接口
+ * 每个用户的未读数和总数缓存在Redis中，由通知的创建、已读、删除路径增量维护，
+ * 缓存缺失或过期时从数据库重新统计；计数变化后通过WebSocket推送角标
+ */
+public interface NotificationCounterService {
+
+    /**
+     * 获取用户未读通知数量
+     * @param userId 用户ID
+     * @return 未读数量
+     */
+    int getUnreadCount(Long userId);
+
+    /**
+     * 获取用户通知总数
+     * @param userId 用户ID
+     * @return 总数
+     */
+    int getTotalCount(Long userId);
+
+    /**
+     * 调整用户的通知计数并推送角标（事务提交后执行）
+     * @param userId 用户ID
+     * @param unreadDelta 未读数变化量
+     * @param totalDelta 总数变化量
+     */
+    void adjust(Long userId, long unreadDelta, long totalDelta);
+
+    /**
+     * 批量增加多个用户的新通知数（未读数和总数同时增加）并推送角标
+     * @param created 用户ID -> 新通知数
+     */
+    void addCreated(Map<Long, Long> created);
+
+    /**
+     * 删除用户的计数缓存，下次访问时从数据库重新统计
+     * @param userId 用户ID
+     */
+    void invalidate(Long userId);
+
+    /**
+     * 获取缓存命中、重新统计与推送统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
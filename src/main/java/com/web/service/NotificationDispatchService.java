@@ -0,0 +1,33 @@
+package com.web.service;
+
+import java.util.Map;
+
+/**
+ * 通知分发服务接口
+ * 通知先进入内存队列，由后台批量写库；点赞、关注、评论等高频通知在时间窗口内
+ * 按接收者合并为摘要（如“12人赞了你的文章”），每个接收者每个窗口只推送一次
+ */
+public interface NotificationDispatchService {
+
+    /**
+     * 提交一条通知（事务提交后入队）
+     * @param recipientId 接收者用户ID
+     * @param actorId 触发通知的用户ID
+     * @param type 通知类型
+     * @param entityType 关联实体类型
+     * @param entityId 关联实体ID
+     */
+    void submit(Long recipientId, Long actorId, String type, String entityType, Long entityId);
+
+    /**
+     * 批量写入队列中的通知，并推送已到期的摘要窗口
+     * @return 本次写入的通知数
+     */
+    int flush();
+
+    /**
+     * 获取队列深度、写入延迟、合并与推送统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
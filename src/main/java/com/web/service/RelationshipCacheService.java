@@ -0,0 +1,59 @@
+package com.web.service;
+
+import com.web.service.SocialRelationshipService.RelationshipStatus;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 关系状态缓存服务接口
+ * 以有序用户对为键缓存双方的关注、好友与待处理申请状态，同一条缓存同时服务两个方向的查询；
+ * 缓存未命中时整页用户一次批量查询，关系变更在事务提交后按用户对失效
+ */
+public interface RelationshipCacheService {
+
+    /**
+     * 获取当前用户视角下与目标用户的关系状态
+     * @param userId 当前用户ID
+     * @param targetUserId 目标用户ID
+     * @return 关系状态
+     */
+    RelationshipStatus getStatus(Long userId, Long targetUserId);
+
+    /**
+     * 批量获取当前用户与一组用户的关系状态，未命中的用户对合并为一次批量查询
+     * @param userId 当前用户ID
+     * @param targetUserIds 目标用户ID集合
+     * @return 目标用户ID -> 关系状态
+     */
+    Map<Long, RelationshipStatus> getStatuses(Long userId, Collection<Long> targetUserIds);
+
+    /**
+     * 两个用户是否为好友
+     * @param userId 用户ID
+     * @param otherUserId 另一用户ID
+     * @return 是否为好友
+     */
+    boolean isFriend(Long userId, Long otherUserId);
+
+    /**
+     * 两个用户是否互相关注
+     * @param userId 用户ID
+     * @param otherUserId 另一用户ID
+     * @return 是否互相关注
+     */
+    boolean isMutualFollow(Long userId, Long otherUserId);
+
+    /**
+     * 使用户对的缓存失效（事务提交后执行）
+     * @param userId 用户ID
+     * @param otherUserId 另一用户ID
+     */
+    void invalidate(Long userId, Long otherUserId);
+
+    /**
+     * 获取命中率、批量加载与失效统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,52 @@
+package com.web.service;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 搜索结果缓存服务接口
+ * 以规范化后的查询词 + 过滤条件 + 分页作为缓存键，按结果字节大小限制容量，
+ * 热门查询过期前在后台刷新（stale-while-revalidate），数据变更时按类型定向失效
+ */
+public interface SearchResultCacheService {
+
+    String TYPE_USER = "user";
+    String TYPE_GROUP = "group";
+    String TYPE_ARTICLE = "article";
+
+    /**
+     * 从缓存读取搜索结果，未命中时执行loader并缓存
+     * @param type 搜索类型（user / group / article）
+     * @param query 原始查询词
+     * @param filters 过滤与排序条件（可为null）
+     * @param page 页码
+     * @param size 每页数量
+     * @param loader 结果加载器
+     * @return 搜索结果（只读，多个请求共享同一份）
+     */
+    Map<String, Object> get(String type, String query, Map<String, Object> filters, int page, int size,
+                            Supplier<Map<String, Object>> loader);
+
+    /**
+     * 定向失效：移除结果中包含该实体，或查询词命中该实体文本的缓存项；
+     * 文章类型不逐项比对正文，直接使该类型的缓存整体失效
+     * 在事务提交后执行
+     * @param type 搜索类型
+     * @param entityId 变更的实体ID（可为null）
+     * @param texts 实体的可搜索文本（用户名、昵称、群组名、文章标题与内容等）
+     */
+    void invalidate(String type, Long entityId, String... texts);
+
+    /**
+     * 使指定类型的全部缓存失效（递增失效代次，旧缓存项在读取时丢弃，不遍历缓存）
+     * 在事务提交后执行
+     * @param type 搜索类型
+     */
+    void invalidateAll(String type);
+
+    /**
+     * 获取各搜索类型的缓存命中率等统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
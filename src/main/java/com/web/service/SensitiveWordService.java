@@ -0,0 +1,52 @@
+package com.web.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 敏感词服务接口
+ * 文章审核、审核队列等内容审核共用同一个预编译的多模式匹配器，
+ * 词表变更时在后台重建匹配器并整体替换，检测请求不会触发重建。
+ * 聊天消息、评论、昵称等字段校验不走这里，见 ValidationUtils
+ */
+public interface SensitiveWordService {
+
+    /**
+     * 文本是否包含敏感词
+     * @param text 文本
+     * @return 是否包含
+     */
+    boolean contains(String text);
+
+    /**
+     * 找出文本中命中的敏感词（去重，按首次出现顺序）
+     * @param text 文本
+     * @return 敏感词列表
+     */
+    List<String> findWords(String text);
+
+    /**
+     * 找出文本中所有敏感词的位置
+     * @param text 文本
+     * @return 命中列表，每项包含 word、start、end（原文下标，左闭右开）
+     */
+    List<Map<String, Object>> findPositions(String text);
+
+    /**
+     * 重新加载词表并重建匹配器
+     * @return 加载的词数
+     */
+    int reload();
+
+    /**
+     * 外部词表文件有变化时重新加载
+     * @return 是否重新加载
+     */
+    boolean reloadIfChanged();
+
+    /**
+     * 获取词表规模、扫描次数、命中率与扫描耗时统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,139 @@
+package com.web.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 社交图服务接口
+ * 在内存中维护已确认好友关系和关注关系的邻接索引，好友判断、互关判断、共同好友数
+ * 和二度关系推荐都不访问数据库；关系变更时增量更新，定期从数据库全量重建校准
+ */
+public interface SocialGraphService {
+
+    /**
+     * 社交图是否已完成首次加载，未就绪时调用方应回退到数据库查询
+     * @return 是否就绪
+     */
+    boolean isReady();
+
+    /**
+     * 判断两个用户是否为好友
+     * @param userId 用户ID
+     * @param otherUserId 另一用户ID
+     * @return 是否为好友
+     */
+    boolean isFriend(Long userId, Long otherUserId);
+
+    /**
+     * 判断是否关注
+     * @param followerId 关注者ID
+     * @param followeeId 被关注者ID
+     * @return 是否关注
+     */
+    boolean isFollowing(Long followerId, Long followeeId);
+
+    /**
+     * 判断两个用户是否互相关注
+     * @param userId 用户ID
+     * @param otherUserId 另一用户ID
+     * @return 是否互相关注
+     */
+    boolean isMutualFollow(Long userId, Long otherUserId);
+
+    /**
+     * 获取用户的好友ID（升序）
+     * @param userId 用户ID
+     * @return 好友ID数组
+     */
+    long[] getFriendIds(Long userId);
+
+    /**
+     * 获取用户关注的用户ID（升序）
+     * @param userId 用户ID
+     * @return 关注的用户ID数组
+     */
+    long[] getFollowingIds(Long userId);
+
+    /**
+     * 获取用户的粉丝ID（升序）
+     * @param userId 用户ID
+     * @return 粉丝ID数组
+     */
+    long[] getFollowerIds(Long userId);
+
+    /**
+     * 统计两个用户的共同好友数
+     * @param userId 用户ID
+     * @param otherUserId 另一用户ID
+     * @return 共同好友数
+     */
+    int countMutualFriends(Long userId, Long otherUserId);
+
+    /**
+     * 基于共同好友的二度好友推荐，优先使用预计算结果
+     * @param userId 用户ID
+     * @param limit 数量
+     * @return 按共同好友数降序的 候选用户ID -> 共同好友数
+     */
+    Map<Long, Integer> recommendFriends(Long userId, int limit);
+
+    /**
+     * 基于“关注的人也关注了”的二度关注推荐
+     * @param userId 用户ID
+     * @param limit 数量
+     * @return 按共同关注数降序的 候选用户ID -> 共同关注数
+     */
+    Map<Long, Integer> recommendFollows(Long userId, int limit);
+
+    /**
+     * 记录新增关注（事务提交后生效）
+     * @param followerId 关注者ID
+     * @param followeeId 被关注者ID
+     */
+    void onFollow(Long followerId, Long followeeId);
+
+    /**
+     * 记录取消关注（事务提交后生效）
+     * @param followerId 关注者ID
+     * @param followeeId 被关注者ID
+     */
+    void onUnfollow(Long followerId, Long followeeId);
+
+    /**
+     * 从数据库重新判断两个用户的好友关系并更新索引（事务提交后执行）
+     * 联系人记录可能双向各有一条，接受、删除、拉黑后都以数据库中是否仍有已确认记录为准
+     * @param userId 用户ID
+     * @param otherUserId 另一用户ID
+     */
+    void refreshFriendship(Long userId, Long otherUserId);
+
+    /**
+     * 并行预计算一批用户的好友推荐
+     * @param userIds 用户ID集合
+     * @return 完成预计算的用户数
+     */
+    int precomputeRecommendations(Collection<Long> userIds);
+
+    /**
+     * 取出自上次调用以来请求过推荐的用户，供预计算任务使用
+     * @return 用户ID集合
+     */
+    Collection<Long> drainRecentRequesters();
+
+    /**
+     * 启动后台全量重建
+     * @return 是否已启动（已有重建运行时返回false）
+     */
+    boolean startReload();
+
+    /**
+     * 把增量变更合并进压缩邻接数组
+     */
+    void compact();
+
+    /**
+     * 获取节点数、边数、增量规模、内存占用与查询统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
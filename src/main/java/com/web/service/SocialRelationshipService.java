@@ -1,5 +1,6 @@
 package com.web.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +32,14 @@ public interface SocialRelationshipService {
      */
     RelationshipStatus getRelationshipStatus(Long userId, Long targetUserId);
 
+    /**
+     * 批量获取当前用户与一组用户的关系状态（用于列表页一次性渲染）
+     * @param userId 当前用户ID
+     * @param targetUserIds 目标用户ID集合
+     * @return 目标用户ID -> 关系状态，保持传入顺序
+     */
+    Map<Long, RelationshipStatus> getRelationshipStatuses(Long userId, Collection<Long> targetUserIds);
+
     /**
      * 关注用户
      * @param userId 当前用户ID
@@ -0,0 +1,50 @@
+package com.web.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 系统日志分区管理服务接口
+ * system_logs 按天分区（RANGE TO_DAYS(created_at)），提前创建未来的分区，
+ * 过期日志通过删除整个分区清理，不产生大范围DELETE事务
+ */
+public interface SystemLogPartitionService {
+
+    /**
+     * 确保未来若干天的分区已存在；表未分区时直接跳过（转换需手动执行迁移脚本）
+     * @return 新建的分区数
+     */
+    int ensurePartitions();
+
+    /**
+     * 删除上界不晚于指定日期的分区（即只含该日期之前日志的分区）
+     * @param cutoffDate 保留的最早日期
+     * @return 删除结果（droppedPartitions 分区名列表，estimatedRows 估算删除行数）
+     */
+    Map<String, Object> dropPartitionsBefore(LocalDate cutoffDate);
+
+    /**
+     * 按配置的保留天数删除过期分区
+     * @return 删除的分区数
+     */
+    int applyRetention();
+
+    /**
+     * 表当前是否已分区
+     * @return 是否已分区
+     */
+    boolean isPartitioned();
+
+    /**
+     * 获取分区列表（名称、日期范围、估算行数）
+     * @return 分区列表
+     */
+    List<Map<String, Object>> listPartitions();
+
+    /**
+     * 获取分区管理统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,29 @@
+package com.web.service;
+
+import java.util.Map;
+
+/**
+ * 系统日志汇总服务接口
+ * 定期从 system_logs 重算最近时段的小时汇总，再由小时汇总重算按天汇总；
+ * 重算是幂等的，停机后再启动会从最后一个汇总小时继续补齐
+ */
+public interface SystemLogRollupService {
+
+    /**
+     * 重算自上次汇总以来（含回看时长）的小时和按天汇总
+     * @return 影响的汇总行数
+     */
+    int rollup();
+
+    /**
+     * 删除超过保留期的汇总行
+     * @return 删除的行数
+     */
+    int pruneRollups();
+
+    /**
+     * 获取汇总统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
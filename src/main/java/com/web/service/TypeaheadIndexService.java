@@ -0,0 +1,73 @@
+package com.web.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 输入联想索引服务接口
+ * 基于内存压缩前缀树，为用户名、昵称、群组名称（含拼音全拼与首字母）提供前缀补全
+ */
+public interface TypeaheadIndexService {
+
+    String TYPE_USER = "user";
+    String TYPE_GROUP = "group";
+
+    /**
+     * 前缀补全
+     * @param type 索引类型（user / group）
+     * @param prefix 输入前缀
+     * @param limit 返回数量
+     * @return 补全候选：{ id, name, type }
+     */
+    List<Map<String, Object>> suggest(String type, String prefix, int limit);
+
+    /**
+     * 估算匹配数量，用于替代搜索分页的COUNT查询
+     * 直接取前缀树中该前缀节点的子树条目数，O(关键词长度)；只统计前缀命中（不含中间匹配），
+     * 同一条目有多个键（用户名、昵称、拼音）命中时会重复计数，因此只能用于展示，分页以hasMore为准
+     * @param type 索引类型（user / group）
+     * @param keyword 关键词
+     * @return 估算数量；索引尚未构建完成时返回-1
+     */
+    long estimateCount(String type, String keyword);
+
+    /**
+     * 重新加载单个用户的索引键（用户创建、改名后调用，事务提交后生效）
+     * @param userId 用户ID
+     */
+    void refreshUser(Long userId);
+
+    /**
+     * 从索引中移除用户
+     * @param userId 用户ID
+     */
+    void removeUser(Long userId);
+
+    /**
+     * 重新加载单个群组的索引键（群组创建、改名后调用，事务提交后生效）
+     * @param groupId 群组ID
+     */
+    void refreshGroup(Long groupId);
+
+    /**
+     * 从索引中移除群组
+     * @param groupId 群组ID
+     */
+    void removeGroup(Long groupId);
+
+    /**
+     * 全量重建索引（分批扫描数据库，构建完成后原子切换）
+     */
+    void rebuild();
+
+    /**
+     * 索引是否已完成首次构建
+     */
+    boolean isReady();
+
+    /**
+     * 获取索引统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,69 @@
+package com.web.service;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户等级引擎服务接口
+ * 等级计算所需的计数（文章、消息、点赞、粉丝、浏览、评论）由产生它们的事件增量维护，
+ * 只有当某个计数越过任一等级门槛时才把用户加入待评估集合；
+ * 全量重算作为分批、并行、可断点续跑的后台任务执行
+ */
+public interface UserLevelEngineService {
+
+    String COUNTER_ARTICLES = "articleCount";
+    String COUNTER_MESSAGES = "messageCount";
+    String COUNTER_LIKES = "likeCount";
+    String COUNTER_FOLLOWERS = "followerCount";
+    String COUNTER_VIEWS = "viewCount";
+    String COUNTER_COMMENTS = "commentCount";
+
+    /**
+     * 增量更新用户的某个计数（事务提交后执行）
+     * @param userId 用户ID
+     * @param counter 计数名
+     * @param delta 变化量，可为负
+     */
+    void increment(Long userId, String counter, long delta);
+
+    /**
+     * 批量增量更新多个用户的同一计数（事务提交后执行）
+     * @param counter 计数名
+     * @param deltas 用户ID -> 变化量
+     */
+    void incrementAll(String counter, Map<Long, Long> deltas);
+
+    /**
+     * 从数据库重新统计单个用户的全部计数（事务提交后执行）
+     * 用于文章审核、删除等难以精确推导增量的状态变更
+     * @param userId 用户ID
+     */
+    void recount(Long userId);
+
+    /**
+     * 获取用户等级计算所需的统计数据，格式与UserLevel.canUpgradeTo的参数一致
+     * @param userId 用户ID
+     * @return 统计数据（不含声誉值）
+     */
+    Map<String, Object> getUserStats(Long userId);
+
+    /**
+     * 取出待评估的用户
+     * @param limit 最多取出的数量
+     * @return 用户ID集合
+     */
+    Set<Long> drainPendingEvaluations(int limit);
+
+    /**
+     * 启动全量重算后台任务
+     * @param fromBeginning true从头开始，false从上次中断的游标继续
+     * @return 是否已启动（已有任务运行时返回false）
+     */
+    boolean startResync(boolean fromBeginning);
+
+    /**
+     * 获取增量更新、门槛触发与全量重算进度统计
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,39 @@
+package com.web.service;
+
+import com.web.model.User;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 用户资料加载服务接口
+ * 为消息广播、联系人、群组成员等按ID批量读取用户基本信息的场景提供合并加载与本地近缓存
+ */
+public interface UserProfileLoaderService {
+
+    /**
+     * 获取单个用户基本信息
+     * @param userId 用户ID
+     * @return 用户信息副本（不含密码），不存在时返回null
+     */
+    User getUser(Long userId);
+
+    /**
+     * 批量获取用户基本信息：先查近缓存，未命中的ID合并为一次 WHERE id IN (...) 查询
+     * @param userIds 用户ID集合（可重复、可含null）
+     * @return 用户ID -> 用户信息副本，不存在的用户不包含在结果中
+     */
+    Map<Long, User> getUsers(Collection<Long> userIds);
+
+    /**
+     * 使用户缓存失效，在事务提交后执行
+     * @param userId 用户ID
+     */
+    void invalidate(Long userId);
+
+    /**
+     * 获取加载统计信息（查询合并数、命中率等）
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,86 @@
+package com.web.service;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Map;
+
+/**
+ * 已验证令牌缓存服务接口
+ * 以令牌哈希为键缓存验签结果与用户权限，命中时认证只需一次哈希查找；
+ * 缓存项不会超过令牌本身的过期时间，封禁、改名（权限由用户名决定）、改密码等操作会撤销该用户的全部缓存项，
+ * 撤销通过 Redis pub/sub 同步到所有节点
+ */
+public interface VerifiedTokenCacheService {
+
+    /**
+     * 已验证令牌信息
+     */
+    final class VerifiedToken {
+        private final Long userId;
+        private final String username;
+        private final UserDetails userDetails;
+        private final long expiresAt;
+
+        public VerifiedToken(Long userId, String username, UserDetails userDetails, long expiresAt) {
+            this.userId = userId;
+            this.username = username;
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public UserDetails getUserDetails() {
+            return userDetails;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    /**
+     * 查找已验证的令牌
+     * @param token 原始JWT令牌
+     * @return 已验证令牌信息，未命中或已过期时返回null
+     */
+    VerifiedToken get(String token);
+
+    /**
+     * 缓存验证结果
+     * @param token 原始JWT令牌
+     * @param verified 验证结果
+     */
+    void put(String token, VerifiedToken verified);
+
+    /**
+     * 撤销单个令牌（如登出），同时通知其他节点
+     * @param token 原始JWT令牌
+     */
+    void revokeToken(String token);
+
+    /**
+     * 撤销用户的全部缓存令牌，在事务提交后执行并通知其他节点
+     * @param userId 用户ID
+     */
+    void revokeUser(Long userId);
+
+    /**
+     * 记录一次认证耗时，用于对比命中与未命中路径
+     * @param hit 是否命中缓存
+     * @param nanos 耗时（纳秒）
+     */
+    void recordAuthentication(boolean hit, long nanos);
+
+    /**
+     * 获取缓存统计信息
+     * @return 统计信息
+     */
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,32 @@
+package com.web.task;
+
+import com.web.service.ArticleRecommendationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章推荐排名重建定时任务
+ * 定期从数据库全量重建排名，纳入新进入时间窗口的文章并校正增量更新的偏差
+ */
+@Slf4j
+@Component
+public class ArticleRecommendationRebuildTask {
+
+    @Autowired
+    private ArticleRecommendationService articleRecommendationService;
+
+    /**
+     * 全量重建推荐排名
+     * 启动15秒后首次执行，默认每10分钟执行一次
+     */
+    @Scheduled(initialDelay = 15000, fixedDelayString = "${weeb.article.recommendation.rebuild-interval-ms:600000}")
+    public void rebuildRanking() {
+        try {
+            articleRecommendationService.rebuild();
+        } catch (Exception e) {
+            log.error("重建文章推荐排名失败", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.web.task;
+
+import com.web.service.ArticleViewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章独立访客汇总定时任务
+ * 定期把Redis HyperLogLog中的独立访客数写入article_view_stats表
+ */
+@Slf4j
+@Component
+public class ArticleViewFoldTask {
+
+    @Autowired
+    private ArticleViewService articleViewService;
+
+    /**
+     * 汇总独立访客数，默认每分钟执行一次
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${weeb.article.views.fold-interval-ms:60000}")
+    public void foldUniqueViews() {
+        try {
+            articleViewService.fold();
+        } catch (Exception e) {
+            log.error("汇总文章独立访客失败", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.web.task;
+
+import com.web.service.BehaviorEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户行为事件定时任务
+ * 批量写出事件队列、采样在线人数峰值，并清理过期的事件文件
+ */
+@Slf4j
+@Component
+public class BehaviorEventFlushTask {
+
+    @Autowired
+    private BehaviorEventService behaviorEventService;
+
+    /**
+     * 写出队列中的事件，默认每秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${weeb.behavior.flush-interval-ms:1000}")
+    public void flushEvents() {
+        try {
+            behaviorEventService.flush();
+        } catch (Exception e) {
+            log.error("写出用户行为事件失败", e);
+        }
+    }
+
+    /**
+     * 每分钟采样一次在线人数，用于今日峰值
+     */
+    @Scheduled(fixedRate = 60000)
+    public void sampleOnlineUsers() {
+        try {
+            behaviorEventService.getOnlineUserCount();
+        } catch (Exception e) {
+            log.error("采样在线人数失败", e);
+        }
+    }
+
+    /**
+     * 每天凌晨3点清理过期的事件文件
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    public void purgeExpiredFiles() {
+        try {
+            behaviorEventService.purgeExpiredFiles();
+        } catch (Exception e) {
+            log.error("清理过期行为事件文件失败", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.web.task;
+
+import com.web.service.ConfigService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 配置快照同步任务
+ * 定期比对本地配置快照与 Redis 中的版本号，弥补丢失的 pub/sub 变更通知
+ */
+@Slf4j
+@Component
+public class ConfigSnapshotSyncTask {
+
+    @Autowired
+    private ConfigService configService;
+
+    /**
+     * 比对配置版本，默认每30秒执行一次
+     */
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${weeb.config-cache.check-interval-ms:30000}")
+    public void syncConfigSnapshot() {
+        try {
+            configService.syncConfigSnapshot();
+        } catch (Exception e) {
+            log.error("同步配置快照失败", e);
+        }
+    }
+}
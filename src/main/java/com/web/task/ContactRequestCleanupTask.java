@@ -3,6 +3,7 @@ package com.web.task;
 import com.web.constant.ContactStatus;
 import com.web.mapper.ContactMapper;
 import com.web.model.Contact;
+import com.web.service.RelationshipCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -22,6 +23,9 @@ public class ContactRequestCleanupTask {
     @Autowired
     private ContactMapper contactMapper;
 
+    @Autowired
+    private RelationshipCacheService relationshipCacheService;
+
     // 好友请求过期天数
     private static final int EXPIRE_DAYS = 7;
 
@@ -51,6 +55,7 @@ public class ContactRequestCleanupTask {
                     // 更新状态为EXPIRED
                     contact.setStatus(ContactStatus.EXPIRED.getCode());
                     contactMapper.updateById(contact);
+                    relationshipCacheService.invalidate(contact.getUserId(), contact.getFriendId());
 
                     // TODO: 发送过期通知给申请人
                     // notificationService.sendFriendRequestExpiredNotification(contact);
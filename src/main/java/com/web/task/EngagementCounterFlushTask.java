@@ -0,0 +1,31 @@
+package com.web.task;
+
+import com.web.service.EngagementCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章互动计数刷写定时任务
+ * 定期把内存中累积的点赞、收藏、阅读、赞助增量合并写入数据库
+ */
+@Slf4j
+@Component
+public class EngagementCounterFlushTask {
+
+    @Autowired
+    private EngagementCounterService engagementCounterService;
+
+    /**
+     * 刷写互动计数增量，默认每5秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${weeb.article.engagement.flush-interval-ms:5000}")
+    public void flushCounters() {
+        try {
+            engagementCounterService.flush();
+        } catch (Exception e) {
+            log.error("刷写文章互动计数失败", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.web.task;
+
+import com.web.service.LeaderboardService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 排行榜重建定时任务
+ * 每天从user_stats重建一次总榜，校准增量更新失败或并发造成的偏差
+ */
+@Slf4j
+@Component
+public class LeaderboardRebuildTask {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    /**
+     * 重建总榜，默认每天凌晨5点执行
+     */
+    @Scheduled(cron = "${weeb.leaderboard.rebuild-cron:0 0 5 * * ?}")
+    public void rebuild() {
+        try {
+            if (!leaderboardService.startRebuild()) {
+                log.info("排行榜重建仍在运行，跳过本次调度");
+            }
+        } catch (Exception e) {
+            log.error("启动排行榜重建失败", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.web.task;
+
+import com.web.service.LogExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 日志导出文件清理任务
+ * 定期删除超过保留时长的导出任务及其文件
+ */
+@Slf4j
+@Component
+public class LogExportCleanupTask {
+
+    @Autowired
+    private LogExportService logExportService;
+
+    /**
+     * 清理过期导出，默认每小时执行一次
+     */
+    @Scheduled(initialDelay = 600000, fixedDelayString = "${weeb.log-export.cleanup-interval-ms:3600000}")
+    public void cleanupExpiredJobs() {
+        try {
+            logExportService.cleanupExpiredJobs();
+        } catch (Exception e) {
+            log.error("清理过期日志导出失败", e);
+        }
+    }
+}
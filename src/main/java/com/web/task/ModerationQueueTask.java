@@ -0,0 +1,43 @@
+package com.web.task;
+
+import com.web.service.ModerationQueueService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文章审核队列维护任务
+ * 启动后从数据库重建队列并定期校准，另外定期收回审核员超时未处理的租约
+ */
+@Slf4j
+@Component
+public class ModerationQueueTask {
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
+    /**
+     * 重建审核队列：启动10秒后首次执行，之后默认每小时校准一次
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${weeb.moderation.queue.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        try {
+            moderationQueueService.rebuild();
+        } catch (Exception e) {
+            log.error("重建审核队列失败", e);
+        }
+    }
+
+    /**
+     * 收回过期租约，默认每分钟执行一次
+     */
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${weeb.moderation.queue.lease-check-interval-ms:60000}")
+    public void reclaimExpiredLeases() {
+        try {
+            moderationQueueService.reclaimExpiredLeases();
+        } catch (Exception e) {
+            log.error("收回审核租约失败", e);
+        }
+    }
+}
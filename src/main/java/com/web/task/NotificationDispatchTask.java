@@ -0,0 +1,34 @@
+package com.web.task;
+
+import com.web.service.NotificationDispatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通知分发定时任务
+ * 批量写入排队的通知，并推送到期的摘要窗口
+ */
+@Slf4j
+@Component
+public class NotificationDispatchTask {
+
+    @Autowired
+    private NotificationDispatchService notificationDispatchService;
+
+    /**
+     * 刷写通知队列，默认每秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${weeb.notification.flush-interval-ms:1000}")
+    public void flush() {
+        try {
+            int written = notificationDispatchService.flush();
+            if (written > 0) {
+                log.debug("通知批量写入完成: count={}", written);
+            }
+        } catch (Exception e) {
+            log.error("通知分发失败", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.web.task;
+
+import com.web.service.SensitiveWordService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 敏感词表热加载任务
+ * 定期检查外部词表文件的修改时间，有变化时在本线程重建匹配器，检测请求始终使用已构建好的匹配器
+ */
+@Slf4j
+@Component
+public class SensitiveWordReloadTask {
+
+    @Autowired
+    private SensitiveWordService sensitiveWordService;
+
+    /**
+     * 检查外部词表变化，默认每30秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${weeb.moderation.reload-check-interval-ms:30000}")
+    public void reloadIfChanged() {
+        try {
+            if (sensitiveWordService.reloadIfChanged()) {
+                log.info("检测到外部敏感词表变化，已重新加载");
+            }
+        } catch (Exception e) {
+            log.error("热加载敏感词表失败", e);
+        }
+    }
+}
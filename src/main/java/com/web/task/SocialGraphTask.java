@@ -0,0 +1,61 @@
+package com.web.task;
+
+import com.web.service.SocialGraphService;
+import com.web.service.WebSocketConnectionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 社交图定时任务
+ * 定期从数据库全量重建社交图以校准增量更新，并为在线用户和近期请求过推荐的用户预计算好友推荐
+ */
+@Slf4j
+@Component
+public class SocialGraphTask {
+
+    @Autowired
+    private SocialGraphService socialGraphService;
+
+    @Autowired
+    private WebSocketConnectionService webSocketConnectionService;
+
+    /**
+     * 全量重建社交图
+     * 启动10秒后首次执行，默认每小时执行一次
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${weeb.social-graph.reload-interval-ms:3600000}")
+    public void reload() {
+        try {
+            socialGraphService.startReload();
+        } catch (Exception e) {
+            log.error("启动社交图重建失败", e);
+        }
+    }
+
+    /**
+     * 合并增量并预计算活跃用户的好友推荐
+     * 默认每5分钟执行一次
+     */
+    @Scheduled(initialDelay = 60000, fixedDelayString = "${weeb.social-graph.precompute-interval-ms:300000}")
+    public void precompute() {
+        try {
+            if (!socialGraphService.isReady()) {
+                return;
+            }
+            socialGraphService.compact();
+            Set<Long> userIds = new HashSet<>(webSocketConnectionService.getOnlineUserIds());
+            userIds.addAll(socialGraphService.drainRecentRequesters());
+            int done = socialGraphService.precomputeRecommendations(userIds);
+            if (done > 0) {
+                log.debug("预计算好友推荐完成: {}个用户", done);
+            }
+        } catch (Exception e) {
+            log.error("预计算好友推荐失败", e);
+        }
+    }
+}
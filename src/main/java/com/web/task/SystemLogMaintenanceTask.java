@@ -0,0 +1,49 @@
+package com.web.task;
+
+import com.web.service.SystemLogPartitionService;
+import com.web.service.SystemLogRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 系统日志维护任务
+ * 定期维护按天分区（提前建分区、删除过期分区）并增量刷新小时/天汇总表
+ */
+@Slf4j
+@Component
+public class SystemLogMaintenanceTask {
+
+    @Autowired
+    private SystemLogPartitionService systemLogPartitionService;
+
+    @Autowired
+    private SystemLogRollupService systemLogRollupService;
+
+    /**
+     * 维护分区并按保留期清理日志和汇总，默认每小时执行一次
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${weeb.system-log.partition.check-interval-ms:3600000}")
+    public void maintainPartitions() {
+        try {
+            systemLogPartitionService.ensurePartitions();
+            systemLogPartitionService.applyRetention();
+            systemLogRollupService.pruneRollups();
+        } catch (Exception e) {
+            log.error("维护系统日志分区失败", e);
+        }
+    }
+
+    /**
+     * 刷新日志汇总表，默认每分钟执行一次
+     */
+    @Scheduled(initialDelay = 45000, fixedDelayString = "${weeb.system-log.rollup.interval-ms:60000}")
+    public void rollup() {
+        try {
+            systemLogRollupService.rollup();
+        } catch (Exception e) {
+            log.error("刷新系统日志汇总失败", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.web.task;
+
+import com.web.service.TypeaheadIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 输入联想索引重建定时任务
+ * 启动后首次构建索引，之后定期全量重建以修正增量更新遗漏
+ */
+@Slf4j
+@Component
+public class TypeaheadIndexRebuildTask {
+
+    @Autowired
+    private TypeaheadIndexService typeaheadIndexService;
+
+    /**
+     * 全量重建输入联想索引
+     * 启动10秒后首次执行，默认每30分钟执行一次
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${weeb.search.typeahead.rebuild-interval-ms:1800000}")
+    public void rebuildIndex() {
+        try {
+            typeaheadIndexService.rebuild();
+        } catch (Exception e) {
+            log.error("重建输入联想索引失败", e);
+        }
+    }
+}
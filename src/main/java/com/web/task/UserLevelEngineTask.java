@@ -0,0 +1,67 @@
+package com.web.task;
+
+import com.web.service.UserLevelEngineService;
+import com.web.service.UserLevelService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户等级引擎定时任务
+ * 评估计数越过等级门槛的用户，并每天执行一次可续跑的全量重算
+ */
+@Slf4j
+@Component
+public class UserLevelEngineTask {
+
+    @Autowired
+    private UserLevelEngineService userLevelEngineService;
+
+    @Autowired
+    private UserLevelService userLevelService;
+
+    @Value("${weeb.user.level-engine.evaluate-batch-size:500}")
+    private int evaluateBatchSize;
+
+    /**
+     * 评估待升级用户，默认每5秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${weeb.user.level-engine.evaluate-interval-ms:5000}")
+    public void evaluatePending() {
+        Set<Long> userIds = userLevelEngineService.drainPendingEvaluations(evaluateBatchSize);
+        if (userIds.isEmpty()) {
+            return;
+        }
+        int upgraded = 0;
+        for (Long userId : userIds) {
+            try {
+                Map<String, Object> result = userLevelService.checkAndUpgradeUserLevel(userId);
+                if (Boolean.TRUE.equals(result.get("upgraded"))) {
+                    upgraded++;
+                }
+            } catch (Exception e) {
+                log.error("评估用户等级失败: userId={}", userId, e);
+            }
+        }
+        log.debug("用户等级评估完成: evaluated={}, upgraded={}", userIds.size(), upgraded);
+    }
+
+    /**
+     * 全量重算，默认每天凌晨4点30分执行；上次中断时从保存的游标继续
+     */
+    @Scheduled(cron = "${weeb.user.level-engine.resync-cron:0 30 4 * * ?}")
+    public void resync() {
+        try {
+            if (!userLevelEngineService.startResync(false)) {
+                log.info("用户等级全量重算仍在运行，跳过本次调度");
+            }
+        } catch (Exception e) {
+            log.error("启动用户等级全量重算失败", e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.web.util;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 只读取HTML头部的响应体订阅者
+ * 边接收边查找 </head>，找到或读满上限后立即取消订阅并关闭连接，不会把整页（或大文件）读入内存；
+ * 非2xx响应和非HTML内容不读取响应体，结果为null。
+ * 字符集优先取 Content-Type 头，其次取头部 meta charset，都没有时按UTF-8解码
+ */
+public final class HtmlHeadSubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private static final byte[] HEAD_END = "</head>".getBytes(StandardCharsets.US_ASCII);
+    private static final Pattern HEADER_CHARSET = Pattern.compile("charset=[\"']?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern META_CHARSET = Pattern.compile("<meta[^>]+charset=[\"']?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+
+    private final int maxBytes;
+    private final Charset declaredCharset;
+    private final ByteArrayOutputStream buffer;
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    // 已匹配的 </head> 前缀长度（模式中 '<' 只出现一次，失配时只需判断当前字节是否为 '<'）
+    private int matched;
+
+    private HtmlHeadSubscriber(int maxBytes, Charset declaredCharset) {
+        this.maxBytes = maxBytes;
+        this.declaredCharset = declaredCharset;
+        this.buffer = new ByteArrayOutputStream(Math.min(Math.max(maxBytes, 0), 16 * 1024));
+    }
+
+    /**
+     * 创建响应体处理器
+     * @param maxBytes 最多读取的字节数
+     * @return 响应体处理器，结果为头部HTML或null
+     */
+    public static HttpResponse.BodyHandler<String> handler(int maxBytes) {
+        return responseInfo -> {
+            String contentType = responseInfo.headers().firstValue("Content-Type").orElse(null);
+            boolean read = responseInfo.statusCode() >= 200 && responseInfo.statusCode() < 300 && isHtml(contentType);
+            return new HtmlHeadSubscriber(read ? maxBytes : 0, charsetOf(contentType));
+        };
+    }
+
+    /**
+     * 未声明类型或类型为HTML/XHTML时视为网页
+     */
+    public static boolean isHtml(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return true;
+        }
+        String lower = contentType.toLowerCase(Locale.ROOT);
+        return lower.contains("text/html") || lower.contains("application/xhtml");
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (maxBytes <= 0) {
+            subscription.cancel();
+            result.complete(null);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (result.isDone()) {
+            return;
+        }
+        for (ByteBuffer item : items) {
+            while (item.hasRemaining()) {
+                byte b = item.get();
+                buffer.write(b);
+                if (Character.toLowerCase((char) (b & 0xff)) == HEAD_END[matched]) {
+                    matched++;
+                } else {
+                    matched = b == '<' ? 1 : 0;
+                }
+                if (matched == HEAD_END.length || buffer.size() >= maxBytes) {
+                    subscription.cancel();
+                    finish();
+                    return;
+                }
+            }
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        finish();
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+        return result;
+    }
+
+    private void finish() {
+        if (result.isDone()) {
+            return;
+        }
+        byte[] bytes = buffer.toByteArray();
+        Charset charset = declaredCharset != null ? declaredCharset : sniffCharset(bytes);
+        result.complete(new String(bytes, charset));
+    }
+
+    private static Charset charsetOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        Matcher matcher = HEADER_CHARSET.matcher(contentType);
+        return matcher.find() ? lookup(matcher.group(1)) : null;
+    }
+
+    private static Charset sniffCharset(byte[] bytes) {
+        // 按单字节解码查找 meta charset，字符集名称本身都是ASCII
+        Matcher matcher = META_CHARSET.matcher(new String(bytes, StandardCharsets.ISO_8859_1));
+        Charset charset = matcher.find() ? lookup(matcher.group(1)) : null;
+        return charset != null ? charset : StandardCharsets.UTF_8;
+    }
+
+    private static Charset lookup(String name) {
+        try {
+            return Charset.isSupported(name) ? Charset.forName(name) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.web.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 压缩前缀树（Radix Trie）
+ * 用于输入联想：每个节点缓存子树内得分最高的 top-K 条目，前缀查询只需沿边下行一次即可返回结果
+ * 节点同时维护子树条目数，可作为前缀匹配总数的近似值，避免 COUNT(*) 查询
+ * 线程安全：读写锁保护，读多写少场景下查询互不阻塞
+ */
+public class PrefixTrie {
+
+    /**
+     * 索引条目（不可变）
+     */
+    public static final class Entry {
+        private final long id;
+        private final String label;
+        private final long score;
+
+        public Entry(long id, String label, long score) {
+            this.id = id;
+            this.label = label;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getScore() {
+            return score;
+        }
+    }
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    // 得分高者优先，同分时名称短者优先，再按ID保证稳定顺序
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry e) -> -e.score)
+            .thenComparingInt(e -> e.label == null ? Integer.MAX_VALUE : e.label.length())
+            .thenComparingLong(e -> e.id);
+
+    private static final class Node {
+        String edge;
+        Map<Character, Node> children;
+        Entry[] terminals = EMPTY;
+        int subtreeSize;
+        // 子树 top-K 缓存，null 表示失效，查询时惰性重算
+        volatile Entry[] topK = EMPTY;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        Node child(char c) {
+            return children == null ? null : children.get(c);
+        }
+
+        void putChild(Node child) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            children.put(child.edge.charAt(0), child);
+        }
+    }
+
+    private final Node root = new Node("");
+    private final int k;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int nodeCount = 1;
+
+    /**
+     * @param k 每个节点缓存的候选数量
+     */
+    public PrefixTrie(int k) {
+        this.k = Math.max(1, k);
+    }
+
+    /**
+     * 插入键与条目的映射
+     * @return 是否新增（同一键下已存在相同ID时返回false）
+     */
+    public boolean insert(String key, Entry entry) {
+        if (key == null || key.isEmpty() || entry == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            Node node = root;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                Node child = node.child(rest.charAt(0));
+                if (child == null) {
+                    child = new Node(rest);
+                    node.putChild(child);
+                    nodeCount++;
+                    path.add(child);
+                    node = child;
+                    rest = "";
+                    break;
+                }
+                int common = commonPrefixLength(child.edge, rest);
+                if (common < child.edge.length()) {
+                    // 分裂边：中间节点的子树与原子节点相同，top-K 缓存可直接复用
+                    Node mid = new Node(child.edge.substring(0, common));
+                    child.edge = child.edge.substring(common);
+                    mid.putChild(child);
+                    mid.subtreeSize = child.subtreeSize;
+                    mid.topK = child.topK;
+                    node.putChild(mid);
+                    nodeCount++;
+                    child = mid;
+                }
+                path.add(child);
+                node = child;
+                rest = rest.substring(common);
+            }
+
+            for (Entry existing : node.terminals) {
+                if (existing.id == entry.id) {
+                    return false;
+                }
+            }
+            Entry[] terminals = Arrays.copyOf(node.terminals, node.terminals.length + 1);
+            terminals[terminals.length - 1] = entry;
+            node.terminals = terminals;
+
+            for (Node n : path) {
+                n.subtreeSize++;
+                n.topK = mergeTopK(n.topK, entry);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除键下指定ID的条目
+     * @return 是否删除成功
+     */
+    public boolean remove(String key, long id) {
+        if (key == null || key.isEmpty()) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            Node node = root;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                Node child = node.child(rest.charAt(0));
+                if (child == null || !rest.startsWith(child.edge)) {
+                    return false;
+                }
+                path.add(child);
+                node = child;
+                rest = rest.substring(child.edge.length());
+            }
+
+            int index = -1;
+            for (int i = 0; i < node.terminals.length; i++) {
+                if (node.terminals[i].id == id) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return false;
+            }
+            Entry[] terminals = new Entry[node.terminals.length - 1];
+            System.arraycopy(node.terminals, 0, terminals, 0, index);
+            System.arraycopy(node.terminals, index + 1, terminals, index, terminals.length - index);
+            node.terminals = terminals;
+
+            for (Node n : path) {
+                n.subtreeSize--;
+                Entry[] cached = n.topK;
+                if (cached != null && containsId(cached, id)) {
+                    n.topK = null;
+                }
+            }
+
+            // 自底向上剪除空节点
+            for (int i = path.size() - 1; i > 0; i--) {
+                Node n = path.get(i);
+                if (n.subtreeSize > 0) {
+                    break;
+                }
+                path.get(i - 1).children.remove(n.edge.charAt(0));
+                nodeCount--;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询前缀下得分最高的条目（按ID去重）
+     * @param prefix 前缀
+     * @param limit 返回数量，不超过K时直接命中节点缓存
+     */
+    public List<Entry> topK(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = locate(prefix);
+            if (node == null) {
+                return List.of();
+            }
+            if (limit <= k) {
+                Entry[] cached = node.topK;
+                if (cached == null) {
+                    // 并发读者可能重复计算，但结果确定且数组不可变，直接覆盖即可
+                    cached = collectTopK(node, k);
+                    node.topK = cached;
+                }
+                return List.of(Arrays.copyOf(cached, Math.min(limit, cached.length)));
+            }
+            return List.of(collectTopK(node, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 前缀下的条目数（同一条目若有多个键命中会被重复计数，因此是近似值）
+     */
+    public int countPrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = locate(prefix);
+            return node == null ? 0 : node.subtreeSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return root.subtreeSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== 内部方法 ====================
+
+    /**
+     * 定位覆盖前缀的节点；前缀终止于某条边中间时返回该边的子节点
+     */
+    private Node locate(String prefix) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null) {
+                return null;
+            }
+            if (rest.length() <= child.edge.length()) {
+                return child.edge.startsWith(rest) ? child : null;
+            }
+            if (!rest.startsWith(child.edge)) {
+                return null;
+            }
+            node = child;
+            rest = rest.substring(child.edge.length());
+        }
+        return node;
+    }
+
+    private Entry[] mergeTopK(Entry[] current, Entry entry) {
+        if (current == null || containsId(current, entry.id)) {
+            return current;
+        }
+        if (current.length == k && RANKING.compare(entry, current[k - 1]) >= 0) {
+            return current;
+        }
+        Entry[] merged = Arrays.copyOf(current, Math.min(k, current.length + 1));
+        merged[merged.length - 1] = entry;
+        Arrays.sort(merged, RANKING);
+        return merged;
+    }
+
+    private Entry[] collectTopK(Node start, int limit) {
+        // 小顶堆保留最优的limit个条目
+        PriorityQueue<Entry> heap = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        Set<Long> seen = new HashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            for (Entry e : node.terminals) {
+                if (!seen.add(e.id)) {
+                    continue;
+                }
+                heap.offer(e);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            if (node.children != null) {
+                node.children.values().forEach(stack::push);
+            }
+        }
+        Entry[] result = heap.toArray(EMPTY);
+        Arrays.sort(result, RANKING);
+        return result;
+    }
+
+    private static boolean containsId(Entry[] entries, long id) {
+        for (Entry e : entries) {
+            if (e.id == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,392 @@
+package com.web.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 敏感词多模式匹配器（Aho-Corasick 自动机）
+ * 一次扫描即可找出文本中所有敏感词，耗时与文本长度线性相关，与词表大小无关；
+ * 匹配前逐字符归一化：全角转半角（NFKC）、忽略大小写、繁体转简体，可选跳过空白和符号（如“赌*博”），
+ * 归一化按UTF-16单元一对一映射，命中位置对应原文下标。
+ * 实例构建后不可变，可被多个线程同时使用；词表变更时整体重建并替换引用
+ */
+@Slf4j
+public final class SensitiveWordMatcher {
+
+    /**
+     * 一次命中（原文中的 [start, end) 区间）
+     */
+    public static final class Match {
+        private final String word;
+        private final int start;
+        private final int end;
+
+        public Match(String word, int start, int end) {
+            this.word = word;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+    }
+
+    private static final String VARIANTS_RESOURCE = "moderation/zh-variants.txt";
+    private static final char SKIP = '\0';
+
+    // 字符归一化表：FOLD 保留符号，FOLD_SKIP 把空白、标点、符号、格式控制字符映射为 SKIP
+    private static final char[] FOLD = new char[Character.MAX_VALUE + 1];
+    private static final char[] FOLD_SKIP = new char[Character.MAX_VALUE + 1];
+
+    static {
+        Map<Character, Character> variants = loadVariants();
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char folded = (char) c;
+            if (!Character.isSurrogate((char) c)) {
+                String nfkc = Normalizer.normalize(String.valueOf((char) c), Normalizer.Form.NFKC);
+                if (nfkc.length() == 1) {
+                    folded = nfkc.charAt(0);
+                }
+                folded = Character.toLowerCase(folded);
+                folded = variants.getOrDefault(folded, folded);
+            }
+            FOLD[c] = folded;
+            FOLD_SKIP[c] = isIgnorable(folded) ? SKIP : folded;
+        }
+    }
+
+    private static final SensitiveWordMatcher EMPTY = new SensitiveWordMatcher(new ArrayList<>(), true);
+
+    private final boolean skipSymbols;
+    private final char[] fold;
+    private final String[] words;
+    private final int maxDepth;
+
+    // 根节点的直接跳转表（绝大多数字符在根节点失配，查表即可）
+    private final int[] rootNext;
+    // 其余节点的子节点：childKeys/childTargets 的 [childStart[s], childStart[s+1]) 段，按字符升序
+    private final int[] childStart;
+    private final char[] childKeys;
+    private final int[] childTargets;
+    private final int[] fail;
+    private final int[] depth;
+    // 节点对应的词下标（-1表示非词尾）；outLink 指向失配链上下一个词尾节点
+    private final int[] output;
+    private final int[] outLink;
+
+    /**
+     * 根据词表构建匹配器
+     * @param words 敏感词（归一化后为空的词会被忽略，归一化后重复的词保留第一个）
+     * @param skipSymbols 是否跳过空白和符号
+     * @return 匹配器
+     */
+    public static SensitiveWordMatcher build(Collection<String> words, boolean skipSymbols) {
+        return new SensitiveWordMatcher(words, skipSymbols);
+    }
+
+    /**
+     * 空匹配器，不命中任何文本
+     */
+    public static SensitiveWordMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 读取类路径下的词表文件
+     * @param resource 资源路径
+     * @return 词列表；文件不存在或读取失败时为空
+     */
+    public static List<String> loadWords(String resource) {
+        List<String> words = new ArrayList<>();
+        try (InputStream in = SensitiveWordMatcher.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                log.warn("未找到敏感词表: {}", resource);
+                return words;
+            }
+            readWords(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), words);
+        } catch (IOException e) {
+            log.error("读取敏感词表失败: {}", resource, e);
+        }
+        return words;
+    }
+
+    /**
+     * 读取词表：每行一个词，忽略空行和#开头的注释
+     */
+    public static void readWords(BufferedReader reader, List<String> words) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                words.add(line);
+            }
+        }
+    }
+
+    /**
+     * 按匹配规则归一化文本（用于词表去重和排查）
+     */
+    public static String normalize(CharSequence text, boolean skipSymbols) {
+        char[] table = skipSymbols ? FOLD_SKIP : FOLD;
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = table[text.charAt(i)];
+            if (c != SKIP) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private SensitiveWordMatcher(Collection<String> source, boolean skipSymbols) {
+        this.skipSymbols = skipSymbols;
+        this.fold = skipSymbols ? FOLD_SKIP : FOLD;
+
+        // 构建期用 TreeMap 保存子节点，完成后冻结为紧凑数组
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        children.add(new TreeMap<>());
+        outputs.add(-1);
+        depths.add(0);
+
+        List<String> accepted = new ArrayList<>();
+        Set<String> seen = new LinkedHashSet<>();
+        int longest = 1;
+        for (String word : source) {
+            if (word == null) {
+                continue;
+            }
+            String key = normalize(word.trim(), skipSymbols);
+            if (key.isEmpty() || !seen.add(key)) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    outputs.add(-1);
+                    depths.add(i + 1);
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            outputs.set(node, accepted.size());
+            accepted.add(word.trim());
+            longest = Math.max(longest, key.length());
+        }
+
+        int nodeCount = children.size();
+        this.words = accepted.toArray(new String[0]);
+        this.maxDepth = longest;
+        this.rootNext = new int[Character.MAX_VALUE + 1];
+        this.childStart = new int[nodeCount + 1];
+        this.depth = new int[nodeCount];
+        this.output = new int[nodeCount];
+        int edgeCount = 0;
+        for (int s = 0; s < nodeCount; s++) {
+            childStart[s] = edgeCount;
+            edgeCount += s == 0 ? 0 : children.get(s).size();
+            depth[s] = depths.get(s);
+            output[s] = outputs.get(s);
+        }
+        childStart[nodeCount] = edgeCount;
+        this.childKeys = new char[edgeCount];
+        this.childTargets = new int[edgeCount];
+        for (int s = 1; s < nodeCount; s++) {
+            int k = childStart[s];
+            for (Map.Entry<Character, Integer> edge : children.get(s).entrySet()) {
+                childKeys[k] = edge.getKey();
+                childTargets[k++] = edge.getValue();
+            }
+        }
+        for (Map.Entry<Character, Integer> edge : children.get(0).entrySet()) {
+            rootNext[edge.getKey()] = edge.getValue();
+        }
+
+        // 广度优先计算失配链与输出链
+        this.fail = new int[nodeCount];
+        this.outLink = new int[nodeCount];
+        Arrays.fill(outLink, -1);
+        Deque<Integer> queue = new ArrayDeque<>(children.get(0).values());
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (Map.Entry<Character, Integer> edge : children.get(s).entrySet()) {
+                int t = edge.getValue();
+                int f = next(fail[s], edge.getKey());
+                fail[t] = f;
+                outLink[t] = output[f] >= 0 ? f : outLink[f];
+                queue.add(t);
+            }
+        }
+    }
+
+    /**
+     * 文本中是否包含任一敏感词（命中即返回）
+     */
+    public boolean containsAny(CharSequence text) {
+        if (text == null || words.length == 0) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold[text.charAt(i)];
+            if (c == SKIP) {
+                continue;
+            }
+            state = next(state, c);
+            if (output[state] >= 0 || outLink[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 找出所有命中（含重叠命中），按结束位置升序
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        if (text == null || words.length == 0) {
+            return matches;
+        }
+        // 最近 maxDepth 个未跳过字符的原文下标，用于还原命中起点
+        int[] recent = new int[maxDepth];
+        int counted = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold[text.charAt(i)];
+            if (c == SKIP) {
+                continue;
+            }
+            recent[counted % maxDepth] = i;
+            counted++;
+            state = next(state, c);
+            for (int s = output[state] >= 0 ? state : outLink[state]; s >= 0; s = outLink[s]) {
+                int start = recent[(counted - depth[s]) % maxDepth];
+                matches.add(new Match(words[output[s]], start, i + 1));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * 找出命中的敏感词（去重，按首次出现顺序）
+     */
+    public List<String> findWords(CharSequence text) {
+        Set<String> found = new LinkedHashSet<>();
+        for (Match match : findAll(text)) {
+            found.add(match.getWord());
+        }
+        return new ArrayList<>(found);
+    }
+
+    public int getWordCount() {
+        return words.length;
+    }
+
+    public int getNodeCount() {
+        return depth.length;
+    }
+
+    public boolean isSkipSymbols() {
+        return skipSymbols;
+    }
+
+    private int next(int state, char c) {
+        while (state != 0) {
+            int from = childStart[state];
+            int to = childStart[state + 1];
+            if (to > from) {
+                int index = Arrays.binarySearch(childKeys, from, to, c);
+                if (index >= 0) {
+                    return childTargets[index];
+                }
+            }
+            state = fail[state];
+        }
+        return rootNext[c];
+    }
+
+    private static boolean isIgnorable(char c) {
+        if (c == SKIP || Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+            return true;
+        }
+        switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+            case Character.MATH_SYMBOL:
+            case Character.CURRENCY_SYMBOL:
+            case Character.MODIFIER_SYMBOL:
+            case Character.OTHER_SYMBOL:
+            case Character.FORMAT:
+            case Character.CONTROL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 加载繁简对照表：每行若干“繁简”两字组合，以空白分隔，#开头为注释
+     */
+    private static Map<Character, Character> loadVariants() {
+        Map<Character, Character> variants = new HashMap<>();
+        try (InputStream in = SensitiveWordMatcher.class.getClassLoader().getResourceAsStream(VARIANTS_RESOURCE)) {
+            if (in == null) {
+                log.warn("未找到繁简对照表: {}", VARIANTS_RESOURCE);
+                return variants;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                for (String pair : line.split("\\s+")) {
+                    if (pair.length() == 2) {
+                        variants.put(pair.charAt(0), pair.charAt(1));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("加载繁简对照表失败: {}", e.getMessage());
+        }
+        return variants;
+    }
+}
@@ -0,0 +1,41 @@
+package com.web.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ * 用于把缓存失效、索引更新等副作用推迟到事务提交之后，避免回滚数据或提交前的旧数据被重新缓存
+ */
+@Slf4j
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    /**
+     * 在当前事务提交后执行任务；无事务时立即执行
+     * 任务异常只记录日志，不影响调用方
+     * @param task 任务
+     */
+    public static void afterCommit(Runnable task) {
+        Runnable guarded = () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.warn("事务提交后任务执行失败: {}", e.getMessage(), e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+}
@@ -14,6 +14,13 @@ import java.util.regex.Pattern;
 @Slf4j
 public class ValidationUtils {
 
+    // 字段校验用的窄词表：聊天消息、评论、昵称、标题等普通输入只拦截明确的违规词，
+    // 审核用的完整词表（含“政治”“恐怖”等单独出现的词）由 SensitiveWordService 负责
+    private static final String FIELD_WORDS = "moderation/field-sensitive-words.txt";
+
+    private static final SensitiveWordMatcher FIELD_WORD_MATCHER =
+        SensitiveWordMatcher.build(SensitiveWordMatcher.loadWords(FIELD_WORDS), false);
+
     /**
      * 验证用户名
      */
@@ -196,20 +203,7 @@ public class ValidationUtils {
      * 检查是否包含敏感词
      */
     private static boolean containsSensitiveWords(String content) {
-        // 简单的敏感词检查，实际项目中应该使用更完善的敏感词库
-        String[] sensitiveWords = {
-            "垃圾", "诈骗", "赌博", "色情", "暴力", "毒品", "恐怖主义",
-            "政治敏感", "违法", "违规", "不良信息"
-        };
-        
-        String lowerContent = content.toLowerCase();
-        for (String word : sensitiveWords) {
-            if (lowerContent.contains(word)) {
-                return true;
-            }
-        }
-        
-        return false;
+        return FIELD_WORD_MATCHER.containsAny(content);
     }
 
     /**
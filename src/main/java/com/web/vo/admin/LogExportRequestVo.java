@@ -0,0 +1,50 @@
+package com.web.vo.admin;
+
+import lombok.Data;
+
+/**
+ * 系统日志导出请求VO
+ */
+@Data
+public class LogExportRequestVo {
+
+    /**
+     * 导出格式：csv, ndjson(每行一个JSON对象), json(JSON数组)
+     */
+    private String format = "csv";
+
+    /**
+     * 是否gzip压缩（文件名追加 .gz）
+     */
+    private Boolean gzip = false;
+
+    /**
+     * 开始日期（可选，格式：yyyy-MM-dd，包含当天）
+     */
+    private String startDate;
+
+    /**
+     * 结束日期（可选，格式：yyyy-MM-dd，包含当天）
+     */
+    private String endDate;
+
+    /**
+     * 操作者ID（可选）
+     */
+    private Long operatorId;
+
+    /**
+     * 操作类型（可选）
+     */
+    private String action;
+
+    /**
+     * IP地址（可选）
+     */
+    private String ipAddress;
+
+    /**
+     * 关键词（可选，搜索操作详情和操作类型）
+     */
+    private String keyword;
+}
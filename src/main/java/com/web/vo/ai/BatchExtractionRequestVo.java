@@ -0,0 +1,25 @@
+package com.web.vo.ai;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量提取（标签、关键词）请求VO
+ */
+@Data
+public class BatchExtractionRequestVo {
+
+    @NotEmpty(message = "内容列表不能为空")
+    @Size(max = 50, message = "单次最多处理50条内容")
+    private List<@NotBlank(message = "内容不能为空") @Size(max = 10000, message = "内容长度不能超过10000个字符") String> contents;
+
+    @Min(value = 1, message = "提取数量最少为1个")
+    @Max(value = 15, message = "提取数量最多为15个")
+    private Integer count = 5;
+}
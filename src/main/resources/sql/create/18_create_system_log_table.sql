@@ -1,5 +1,7 @@
 -- 系统操作日志表
 -- 用于记录系统管理员的操作日志，便于审计和追踪
+-- 按天分区（RANGE TO_DAYS(created_at)）：初始只有 p_future，开启 weeb.system-log.partition.enabled 后按天的分区由 SystemLogPartitionService 提前创建，
+-- 过期数据按整个分区删除；分区键必须包含在主键中，因此主键为 (id, created_at)
 
 CREATE TABLE IF NOT EXISTS `system_logs` (
     `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '日志ID',
@@ -7,10 +9,13 @@ CREATE TABLE IF NOT EXISTS `system_logs` (
     `action` VARCHAR(100) NOT NULL COMMENT '操作类型 (e.g., BAN_USER, CREATE_ROLE)',
     `details` TEXT COMMENT '操作详情',
     `ip_address` VARCHAR(45) COMMENT '操作员IP地址',
-    `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    PRIMARY KEY (`id`),
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`, `created_at`),
     KEY `idx_operator_id` (`operator_id`),
     KEY `idx_action` (`action`),
     KEY `idx_created_at` (`created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
-COMMENT='系统操作日志表';
\ No newline at end of file
+COMMENT='系统操作日志表'
+PARTITION BY RANGE (TO_DAYS(`created_at`)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
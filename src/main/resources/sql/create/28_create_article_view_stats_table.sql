@@ -0,0 +1,11 @@
+-- 文章浏览统计表
+-- Description: 存储由Redis HyperLogLog定期汇总的文章独立访客数，原始阅读数仍保存在articles.exposure_count
+
+CREATE TABLE IF NOT EXISTS `article_view_stats` (
+    `article_id` BIGINT NOT NULL COMMENT '文章ID',
+    `unique_views` BIGINT DEFAULT 0 COMMENT '独立访客数（HyperLogLog估算值，误差约0.81%）',
+    `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最后汇总时间',
+    PRIMARY KEY (`article_id`),
+    CONSTRAINT `fk_view_stats_article` FOREIGN KEY (`article_id`) REFERENCES `articles` (`article_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='文章浏览统计表';
@@ -0,0 +1,19 @@
+-- 系统日志表分区迁移
+-- 把已有的未分区 system_logs 表转换为按天分区表（RANGE TO_DAYS(created_at)），与 create/18_create_system_log_table.sql 的结构一致
+-- 注意：第二、三条语句都会重建整表，数据量大时耗时较长，请先备份并在低峰期手动执行；已分区的表不要重复执行
+-- 转换后只有 p_future 一个分区，开启 weeb.system-log.partition.enabled 后由 SystemLogPartitionService 按天拆分，
+-- 保留期之前的旧数据会放入 p_history
+
+-- 分区列不能为空，先补齐缺失的创建时间
+UPDATE `system_logs` SET `created_at` = NOW() WHERE `created_at` IS NULL;
+
+-- 分区键必须包含在主键中，主键改为 (id, created_at)
+ALTER TABLE `system_logs`
+    MODIFY `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `created_at`);
+
+ALTER TABLE `system_logs`
+PARTITION BY RANGE (TO_DAYS(`created_at`)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,126 @@
+package com.web.benchmark;
+
+import com.web.util.SensitiveWordMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 敏感词检测基准测试
+ * 对比原 ArticleModerationService 的做法（逐词 String.contains 找词，再逐词编译 Pattern 找位置）
+ * 与 SensitiveWordMatcher 一次扫描同时得到词和位置。
+ * 词表为内置词表加上 1000 个随机生成的三字词；文本为固定种子的随机汉字，每 500 字夹带一个内置敏感词。
+ *
+ * 运行：mvn test-compile 后执行本类的 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SensitiveWordMatcherBenchmark {
+
+    private static final int SYNTHETIC_WORDS = 1000;
+    private static final int WORD_INTERVAL = 500;
+
+    /**
+     * 输入大小（字符数）：1 KB / 100 KB / 1 MB
+     */
+    @Param({"1024", "102400", "1048576"})
+    public int size;
+
+    private List<String> words;
+    private SensitiveWordMatcher matcher;
+    private String text;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<String> builtin = SensitiveWordMatcher.loadWords("moderation/sensitive-words.txt");
+        Set<String> wordSet = new LinkedHashSet<>(builtin);
+        while (wordSet.size() < builtin.size() + SYNTHETIC_WORDS) {
+            wordSet.add(randomChinese(random, 3));
+        }
+        words = new ArrayList<>(wordSet);
+        matcher = SensitiveWordMatcher.build(words, true);
+
+        StringBuilder sb = new StringBuilder(size);
+        while (sb.length() < size) {
+            sb.append(randomChinese(random, WORD_INTERVAL));
+            if (!builtin.isEmpty()) {
+                sb.append(builtin.get(random.nextInt(builtin.size())));
+            }
+        }
+        text = sb.substring(0, size);
+    }
+
+    @Benchmark
+    public int legacyContainsAndPattern() {
+        List<String> found = new ArrayList<>();
+        for (String word : words) {
+            if (text.contains(word)) {
+                found.add(word);
+            }
+        }
+        List<Map<String, Object>> positions = new ArrayList<>();
+        for (String word : words) {
+            Matcher m = Pattern.compile(Pattern.quote(word)).matcher(text);
+            while (m.find()) {
+                Map<String, Object> position = new HashMap<>();
+                position.put("word", word);
+                position.put("start", m.start());
+                position.put("end", m.end());
+                positions.add(position);
+            }
+        }
+        return found.size() + positions.size();
+    }
+
+    @Benchmark
+    public int ahoCorasick() {
+        List<SensitiveWordMatcher.Match> matches = matcher.findAll(text);
+        Set<String> found = new LinkedHashSet<>();
+        for (SensitiveWordMatcher.Match match : matches) {
+            found.add(match.getWord());
+        }
+        return found.size() + matches.size();
+    }
+
+    private static String randomChinese(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            // 常用汉字区间 U+4E00 ~ U+62FF
+            chars[i] = (char) (0x4E00 + random.nextInt(0x1500));
+        }
+        return new String(chars);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SensitiveWordMatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
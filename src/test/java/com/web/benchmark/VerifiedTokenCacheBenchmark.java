@@ -0,0 +1,95 @@
+package com.web.benchmark;
+
+import com.web.service.Impl.VerifiedTokenCacheServiceImpl;
+import com.web.service.VerifiedTokenCacheService;
+import com.web.util.JwtUtil;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 认证路径基准测试
+ * 对比已验证令牌缓存命中（一次SHA-256加一次缓存查找）与原来的完整验证路径
+ * （validateToken、getUserIdFromToken、extractUsername 三次解析验签，再按用户ID查用户）。
+ * 完整路径中的用户查询用内存Map代替数据库，实际差距还要加上一次数据库往返。
+ *
+ * 运行：mvn test-compile 后执行本类的 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VerifiedTokenCacheBenchmark {
+
+    private static final long USER_ID = 10001L;
+    private static final String USERNAME = "benchmark_user";
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCacheServiceImpl tokenCache;
+    private Map<Long, UserDetails> users;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "Benchmark-Secret-Key-0123456789-abcdefghij!");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        jwtUtil.init();
+        token = jwtUtil.generateToken(USER_ID, USERNAME);
+
+        UserDetails user = User.withUsername(USERNAME).password("").roles("USER").build();
+        users = Map.of(USER_ID, user);
+
+        tokenCache = new VerifiedTokenCacheServiceImpl();
+        ReflectionTestUtils.setField(tokenCache, "maxTtlSeconds", 300L);
+        ReflectionTestUtils.setField(tokenCache, "maxSize", 100000L);
+        ReflectionTestUtils.setField(tokenCache, "redisMessageListenerContainer",
+                Mockito.mock(RedisMessageListenerContainer.class));
+        tokenCache.init();
+        tokenCache.put(token, new VerifiedTokenCacheService.VerifiedToken(USER_ID, USERNAME, user,
+                System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+    }
+
+    @Benchmark
+    public UserDetails cachedLookup() {
+        VerifiedTokenCacheService.VerifiedToken verified = tokenCache.get(token);
+        return verified != null ? verified.getUserDetails() : null;
+    }
+
+    @Benchmark
+    public UserDetails fullVerification() {
+        if (!jwtUtil.validateToken(token)) {
+            return null;
+        }
+        Long userId = jwtUtil.getUserIdFromToken(token);
+        UserDetails user = users.get(userId);
+        String tokenUsername = jwtUtil.extractUsername(token);
+        return user != null && user.getUsername().equals(tokenUsername) ? user : null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VerifiedTokenCacheBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}